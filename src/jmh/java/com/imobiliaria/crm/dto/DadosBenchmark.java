@@ -0,0 +1,98 @@
+package com.imobiliaria.crm.dto;
+
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Corretor;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imagem;
+import com.imobiliaria.crm.model.Imovel;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Massa de dados dos benchmarks, com a forma presumida de um anúncio completo do catálogo.
+ */
+final class DadosBenchmark {
+
+    // Valores supostos como representativos, não medidos nos anúncios publicados; ajuste-os
+    // se uma medição do catálogo indicar outras quantidades
+    static final int IMAGENS_POR_IMOVEL = 12;
+    static final int CARACTERISTICAS_POR_IMOVEL = 10;
+
+    private DadosBenchmark() {
+    }
+
+    static Corretor corretor() {
+        Corretor corretor = new Corretor();
+        corretor.setId(7L);
+        corretor.setNome("Mariana Souza Lima");
+        corretor.setCpf("123.456.789-00");
+        corretor.setEmail("mariana.lima@imobiliaria.com.br");
+        corretor.setTelefone("(41) 99876-5432");
+        corretor.setCreci("12345-F");
+        corretor.setDataCadastro(LocalDateTime.of(2023, 3, 14, 9, 30));
+        corretor.setAtivo(true);
+        return corretor;
+    }
+
+    static Imovel imovel(long id, Corretor corretor) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Comendador Araújo, 1234");
+        endereco.setComplemento("Apto 802");
+        endereco.setBairro("Batel");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+        endereco.setCep("80420-000");
+
+        Imovel imovel = new Imovel();
+        imovel.setId(id);
+        imovel.setCodigo("AP-" + id);
+        imovel.setTipo("Apartamento");
+        imovel.setFinalidade("VENDA");
+        imovel.setStatus("DISPONIVEL");
+        imovel.setEndereco(endereco);
+        imovel.setPreco(new BigDecimal("890000.00"));
+        imovel.setValorCondominio(new BigDecimal("1250.00"));
+        imovel.setValorIptu(new BigDecimal("3200.00"));
+        imovel.setAreaTotal(new BigDecimal("142.50"));
+        imovel.setAreaUtil(new BigDecimal("118.00"));
+        imovel.setQuartos(3);
+        imovel.setSuites(1);
+        imovel.setBanheiros(2);
+        imovel.setVagasGaragem(2);
+        imovel.setAnoConstrucao(2015);
+        imovel.setDescricao("Apartamento amplo, face norte, com sacada gourmet, churrasqueira e vista "
+                + "para o parque. Condomínio com piscina aquecida, academia e salão de festas.");
+        imovel.setPublicado(true);
+        imovel.setDataCadastro(LocalDateTime.of(2024, 5, 2, 14, 0));
+        imovel.setDataAtualizacao(LocalDateTime.of(2024, 9, 18, 10, 45));
+        imovel.setCorretor(corretor);
+
+        List<Imagem> imagens = new ArrayList<>(IMAGENS_POR_IMOVEL);
+        for (int i = 0; i < IMAGENS_POR_IMOVEL; i++) {
+            Imagem imagem = new Imagem();
+            imagem.setId(id * 100 + i);
+            imagem.setImovel(imovel);
+            imagem.setUrl("https://cdn.imobiliaria.com.br/imoveis/" + id + "/" + i + ".jpg");
+            imagem.setLegenda("Foto " + (i + 1));
+            imagem.setOrdem(i);
+            imagem.setDataUpload(LocalDateTime.of(2024, 5, 2, 14, 5));
+            imagens.add(imagem);
+        }
+        imovel.setImagens(imagens);
+
+        Set<Caracteristica> caracteristicas = new HashSet<>();
+        for (int i = 0; i < CARACTERISTICAS_POR_IMOVEL; i++) {
+            Caracteristica caracteristica = new Caracteristica();
+            caracteristica.setId((long) i + 1);
+            caracteristica.setNome("Característica " + (i + 1));
+            caracteristicas.add(caracteristica);
+        }
+        imovel.setCaracteristicas(caracteristicas);
+        return imovel;
+    }
+}
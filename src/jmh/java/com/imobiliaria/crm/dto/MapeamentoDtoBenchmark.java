@@ -0,0 +1,61 @@
+package com.imobiliaria.crm.dto;
+
+import com.imobiliaria.crm.model.Corretor;
+import com.imobiliaria.crm.model.Imovel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões entidade ↔ DTO executadas em toda requisição de imóveis e corretores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapeamentoDtoBenchmark {
+
+    private Imovel imovel;
+    private ImovelDTO imovelDTO;
+    private Corretor corretor;
+    private CorretorDTO corretorDTO;
+
+    @Setup
+    public void setUp() {
+        corretor = DadosBenchmark.corretor();
+        imovel = DadosBenchmark.imovel(1L, corretor);
+        imovelDTO = ImovelDTO.fromEntity(imovel);
+        corretorDTO = CorretorDTO.fromEntity(corretor);
+    }
+
+    @Benchmark
+    public ImovelDTO imovelFromEntity() {
+        return ImovelDTO.fromEntity(imovel);
+    }
+
+    @Benchmark
+    public Imovel imovelToEntity() {
+        return imovelDTO.toEntity();
+    }
+
+    @Benchmark
+    public CorretorDTO corretorFromEntity() {
+        return CorretorDTO.fromEntity(corretor);
+    }
+
+    @Benchmark
+    public Corretor corretorToEntity() {
+        return corretorDTO.toEntity();
+    }
+}
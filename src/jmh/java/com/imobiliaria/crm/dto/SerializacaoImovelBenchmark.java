@@ -0,0 +1,55 @@
+package com.imobiliaria.crm.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.imobiliaria.crm.model.Corretor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de páginas de ImovelDTO, com o ObjectMapper configurado como na aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializacaoImovelBenchmark {
+
+    // Tamanho padrão e máximo da paginação da listagem
+    @Param({"20", "100"})
+    private int tamanhoPagina;
+
+    private ObjectWriter writer;
+    private List<ImovelDTO> pagina;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        Corretor corretor = DadosBenchmark.corretor();
+        pagina = new ArrayList<>(tamanhoPagina);
+        for (int i = 0; i < tamanhoPagina; i++) {
+            pagina.add(ImovelDTO.fromEntity(DadosBenchmark.imovel(i + 1L, corretor)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws JsonProcessingException {
+        return writer.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,48 @@
+package com.imobiliaria.crm.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validações de formato de CPF e e-mail feitas a cada cadastro/atualização de corretor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ValidacaoCorretorBenchmark {
+
+    // Entradas válidas e inválidas percorrem caminhos diferentes no regex
+    @State(Scope.Benchmark)
+    public static class Cpf {
+        @Param({"123.456.789-00", "12345678900"})
+        String valor;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Email {
+        @Param({"mariana.lima@imobiliaria.com.br", "mariana.lima#imobiliaria"})
+        String valor;
+    }
+
+    @Benchmark
+    public boolean validarCpf(Cpf cpf) {
+        return CorretorServiceImpl.isValidCpf(cpf.valor);
+    }
+
+    @Benchmark
+    public boolean validarEmail(Email email) {
+        return CorretorServiceImpl.isValidEmail(email.valor);
+    }
+}
@@ -0,0 +1,87 @@
+package com.imobiliaria.crm.config;
+
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Corretor;
+import com.imobiliaria.crm.repository.CorretorRepository;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cria o CacheManager JCache (Ehcache) usado como cache de segundo nível do Hibernate,
+ * com tamanho e expiração de cada região definidos em {@link CacheSegundoNivelProperties}.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheSegundoNivelProperties.class)
+public class CacheSegundoNivelConfig {
+
+    // Região de timestamps usada pelo Hibernate para invalidar o cache de consultas: nunca deve expirar
+    static final String REGIAO_TIMESTAMPS = "default-update-timestamps-region";
+    static final String REGIAO_CONSULTAS_PADRAO = "default-query-results-region";
+
+    /**
+     * O CacheManager padrão do provider é compartilhado por todos os contextos do mesmo classloader
+     * (contextos de teste em cache, contextos pai/filho); fechá-lo no encerramento de um contexto
+     * quebraria o cache dos outros. Cada contexto cria o seu, com um URI próprio, e fecha só ele.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(CacheSegundoNivelProperties properties) {
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        ClassLoader classLoader = getClass().getClassLoader();
+        CacheManager cacheManager = provider.getCacheManager(URI.create("urn:crm:cache-segundo-nivel:" + UUID.randomUUID()),
+                new DefaultConfiguration(classLoader));
+
+        Map<String, CacheSegundoNivelProperties.Regiao> regioes = new LinkedHashMap<>();
+        for (String nome : new String[]{Corretor.REGIAO_CACHE, Caracteristica.REGIAO_CACHE,
+                CorretorRepository.REGIAO_CACHE_POR_ATIVO, REGIAO_CONSULTAS_PADRAO}) {
+            regioes.put(nome, new CacheSegundoNivelProperties.Regiao());
+        }
+        CacheSegundoNivelProperties.Regiao timestamps = new CacheSegundoNivelProperties.Regiao();
+        timestamps.setPoliticaExpiracao(CacheSegundoNivelProperties.PoliticaExpiracao.NENHUMA);
+        timestamps.setTamanhoMaximo(10_000);
+        regioes.put(REGIAO_TIMESTAMPS, timestamps);
+        regioes.putAll(properties.getRegioes());
+
+        regioes.forEach((nome, regiao) -> {
+            if (cacheManager.getCache(nome) == null) {
+                cacheManager.createCache(nome, Eh107Configuration.fromEhcacheCacheConfiguration(configuracao(nome, regiao)));
+            }
+            cacheManager.enableStatistics(nome, properties.isEstatisticas());
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager cacheManagerSegundoNivel) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+    }
+
+    private static CacheConfigurationBuilder<Object, Object> configuracao(String nome, CacheSegundoNivelProperties.Regiao regiao) {
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                Object.class, Object.class, ResourcePoolsBuilder.heap(regiao.getTamanhoMaximo()));
+        if (REGIAO_TIMESTAMPS.equals(nome)) {
+            return builder.withExpiry(ExpiryPolicyBuilder.noExpiration());
+        }
+        return switch (regiao.getPoliticaExpiracao()) {
+            case TEMPO_DE_VIDA -> builder.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(regiao.getExpiracao()));
+            case TEMPO_OCIOSO -> builder.withExpiry(ExpiryPolicyBuilder.timeToIdleExpiration(regiao.getExpiracao()));
+            case NENHUMA -> builder.withExpiry(ExpiryPolicyBuilder.noExpiration());
+        };
+    }
+}
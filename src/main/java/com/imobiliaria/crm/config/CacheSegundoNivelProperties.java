@@ -0,0 +1,43 @@
+package com.imobiliaria.crm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuração das regiões do cache de segundo nível do Hibernate
+ * (prefixo {@code crm.cache.segundo-nivel} no application.properties).
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.cache.segundo-nivel")
+public class CacheSegundoNivelProperties {
+
+    // Habilita as estatísticas JCache (acertos, falhas, remoções) de cada região
+    private boolean estatisticas = false;
+
+    // Regiões por nome; as regiões usadas pelas entidades e consultas são criadas mesmo se omitidas aqui
+    private Map<String, Regiao> regioes = new LinkedHashMap<>();
+
+    public enum PoliticaExpiracao {
+        // Expira após o tempo configurado desde a gravação (TTL)
+        TEMPO_DE_VIDA,
+        // Expira após o tempo configurado sem leituras (TTI)
+        TEMPO_OCIOSO,
+        // Nunca expira; entradas só saem quando o limite de tamanho é atingido
+        NENHUMA
+    }
+
+    @Data
+    public static class Regiao {
+
+        // Quantidade máxima de entradas em heap; ao atingir o limite, as menos usadas são removidas
+        private long tamanhoMaximo = 1000;
+
+        private PoliticaExpiracao politicaExpiracao = PoliticaExpiracao.TEMPO_DE_VIDA;
+
+        private Duration expiracao = Duration.ofMinutes(30);
+    }
+}
@@ -0,0 +1,35 @@
+package com.imobiliaria.crm.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ImagensProperties.class)
+public class ImagensConfig {
+
+    public static final String EXECUTOR_PROCESSAMENTO = "processamentoImagensExecutor";
+
+    /**
+     * Pool limitado que gera as variantes fora da thread da requisição. Com a fila cheia a tarefa
+     * é recusada (em vez de rodar na thread do chamador) e a imagem segue PENDENTE até o reprocessamento.
+     */
+    @Bean(name = EXECUTOR_PROCESSAMENTO)
+    public ThreadPoolTaskExecutor processamentoImagensExecutor(ImagensProperties properties) {
+        ImagensProperties.Processamento processamento = properties.getProcessamento();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(processamento.getThreads());
+        executor.setMaxPoolSize(processamento.getThreads());
+        executor.setQueueCapacity(processamento.getCapacidadeFila());
+        executor.setThreadNamePrefix("imagens-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
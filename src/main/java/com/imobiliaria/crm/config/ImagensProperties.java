@@ -0,0 +1,53 @@
+package com.imobiliaria.crm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Armazenamento e processamento das imagens enviadas por upload
+ * (prefixo {@code crm.imagens} no application.properties).
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.imagens")
+public class ImagensProperties {
+
+    // Diretório raiz do armazenamento local; os arquivos ficam em <raiz>/<hash[0..2]>/<hash>/
+    private Path diretorio = Path.of("dados", "imagens");
+
+    // Prefixo das URLs públicas das variantes (pode apontar para uma CDN na frente da aplicação)
+    private String urlBase = "/imagens";
+
+    // Imagens acima deste total de pixels são recusadas antes da decodificação
+    private long pixelsMaximos = 50_000_000L;
+
+    // Qualidade da compressão JPEG das variantes, entre 0 e 1
+    private float qualidadeJpeg = 0.85f;
+
+    // Originais sem imagem confirmada só são removidos depois deste prazo sem gravação ou reaproveitamento:
+    // bem maior que a duração de uma requisição de upload
+    private Duration retencaoOrfaos = Duration.ofHours(24);
+
+    // Intervalo da varredura que remove os originais sem uso
+    private Duration intervaloLimpezaOrfaos = Duration.ofHours(1);
+
+    private Processamento processamento = new Processamento();
+
+    @Data
+    public static class Processamento {
+
+        // Workers que geram as variantes; cada um decodifica uma imagem inteira em memória
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        // Imagens aguardando um worker; acima disso ficam PENDENTE até o reprocessamento
+        private int capacidadeFila = 200;
+
+        // Intervalo da varredura que reenvia imagens PENDENTE aos workers
+        private Duration intervaloReprocessamento = Duration.ofMinutes(5);
+
+        // Idade mínima de uma imagem PENDENTE para ser reenviada pela varredura
+        private Duration atrasoReprocessamento = Duration.ofMinutes(2);
+    }
+}
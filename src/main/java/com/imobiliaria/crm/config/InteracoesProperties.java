@@ -0,0 +1,48 @@
+package com.imobiliaria.crm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.YearMonth;
+
+/**
+ * Registro de interações com clientes (prefixo {@code crm.interacoes} no application.properties):
+ * fila de gravação em lote e partições mensais da tabela interacoes.
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.interacoes")
+public class InteracoesProperties {
+
+    // Interações aceitas e ainda não gravadas; com a fila cheia as requisições recebem 503
+    private int capacidadeFila = 10_000;
+
+    // Linhas por INSERT de várias linhas
+    private int tamanhoLote = 500;
+
+    // Espera antes de repetir um lote que falhou por indisponibilidade do banco
+    private Duration intervaloNovaTentativa = Duration.ofSeconds(5);
+
+    // Tempo máximo para gravar o que resta na fila ao encerrar a aplicação
+    private Duration timeoutEncerramento = Duration.ofSeconds(30);
+
+    // Criação e remoção automática das partições mensais (apenas PostgreSQL)
+    private boolean particionamentoHabilitado = true;
+
+    // Partições criadas à frente do mês corrente
+    private int mesesFuturos = 3;
+
+    // Meses anteriores ao corrente em que ainda se aceita registrar uma interação
+    private int mesesRetroativos = 12;
+
+    // Meses anteriores ao corrente mantidos no banco; partições mais antigas são removidas. 0 mantém todas
+    private int retencaoMeses = 0;
+
+    /**
+     * Mês mais antigo aceito para data_interacao: o limite retroativo, sem passar do período de retenção.
+     */
+    public YearMonth primeiroMesAceito(YearMonth mesAtual) {
+        int meses = retencaoMeses > 0 ? Math.min(mesesRetroativos, retencaoMeses) : mesesRetroativos;
+        return mesAtual.minusMonths(meses);
+    }
+}
@@ -0,0 +1,29 @@
+package com.imobiliaria.crm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Publicação dos eventos do outbox no Kafka (prefixo {@code crm.outbox} no application.properties).
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.outbox")
+public class OutboxProperties {
+
+    // Desligado, os eventos continuam sendo gravados no outbox e são publicados quando o relay voltar
+    private boolean relayHabilitado = true;
+
+    // Intervalo entre varreduras do outbox quando não há eventos pendentes
+    private Duration intervalo = Duration.ofSeconds(1);
+
+    // Eventos lidos, publicados e removidos por transação
+    private int tamanhoLote = 500;
+
+    // Tempo máximo de espera pela confirmação do broker para um lote
+    private Duration timeoutEnvio = Duration.ofSeconds(30);
+
+    // Tópico de cada agregado: <prefixo><agregado>, ex.: crm.imoveis
+    private String prefixoTopico = "crm.";
+}
@@ -0,0 +1,9 @@
+package com.imobiliaria.crm.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PortaisProperties.class)
+public class PortaisConfig {
+}
@@ -0,0 +1,58 @@
+package com.imobiliaria.crm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sincronização dos imóveis publicados com os portais (prefixo {@code crm.portais} no application.properties).
+ * Cada portal é declarado em {@code crm.portais.destinos.<nome>}; o nome é gravado em portais_integracao.portal_nome.
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.portais")
+public class PortaisProperties {
+
+    private boolean sincronizacaoHabilitada = true;
+
+    // Intervalo entre o fim de uma sincronização e o início da próxima
+    private Duration intervalo = Duration.ofMinutes(5);
+
+    // Imóveis por requisição enviada ao portal
+    private int tamanhoLote = 100;
+
+    private Duration timeoutConexao = Duration.ofSeconds(10);
+
+    // Tempo máximo de uma requisição, do envio do feed até a resposta do portal
+    private Duration timeoutResposta = Duration.ofSeconds(60);
+
+    // Espera antes de reenviar uma linha em ERRO; dobra a cada falha seguida, até a espera máxima
+    private Duration esperaInicialFalha = Duration.ofMinutes(5);
+
+    private Duration esperaMaximaFalha = Duration.ofHours(6);
+
+    // Falhas seguidas depois das quais a linha fica em ERRO e só é reenviada se o imóvel for alterado
+    private int maximoTentativas = 10;
+
+    private Map<String, Destino> destinos = new LinkedHashMap<>();
+
+    @Data
+    public static class Destino {
+
+        // Endereço base da API do portal; os feeds vão para <url>/anuncios e <url>/anuncios/remocoes
+        private String url;
+
+        private boolean habilitado = true;
+
+        // Requisições simultâneas ao portal
+        private int threads = 2;
+
+        // Lotes aguardando um worker; com a fila cheia o cálculo das pendências espera
+        private int capacidadeFila = 4;
+
+        // Limite de requisições por segundo acordado com o portal (somando todos os workers)
+        private double requisicoesPorSegundo = 2.0;
+    }
+}
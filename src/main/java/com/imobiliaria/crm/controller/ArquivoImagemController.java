@@ -0,0 +1,184 @@
+package com.imobiliaria.crm.controller;
+
+import com.imobiliaria.crm.service.IImagemService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Entrega dos arquivos de imagem. As variantes são imutáveis para um mesmo hash de original,
+ * então recebem ETag forte e cache de longa duração. O corpo só é transferido do arquivo para o
+ * socket sem passar pelo heap quando o conector do Tomcat oferece sendfile (ex.: sem TLS na aplicação).
+ * Nos demais casos o {@link FileChannel#transferTo} escreve num canal sobre o
+ * {@code ServletOutputStream}, e o JDK copia os bytes por um buffer no heap.
+ */
+@RestController
+@RequestMapping("/imagens")
+public class ArquivoImagemController {
+
+    // Atributos de requisição do Tomcat para envio com sendfile após o retorno do servlet
+    private static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_IMUTAVEL = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+
+    private final IImagemService imagemService;
+
+    public ArquivoImagemController(IImagemService imagemService) {
+        this.imagemService = imagemService;
+    }
+
+    @Operation(summary = "Serve uma variante de imagem",
+            description = "Retorna o arquivo da variante (miniatura, card ou completa) em JPEG (.jpg) ou WebP (.webp). " +
+                    "Suporta If-None-Match (304), Range/If-Range (206) e cache imutável de um ano.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Arquivo da variante"),
+            @ApiResponse(responseCode = "206", description = "Intervalo solicitado do arquivo"),
+            @ApiResponse(responseCode = "304", description = "O ETag informado ainda é válido"),
+            @ApiResponse(responseCode = "400", description = "Nome de variante inválido"),
+            @ApiResponse(responseCode = "404", description = "Imagem inexistente ou variante ainda não gerada"),
+            @ApiResponse(responseCode = "416", description = "Intervalo fora do tamanho do arquivo")
+    })
+    @GetMapping("/{imagemId}/variantes/{arquivo:.+}")
+    public void buscarVariante(@PathVariable Long imagemId, @PathVariable String arquivo,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        IImagemService.ArquivoVariante variante = imagemService.buscarArquivoVariante(imagemId, arquivo).orElse(null);
+        if (variante == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Resource recurso = variante.recurso();
+        String etag = "\"" + variante.hash() + "-" + arquivo + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_IMUTAVEL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Responde 304 (com o ETag) quando If-None-Match confere, sem tocar no arquivo
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long tamanho = recurso.contentLength();
+        long inicio = 0;
+        long quantidade = tamanho;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (StringUtils.hasText(range) && rangeAplicavel(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            List<HttpRange> intervalos;
+            try {
+                intervalos = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                // Range sintaticamente inválido é ignorado e o arquivo inteiro é enviado (RFC 9110, 14.2)
+                intervalos = List.of();
+            }
+            // Vários intervalos (multipart/byteranges) não são usados por navegadores e crawlers:
+            // nesse caso o arquivo inteiro é enviado, como a RFC 9110 permite
+            ResourceRegion regiao = null;
+            if (intervalos.size() == 1) {
+                try {
+                    regiao = intervalos.get(0).toResourceRegion(recurso);
+                } catch (IllegalArgumentException e) {
+                    // Intervalo válido, mas que começa depois do fim do arquivo
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+            }
+            if (regiao != null) {
+                inicio = regiao.getPosition();
+                quantidade = regiao.getCount();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + inicio + "-" + (inicio + quantidade - 1) + "/" + tamanho);
+            }
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(arquivo).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(quantidade);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        enviar(recurso, inicio, quantidade, request, response);
+    }
+
+    // If-Range com um ETag diferente do atual: o cliente tem outra versão e recebe o arquivo inteiro
+    private static boolean rangeAplicavel(String ifRange, String etag) {
+        return ifRange == null || ifRange.equals(etag);
+    }
+
+    private static void enviar(Resource recurso, long inicio, long quantidade,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!recurso.isFile()) {
+            // Armazenamentos que não são arquivos locais: cópia em blocos a partir do stream
+            try (InputStream entrada = recurso.getInputStream(); OutputStream saida = response.getOutputStream()) {
+                entrada.skipNBytes(inicio);
+                copiar(entrada, saida, quantidade);
+            }
+            return;
+        }
+        Path caminho = recurso.getFile().toPath();
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO))) {
+            // O Tomcat envia o arquivo com sendfile depois que o servlet retorna
+            request.setAttribute(SENDFILE_ARQUIVO, caminho.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIM, inicio + quantidade);
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            WritableByteChannel destino = Channels.newChannel(response.getOutputStream());
+            long posicao = inicio;
+            long restante = quantidade;
+            while (restante > 0) {
+                long enviados = canal.transferTo(posicao, restante, destino);
+                if (enviados <= 0) {
+                    break;
+                }
+                posicao += enviados;
+                restante -= enviados;
+            }
+        }
+    }
+
+    private static void copiar(InputStream entrada, OutputStream saida, long quantidade) throws IOException {
+        byte[] buffer = new byte[8192];
+        long restante = quantidade;
+        while (restante > 0) {
+            int lidos = entrada.read(buffer, 0, (int) Math.min(buffer.length, restante));
+            if (lidos < 0) {
+                break;
+            }
+            saida.write(buffer, 0, lidos);
+            restante -= lidos;
+        }
+    }
+}
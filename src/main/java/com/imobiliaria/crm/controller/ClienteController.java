@@ -0,0 +1,117 @@
+package com.imobiliaria.crm.controller;
+
+import com.imobiliaria.crm.dto.BuscaSalvaDTO;
+import com.imobiliaria.crm.dto.ClienteDTO;
+import com.imobiliaria.crm.dto.PaginaDTO;
+import com.imobiliaria.crm.service.IClienteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/clientes")
+public class ClienteController {
+
+    private final IClienteService clienteService;
+
+    @Autowired
+    public ClienteController(IClienteService clienteService) {
+        this.clienteService = clienteService;
+    }
+
+    @Operation(summary = "Cria um novo cliente", description = "Cadastra um cliente, opcionalmente associado ao corretor responsável")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Cliente criado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos, e-mail já cadastrado ou corretor não encontrado")
+    })
+    @PostMapping
+    public ResponseEntity<ClienteDTO> criar(@Valid @RequestBody ClienteDTO clienteDTO) {
+        return new ResponseEntity<>(clienteService.criarCliente(clienteDTO), HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Atualiza um cliente existente", description = "Substitui os dados do cliente pelos informados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cliente atualizado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou cliente não encontrado")
+    })
+    @PutMapping("/{id}")
+    public ResponseEntity<ClienteDTO> atualizar(@PathVariable @Positive(message = "ID deve ser positivo") Long id,
+                                                @Valid @RequestBody ClienteDTO clienteDTO) {
+        return ResponseEntity.ok(clienteService.atualizarCliente(id, clienteDTO));
+    }
+
+    @Operation(summary = "Busca um cliente por ID", description = "Retorna os dados de um cliente com base no ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cliente encontrado"),
+            @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ClienteDTO> buscarPorId(@PathVariable @Positive(message = "ID deve ser positivo") Long id) {
+        return clienteService.buscarPorId(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Lista os clientes paginados por cursor",
+            description = "Retorna os clientes em ordem de ID. Para a próxima página, repasse o proximoCursor da resposta no parâmetro cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de clientes retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    @GetMapping
+    public PaginaDTO<ClienteDTO> listar(@RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer tamanho) {
+        return clienteService.listarPagina(cursor, tamanho);
+    }
+
+    // --- Buscas salvas ---
+
+    @Operation(summary = "Salva uma busca do cliente",
+            description = "Registra critérios de interesse (tipo, finalidade, faixa de preço, quartos, cidade/bairro e características exigidas). Cada imóvel criado ou alterado que atender à busca gera um alerta BUSCA_SALVA_ATENDIDA no tópico de clientes.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Busca salva"),
+            @ApiResponse(responseCode = "400", description = "Critérios inválidos, limite de buscas atingido ou cliente não encontrado")
+    })
+    @PostMapping("/{clienteId}/buscas")
+    public ResponseEntity<BuscaSalvaDTO> criarBusca(@PathVariable Long clienteId, @Valid @RequestBody BuscaSalvaDTO buscaDTO) {
+        return new ResponseEntity<>(clienteService.criarBusca(clienteId, buscaDTO), HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Atualiza uma busca salva", description = "Substitui os critérios da busca; com ativa=false a busca deixa de gerar alertas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Busca atualizada"),
+            @ApiResponse(responseCode = "400", description = "Critérios inválidos ou busca não encontrada para o cliente")
+    })
+    @PutMapping("/{clienteId}/buscas/{buscaId}")
+    public ResponseEntity<BuscaSalvaDTO> atualizarBusca(@PathVariable Long clienteId, @PathVariable Long buscaId,
+                                                        @Valid @RequestBody BuscaSalvaDTO buscaDTO) {
+        return ResponseEntity.ok(clienteService.atualizarBusca(clienteId, buscaId, buscaDTO));
+    }
+
+    @Operation(summary = "Lista as buscas salvas do cliente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Buscas do cliente"),
+            @ApiResponse(responseCode = "400", description = "Cliente não encontrado")
+    })
+    @GetMapping("/{clienteId}/buscas")
+    public List<BuscaSalvaDTO> listarBuscas(@PathVariable Long clienteId) {
+        return clienteService.listarBuscas(clienteId);
+    }
+
+    @Operation(summary = "Remove uma busca salva")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Busca removida"),
+            @ApiResponse(responseCode = "400", description = "Busca não encontrada para o cliente")
+    })
+    @DeleteMapping("/{clienteId}/buscas/{buscaId}")
+    public ResponseEntity<Void> removerBusca(@PathVariable Long clienteId, @PathVariable Long buscaId) {
+        clienteService.removerBusca(clienteId, buscaId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.imobiliaria.crm.controller;
 
 import com.imobiliaria.crm.dto.CorretorDTO;
+import com.imobiliaria.crm.dto.ResultadoLoteDTO;
 import com.imobiliaria.crm.service.CorretorServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -32,6 +33,17 @@ public class CorretorController {
         return ResponseEntity.ok(savedCorretor);
     }
 
+    @Operation(summary = "Cria corretores em lote",
+            description = "Cadastra até 1000 corretores em uma única requisição. Cada item é validado individualmente; itens inválidos, repetidos no lote ou já cadastrados são recusados sem impedir os demais.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; o resultado de cada item é informado na resposta"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite")
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteDTO<CorretorDTO>> criarEmLote(@RequestBody List<CorretorDTO> corretores) {
+        return ResponseEntity.ok(corretorService.criarCorretoresEmLote(corretores));
+    }
+
     @Operation(summary = "Atualiza um corretor existente", description = "Atualiza os dados de um corretor com base no ID e DTO fornecidos")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Corretor atualizado com sucesso"),
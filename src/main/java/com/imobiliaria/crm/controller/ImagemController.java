@@ -3,11 +3,16 @@ package com.imobiliaria.crm.controller;
 
 import com.imobiliaria.crm.dto.ImagemDTO;
 import com.imobiliaria.crm.service.IImagemService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -28,6 +33,44 @@ public class ImagemController {
         return new ResponseEntity<>(novaImagem, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Adiciona várias imagens ao imóvel",
+            description = "Cadastra até 100 imagens (por URL) em uma única transação. Imagens sem ordem informada são acrescentadas ao fim da galeria, na ordem enviada.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Imagens adicionadas"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, acima do limite, imagem sem URL ou imóvel não encontrado")
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<List<ImagemDTO>> adicionarImagens(@PathVariable Long imovelId, @RequestBody List<ImagemDTO> imagensDTO) {
+        List<ImagemDTO> novasImagens = imagemService.adicionarImagens(imovelId, imagensDTO);
+        return new ResponseEntity<>(novasImagens, HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Reordena a galeria do imóvel",
+            description = "Recebe os IDs de todas as imagens do imóvel na nova ordem de exibição e atualiza o campo ordem de cada uma em uma única transação.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Galeria reordenada"),
+            @ApiResponse(responseCode = "400", description = "Lista incompleta, com repetições ou imóvel não encontrado")
+    })
+    @PutMapping("/ordem")
+    public ResponseEntity<List<ImagemDTO>> reordenarImagens(@PathVariable Long imovelId, @RequestBody List<Long> imagemIds) {
+        return ResponseEntity.ok(imagemService.reordenarImagens(imovelId, imagemIds));
+    }
+
+    @Operation(summary = "Envia o arquivo de uma imagem do imóvel",
+            description = "Recebe a imagem (JPEG ou PNG) via multipart e a armazena. As variantes miniatura, card e completa são geradas em segundo plano; acompanhe pelo campo statusProcessamento.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Imagem armazenada e processamento agendado"),
+            @ApiResponse(responseCode = "400", description = "Arquivo ausente, tipo não suportado ou imóvel não encontrado")
+    })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImagemDTO> enviarImagem(@PathVariable Long imovelId,
+                                                  @RequestPart("arquivo") MultipartFile arquivo,
+                                                  @RequestParam(required = false) String legenda,
+                                                  @RequestParam(required = false) Integer ordem) {
+        ImagemDTO novaImagem = imagemService.enviarImagem(imovelId, arquivo, legenda, ordem);
+        return new ResponseEntity<>(novaImagem, HttpStatus.CREATED);
+    }
+
     @GetMapping
     public ResponseEntity<List<ImagemDTO>> listarImagensDoImovel(@PathVariable Long imovelId) {
         List<ImagemDTO> imagens = imagemService.buscarImagensPorImovel(imovelId);
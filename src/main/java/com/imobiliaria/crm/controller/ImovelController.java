@@ -1,26 +1,62 @@
 package com.imobiliaria.crm.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.imobiliaria.crm.dto.FacetasDTO;
+import com.imobiliaria.crm.dto.FiltroFacetasDTO;
+import com.imobiliaria.crm.dto.FormatoExportacao;
 import com.imobiliaria.crm.dto.ImovelDTO;
+import com.imobiliaria.crm.dto.ImovelFiltroDTO;
+import com.imobiliaria.crm.dto.ImovelResumoDTO;
+import com.imobiliaria.crm.dto.OrdenacaoImovel;
+import com.imobiliaria.crm.dto.PaginaDTO;
+import com.imobiliaria.crm.service.IExportacaoImovelService;
 import com.imobiliaria.crm.service.IImovelService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.OutputStream;
 import java.net.URI;
-import java.util.List;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/imoveis")
 public class ImovelController {
 
+    // As respostas podem ser guardadas, mas devem ser revalidadas (If-None-Match/If-Modified-Since) a cada uso
+    private static final String CACHE_REVALIDAR = CacheControl.noCache().getHeaderValue();
+
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final IImovelService imovelService;
+    private final IExportacaoImovelService exportacaoService;
+    // Só a exportação, que pode levar minutos, recebe um prazo assíncrono maior que o padrão
+    private final Duration timeoutExportacao;
 
-    public ImovelController(IImovelService imovelService) {
+    public ImovelController(IImovelService imovelService, IExportacaoImovelService exportacaoService,
+                            @Value("${crm.exportacao.timeout:PT30M}") Duration timeoutExportacao) {
         this.imovelService = imovelService;
+        this.exportacaoService = exportacaoService;
+        this.timeoutExportacao = timeoutExportacao;
     }
 
     // --- ATUALIZAÇÃO NA DOCUMENTAÇÃO ---
@@ -43,36 +79,160 @@ public class ImovelController {
     @Operation(summary = "Busca um imóvel por ID", description = "Retorna os dados de um imóvel, incluindo seu endereço, corretor, imagens e características.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Imóvel encontrado"),
+            @ApiResponse(responseCode = "304", description = "O imóvel não mudou desde a versão informada em If-None-Match/If-Modified-Since"),
             @ApiResponse(responseCode = "404", description = "Imóvel não encontrado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ImovelDTO> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<ImovelDTO> buscarPorId(@PathVariable Long id, ServletWebRequest request) {
+        // Só a versão é lida para validar o cache; o grafo do imóvel é carregado apenas em caso de 200
+        Optional<IImovelService.VersaoImovel> versao = imovelService.buscarVersao(id);
+        if (versao.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (naoModificado(request, etagVersao(versao.get().versao()), versao.get().dataAtualizacao())) {
+            return null;
+        }
         return imovelService.buscarPorId(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Lista todos os imóveis", description = "Retorna uma lista de todos os imóveis cadastrados")
+    @Operation(summary = "Lista os imóveis de forma paginada",
+            description = "Retorna uma página de imóveis em ordem estável. Para obter a próxima página, envie o 'proximoCursor' recebido no parâmetro 'cursor'. O tamanho da página é limitado a 100 itens.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de imóveis retornada com sucesso")
+            @ApiResponse(responseCode = "200", description = "Página de imóveis retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Nenhum imóvel mudou desde a versão informada"),
+            @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido")
     })
     @GetMapping
-    public ResponseEntity<List<ImovelDTO>> listarTodos() {
-        List<ImovelDTO> imoveis = imovelService.listarTodos();
-        return ResponseEntity.ok(imoveis);
+    public ResponseEntity<PaginaDTO<ImovelDTO>> listarTodos(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer tamanho,
+                                                          @RequestParam(defaultValue = "ID") OrdenacaoImovel ordenacao,
+                                                          ServletWebRequest request) {
+        if (colecaoNaoModificada(request)) {
+            return null;
+        }
+        PaginaDTO<ImovelDTO> pagina = imovelService.listarPagina(cursor, tamanho, ordenacao);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @Operation(summary = "Lista o resumo dos imóveis para cards",
+            description = "Retorna apenas código, tipo, preço, cidade, quartos e a imagem de capa de cada imóvel, paginados por cursor em ordem de id.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de resumos retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Nenhum imóvel mudou desde a versão informada"),
+            @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido")
+    })
+    @GetMapping("/resumo")
+    public ResponseEntity<PaginaDTO<ImovelResumoDTO>> listarResumos(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer tamanho,
+                                                                    ServletWebRequest request) {
+        if (colecaoNaoModificada(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(imovelService.listarResumos(cursor, tamanho));
+    }
+
+    @Operation(summary = "Busca imóveis por múltiplos critérios",
+            description = "Filtra por tipo, finalidade, status, faixa de preço, mínimo de quartos e vagas, cidade, bairro, estado e características obrigatórias. Resultados paginados por cursor em ordem de id.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de imóveis encontrados"),
+            @ApiResponse(responseCode = "400", description = "Critérios de busca ou cursor inválidos")
+    })
+    @GetMapping("/busca")
+    public ResponseEntity<PaginaDTO<ImovelDTO>> buscar(@Valid @ParameterObject ImovelFiltroDTO filtro,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(imovelService.buscar(filtro, cursor, tamanho));
+    }
+
+    @Operation(summary = "Busca textual na descrição dos imóveis",
+            description = "Pesquisa o termo na descrição com stemming em português (sintaxe de busca web: aspas, OR, -termo) e ordena por relevância (ts_rank). Aceita os mesmos filtros estruturados da busca, inclusive as características obrigatórias.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de imóveis ordenada por relevância"),
+            @ApiResponse(responseCode = "400", description = "Termo ausente, critérios ou cursor inválidos")
+    })
+    @GetMapping("/busca/texto")
+    public ResponseEntity<PaginaDTO<ImovelDTO>> buscarPorTexto(@RequestParam("q") String termo,
+                                                               @Valid @ParameterObject ImovelFiltroDTO filtro,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(imovelService.buscarPorTexto(termo, filtro, cursor, tamanho));
+    }
+
+    @Operation(summary = "Conta as facetas da busca de imóveis",
+            description = "Retorna o total de imóveis da seleção e, para tipo, finalidade, status, cidade, bairro, faixa de quartos e características, quantos imóveis cada valor teria. Cada faceta é contada com os filtros das demais, mas não com o seu próprio. Vários valores da mesma faceta combinam com OR. Contado em memória; alterações feitas em outras instâncias aparecem após a recarga periódica do índice.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Contagens retornadas com sucesso")
+    })
+    @GetMapping("/facetas")
+    public ResponseEntity<FacetasDTO> contarFacetas(@ParameterObject FiltroFacetasDTO filtro,
+                                                    @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(imovelService.contarFacetas(filtro, limite));
+    }
+
+    @Operation(summary = "Exporta o catálogo completo de imóveis",
+            description = "Gera o catálogo em streaming (NDJSON, CSV ou XML) para integração com portais. A resposta é escrita à medida que os imóveis são lidos do banco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Arquivo de exportação gerado em streaming")
+    })
+    @GetMapping("/exportacao")
+    public WebAsyncTask<Void> exportar(@RequestParam(defaultValue = "NDJSON") FormatoExportacao formato,
+                                       @RequestParam(defaultValue = "false") boolean apenasPublicados,
+                                       HttpServletResponse response) {
+        response.setContentType(formato.getMediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("imoveis." + formato.getExtensao())
+                .build()
+                .toString());
+        // A escrita acontece em uma thread assíncrona, com o timeout da exportação em vez do
+        // spring.mvc.async.request-timeout global; o serviço abre ali a sua própria transação
+        return new WebAsyncTask<>(timeoutExportacao.toMillis(), () -> {
+            OutputStream saida = response.getOutputStream();
+            exportacaoService.exportar(formato, apenasPublicados, saida);
+            saida.flush();
+            return null;
+        });
     }
 
     // --- ATUALIZAÇÃO NA DOCUMENTAÇÃO ---
-    @Operation(summary = "Atualiza um imóvel existente", description = "Atualiza todos os dados de um imóvel com base no ID.")
+    @Operation(summary = "Atualiza um imóvel existente",
+            description = "Atualiza todos os dados de um imóvel com base no ID. Envie em If-Match a ETag recebida no GET para que a " +
+                    "atualização só seja aplicada se o imóvel não tiver sido alterado desde então. A resposta traz a nova ETag.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Imóvel atualizado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos."),
-            @ApiResponse(responseCode = "404", description = "Imóvel, corretor ou características associadas não encontrados.")
+            @ApiResponse(responseCode = "404", description = "Imóvel, corretor ou características associadas não encontrados."),
+            @ApiResponse(responseCode = "412", description = "O imóvel foi alterado por outra requisição (If-Match desatualizado ou edição concorrente)")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<ImovelDTO> atualizarImovel(@PathVariable Long id, @Valid @RequestBody ImovelDTO imovelDTO) {
-        ImovelDTO imovelAtualizado = imovelService.atualizarImovel(id, imovelDTO);
-        return ResponseEntity.ok(imovelAtualizado);
+    public ResponseEntity<ImovelDTO> atualizarImovel(@PathVariable Long id, @Valid @RequestBody ImovelDTO imovelDTO,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ImovelDTO imovelAtualizado = imovelService.atualizarImovel(id, imovelDTO, versoesEsperadas(ifMatch));
+        // A nova ETag dispensa o cliente de reler o imóvel antes da próxima edição
+        return ResponseEntity.ok()
+                .eTag(etagVersao(imovelAtualizado.getVersao()))
+                .lastModified(epochMillis(imovelAtualizado.getDataAtualizacao()))
+                .body(imovelAtualizado);
+    }
+
+    @Operation(summary = "Atualiza parcialmente um imóvel",
+            description = "Aplica um JSON Merge Patch (RFC 7396, Content-Type application/merge-patch+json): apenas os campos " +
+                    "enviados são alterados e null remove o valor. Aceita If-Match como o PUT e retorna a nova ETag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Imóvel atualizado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Patch inválido, campo somente leitura ou resultado que viola as validações do imóvel"),
+            @ApiResponse(responseCode = "412", description = "O imóvel foi alterado por outra requisição (If-Match desatualizado ou edição concorrente)"),
+            @ApiResponse(responseCode = "415", description = "Content-Type diferente de application/merge-patch+json")
+    })
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON)
+    public ResponseEntity<ImovelDTO> atualizarParcialmente(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ImovelDTO imovelAtualizado = imovelService.atualizarParcialmente(id, patch, versoesEsperadas(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(etagVersao(imovelAtualizado.getVersao()))
+                .lastModified(epochMillis(imovelAtualizado.getDataAtualizacao()))
+                .body(imovelAtualizado);
     }
 
     // --- ATUALIZAÇÃO NA DOCUMENTAÇÃO ---
@@ -86,4 +246,53 @@ public class ImovelController {
         imovelService.deletarImovel(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // Uma página depende da coleção inteira (cursor e tamanho já fazem parte da URL): basta o estado global
+    private boolean colecaoNaoModificada(ServletWebRequest request) {
+        IImovelService.VersaoColecao versao = imovelService.buscarVersaoColecao();
+        long ultimaModificacao = Math.max(epochMillis(versao.ultimaAtualizacao()), 0);
+        return naoModificado(request, "W/\"" + versao.quantidade() + "-" + ultimaModificacao + "\"", versao.ultimaAtualizacao());
+    }
+
+    // Em caso de 304 o status e os cabeçalhos (ETag, Last-Modified) já ficam na resposta e o método
+    // retorna null, sem mapear nem serializar DTOs.
+    private static boolean naoModificado(ServletWebRequest request, String etag, LocalDateTime ultimaAtualizacao) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_REVALIDAR);
+        }
+        return request.checkNotModified(etag, epochMillis(ultimaAtualizacao));
+    }
+
+    // ETag forte do detalhe: a versão (@Version) muda a cada alteração do imóvel, da sua galeria,
+    // do corretor ou das características exibidas com ele
+    private static String etagVersao(long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    // If-Match usa comparação forte (RFC 9110, 13.1.1): a atualização é aplicada se qualquer ETag da lista
+    // conferir com a versão atual. ETags fracas ou desconhecidas nunca conferem (lista vazia resulta em 412),
+    // e "*" só exige que o imóvel exista, como a ausência do cabeçalho
+    private static Set<Long> versoesEsperadas(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        Set<Long> versoes = new HashSet<>();
+        for (ETag etag : ETag.parse(ifMatch)) {
+            if (etag.isWildcard()) {
+                return null;
+            }
+            if (!etag.weak()) {
+                try {
+                    versoes.add(Long.parseLong(etag.tag()));
+                } catch (NumberFormatException e) {
+                    // ETag que nunca confere
+                }
+            }
+        }
+        return versoes;
+    }
+
+    private static long epochMillis(LocalDateTime data) {
+        return data != null ? data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
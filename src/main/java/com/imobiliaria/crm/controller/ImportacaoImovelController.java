@@ -0,0 +1,46 @@
+package com.imobiliaria.crm.controller;
+
+import com.imobiliaria.crm.dto.RelatorioImportacaoDTO;
+import com.imobiliaria.crm.service.IImportacaoImovelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/imoveis/importacao")
+public class ImportacaoImovelController {
+
+    private final IImportacaoImovelService importacaoService;
+
+    public ImportacaoImovelController(IImportacaoImovelService importacaoService) {
+        this.importacaoService = importacaoService;
+    }
+
+    // O corpo é recebido como InputStream para ser lido em streaming, sem materializar o arquivo em memória
+
+    @Operation(summary = "Importa imóveis em massa (JSON)", description = "Recebe um array JSON de imóveis no formato do ImovelDTO, grava em lotes e retorna o relatório com o erro de cada linha rejeitada.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação processada; verifique o relatório de erros"),
+            @ApiResponse(responseCode = "400", description = "O corpo não é um array JSON")
+    })
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RelatorioImportacaoDTO> importarJson(InputStream corpo) {
+        return ResponseEntity.ok(importacaoService.importarJson(corpo));
+    }
+
+    @Operation(summary = "Importa imóveis em massa (CSV)", description = "Recebe um CSV com cabeçalho (colunas do ImovelCsvDTO; características separadas por '|'), grava em lotes e retorna o relatório com o erro de cada linha rejeitada.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação processada; verifique o relatório de erros")
+    })
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<RelatorioImportacaoDTO> importarCsv(InputStream corpo) {
+        return ResponseEntity.ok(importacaoService.importarCsv(corpo));
+    }
+}
@@ -0,0 +1,79 @@
+package com.imobiliaria.crm.controller;
+
+import com.imobiliaria.crm.dto.InteracaoDTO;
+import com.imobiliaria.crm.dto.InteracaoTimelineDTO;
+import com.imobiliaria.crm.dto.PaginaDTO;
+import com.imobiliaria.crm.dto.ResultadoLoteDTO;
+import com.imobiliaria.crm.service.IInteracaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/interacoes")
+public class InteracaoController {
+
+    private final IInteracaoService interacaoService;
+
+    public InteracaoController(IInteracaoService interacaoService) {
+        this.interacaoService = interacaoService;
+    }
+
+    // As interações são gravadas em lote por uma fila: 202 indica que foram aceitas, não que já estão no banco
+
+    @Operation(summary = "Registra uma interação com um cliente",
+            description = "Aceita uma ligação, visita, e-mail, mensagem ou reunião entre corretor e cliente para gravação assíncrona. Sem dataInteracao, vale o momento do recebimento.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Interação aceita para gravação"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos, data fora do período aceito ou cliente, corretor ou imóvel não encontrado"),
+            @ApiResponse(responseCode = "503", description = "Fila de gravação cheia; repita após o tempo indicado em Retry-After")
+    })
+    @PostMapping
+    public ResponseEntity<InteracaoDTO> registrar(@Valid @RequestBody InteracaoDTO interacaoDTO) {
+        return new ResponseEntity<>(interacaoService.registrar(interacaoDTO), HttpStatus.ACCEPTED);
+    }
+
+    @Operation(summary = "Registra interações em lote",
+            description = "Aceita até 1000 interações em uma única requisição. Cada item é validado individualmente; itens inválidos são recusados sem impedir os demais. Se a fila não comportar os itens válidos, nenhum é aceito.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Lote processado; o resultado de cada item é informado na resposta"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite"),
+            @ApiResponse(responseCode = "503", description = "Fila de gravação cheia; repita após o tempo indicado em Retry-After")
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteDTO<InteracaoDTO>> registrarLote(@RequestBody List<InteracaoDTO> interacoes) {
+        return new ResponseEntity<>(interacaoService.registrarLote(interacoes), HttpStatus.ACCEPTED);
+    }
+
+    @Operation(summary = "Linha do tempo do cliente",
+            description = "Retorna as interações do cliente da mais recente para a mais antiga. Para a próxima página, repasse o proximoCursor da resposta no parâmetro cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de interações retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cliente não encontrado ou cursor inválido")
+    })
+    @GetMapping("/clientes/{clienteId}")
+    public PaginaDTO<InteracaoTimelineDTO> listarPorCliente(@PathVariable Long clienteId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer tamanho) {
+        return interacaoService.listarPorCliente(clienteId, cursor, tamanho);
+    }
+
+    @Operation(summary = "Linha do tempo do corretor",
+            description = "Retorna as interações registradas pelo corretor da mais recente para a mais antiga. Para a próxima página, repasse o proximoCursor da resposta no parâmetro cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de interações retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Corretor não encontrado ou cursor inválido")
+    })
+    @GetMapping("/corretores/{corretorId}")
+    public PaginaDTO<InteracaoTimelineDTO> listarPorCorretor(@PathVariable Long corretorId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer tamanho) {
+        return interacaoService.listarPorCorretor(corretorId, cursor, tamanho);
+    }
+}
@@ -0,0 +1,73 @@
+package com.imobiliaria.crm.controller;
+
+import com.imobiliaria.crm.dto.RelatorioVendasDTO;
+import com.imobiliaria.crm.service.IRelatorioVendasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/relatorios/vendas")
+public class RelatorioVendasController {
+
+    private final IRelatorioVendasService relatorioService;
+
+    public RelatorioVendasController(IRelatorioVendasService relatorioService) {
+        this.relatorioService = relatorioService;
+    }
+
+    // Períodos no formato yyyy-MM; sem período, os últimos 12 meses. Os totais vêm de visões
+    // atualizadas periodicamente: atualizadoEm indica até quando as vendas estão consideradas
+
+    @Operation(summary = "Vendas por mês", description = "Quantidade, receita, ticket médio e média de dias para vender de cada mês do período")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Relatório retornado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Período inválido ou acima de 120 meses")
+    })
+    @GetMapping("/mensal")
+    public RelatorioVendasDTO porMes(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth de,
+                                     @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth ate) {
+        return relatorioService.vendasPorMes(de, ate);
+    }
+
+    @Operation(summary = "Vendas por corretor", description = "Indicadores de cada corretor no período, da maior para a menor receita")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Relatório retornado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Período inválido ou acima de 120 meses")
+    })
+    @GetMapping("/corretores")
+    public RelatorioVendasDTO porCorretor(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth de,
+                                          @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth ate) {
+        return relatorioService.vendasPorCorretor(de, ate);
+    }
+
+    @Operation(summary = "Vendas por cidade e bairro", description = "Indicadores de cada cidade/bairro no período, da maior para a menor receita; opcionalmente restritos a uma cidade")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Relatório retornado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Período inválido ou acima de 120 meses")
+    })
+    @GetMapping("/localizacoes")
+    public RelatorioVendasDTO porLocalizacao(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth de,
+                                             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth ate,
+                                             @RequestParam(required = false) String cidade) {
+        return relatorioService.vendasPorLocalizacao(de, ate, cidade);
+    }
+
+    @Operation(summary = "Vendas por tipo de imóvel", description = "Indicadores de cada tipo de imóvel no período, da maior para a menor receita")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Relatório retornado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Período inválido ou acima de 120 meses")
+    })
+    @GetMapping("/tipos")
+    public RelatorioVendasDTO porTipo(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth de,
+                                      @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth ate) {
+        return relatorioService.vendasPorTipo(de, ate);
+    }
+}
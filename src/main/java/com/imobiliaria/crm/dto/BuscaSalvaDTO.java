@@ -0,0 +1,71 @@
+package com.imobiliaria.crm.dto;
+
+import com.imobiliaria.crm.model.BuscaSalva;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+public class BuscaSalvaDTO {
+
+    private Long id;
+
+    private Long clienteId;
+
+    @Size(max = 100, message = "Nome deve ter no máximo 100 caracteres")
+    private String nome;
+
+    // --- Critérios: campos não informados não restringem a busca ---
+
+    @Size(max = 50, message = "Tipo deve ter no máximo 50 caracteres")
+    private String tipo;
+
+    @Size(max = 20, message = "Finalidade deve ter no máximo 20 caracteres")
+    private String finalidade;
+
+    @PositiveOrZero(message = "Preço mínimo não pode ser negativo")
+    private BigDecimal precoMin;
+
+    @PositiveOrZero(message = "Preço máximo não pode ser negativo")
+    private BigDecimal precoMax;
+
+    @Min(value = 0, message = "Quantidade mínima de quartos não pode ser negativa")
+    private Integer quartosMin;
+
+    @Size(max = 100, message = "Cidade deve ter no máximo 100 caracteres")
+    private String cidade;
+
+    @Size(max = 100, message = "Bairro deve ter no máximo 100 caracteres")
+    private String bairro;
+
+    // O imóvel precisa ter todas estas características
+    private Set<Long> caracteristicaIds;
+
+    private Boolean ativa;
+
+    private LocalDateTime dataCadastro;
+
+    public static BuscaSalvaDTO fromEntity(BuscaSalva busca) {
+        BuscaSalvaDTO dto = new BuscaSalvaDTO();
+        dto.setId(busca.getId());
+        dto.setClienteId(busca.getCliente().getId());
+        dto.setNome(busca.getNome());
+        dto.setTipo(busca.getTipo());
+        dto.setFinalidade(busca.getFinalidade());
+        dto.setPrecoMin(busca.getPrecoMin());
+        dto.setPrecoMax(busca.getPrecoMax());
+        dto.setQuartosMin(busca.getQuartosMin());
+        dto.setCidade(busca.getCidade());
+        dto.setBairro(busca.getBairro());
+        dto.setCaracteristicaIds(new HashSet<>(busca.getCaracteristicaIds()));
+        dto.setAtiva(busca.isAtiva());
+        dto.setDataCadastro(busca.getDataCadastro());
+        return dto;
+    }
+}
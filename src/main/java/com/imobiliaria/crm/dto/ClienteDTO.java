@@ -0,0 +1,63 @@
+package com.imobiliaria.crm.dto;
+
+import com.imobiliaria.crm.model.Cliente;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ClienteDTO {
+
+    private Long id;
+
+    @NotBlank(message = "Nome é obrigatório")
+    @Size(max = 255, message = "Nome deve ter no máximo 255 caracteres")
+    private String nome;
+
+    @Email(message = "E-mail deve ser válido")
+    @Size(max = 100, message = "E-mail deve ter no máximo 100 caracteres")
+    private String email;
+
+    @Size(max = 20, message = "Telefone deve ter no máximo 20 caracteres")
+    private String telefone;
+
+    // Opcional; sem CPF o banco grava o valor padrão 000.000.000-00
+    @Pattern(regexp = "^[0-9]{3}\\.[0-9]{3}\\.[0-9]{3}-[0-9]{2}$", message = "CPF deve estar no formato XXX.XXX.XXX-XX")
+    private String cpf;
+
+    private Long corretorId;
+
+    private String observacoes;
+
+    private LocalDateTime dataCadastro;
+
+    // Converte DTO para entidade Cliente (o corretor é associado pelo serviço)
+    public Cliente toEntity() {
+        Cliente cliente = new Cliente();
+        cliente.setId(this.id);
+        cliente.setNome(this.nome);
+        cliente.setEmail(this.email);
+        cliente.setTelefone(this.telefone);
+        cliente.setCpf(this.cpf != null ? this.cpf : "000.000.000-00");
+        cliente.setObservacoes(this.observacoes);
+        return cliente;
+    }
+
+    public static ClienteDTO fromEntity(Cliente cliente) {
+        ClienteDTO dto = new ClienteDTO();
+        dto.setId(cliente.getId());
+        dto.setNome(cliente.getNome());
+        dto.setEmail(cliente.getEmail());
+        dto.setTelefone(cliente.getTelefone());
+        dto.setCpf(cliente.getCpf());
+        // O id vem do proxy, sem carregar o corretor
+        dto.setCorretorId(cliente.getCorretor() != null ? cliente.getCorretor().getId() : null);
+        dto.setObservacoes(cliente.getObservacoes());
+        dto.setDataCadastro(cliente.getDataCadastro());
+        return dto;
+    }
+}
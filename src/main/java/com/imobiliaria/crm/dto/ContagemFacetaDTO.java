@@ -0,0 +1,21 @@
+package com.imobiliaria.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContagemFacetaDTO {
+
+    // Valor da faceta; nas características, o id
+    private String valor;
+
+    // Nome para exibição, apenas nas características
+    private String nome;
+
+    private long quantidade;
+}
@@ -0,0 +1,51 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição de leitura de uma paginação keyset: o valor da coluna de ordenação
+ * ({@code chave}) e o id da última linha entregue, usado como desempate.
+ * Trafega para o cliente como um token Base64 opaco.
+ */
+@Data
+public class CursorPaginacao {
+
+    private static final String SEPARADOR = "|";
+
+    private final String chave;
+    private final Long id;
+
+    /**
+     * Codifica o cursor em um token seguro para URL.
+     * @return O token opaco.
+     */
+    public String codificar() {
+        String valor = (chave != null ? chave : "") + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um token recebido do cliente.
+     * @param token O token gerado por {@link #codificar()}.
+     * @return O cursor correspondente.
+     * @throws IllegalArgumentException se o token estiver malformado.
+     */
+    public static CursorPaginacao decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.");
+            }
+            String chave = valor.substring(0, separador);
+            Long id = Long.valueOf(valor.substring(separador + 1));
+            return new CursorPaginacao(chave.isEmpty() ? null : chave, id);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException e erros de Base64 também são IllegalArgumentException
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+    }
+}
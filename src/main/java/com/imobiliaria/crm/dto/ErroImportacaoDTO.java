@@ -0,0 +1,19 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroImportacaoDTO {
+
+    // Posição da linha no arquivo, começando em 1 (sem contar o cabeçalho do CSV)
+    private int linha;
+
+    // Código do imóvel, quando foi possível lê-lo
+    private String codigo;
+
+    private String mensagem;
+}
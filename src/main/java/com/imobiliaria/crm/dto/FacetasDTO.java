@@ -0,0 +1,21 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetasDTO {
+
+    // Imóveis que atendem a toda a seleção
+    private long total;
+
+    // Contagens por faceta (tipo, finalidade, status, cidade, bairro, quartos, caracteristicas),
+    // da maior para a menor. Cada faceta é contada sem a sua própria seleção.
+    private Map<String, List<ContagemFacetaDTO>> facetas;
+}
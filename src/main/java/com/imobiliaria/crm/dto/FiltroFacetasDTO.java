@@ -0,0 +1,26 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Seleção atual da tela de busca por facetas. Vários valores da mesma faceta são combinados com OR,
+ * facetas diferentes com AND; todos os campos são opcionais.
+ */
+@Data
+public class FiltroFacetasDTO {
+
+    private List<String> tipo;
+    private List<String> finalidade;
+    private List<String> status;
+    private List<String> cidade;
+    private List<String> bairro;
+
+    // Faixas de quartos: "0", "1", "2", "3" ou "4+"
+    private List<String> quartos;
+
+    // O imóvel deve possuir todas as características informadas
+    private Set<Long> caracteristicaIds;
+}
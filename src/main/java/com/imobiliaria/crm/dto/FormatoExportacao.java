@@ -0,0 +1,24 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.Getter;
+
+/**
+ * Formatos suportados pela exportação do catálogo de imóveis.
+ */
+@Getter
+public enum FormatoExportacao {
+    // Um ImovelDTO em JSON por linha
+    NDJSON("application/x-ndjson", "ndjson"),
+    // Linhas planas no layout de ImovelCsvDTO, com cabeçalho
+    CSV("text/csv", "csv"),
+    // <imoveis><imovel>...</imovel>...</imoveis>
+    XML("application/xml", "xml");
+
+    private final String mediaType;
+    private final String extensao;
+
+    FormatoExportacao(String mediaType, String extensao) {
+        this.mediaType = mediaType;
+        this.extensao = extensao;
+    }
+}
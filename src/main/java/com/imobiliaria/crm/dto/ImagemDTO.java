@@ -1,6 +1,7 @@
 package com.imobiliaria.crm.dto;
 
 import com.imobiliaria.crm.model.Imagem;
+import com.imobiliaria.crm.model.StatusProcessamentoImagem;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -14,6 +15,13 @@ public class ImagemDTO {
     private Integer ordem;
     private LocalDateTime dataUpload;
 
+    // Preenchidos apenas para imagens enviadas por upload (somente leitura)
+    private StatusProcessamentoImagem statusProcessamento;
+    private String urlMiniatura;
+    private String urlCard;
+    private String urlCompleta;
+    private boolean possuiWebp;
+
     // Converte a entidade Imagem para ImagemDTO
     public static ImagemDTO fromEntity(Imagem imagem) {
         ImagemDTO dto = new ImagemDTO();
@@ -22,6 +30,11 @@ public class ImagemDTO {
         dto.setLegenda(imagem.getLegenda());
         dto.setOrdem(imagem.getOrdem());
         dto.setDataUpload(imagem.getDataUpload());
+        dto.setStatusProcessamento(imagem.getStatusProcessamento());
+        dto.setUrlMiniatura(imagem.getUrlMiniatura());
+        dto.setUrlCard(imagem.getUrlCard());
+        dto.setUrlCompleta(imagem.getUrlCompleta());
+        dto.setPossuiWebp(imagem.isPossuiWebp());
         return dto;
     }
 
@@ -0,0 +1,129 @@
+package com.imobiliaria.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Linha plana de imóvel usada nos arquivos CSV (importação e exportação).
+ * O endereço vira colunas próprias e as características são uma lista de IDs separados por '|'.
+ */
+@Data
+@JsonPropertyOrder({"codigo", "tipo", "finalidade", "logradouro", "bairro", "cidade", "estado", "cep", "complemento",
+        "preco", "valorCondominio", "valorIptu", "areaTotal", "areaUtil", "quartos", "suites", "banheiros",
+        "vagasGaragem", "anoConstrucao", "descricao", "status", "publicado", "corretorId", "caracteristicaIds"})
+public class ImovelCsvDTO {
+
+    private static final String SEPARADOR_IDS = "|";
+
+    private String codigo;
+    private String tipo;
+    private String finalidade;
+    private String logradouro;
+    private String bairro;
+    private String cidade;
+    private String estado;
+    private String cep;
+    private String complemento;
+    private BigDecimal preco;
+    private BigDecimal valorCondominio;
+    private BigDecimal valorIptu;
+    private BigDecimal areaTotal;
+    private BigDecimal areaUtil;
+    private Integer quartos;
+    private Integer suites;
+    private Integer banheiros;
+    private Integer vagasGaragem;
+    private Integer anoConstrucao;
+    private String descricao;
+    private String status;
+    private Boolean publicado;
+    private Long corretorId;
+    private String caracteristicaIds;
+
+    // --- MÉTODOS DE CONVERSÃO ---
+
+    public ImovelDTO toImovelDTO() {
+        ImovelDTO dto = new ImovelDTO();
+        dto.setCodigo(this.codigo);
+        dto.setTipo(this.tipo);
+        dto.setFinalidade(this.finalidade);
+        dto.setPreco(this.preco);
+        dto.setValorCondominio(this.valorCondominio);
+        dto.setValorIptu(this.valorIptu);
+        dto.setAreaTotal(this.areaTotal);
+        dto.setAreaUtil(this.areaUtil);
+        dto.setQuartos(this.quartos);
+        dto.setSuites(this.suites);
+        dto.setBanheiros(this.banheiros);
+        dto.setVagasGaragem(this.vagasGaragem);
+        dto.setAnoConstrucao(this.anoConstrucao);
+        dto.setDescricao(this.descricao);
+        dto.setStatus(this.status);
+        dto.setPublicado(Boolean.TRUE.equals(this.publicado));
+        dto.setCorretorId(this.corretorId);
+
+        EnderecoDTO endereco = new EnderecoDTO();
+        endereco.setLogradouro(this.logradouro);
+        endereco.setBairro(this.bairro);
+        endereco.setCidade(this.cidade);
+        endereco.setEstado(this.estado);
+        endereco.setCep(this.cep);
+        endereco.setComplemento(this.complemento);
+        dto.setEndereco(endereco);
+
+        if (this.caracteristicaIds != null && !this.caracteristicaIds.isBlank()) {
+            Set<Long> ids = Arrays.stream(this.caracteristicaIds.split(Pattern.quote(SEPARADOR_IDS)))
+                    .map(String::trim)
+                    .filter(id -> !id.isEmpty())
+                    .map(Long::valueOf)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            dto.setCaracteristicaIds(ids);
+        }
+        return dto;
+    }
+
+    public static ImovelCsvDTO fromImovelDTO(ImovelDTO dto) {
+        ImovelCsvDTO csv = new ImovelCsvDTO();
+        csv.setCodigo(dto.getCodigo());
+        csv.setTipo(dto.getTipo());
+        csv.setFinalidade(dto.getFinalidade());
+        csv.setPreco(dto.getPreco());
+        csv.setValorCondominio(dto.getValorCondominio());
+        csv.setValorIptu(dto.getValorIptu());
+        csv.setAreaTotal(dto.getAreaTotal());
+        csv.setAreaUtil(dto.getAreaUtil());
+        csv.setQuartos(dto.getQuartos());
+        csv.setSuites(dto.getSuites());
+        csv.setBanheiros(dto.getBanheiros());
+        csv.setVagasGaragem(dto.getVagasGaragem());
+        csv.setAnoConstrucao(dto.getAnoConstrucao());
+        csv.setDescricao(dto.getDescricao());
+        csv.setStatus(dto.getStatus());
+        csv.setPublicado(dto.isPublicado());
+        csv.setCorretorId(dto.getCorretorId());
+
+        if (dto.getEndereco() != null) {
+            csv.setLogradouro(dto.getEndereco().getLogradouro());
+            csv.setBairro(dto.getEndereco().getBairro());
+            csv.setCidade(dto.getEndereco().getCidade());
+            csv.setEstado(dto.getEndereco().getEstado());
+            csv.setCep(dto.getEndereco().getCep());
+            csv.setComplemento(dto.getEndereco().getComplemento());
+        }
+
+        if (dto.getCaracteristicas() != null && !dto.getCaracteristicas().isEmpty()) {
+            csv.setCaracteristicaIds(dto.getCaracteristicas().stream()
+                    .map(caracteristica -> String.valueOf(caracteristica.getId()))
+                    .sorted()
+                    .collect(Collectors.joining(SEPARADOR_IDS)));
+        }
+        return csv;
+    }
+}
@@ -73,6 +73,7 @@ public class ImovelDTO {
     private boolean publicado;
     private LocalDateTime dataCadastro;
     private LocalDateTime dataAtualizacao;
+    private Long versao; // Somente leitura; no PUT a versão esperada é enviada em If-Match
 
     // --- Relacionamentos ---
     private Long corretorId;
@@ -89,35 +90,14 @@ public class ImovelDTO {
     // --- MÉTODOS DE CONVERSÃO ---
 
     public static ImovelDTO fromEntity(Imovel imovel) {
-        ImovelDTO dto = new ImovelDTO();
+        ImovelDTO dto = fromEntityEditavel(imovel);
         dto.setId(imovel.getId());
-        dto.setCodigo(imovel.getCodigo());
-        dto.setTipo(imovel.getTipo());
-        dto.setFinalidade(imovel.getFinalidade());
-        dto.setPreco(imovel.getPreco());
-        dto.setValorCondominio(imovel.getValorCondominio());
-        dto.setValorIptu(imovel.getValorIptu());
-        dto.setAreaTotal(imovel.getAreaTotal());
-        dto.setAreaUtil(imovel.getAreaUtil());
-        dto.setQuartos(imovel.getQuartos());
-        dto.setSuites(imovel.getSuites());
-        dto.setBanheiros(imovel.getBanheiros());
-        dto.setVagasGaragem(imovel.getVagasGaragem());
-        dto.setAnoConstrucao(imovel.getAnoConstrucao());
-        dto.setDescricao(imovel.getDescricao());
-        dto.setStatus(imovel.getStatus());
-        dto.setPublicado(imovel.isPublicado());
         dto.setDataCadastro(imovel.getDataCadastro());
         dto.setDataAtualizacao(imovel.getDataAtualizacao());
-
-        // Converte o objeto Endereco para EnderecoDTO
-        if (imovel.getEndereco() != null) {
-            dto.setEndereco(EnderecoDTO.fromEntity(imovel.getEndereco()));
-        }
+        dto.setVersao(imovel.getVersao());
 
         // Converte o Corretor associado para CorretorDTO
         if (imovel.getCorretor() != null) {
-            dto.setCorretorId(imovel.getCorretor().getId());
             dto.setCorretor(CorretorDTO.fromEntity(imovel.getCorretor()));
         }
 
@@ -142,6 +122,40 @@ public class ImovelDTO {
         return dto;
     }
 
+    // Apenas os campos que o cliente pode alterar (sem coleções nem campos de controle);
+    // é o documento base sobre o qual o merge patch é aplicado
+    public static ImovelDTO fromEntityEditavel(Imovel imovel) {
+        ImovelDTO dto = new ImovelDTO();
+        dto.setCodigo(imovel.getCodigo());
+        dto.setTipo(imovel.getTipo());
+        dto.setFinalidade(imovel.getFinalidade());
+        dto.setPreco(imovel.getPreco());
+        dto.setValorCondominio(imovel.getValorCondominio());
+        dto.setValorIptu(imovel.getValorIptu());
+        dto.setAreaTotal(imovel.getAreaTotal());
+        dto.setAreaUtil(imovel.getAreaUtil());
+        dto.setQuartos(imovel.getQuartos());
+        dto.setSuites(imovel.getSuites());
+        dto.setBanheiros(imovel.getBanheiros());
+        dto.setVagasGaragem(imovel.getVagasGaragem());
+        dto.setAnoConstrucao(imovel.getAnoConstrucao());
+        dto.setDescricao(imovel.getDescricao());
+        dto.setStatus(imovel.getStatus());
+        dto.setPublicado(imovel.isPublicado());
+
+        // Converte o objeto Endereco para EnderecoDTO
+        if (imovel.getEndereco() != null) {
+            dto.setEndereco(EnderecoDTO.fromEntity(imovel.getEndereco()));
+        }
+
+        // Apenas o id do corretor: em um proxy LAZY, getId() não dispara consulta
+        if (imovel.getCorretor() != null) {
+            dto.setCorretorId(imovel.getCorretor().getId());
+        }
+
+        return dto;
+    }
+
     public Imovel toEntity() {
         Imovel imovel = new Imovel();
         imovel.setId(this.id);
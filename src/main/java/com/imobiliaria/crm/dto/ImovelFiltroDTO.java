@@ -0,0 +1,41 @@
+package com.imobiliaria.crm.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Critérios da busca de imóveis. Todos os campos são opcionais;
+ * os critérios informados são combinados com AND.
+ */
+@Data
+public class ImovelFiltroDTO {
+
+    private String tipo;
+    private String finalidade;
+    private String status;
+
+    @PositiveOrZero(message = "O preço mínimo não pode ser negativo.")
+    private BigDecimal precoMin;
+
+    @PositiveOrZero(message = "O preço máximo não pode ser negativo.")
+    private BigDecimal precoMax;
+
+    @PositiveOrZero(message = "O número mínimo de quartos não pode ser negativo.")
+    private Integer quartosMin;
+
+    @PositiveOrZero(message = "O número mínimo de vagas não pode ser negativo.")
+    private Integer vagasGaragemMin;
+
+    private String cidade;
+    private String bairro;
+
+    @Size(min = 2, max = 2, message = "O estado deve ser a sigla com 2 caracteres.")
+    private String estado;
+
+    // O imóvel deve possuir todas as características informadas
+    private Set<Long> caracteristicaIds;
+}
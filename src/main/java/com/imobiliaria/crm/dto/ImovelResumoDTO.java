@@ -0,0 +1,25 @@
+package com.imobiliaria.crm.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção enxuta de um imóvel para os cards das telas de listagem.
+ * Preenchida diretamente pela consulta nativa do ImovelRepository, sem hidratar a entidade.
+ */
+public interface ImovelResumoDTO {
+
+    Long getId();
+
+    String getCodigo();
+
+    String getTipo();
+
+    BigDecimal getPreco();
+
+    String getCidade();
+
+    Integer getQuartos();
+
+    // URL da primeira imagem do imóvel (menor 'ordem'); nula se não houver imagens
+    String getCapaUrl();
+}
@@ -0,0 +1,48 @@
+package com.imobiliaria.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+
+/**
+ * Indicadores de vendas de um grupo do relatório. Apenas os campos da dimensão consultada
+ * (mês, corretor, cidade/bairro ou tipo) são preenchidos.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IndicadoresVendasDTO {
+
+    private YearMonth mes;
+
+    private Long corretorId;
+    private String corretorNome;
+
+    private String cidade;
+    private String bairro;
+
+    private String tipo;
+
+    private long quantidade;
+
+    private BigDecimal receita;
+
+    private BigDecimal ticketMedio;
+
+    // Média de dias entre o cadastro do imóvel e a venda; nula se nenhum imóvel vendido tem data de cadastro
+    private BigDecimal mediaDiasParaVenda;
+
+    /**
+     * Preenche os indicadores a partir dos totais das visões materializadas (V17).
+     */
+    public void preencherTotais(long quantidade, BigDecimal receita, BigDecimal somaDiasVenda, long vendasComPrazo) {
+        this.quantidade = quantidade;
+        this.receita = receita;
+        this.ticketMedio = quantidade > 0 ? receita.divide(BigDecimal.valueOf(quantidade), 2, RoundingMode.HALF_UP) : null;
+        this.mediaDiasParaVenda = vendasComPrazo > 0
+                ? somaDiasVenda.divide(BigDecimal.valueOf(vendasComPrazo), 1, RoundingMode.HALF_UP)
+                : null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.imobiliaria.crm.dto;
+
+import com.imobiliaria.crm.model.TipoInteracao;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class InteracaoDTO {
+
+    // Preenchido apenas na leitura: a gravação é assíncrona
+    private Long id;
+
+    @NotNull(message = "Cliente é obrigatório")
+    @Positive(message = "ID do cliente deve ser positivo")
+    private Long clienteId;
+
+    @NotNull(message = "Corretor é obrigatório")
+    @Positive(message = "ID do corretor deve ser positivo")
+    private Long corretorId;
+
+    @Positive(message = "ID do imóvel deve ser positivo")
+    private Long imovelId;
+
+    @NotNull(message = "Tipo é obrigatório")
+    private TipoInteracao tipo;
+
+    // Opcional; sem data a interação é registrada no momento do recebimento
+    private LocalDateTime dataInteracao;
+
+    @Size(max = 4000, message = "Observações devem ter no máximo 4000 caracteres")
+    private String observacoes;
+}
@@ -0,0 +1,32 @@
+package com.imobiliaria.crm.dto;
+
+import com.imobiliaria.crm.model.TipoInteracao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de uma interação para as linhas do tempo de cliente e de corretor.
+ * Preenchida pela consulta nativa do InteracaoRepository, que junta apenas o nome do cliente
+ * e o código do imóvel, sem hidratar as entidades.
+ */
+public interface InteracaoTimelineDTO {
+
+    Long getId();
+
+    LocalDateTime getDataInteracao();
+
+    TipoInteracao getTipo();
+
+    String getObservacoes();
+
+    Long getClienteId();
+
+    String getClienteNome();
+
+    Long getCorretorId();
+
+    // Nulos quando a interação não se refere a um imóvel
+    Long getImovelId();
+
+    String getImovelCodigo();
+}
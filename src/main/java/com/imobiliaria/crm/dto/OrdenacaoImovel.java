@@ -0,0 +1,11 @@
+package com.imobiliaria.crm.dto;
+
+/**
+ * Ordenações estáveis suportadas pela listagem paginada de imóveis.
+ */
+public enum OrdenacaoImovel {
+    // id crescente: ordem de cadastro
+    ID,
+    // data_atualizacao decrescente, desempatando pelo id: alterações mais recentes primeiro
+    DATA_ATUALIZACAO
+}
@@ -0,0 +1,28 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de resultados paginada por cursor (keyset).
+ * O cliente deve repassar {@code proximoCursor} na próxima requisição para continuar a leitura.
+ */
+@Data
+public class PaginaDTO<T> {
+
+    private List<T> itens;
+
+    private int tamanho;
+
+    // Token opaco; nulo quando não há mais páginas
+    private String proximoCursor;
+
+    public static <T> PaginaDTO<T> of(List<T> itens, String proximoCursor) {
+        PaginaDTO<T> pagina = new PaginaDTO<>();
+        pagina.setItens(itens);
+        pagina.setTamanho(itens.size());
+        pagina.setProximoCursor(proximoCursor);
+        return pagina;
+    }
+}
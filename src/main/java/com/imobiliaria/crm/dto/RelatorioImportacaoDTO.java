@@ -0,0 +1,28 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma importação em lote: totais e o erro de cada linha rejeitada.
+ */
+@Data
+public class RelatorioImportacaoDTO {
+
+    // Limita o tamanho da resposta quando um arquivo inteiro é rejeitado
+    public static final int MAXIMO_ERROS_DETALHADOS = 1000;
+
+    private int totalLinhas;
+    private int importados;
+    private int totalErros;
+    private List<ErroImportacaoDTO> erros = new ArrayList<>();
+
+    public void registrarErro(int linha, String codigo, String mensagem) {
+        totalErros++;
+        if (erros.size() < MAXIMO_ERROS_DETALHADOS) {
+            erros.add(new ErroImportacaoDTO(linha, codigo, mensagem));
+        }
+    }
+}
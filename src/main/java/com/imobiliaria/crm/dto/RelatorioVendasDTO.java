@@ -0,0 +1,23 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Relatório de vendas de um período, lido das visões materializadas.
+ * Vendas registradas depois de {@code atualizadoEm} ainda não estão nos totais.
+ */
+@Data
+public class RelatorioVendasDTO {
+
+    private YearMonth de;
+
+    private YearMonth ate;
+
+    private LocalDateTime atualizadoEm;
+
+    private List<IndicadoresVendasDTO> linhas;
+}
@@ -0,0 +1,35 @@
+package com.imobiliaria.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resposta de um portal à publicação de um lote:
+ * {@code <resultado><anuncio><codigo/><codigoPortal/><url/></anuncio>...</resultado>}.
+ * O corpo é opcional; sem ele os anúncios são registrados sem código e URL do portal.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RespostaPortalDTO {
+
+    @JacksonXmlElementWrapper(useWrapping = false)
+    @JacksonXmlProperty(localName = "anuncio")
+    private List<Anuncio> anuncios = new ArrayList<>();
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Anuncio {
+
+        // Código do imóvel no CRM
+        private String codigo;
+
+        private String codigoPortal;
+
+        private String url;
+    }
+}
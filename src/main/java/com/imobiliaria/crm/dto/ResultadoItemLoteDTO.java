@@ -0,0 +1,30 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoItemLoteDTO<T> {
+
+    // Posição do item no array enviado, começando em 0
+    private int indice;
+
+    private boolean sucesso;
+
+    // Registro gravado, quando o item foi aceito
+    private T registro;
+
+    // Motivo da rejeição, quando o item foi recusado
+    private String mensagem;
+
+    public static <T> ResultadoItemLoteDTO<T> sucesso(int indice, T registro) {
+        return new ResultadoItemLoteDTO<>(indice, true, registro, null);
+    }
+
+    public static <T> ResultadoItemLoteDTO<T> falha(int indice, String mensagem) {
+        return new ResultadoItemLoteDTO<>(indice, false, null, mensagem);
+    }
+}
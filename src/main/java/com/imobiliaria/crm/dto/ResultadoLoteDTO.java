@@ -0,0 +1,24 @@
+package com.imobiliaria.crm.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Resultado de uma operação em lote: um item por elemento enviado, na mesma ordem.
+ */
+@Data
+public class ResultadoLoteDTO<T> {
+
+    private int total;
+    private int sucessos;
+    private int falhas;
+    private List<ResultadoItemLoteDTO<T>> itens;
+
+    public ResultadoLoteDTO(List<ResultadoItemLoteDTO<T>> itens) {
+        this.itens = itens;
+        this.total = itens.size();
+        this.sucessos = (int) itens.stream().filter(ResultadoItemLoteDTO::isSucesso).count();
+        this.falhas = total - sucessos;
+    }
+}
@@ -0,0 +1,19 @@
+package com.imobiliaria.crm.exception;
+
+/**
+ * Uma fila de processamento assíncrono não tem espaço para a requisição: o cliente deve
+ * repetir o envio depois de alguns segundos (503 com Retry-After).
+ */
+public class FilaCheiaException extends RuntimeException {
+
+    private final long segundosParaNovaTentativa;
+
+    public FilaCheiaException(String message, long segundosParaNovaTentativa) {
+        super(message);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+
+    public long getSegundosParaNovaTentativa() {
+        return segundosParaNovaTentativa;
+    }
+}
@@ -1,6 +1,12 @@
 
 package com.imobiliaria.crm.exception;
 
+import com.imobiliaria.crm.repository.ClienteRepository;
+import com.imobiliaria.crm.repository.CorretorRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -9,11 +15,20 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Mensagens para violações de restrições únicas, iguais às das validações dos serviços
+    private static final Map<String, String> MENSAGENS_RESTRICOES = Map.of(
+            CorretorRepository.RESTRICAO_CPF_UNICO, "CPF já cadastrado.",
+            CorretorRepository.RESTRICAO_EMAIL_UNICO, "E-mail já cadastrado.",
+            CorretorRepository.RESTRICAO_CRECI_UNICO, "CRECI já cadastrado.",
+            ClienteRepository.RESTRICAO_EMAIL_UNICO, "E-mail já cadastrado."
+    );
+
     // Captura as exceções de regras de negócio que você lança manualmente
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
@@ -30,4 +45,43 @@ public class GlobalExceptionHandler {
         return errors;
     }
 
+    // Captura violações de restrições do banco, como escritas concorrentes que passaram pelas validações
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        String mensagem = MENSAGENS_RESTRICOES.get(nomeRestricao(ex));
+        if (mensagem != null) {
+            return ResponseEntity.badRequest().body(mensagem);
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("A operação viola uma restrição de integridade dos dados.");
+    }
+
+    // If-Match com versão desatualizada
+    @ExceptionHandler(VersaoDesatualizadaException.class)
+    public ResponseEntity<String> handleVersaoDesatualizadaException(VersaoDesatualizadaException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    // Outra transação gravou o mesmo registro entre a leitura e o flush (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body("O registro foi alterado por outra requisição. Recarregue-o e tente novamente.");
+    }
+
+    // Fila de processamento assíncrono cheia: o cliente deve repetir o envio mais tarde
+    @ExceptionHandler(FilaCheiaException.class)
+    public ResponseEntity<String> handleFilaCheiaException(FilaCheiaException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getSegundosParaNovaTentativa()))
+                .body(ex.getMessage());
+    }
+
+    private static String nomeRestricao(Throwable ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null) {
+                return violacao.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.imobiliaria.crm.exception;
+
+/**
+ * A versão informada pelo cliente (If-Match) não é mais a versão atual do registro:
+ * outra alteração foi gravada depois que o cliente o leu.
+ */
+public class VersaoDesatualizadaException extends RuntimeException {
+
+    public VersaoDesatualizadaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.imobiliaria.crm.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "buscas_salvas_alertas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_buscas_salvas_alertas_busca_imovel",
+                columnNames = {"busca_id", "imovel_id"}))
+@Data
+public class AlertaBuscaSalva {
+
+    // Gravado em batch via JDBC (AlertaBuscaSalvaRepository.inserirEmLote); o id vem do DEFAULT da coluna
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "busca_id", nullable = false)
+    private Long buscaId;
+
+    @Column(name = "imovel_id", nullable = false)
+    private Long imovelId;
+
+    @Column(name = "data_alerta", nullable = false)
+    private LocalDateTime dataAlerta;
+}
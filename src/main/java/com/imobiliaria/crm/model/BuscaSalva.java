@@ -0,0 +1,68 @@
+package com.imobiliaria.crm.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Table(name = "buscas_salvas")
+@Data
+public class BuscaSalva {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    @Column(length = 100)
+    private String nome;
+
+    // --- Critérios: nulos não restringem a busca ---
+
+    @Column(length = 50)
+    private String tipo;
+
+    @Column(length = 20)
+    private String finalidade;
+
+    @Column(name = "preco_min", precision = 15, scale = 2)
+    private BigDecimal precoMin;
+
+    @Column(name = "preco_max", precision = 15, scale = 2)
+    private BigDecimal precoMax;
+
+    @Column(name = "quartos_min")
+    private Integer quartosMin;
+
+    @Column(length = 100)
+    private String cidade;
+
+    @Column(length = 100)
+    private String bairro;
+
+    // O imóvel precisa ter todas estas características; só os ids são usados na avaliação
+    @ElementCollection
+    @CollectionTable(name = "buscas_salvas_caracteristicas", joinColumns = @JoinColumn(name = "busca_id"))
+    @Column(name = "caracteristica_id")
+    @BatchSize(size = 128)
+    private Set<Long> caracteristicaIds = new HashSet<>();
+
+    @Column(nullable = false)
+    private boolean ativa = true;
+
+    @Column(name = "data_cadastro", nullable = false, updatable = false)
+    private LocalDateTime dataCadastro;
+
+    @PrePersist
+    protected void onCreate() {
+        this.dataCadastro = LocalDateTime.now();
+    }
+}
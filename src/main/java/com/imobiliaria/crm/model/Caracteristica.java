@@ -2,12 +2,18 @@ package com.imobiliaria.crm.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "caracteristicas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Caracteristica.REGIAO_CACHE)
 @Data
 public class Caracteristica {
 
+    public static final String REGIAO_CACHE = "caracteristicas";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -2,16 +2,24 @@ package com.imobiliaria.crm.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "corretores")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Corretor.REGIAO_CACHE)
 @Data
 public class Corretor {
 
+    public static final String REGIAO_CACHE = "corretores";
+
+    // Sequence com alocação em blocos (V8): permite ao Hibernate agrupar os INSERTs em batches JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "corretores_id_seq")
+    @SequenceGenerator(name = "corretores_id_seq", sequenceName = "corretores_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,34 @@
+package com.imobiliaria.crm.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_eventos")
+@Data
+public class EventoOutbox {
+
+    // Gravado em batch via JDBC (EventoOutboxRepository.inserirEmLote); o id vem do DEFAULT da coluna
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "agregado_tipo", nullable = false, length = 20)
+    private TipoAgregado agregadoTipo;
+
+    @Column(name = "agregado_id", nullable = false)
+    private Long agregadoId;
+
+    @Column(nullable = false, length = 50)
+    private String tipo;
+
+    // JSON do evento, publicado como valor da mensagem
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+}
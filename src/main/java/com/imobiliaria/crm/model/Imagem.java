@@ -10,8 +10,10 @@ import java.time.LocalDateTime;
 @Data
 public class Imagem {
 
+    // Sequence com alocação em blocos (V10): permite ao Hibernate agrupar os INSERTs em batches JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "imagens_id_seq")
+    @SequenceGenerator(name = "imagens_id_seq", sequenceName = "imagens_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -29,4 +31,31 @@ public class Imagem {
 
     @Column(columnDefinition = "INTEGER DEFAULT 0")
     private Integer ordem;
+
+    // --- Upload (V9): arquivo original no ArmazenamentoImagens e variantes geradas em segundo plano ---
+
+    // Hash SHA-256 do arquivo original; nulo para imagens cadastradas apenas por URL
+    @Column(length = 64)
+    private String arquivo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_processamento", length = 20)
+    private StatusProcessamentoImagem statusProcessamento;
+
+    // Reserva do worker que está gerando as variantes (V18); retomada pela varredura se ficar antiga
+    @Column(name = "inicio_processamento")
+    private LocalDateTime inicioProcessamento;
+
+    @Column(name = "url_miniatura", length = 255)
+    private String urlMiniatura;
+
+    @Column(name = "url_card", length = 255)
+    private String urlCard;
+
+    @Column(name = "url_completa", length = 255)
+    private String urlCompleta;
+
+    // Indica se as variantes também foram geradas em WebP (mesma URL com extensão .webp)
+    @Column(name = "possui_webp", nullable = false)
+    private boolean possuiWebp;
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.imobiliaria.crm.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -11,11 +13,33 @@ import java.util.Set;
 
 @Entity
 @Table(name = "imoveis")
+// Planos de busca por caso de uso, aplicados via @EntityGraph no ImovelRepository
+@NamedEntityGraph(name = Imovel.GRAFO_LISTAGEM, attributeNodes = {
+        @NamedAttributeNode("corretor")
+})
+// Apenas uma coleção por JOIN: buscar imagens (List) e características juntas gera produto cartesiano
+@NamedEntityGraph(name = Imovel.GRAFO_DETALHE, attributeNodes = {
+        @NamedAttributeNode("corretor"),
+        @NamedAttributeNode("imagens")
+})
+// Exportação em streaming: JOIN de coleções quebraria o desanexo periódico do cursor;
+// imagens e características são carregadas em lote a cada bloco lido
+@NamedEntityGraph(name = Imovel.GRAFO_EXPORTACAO, attributeNodes = {
+        @NamedAttributeNode("corretor")
+})
+// UPDATE apenas com as colunas alteradas: atualizações de preço/status (PATCH) não regravam a linha inteira
+@DynamicUpdate
 @Data
 public class Imovel {
 
+    public static final String GRAFO_LISTAGEM = "Imovel.listagem";
+    public static final String GRAFO_DETALHE = "Imovel.detalhe";
+    public static final String GRAFO_EXPORTACAO = "Imovel.exportacao";
+
+    // Sequence com alocação em blocos (V6): permite ao Hibernate agrupar os INSERTs em batches JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "imoveis_id_seq")
+    @SequenceGenerator(name = "imoveis_id_seq", sequenceName = "imoveis_id_seq", allocationSize = 50)
     private Long id;
 
     // --- Campos de Identificação e Tipo ---
@@ -77,18 +101,27 @@ public class Imovel {
     private LocalDateTime dataCadastro;
 
     @UpdateTimestamp // Anotação do Hibernate que atualiza automaticamente na alteração
-    @Column(name = "data_atualizacao")
+    @Column(name = "data_atualizacao", nullable = false)
     private LocalDateTime dataAtualizacao;
 
+    // Bloqueio otimista (V11): alterações concorrentes falham no flush em vez de se sobrescreverem
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     // --- Relacionamentos ---
     @ManyToOne(fetch = FetchType.LAZY) // LAZY é melhor para performance
     @JoinColumn(name = "corretor_id")
     private Corretor corretor;
 
+    // Coleções não podem ser buscadas com JOIN em consultas paginadas; nas listagens elas são
+    // carregadas em lote (uma consulta por coleção para a página inteira, até 100 itens + 1 de sobra).
     @OneToMany(mappedBy = "imovel", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 128)
     private List<Imagem> imagens;
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 128)
     @JoinTable(
             name = "imovel_caracteristicas",
             joinColumns = @JoinColumn(name = "imovel_id"),
@@ -0,0 +1,41 @@
+package com.imobiliaria.crm.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "interacoes")
+@Data
+public class Interacao {
+
+    // Gravadas em INSERTs de várias linhas via JDBC (InteracaoRepository.inserirEmLote). No PostgreSQL
+    // a chave primária é (id, data_interacao) por causa do particionamento (V15); o id vem da sequence
+    // e sozinho já identifica a linha
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "corretor_id", nullable = false)
+    private Corretor corretor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "imovel_id")
+    private Imovel imovel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private TipoInteracao tipo;
+
+    @Column(name = "data_interacao", nullable = false)
+    private LocalDateTime dataInteracao;
+
+    @Column(columnDefinition = "TEXT")
+    private String observacoes;
+}
@@ -0,0 +1,58 @@
+package com.imobiliaria.crm.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "portais_integracao")
+@Data
+public class PortalIntegracao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Sem associação com Imovel: a coluna fica nula quando o imóvel é excluído (V13) e a linha
+    // permanece até a remoção do anúncio, identificada pelo código do imóvel
+    @Column(name = "imovel_id")
+    private Long imovelId;
+
+    @Column(name = "codigo_imovel", length = 50)
+    private String codigoImovel;
+
+    @Column(name = "portal_nome", nullable = false, length = 100)
+    private String portalNome;
+
+    // Identificação do anúncio no portal, quando informada na resposta da publicação
+    @Column(name = "codigo_portal", length = 100)
+    private String codigoPortal;
+
+    @Column(name = "url_anuncio")
+    private String urlAnuncio;
+
+    @Column(name = "data_publicacao")
+    private LocalDateTime dataPublicacao;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private StatusPublicacaoPortal status;
+
+    @Column(name = "data_atualizacao_publicada")
+    private LocalDateTime dataAtualizacaoPublicada;
+
+    @Column(name = "data_sincronizacao")
+    private LocalDateTime dataSincronizacao;
+
+    // Falhas seguidas; zerado a cada envio confirmado
+    @Column(nullable = false)
+    private int tentativas;
+
+    // Linha em ERRO só volta a ser enviada a partir deste momento (espera exponencial, V20)
+    @Column(name = "proxima_tentativa")
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+}
@@ -0,0 +1,16 @@
+package com.imobiliaria.crm.model;
+
+/**
+ * Etapas da geração das variantes de uma imagem enviada por upload.
+ * Imagens cadastradas apenas por URL não têm status de processamento.
+ */
+public enum StatusProcessamentoImagem {
+    // Arquivo original armazenado, aguardando o processamento em segundo plano
+    PENDENTE,
+    // Variantes sendo geradas por um worker
+    PROCESSANDO,
+    // Variantes disponíveis
+    CONCLUIDO,
+    // O arquivo não pôde ser lido como imagem; não é reprocessado
+    ERRO
+}
@@ -0,0 +1,13 @@
+package com.imobiliaria.crm.model;
+
+/**
+ * Situação de um imóvel em um portal (coluna status de portais_integracao).
+ */
+public enum StatusPublicacaoPortal {
+    // Anúncio publicado com a data_atualizacao registrada em data_atualizacao_publicada
+    ATIVO,
+    // Anúncio retirado do portal depois que o imóvel foi despublicado
+    REMOVIDO,
+    // O último envio falhou; o imóvel é reenviado depois de uma espera que dobra a cada falha seguida
+    ERRO
+}
@@ -0,0 +1,21 @@
+package com.imobiliaria.crm.model;
+
+/**
+ * Agregados que publicam eventos pelo outbox. Cada um tem o seu tópico no Kafka;
+ * a chave da mensagem é o id do agregado, o que mantém a ordem dos seus eventos.
+ */
+public enum TipoAgregado {
+    IMOVEL("imoveis"),
+    CORRETOR("corretores"),
+    CLIENTE("clientes");
+
+    private final String topico;
+
+    TipoAgregado(String topico) {
+        this.topico = topico;
+    }
+
+    public String getTopico() {
+        return topico;
+    }
+}
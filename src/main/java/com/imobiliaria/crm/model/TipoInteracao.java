@@ -0,0 +1,12 @@
+package com.imobiliaria.crm.model;
+
+/**
+ * Contatos registrados entre corretor e cliente (coluna tipo de interacoes).
+ */
+public enum TipoInteracao {
+    LIGACAO,
+    VISITA,
+    EMAIL,
+    MENSAGEM,
+    REUNIAO
+}
@@ -0,0 +1,25 @@
+package com.imobiliaria.crm.model;
+
+import lombok.Getter;
+
+/**
+ * Tamanhos gerados para cada imagem enviada por upload. O lado maior da imagem é reduzido
+ * ao limite da variante, mantendo a proporção; imagens menores não são ampliadas.
+ */
+@Getter
+public enum VarianteImagem {
+    // Miniaturas de galerias e listagens compactas
+    MINIATURA("miniatura", 240),
+    // Cards da listagem de imóveis
+    CARD("card", 640),
+    // Visualização em tela cheia na página do imóvel
+    COMPLETA("completa", 1600);
+
+    private final String nome;
+    private final int ladoMaximo;
+
+    VarianteImagem(String nome, int ladoMaximo) {
+        this.nome = nome;
+        this.ladoMaximo = ladoMaximo;
+    }
+}
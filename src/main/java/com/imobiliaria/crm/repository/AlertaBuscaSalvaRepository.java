@@ -0,0 +1,17 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.AlertaBuscaSalva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AlertaBuscaSalvaRepository extends JpaRepository<AlertaBuscaSalva, Long>, AlertaBuscaSalvaRepositoryCustom {
+
+    @Query("SELECT a.buscaId FROM AlertaBuscaSalva a WHERE a.imovelId = :imovelId AND a.buscaId IN :buscaIds")
+    List<Long> findBuscasJaAlertadas(@Param("imovelId") Long imovelId, @Param("buscaIds") Collection<Long> buscaIds);
+}
@@ -0,0 +1,10 @@
+package com.imobiliaria.crm.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface AlertaBuscaSalvaRepositoryCustom {
+
+    // Um INSERT por busca atendida, enviados em batch JDBC
+    void inserirEmLote(Long imovelId, Collection<Long> buscaIds, LocalDateTime dataAlerta);
+}
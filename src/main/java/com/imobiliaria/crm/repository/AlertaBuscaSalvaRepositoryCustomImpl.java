@@ -0,0 +1,31 @@
+package com.imobiliaria.crm.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+class AlertaBuscaSalvaRepositoryCustomImpl implements AlertaBuscaSalvaRepositoryCustom {
+
+    private static final int TAMANHO_BATCH = 100;
+
+    private static final String INSERIR = "INSERT INTO buscas_salvas_alertas " +
+            "(busca_id, imovel_id, data_alerta) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    AlertaBuscaSalvaRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void inserirEmLote(Long imovelId, Collection<Long> buscaIds, LocalDateTime dataAlerta) {
+        Timestamp data = Timestamp.valueOf(dataAlerta);
+        jdbcTemplate.batchUpdate(INSERIR, buscaIds, TAMANHO_BATCH, (ps, buscaId) -> {
+            ps.setLong(1, buscaId);
+            ps.setLong(2, imovelId);
+            ps.setTimestamp(3, data);
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.BuscaSalva;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface BuscaSalvaRepository extends JpaRepository<BuscaSalva, Long> {
+
+    List<BuscaSalva> findByClienteIdOrderById(Long clienteId);
+
+    Optional<BuscaSalva> findByIdAndClienteId(Long id, Long clienteId);
+
+    long countByClienteId(Long clienteId);
+
+    // --- Carga do índice em memória: uma linha por busca e característica, sem hidratar entidades ---
+
+    interface LinhaIndice {
+        Long getId();
+
+        Long getClienteId();
+
+        String getTipo();
+
+        String getFinalidade();
+
+        BigDecimal getPrecoMin();
+
+        BigDecimal getPrecoMax();
+
+        Integer getQuartosMin();
+
+        String getCidade();
+
+        String getBairro();
+
+        // Nulo quando a busca não exige características
+        Long getCaracteristicaId();
+    }
+
+    // Linhas de uma mesma busca chegam consecutivas (ORDER BY id)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id AS id, b.cliente.id AS clienteId, b.tipo AS tipo, b.finalidade AS finalidade, " +
+            "b.precoMin AS precoMin, b.precoMax AS precoMax, b.quartosMin AS quartosMin, " +
+            "b.cidade AS cidade, b.bairro AS bairro, c AS caracteristicaId " +
+            "FROM BuscaSalva b LEFT JOIN b.caracteristicaIds c " +
+            "WHERE b.ativa = true " +
+            "ORDER BY b.id")
+    Stream<LinhaIndice> streamAtivasParaIndice();
+}
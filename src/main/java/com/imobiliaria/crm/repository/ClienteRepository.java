@@ -0,0 +1,29 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.Cliente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+
+    // Nome da restrição de unicidade no PostgreSQL (V1), usado pelo GlobalExceptionHandler
+    String RESTRICAO_EMAIL_UNICO = "clientes_email_key";
+
+    boolean existsByEmail(String email);
+
+    boolean existsByEmailAndIdNot(String email, Long id);
+
+    // Paginação keyset por id (o Pageable é usado apenas para limitar o número de linhas)
+    @Query("SELECT c FROM Cliente c WHERE c.id > :aposId ORDER BY c.id")
+    List<Cliente> findPaginaPorIdApos(@Param("aposId") Long aposId, Pageable limite);
+
+    @Query("SELECT c.id FROM Cliente c WHERE c.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+}
@@ -1,14 +1,57 @@
 package com.imobiliaria.crm.repository;
 
 import com.imobiliaria.crm.model.Corretor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 public interface CorretorRepository extends JpaRepository<Corretor, Long> {
-    Optional<Corretor> findByCpf(String cpf);
-    Optional<Corretor> findByEmail(String email);
-    Optional<Corretor> findByCreci(String creci);
+
+    String REGIAO_CACHE_POR_ATIVO = "corretores-por-ativo";
+
+    // Nomes das restrições de unicidade no PostgreSQL (V1 e V7), usados pelo GlobalExceptionHandler
+    String RESTRICAO_CPF_UNICO = "uk_corretores_cpf";
+    String RESTRICAO_EMAIL_UNICO = "corretores_email_key";
+    String RESTRICAO_CRECI_UNICO = "corretores_creci_key";
+
+    interface DadosUnicosCorretor {
+        String getCpf();
+
+        String getEmail();
+
+        String getCreci();
+    }
+
+    // Resultado no cache de consultas; invalidado automaticamente a cada escrita em corretores
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGIAO_CACHE_POR_ATIVO)
+    })
     List<Corretor> findByAtivo(boolean ativo);
-}
\ No newline at end of file
+
+    // Uma única consulta informa quais de cpf/e-mail/creci já pertencem a outro corretor.
+    // Parâmetros nulos não casam com nenhuma linha; idIgnorado exclui o próprio corretor em atualizações.
+    @Query("SELECT c.cpf AS cpf, c.email AS email, c.creci AS creci FROM Corretor c " +
+            "WHERE (c.cpf = :cpf OR c.email = :email OR c.creci = :creci) " +
+            "AND (:idIgnorado IS NULL OR c.id <> :idIgnorado)")
+    List<DadosUnicosCorretor> findConflitosUnicidade(@Param("cpf") String cpf,
+                                                     @Param("email") String email,
+                                                     @Param("creci") String creci,
+                                                     @Param("idIgnorado") Long idIgnorado);
+
+    // Versão em lote: cpfs, e-mails e crecis já cadastrados entre os informados
+    @Query("SELECT c.cpf AS cpf, c.email AS email, c.creci AS creci FROM Corretor c " +
+            "WHERE c.cpf IN :cpfs OR c.email IN :emails OR c.creci IN :crecis")
+    List<DadosUnicosCorretor> findConflitosUnicidadeEmLote(@Param("cpfs") Collection<String> cpfs,
+                                                           @Param("emails") Collection<String> emails,
+                                                           @Param("crecis") Collection<String> crecis);
+
+    @Query("SELECT c.id FROM Corretor c WHERE c.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+}
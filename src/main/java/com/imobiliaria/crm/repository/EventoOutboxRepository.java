@@ -0,0 +1,21 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.EventoOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long>, EventoOutboxRepositoryCustom {
+
+    // Lock exclusivo até o fim da transação: apenas uma instância publica por vez, preservando a ordem
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:chave)", nativeQuery = true)
+    boolean obterLockRelay(@Param("chave") long chave);
+
+    @Query("SELECT e FROM EventoOutbox e ORDER BY e.id")
+    List<EventoOutbox> findLote(Pageable limite);
+}
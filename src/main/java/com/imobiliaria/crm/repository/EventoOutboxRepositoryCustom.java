@@ -0,0 +1,11 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.EventoOutbox;
+
+import java.util.List;
+
+public interface EventoOutboxRepositoryCustom {
+
+    // INSERTs em batch JDBC, com o id atribuído pela sequence no momento da gravação
+    void inserirEmLote(List<EventoOutbox> eventos);
+}
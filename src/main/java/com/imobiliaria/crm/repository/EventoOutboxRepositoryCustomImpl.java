@@ -0,0 +1,33 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.EventoOutbox;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+class EventoOutboxRepositoryCustomImpl implements EventoOutboxRepositoryCustom {
+
+    private static final int TAMANHO_BATCH = 100;
+
+    private static final String INSERIR = "INSERT INTO outbox_eventos " +
+            "(agregado_tipo, agregado_id, tipo, payload, data_criacao) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    EventoOutboxRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void inserirEmLote(List<EventoOutbox> eventos) {
+        // Com GenerationType.IDENTITY o Hibernate não agrupa INSERTs; via JDBC o batch é mantido
+        jdbcTemplate.batchUpdate(INSERIR, eventos, TAMANHO_BATCH, (ps, evento) -> {
+            ps.setString(1, evento.getAgregadoTipo().name());
+            ps.setLong(2, evento.getAgregadoId());
+            ps.setString(3, evento.getTipo());
+            ps.setString(4, evento.getPayload());
+            ps.setTimestamp(5, Timestamp.valueOf(evento.getDataCriacao()));
+        });
+    }
+}
@@ -1,16 +1,86 @@
 package com.imobiliaria.crm.repository;
 
 import com.imobiliaria.crm.model.Imagem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ImagemRepository extends JpaRepository<Imagem, Long> {
 
-    List<Imagem> findByImovelId(Long imovelId);
+    // Galeria na ordem de exibição; atendida pelo índice (imovel_id, ordem, id) de V3
+    List<Imagem> findByImovelIdOrderByOrdemAscIdAsc(Long imovelId);
+
+    @Query("SELECT COALESCE(MAX(i.ordem), -1) FROM Imagem i WHERE i.imovel.id = :imovelId")
+    int findMaiorOrdem(@Param("imovelId") Long imovelId);
 
     Optional<Imagem> findByIdAndImovelId(Long imagemId, Long imovelId);
-}
\ No newline at end of file
+
+    // --- Processamento das variantes (ProcessadorImagens), fora de transações de requisição ---
+
+    @Query("SELECT i.arquivo FROM Imagem i WHERE i.id = :id")
+    Optional<String> findArquivoById(@Param("id") Long id);
+
+    // Limpeza dos originais sem uso (LimpezaOriginaisOrfaos); atendida pelo índice de V21
+    @Query("SELECT DISTINCT i.arquivo FROM Imagem i WHERE i.arquivo IN :arquivos")
+    List<String> findArquivosExistentes(@Param("arquivos") Collection<String> arquivos);
+
+    // Imagens PENDENTE enviadas antes do limite e reservas PROCESSANDO abandonadas antes dele
+    @Query("SELECT i.id FROM Imagem i " +
+            "WHERE (i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.PENDENTE " +
+            "AND i.dataUpload < :limite) " +
+            "OR (i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.PROCESSANDO " +
+            "AND (i.inicioProcessamento IS NULL OR i.inicioProcessamento < :limite)) " +
+            "ORDER BY i.dataUpload")
+    List<Long> findIdsPendentes(@Param("limite") LocalDateTime limite, Pageable quantidade);
+
+    // Reserva a imagem para um worker; retorna 0 se não está pendente ou se outro worker a reservou
+    // depois de limiteReserva (reservas anteriores são de workers que morreram e são retomadas)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Imagem i SET i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.PROCESSANDO, " +
+            "i.inicioProcessamento = :agora " +
+            "WHERE i.id = :id AND (i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.PENDENTE " +
+            "OR (i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.PROCESSANDO " +
+            "AND (i.inicioProcessamento IS NULL OR i.inicioProcessamento < :limiteReserva)))")
+    int iniciarProcessamento(@Param("id") Long id,
+                             @Param("agora") LocalDateTime agora,
+                             @Param("limiteReserva") LocalDateTime limiteReserva);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Imagem i SET i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.CONCLUIDO, " +
+            "i.urlMiniatura = :urlMiniatura, i.urlCard = :urlCard, i.urlCompleta = :urlCompleta, i.possuiWebp = :possuiWebp, " +
+            "i.inicioProcessamento = NULL " +
+            "WHERE i.id = :id")
+    int concluirProcessamento(@Param("id") Long id,
+                              @Param("urlMiniatura") String urlMiniatura,
+                              @Param("urlCard") String urlCard,
+                              @Param("urlCompleta") String urlCompleta,
+                              @Param("possuiWebp") boolean possuiWebp);
+
+    // Falha transitória (ex.: disco): a imagem volta a PENDENTE para o reprocessamento periódico.
+    // Só vale para a imagem ainda PROCESSANDO: um worker retomado pode já tê-la concluído
+    @Transactional
+    @Modifying
+    @Query("UPDATE Imagem i SET i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.PENDENTE, " +
+            "i.inicioProcessamento = NULL " +
+            "WHERE i.id = :id AND i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.PROCESSANDO")
+    int devolverParaPendente(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Imagem i SET i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.ERRO, " +
+            "i.inicioProcessamento = NULL " +
+            "WHERE i.id = :id AND i.statusProcessamento = com.imobiliaria.crm.model.StatusProcessamentoImagem.PROCESSANDO")
+    int registrarErroProcessamento(@Param("id") Long id);
+}
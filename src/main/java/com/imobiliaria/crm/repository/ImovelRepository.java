@@ -1,10 +1,222 @@
 package com.imobiliaria.crm.repository;
 
+import com.imobiliaria.crm.dto.ImovelResumoDTO;
 import com.imobiliaria.crm.model.Imovel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ImovelRepository extends JpaRepository<Imovel, Long> {
+public interface ImovelRepository extends JpaRepository<Imovel, Long>, JpaSpecificationExecutor<Imovel> {
+
+    // Tela de detalhe: imóvel, corretor e imagens em uma consulta; características em uma segunda
+    @EntityGraph(Imovel.GRAFO_DETALHE)
+    Optional<Imovel> findDetalheById(Long id);
+
+    @EntityGraph(Imovel.GRAFO_LISTAGEM)
+    List<Imovel> findListagemByIdIn(Collection<Long> ids);
+
+    // --- Requisições condicionais (ETag/Last-Modified) sem carregar o grafo do imóvel ---
+
+    interface VersaoImovel {
+        Long getVersao();
+
+        LocalDateTime getDataAtualizacao();
+    }
+
+    @Query("SELECT i.versao AS versao, i.dataAtualizacao AS dataAtualizacao FROM Imovel i WHERE i.id = :id")
+    Optional<VersaoImovel> findVersaoById(@Param("id") Long id);
+
+    interface EstadoColecao {
+        LocalDateTime getUltimaAtualizacao();
+
+        long getQuantidade();
+    }
+
+    // A contagem acompanha a data máxima para que exclusões também mudem o estado da coleção
+    @Query("SELECT MAX(i.dataAtualizacao) AS ultimaAtualizacao, COUNT(i) AS quantidade FROM Imovel i")
+    EstadoColecao findEstadoColecao();
+
+    // Alterações nas imagens não sujam a entidade Imovel; o imóvel é marcado explicitamente
+    // (nova versão e data), já que a galeria faz parte da sua representação
+    @Modifying
+    @Query("UPDATE Imovel i SET i.dataAtualizacao = :data, i.versao = i.versao + 1 WHERE i.id = :id")
+    int registrarAlteracao(@Param("id") Long id, @Param("data") LocalDateTime data);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Imovel i SET i.dataAtualizacao = :data, i.versao = i.versao + 1 " +
+            "WHERE i.id = (SELECT img.imovel.id FROM Imagem img WHERE img.id = :imagemId)")
+    int registrarAlteracaoPorImagem(@Param("imagemId") Long imagemId, @Param("data") LocalDateTime data);
+
+    // O corretor e os nomes das características também fazem parte da representação do imóvel:
+    // editá-los marca os imóveis afetados, para que os validadores de cache (versão, data) mudem
+    @Modifying
+    @Query("UPDATE Imovel i SET i.dataAtualizacao = :data, i.versao = i.versao + 1 WHERE i.corretor.id = :corretorId")
+    int registrarAlteracaoPorCorretor(@Param("corretorId") Long corretorId, @Param("data") LocalDateTime data);
+
+    @Modifying
+    @Query("UPDATE Imovel i SET i.dataAtualizacao = :data, i.versao = i.versao + 1 " +
+            "WHERE i.id IN (SELECT j.id FROM Imovel j JOIN j.caracteristicas c WHERE c.id = :caracteristicaId)")
+    int registrarAlteracaoPorCaracteristica(@Param("caracteristicaId") Long caracteristicaId,
+                                            @Param("data") LocalDateTime data);
+
+    @Query("SELECT i.codigo FROM Imovel i WHERE i.codigo IN :codigos")
+    List<String> findCodigosExistentes(@Param("codigos") Collection<String> codigos);
+
+    @Query("SELECT i.id FROM Imovel i WHERE i.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // --- Paginação keyset (o Pageable é usado apenas para limitar o número de linhas) ---
+
+    @EntityGraph(Imovel.GRAFO_LISTAGEM)
+    @Query("SELECT i FROM Imovel i ORDER BY i.id ASC")
+    List<Imovel> findPrimeiraPaginaPorId(Pageable limite);
+
+    @EntityGraph(Imovel.GRAFO_LISTAGEM)
+    @Query("SELECT i FROM Imovel i WHERE i.id > :aposId ORDER BY i.id ASC")
+    List<Imovel> findPaginaPorIdApos(@Param("aposId") Long aposId, Pageable limite);
+
+    @EntityGraph(Imovel.GRAFO_LISTAGEM)
+    @Query("SELECT i FROM Imovel i ORDER BY i.dataAtualizacao DESC, i.id DESC")
+    List<Imovel> findPrimeiraPaginaPorDataAtualizacao(Pageable limite);
+
+    @EntityGraph(Imovel.GRAFO_LISTAGEM)
+    @Query("SELECT i FROM Imovel i " +
+            "WHERE i.dataAtualizacao < :data OR (i.dataAtualizacao = :data AND i.id < :aposId) " +
+            "ORDER BY i.dataAtualizacao DESC, i.id DESC")
+    List<Imovel> findPaginaPorDataAtualizacaoApos(@Param("data") LocalDateTime data,
+                                                  @Param("aposId") Long aposId,
+                                                  Pageable limite);
+
+    // --- Exportação em streaming: cursor do servidor com fetch size e entidades somente leitura ---
+
+    @EntityGraph(Imovel.GRAFO_EXPORTACAO)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Imovel i ORDER BY i.id")
+    Stream<Imovel> streamTodosParaExportacao();
+
+    @EntityGraph(Imovel.GRAFO_EXPORTACAO)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Imovel i WHERE i.publicado = true ORDER BY i.id")
+    Stream<Imovel> streamPublicadosParaExportacao();
+
+    // --- Resumo para cards: apenas as colunas exibidas e a imagem de capa ---
+
+    @Query(value = "SELECT i.id AS id, i.codigo AS codigo, i.tipo AS tipo, i.preco AS preco, " +
+            "i.cidade AS cidade, i.quartos AS quartos, capa.url AS \"capaUrl\" " +
+            "FROM imoveis i " +
+            // Variante card quando a imagem veio por upload e já foi processada; senão a URL cadastrada
+            "LEFT JOIN LATERAL (SELECT COALESCE(img.url_card, img.url) AS url FROM imagens img WHERE img.imovel_id = i.id " +
+            "ORDER BY img.ordem, img.id LIMIT 1) capa ON TRUE " +
+            "WHERE i.id > :aposId " +
+            "ORDER BY i.id " +
+            "LIMIT :limite", nativeQuery = true)
+    List<ImovelResumoDTO> findResumosAposId(@Param("aposId") Long aposId, @Param("limite") int limite);
+
+    // --- Carga do índice de facetas: apenas as colunas das dimensões, sem hidratar entidades ---
+
+    interface LinhaFacetas {
+        Long getId();
+
+        String getTipo();
+
+        String getFinalidade();
+
+        String getStatus();
+
+        String getCidade();
+
+        String getBairro();
+
+        Integer getQuartos();
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT i.id AS id, i.tipo AS tipo, i.finalidade AS finalidade, i.status AS status, " +
+            "i.endereco.cidade AS cidade, i.endereco.bairro AS bairro, i.quartos AS quartos " +
+            "FROM Imovel i ORDER BY i.id")
+    Stream<LinhaFacetas> streamParaFacetas();
+
+    interface CaracteristicaImovel {
+        Long getImovelId();
+
+        Long getCaracteristicaId();
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT i.id AS imovelId, c.id AS caracteristicaId FROM Imovel i JOIN i.caracteristicas c")
+    Stream<CaracteristicaImovel> streamCaracteristicasParaFacetas();
+
+    // --- Busca textual (coluna descricao_tsv, V5) ---
+
+    interface RelevanciaImovel {
+        Long getId();
+
+        Float getRelevancia();
+    }
 
-}
\ No newline at end of file
+    // Ordena por ts_rank decrescente; o cursor keyset é o par (relevância, id) da última linha entregue.
+    // Características com AND, como na busca estruturada: o imóvel deve possuir todas as informadas;
+    // sem características, quantidadeCaracteristicas = 0 e a lista recebe um id qualquer (IN () é inválido)
+    @Query(value = "SELECT r.id AS id, r.relevancia AS relevancia FROM (" +
+            "SELECT i.id AS id, ts_rank(i.descricao_tsv, consulta) AS relevancia " +
+            "FROM imoveis i CROSS JOIN websearch_to_tsquery('portuguese', :termo) AS consulta " +
+            "WHERE i.descricao_tsv @@ consulta " +
+            "AND (CAST(:tipo AS varchar) IS NULL OR i.tipo = :tipo) " +
+            "AND (CAST(:finalidade AS varchar) IS NULL OR i.finalidade = :finalidade) " +
+            "AND (CAST(:status AS varchar) IS NULL OR i.status = :status) " +
+            "AND (CAST(:precoMin AS numeric) IS NULL OR i.preco >= :precoMin) " +
+            "AND (CAST(:precoMax AS numeric) IS NULL OR i.preco <= :precoMax) " +
+            "AND (CAST(:quartosMin AS integer) IS NULL OR i.quartos >= :quartosMin) " +
+            "AND (CAST(:vagasGaragemMin AS integer) IS NULL OR i.vagas_garagem >= :vagasGaragemMin) " +
+            "AND (CAST(:estado AS varchar) IS NULL OR i.estado = :estado) " +
+            "AND (CAST(:cidade AS varchar) IS NULL OR i.cidade = :cidade) " +
+            "AND (CAST(:bairro AS varchar) IS NULL OR i.bairro = :bairro) " +
+            "AND (:quantidadeCaracteristicas = 0 OR i.id IN (" +
+            "SELECT ic.imovel_id FROM imovel_caracteristicas ic WHERE ic.caracteristica_id IN (:caracteristicaIds) " +
+            "GROUP BY ic.imovel_id HAVING COUNT(*) = :quantidadeCaracteristicas))" +
+            ") r " +
+            "WHERE CAST(:relevanciaCursor AS real) IS NULL OR r.relevancia < :relevanciaCursor " +
+            "OR (r.relevancia = :relevanciaCursor AND r.id < :idCursor) " +
+            "ORDER BY r.relevancia DESC, r.id DESC " +
+            "LIMIT :limite", nativeQuery = true)
+    List<RelevanciaImovel> buscarPorTexto(@Param("termo") String termo,
+                                          @Param("tipo") String tipo,
+                                          @Param("finalidade") String finalidade,
+                                          @Param("status") String status,
+                                          @Param("precoMin") BigDecimal precoMin,
+                                          @Param("precoMax") BigDecimal precoMax,
+                                          @Param("quartosMin") Integer quartosMin,
+                                          @Param("vagasGaragemMin") Integer vagasGaragemMin,
+                                          @Param("estado") String estado,
+                                          @Param("cidade") String cidade,
+                                          @Param("bairro") String bairro,
+                                          @Param("caracteristicaIds") Collection<Long> caracteristicaIds,
+                                          @Param("quantidadeCaracteristicas") int quantidadeCaracteristicas,
+                                          @Param("relevanciaCursor") Float relevanciaCursor,
+                                          @Param("idCursor") Long idCursor,
+                                          @Param("limite") int limite);
+}
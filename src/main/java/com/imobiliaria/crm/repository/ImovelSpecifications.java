@@ -0,0 +1,85 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.dto.ImovelFiltroDTO;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imovel;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monta dinamicamente as consultas de busca de imóveis.
+ * Apenas os critérios preenchidos viram predicados, para que o planner
+ * possa usar os índices compostos criados em V4__indices_busca_imoveis.sql.
+ */
+public final class ImovelSpecifications {
+
+    private ImovelSpecifications() {
+    }
+
+    public static Specification<Imovel> comFiltro(ImovelFiltroDTO filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+
+            if (StringUtils.hasText(filtro.getTipo())) {
+                predicados.add(cb.equal(root.get("tipo"), filtro.getTipo()));
+            }
+            if (StringUtils.hasText(filtro.getFinalidade())) {
+                predicados.add(cb.equal(root.get("finalidade"), filtro.getFinalidade()));
+            }
+            if (StringUtils.hasText(filtro.getStatus())) {
+                predicados.add(cb.equal(root.get("status"), filtro.getStatus()));
+            }
+            if (filtro.getPrecoMin() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("preco"), filtro.getPrecoMin()));
+            }
+            if (filtro.getPrecoMax() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("preco"), filtro.getPrecoMax()));
+            }
+            if (filtro.getQuartosMin() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("quartos"), filtro.getQuartosMin()));
+            }
+            if (filtro.getVagasGaragemMin() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("vagasGaragem"), filtro.getVagasGaragemMin()));
+            }
+
+            Path<Endereco> endereco = root.get("endereco");
+            if (StringUtils.hasText(filtro.getEstado())) {
+                predicados.add(cb.equal(endereco.get("estado"), filtro.getEstado()));
+            }
+            if (StringUtils.hasText(filtro.getCidade())) {
+                predicados.add(cb.equal(endereco.get("cidade"), filtro.getCidade()));
+            }
+            if (StringUtils.hasText(filtro.getBairro())) {
+                predicados.add(cb.equal(endereco.get("bairro"), filtro.getBairro()));
+            }
+
+            if (filtro.getCaracteristicaIds() != null && !filtro.getCaracteristicaIds().isEmpty()) {
+                // id IN (imóveis que possuem todas as características pedidas)
+                Subquery<Long> comCaracteristicas = query.subquery(Long.class);
+                Root<Imovel> imovel = comCaracteristicas.from(Imovel.class);
+                Join<Imovel, Caracteristica> caracteristica = imovel.join("caracteristicas");
+                comCaracteristicas.select(imovel.get("id"))
+                        .where(caracteristica.get("id").in(filtro.getCaracteristicaIds()))
+                        .groupBy(imovel.get("id"))
+                        .having(cb.equal(cb.count(caracteristica.get("id")), (long) filtro.getCaracteristicaIds().size()));
+                predicados.add(root.get("id").in(comCaracteristicas));
+            }
+
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+
+    // Predicado do cursor para a paginação keyset por id
+    public static Specification<Imovel> comIdMaiorQue(Long aposId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), aposId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.dto.InteracaoTimelineDTO;
+import com.imobiliaria.crm.model.Interacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InteracaoRepository extends JpaRepository<Interacao, Long>, InteracaoRepositoryCustom {
+
+    // --- Linhas do tempo: paginação keyset em (data_interacao DESC, id DESC), índices da V16 ---
+
+    String COLUNAS_TIMELINE = "SELECT it.id AS id, it.data_interacao AS \"dataInteracao\", it.tipo AS tipo, " +
+            "it.observacoes AS observacoes, it.cliente_id AS \"clienteId\", c.nome AS \"clienteNome\", " +
+            "it.corretor_id AS \"corretorId\", it.imovel_id AS \"imovelId\", im.codigo AS \"imovelCodigo\" " +
+            "FROM interacoes it " +
+            "JOIN clientes c ON c.id = it.cliente_id " +
+            "LEFT JOIN imoveis im ON im.id = it.imovel_id ";
+
+    String ORDEM_TIMELINE = "ORDER BY it.data_interacao DESC, it.id DESC LIMIT :limite";
+
+    @Query(value = COLUNAS_TIMELINE + "WHERE it.cliente_id = :clienteId " + ORDEM_TIMELINE, nativeQuery = true)
+    List<InteracaoTimelineDTO> findTimelineCliente(@Param("clienteId") Long clienteId, @Param("limite") int limite);
+
+    // Comparação de linha: uma única condição de intervalo no índice, em vez de um OR
+    @Query(value = COLUNAS_TIMELINE + "WHERE it.cliente_id = :clienteId " +
+            "AND (it.data_interacao, it.id) < (:data, :aposId) " + ORDEM_TIMELINE, nativeQuery = true)
+    List<InteracaoTimelineDTO> findTimelineClienteApos(@Param("clienteId") Long clienteId,
+                                                       @Param("data") LocalDateTime data,
+                                                       @Param("aposId") Long aposId,
+                                                       @Param("limite") int limite);
+
+    @Query(value = COLUNAS_TIMELINE + "WHERE it.corretor_id = :corretorId " + ORDEM_TIMELINE, nativeQuery = true)
+    List<InteracaoTimelineDTO> findTimelineCorretor(@Param("corretorId") Long corretorId, @Param("limite") int limite);
+
+    @Query(value = COLUNAS_TIMELINE + "WHERE it.corretor_id = :corretorId " +
+            "AND (it.data_interacao, it.id) < (:data, :aposId) " + ORDEM_TIMELINE, nativeQuery = true)
+    List<InteracaoTimelineDTO> findTimelineCorretorApos(@Param("corretorId") Long corretorId,
+                                                        @Param("data") LocalDateTime data,
+                                                        @Param("aposId") Long aposId,
+                                                        @Param("limite") int limite);
+}
@@ -0,0 +1,23 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.TipoInteracao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Gravação das interações recebidas pela fila de ingestão, fora do contexto de persistência.
+ */
+public interface InteracaoRepositoryCustom {
+
+    record NovaInteracao(long clienteId, long corretorId, Long imovelId, TipoInteracao tipo,
+                         LocalDateTime dataInteracao, String observacoes) {
+    }
+
+    /**
+     * Grava as interações com INSERTs de várias linhas (VALUES (...), (...), ...): um único comando
+     * e uma única ida ao banco por bloco, em vez de um comando por linha. Se uma linha violar uma
+     * restrição, o bloco inteiro é recusado.
+     */
+    void inserirEmLote(List<NovaInteracao> interacoes);
+}
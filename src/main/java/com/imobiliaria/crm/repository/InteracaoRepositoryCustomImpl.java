@@ -0,0 +1,53 @@
+package com.imobiliaria.crm.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+
+class InteracaoRepositoryCustomImpl implements InteracaoRepositoryCustom {
+
+    // 6 parâmetros por linha: 1000 linhas ficam bem abaixo do limite de 32767 parâmetros do PostgreSQL
+    private static final int LINHAS_POR_INSERT = 1000;
+
+    private static final String INSERIR = "INSERT INTO interacoes " +
+            "(cliente_id, corretor_id, imovel_id, tipo, data_interacao, observacoes) VALUES ";
+    private static final String LINHA = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    InteracaoRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void inserirEmLote(List<NovaInteracao> interacoes) {
+        for (int inicio = 0; inicio < interacoes.size(); inicio += LINHAS_POR_INSERT) {
+            List<NovaInteracao> bloco = interacoes.subList(inicio, Math.min(inicio + LINHAS_POR_INSERT, interacoes.size()));
+            jdbcTemplate.update(INSERIR + String.join(", ", Collections.nCopies(bloco.size(), LINHA)), ps -> {
+                int parametro = 1;
+                for (NovaInteracao interacao : bloco) {
+                    parametro = preencher(ps, parametro, interacao);
+                }
+            });
+        }
+    }
+
+    private static int preencher(PreparedStatement ps, int parametro, NovaInteracao interacao) throws SQLException {
+        ps.setLong(parametro++, interacao.clienteId());
+        ps.setLong(parametro++, interacao.corretorId());
+        if (interacao.imovelId() != null) {
+            ps.setLong(parametro++, interacao.imovelId());
+        } else {
+            ps.setNull(parametro++, Types.BIGINT);
+        }
+        ps.setString(parametro++, interacao.tipo().name());
+        ps.setTimestamp(parametro++, Timestamp.valueOf(interacao.dataInteracao()));
+        ps.setString(parametro++, interacao.observacoes());
+        return parametro;
+    }
+}
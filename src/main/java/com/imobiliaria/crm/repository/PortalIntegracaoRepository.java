@@ -0,0 +1,57 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.PortalIntegracao;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PortalIntegracaoRepository extends JpaRepository<PortalIntegracao, Long> {
+
+    List<PortalIntegracao> findByPortalNomeAndImovelIdIn(String portalNome, Collection<Long> imovelIds);
+
+    // --- Pendências de um portal, paginadas por keyset (o Pageable é usado apenas para limitar) ---
+
+    // Imóveis publicados nunca enviados, com falha no último envio ou alterados depois dele.
+    // Uma linha ATIVO sem data_atualizacao_publicada (anúncios anteriores a V13) não informa a versão
+    // enviada e é reenviada uma vez. Uma linha em ERRO espera a próxima tentativa ou que o imóvel seja alterado depois da última falha;
+    // esgotadas as tentativas, só a alteração a traz de volta
+    @Query("SELECT i.id FROM Imovel i " +
+            "LEFT JOIN PortalIntegracao p ON p.imovelId = i.id AND p.portalNome = :portal " +
+            "WHERE i.publicado = true AND i.id > :aposId " +
+            "AND (p.id IS NULL " +
+            "OR p.status = com.imobiliaria.crm.model.StatusPublicacaoPortal.REMOVIDO " +
+            "OR (p.status = com.imobiliaria.crm.model.StatusPublicacaoPortal.ATIVO " +
+            "AND (p.dataAtualizacaoPublicada IS NULL OR i.dataAtualizacao > p.dataAtualizacaoPublicada)) " +
+            "OR (p.status = com.imobiliaria.crm.model.StatusPublicacaoPortal.ERRO " +
+            "AND ((p.tentativas < :maximoTentativas AND (p.proximaTentativa IS NULL OR p.proximaTentativa <= :agora)) " +
+            "OR i.dataAtualizacao > p.dataSincronizacao))) " +
+            "ORDER BY i.id")
+    List<Long> findPendentesPublicacao(@Param("portal") String portal,
+                                       @Param("aposId") Long aposId,
+                                       @Param("agora") LocalDateTime agora,
+                                       @Param("maximoTentativas") int maximoTentativas,
+                                       Pageable limite);
+
+    // Anúncios ainda não removidos cujo imóvel foi despublicado ou excluído, com a mesma espera
+    // entre tentativas das publicações
+    @Query("SELECT p FROM PortalIntegracao p " +
+            "LEFT JOIN Imovel i ON i.id = p.imovelId " +
+            "WHERE p.portalNome = :portal AND p.id > :aposId " +
+            "AND p.status <> com.imobiliaria.crm.model.StatusPublicacaoPortal.REMOVIDO " +
+            "AND (i.id IS NULL OR i.publicado = false) " +
+            "AND (p.status <> com.imobiliaria.crm.model.StatusPublicacaoPortal.ERRO " +
+            "OR (p.tentativas < :maximoTentativas AND (p.proximaTentativa IS NULL OR p.proximaTentativa <= :agora))) " +
+            "ORDER BY p.id")
+    List<PortalIntegracao> findPendentesRemocao(@Param("portal") String portal,
+                                                @Param("aposId") Long aposId,
+                                                @Param("agora") LocalDateTime agora,
+                                                @Param("maximoTentativas") int maximoTentativas,
+                                                Pageable limite);
+}
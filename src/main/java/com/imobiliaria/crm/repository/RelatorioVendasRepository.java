@@ -0,0 +1,112 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.dto.IndicadoresVendasDTO;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas dos relatórios de vendas sobre as visões materializadas da V17. Cada visão tem uma
+ * linha por mês e grupo: um período soma poucas linhas, independentemente do volume de vendas.
+ */
+@Repository
+public class RelatorioVendasRepository {
+
+    public static final String VISAO_MENSAL = "mv_vendas_mensal";
+    public static final String VISAO_CORRETOR = "mv_vendas_corretor";
+    public static final String VISAO_LOCALIZACAO = "mv_vendas_localizacao";
+    public static final String VISAO_TIPO = "mv_vendas_tipo";
+
+    public static final List<String> VISOES = List.of(VISAO_MENSAL, VISAO_CORRETOR, VISAO_LOCALIZACAO, VISAO_TIPO);
+
+    private static final String TOTAIS = "SUM(m.quantidade) AS quantidade, SUM(m.receita) AS receita, " +
+            "SUM(m.soma_dias_venda) AS soma_dias_venda, SUM(m.vendas_com_prazo) AS vendas_com_prazo ";
+
+    private static final String PERIODO = "WHERE m.mes BETWEEN :de AND :ate ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RelatorioVendasRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<IndicadoresVendasDTO> findPorMes(YearMonth de, YearMonth ate) {
+        return jdbcTemplate.query("SELECT m.mes, " + TOTAIS + "FROM " + VISAO_MENSAL + " m " + PERIODO +
+                "GROUP BY m.mes ORDER BY m.mes", periodo(de, ate), linha((rs, dto) ->
+                dto.setMes(YearMonth.from(rs.getObject("mes", LocalDate.class)))));
+    }
+
+    public List<IndicadoresVendasDTO> findPorCorretor(YearMonth de, YearMonth ate) {
+        return jdbcTemplate.query("SELECT m.corretor_id, c.nome, " + TOTAIS + "FROM " + VISAO_CORRETOR + " m " +
+                "LEFT JOIN corretores c ON c.id = m.corretor_id " + PERIODO +
+                "GROUP BY m.corretor_id, c.nome ORDER BY receita DESC, m.corretor_id", periodo(de, ate), linha((rs, dto) -> {
+            dto.setCorretorId(rs.getLong("corretor_id"));
+            dto.setCorretorNome(rs.getString("nome"));
+        }));
+    }
+
+    /**
+     * @param cidade Opcional; restringe aos bairros da cidade.
+     */
+    public List<IndicadoresVendasDTO> findPorLocalizacao(YearMonth de, YearMonth ate, String cidade) {
+        MapSqlParameterSource parametros = periodo(de, ate).addValue("cidade", cidade);
+        return jdbcTemplate.query("SELECT m.cidade, m.bairro, " + TOTAIS + "FROM " + VISAO_LOCALIZACAO + " m " + PERIODO +
+                (cidade != null ? "AND m.cidade = :cidade " : "") +
+                "GROUP BY m.cidade, m.bairro ORDER BY receita DESC, m.cidade, m.bairro", parametros, linha((rs, dto) -> {
+            dto.setCidade(rs.getString("cidade"));
+            String bairro = rs.getString("bairro");
+            dto.setBairro(bairro == null || bairro.isEmpty() ? null : bairro);
+        }));
+    }
+
+    public List<IndicadoresVendasDTO> findPorTipo(YearMonth de, YearMonth ate) {
+        return jdbcTemplate.query("SELECT m.tipo, " + TOTAIS + "FROM " + VISAO_TIPO + " m " + PERIODO +
+                "GROUP BY m.tipo ORDER BY receita DESC, m.tipo", periodo(de, ate), linha((rs, dto) ->
+                dto.setTipo(rs.getString("tipo"))));
+    }
+
+    public Optional<LocalDateTime> findDataAtualizacao(String visao) {
+        try {
+            Timestamp data = jdbcTemplate.queryForObject(
+                    "SELECT data_atualizacao FROM relatorios_atualizacoes WHERE visao = :visao",
+                    new MapSqlParameterSource("visao", visao), Timestamp.class);
+            return Optional.ofNullable(data).map(Timestamp::toLocalDateTime);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void registrarAtualizacao(String visao, LocalDateTime data) {
+        jdbcTemplate.update("UPDATE relatorios_atualizacoes SET data_atualizacao = :data WHERE visao = :visao",
+                new MapSqlParameterSource("visao", visao).addValue("data", Timestamp.valueOf(data)));
+    }
+
+    private static MapSqlParameterSource periodo(YearMonth de, YearMonth ate) {
+        return new MapSqlParameterSource("de", de.atDay(1)).addValue("ate", ate.atDay(1));
+    }
+
+    private interface Dimensao {
+        void preencher(ResultSet rs, IndicadoresVendasDTO dto) throws SQLException;
+    }
+
+    private static RowMapper<IndicadoresVendasDTO> linha(Dimensao dimensao) {
+        return (rs, numero) -> {
+            IndicadoresVendasDTO dto = new IndicadoresVendasDTO();
+            dimensao.preencher(rs, dto);
+            dto.preencherTotais(rs.getLong("quantidade"), rs.getBigDecimal("receita"),
+                    rs.getBigDecimal("soma_dias_venda"), rs.getLong("vendas_com_prazo"));
+            return dto;
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.model.TipoAgregado;
+import com.imobiliaria.crm.repository.AlertaBuscaSalvaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Avisa os clientes quando um imóvel criado ou alterado atende às suas buscas salvas.
+ * A avaliação usa o {@link IndiceBuscasSalvas} e roda na transação do imóvel: cada alerta é um
+ * evento {@value OutboxEventos#BUSCA_SALVA_ATENDIDA} do cliente no outbox, confirmado junto com a
+ * alteração. Cada par busca/imóvel gera um único alerta, mesmo que o imóvel seja alterado depois.
+ */
+@Component
+public class AlertasBuscasSalvas {
+
+    // Apenas imóveis disponíveis interessam a quem está procurando
+    static final String STATUS_DISPONIVEL = "DISPONIVEL";
+
+    // Buscas por consulta ao verificar alertas já enviados (limita os parâmetros do IN)
+    private static final int TAMANHO_CONSULTA = 1000;
+
+    public record AlertaBusca(long buscaId, long clienteId, Long imovelId, String codigoImovel,
+                              String tipo, String finalidade, BigDecimal preco, String cidade, String bairro) {
+    }
+
+    private final IndiceBuscasSalvas indice;
+    private final AlertaBuscaSalvaRepository alertaRepository;
+    private final OutboxEventos outboxEventos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AlertasBuscasSalvas(IndiceBuscasSalvas indice,
+                               AlertaBuscaSalvaRepository alertaRepository,
+                               OutboxEventos outboxEventos) {
+        this.indice = indice;
+        this.alertaRepository = alertaRepository;
+        this.outboxEventos = outboxEventos;
+    }
+
+    /**
+     * Registra os alertas das buscas atendidas pelo imóvel e ainda não avisadas.
+     * Deve ser chamado na transação que criou ou alterou o imóvel, depois de associadas as características.
+     * @return Quantidade de alertas registrados.
+     */
+    public int avaliar(Imovel imovel) {
+        if (!STATUS_DISPONIVEL.equals(imovel.getStatus())) {
+            return 0;
+        }
+        List<IndiceBuscasSalvas.BuscaAtendida> atendidas = indice.buscasAtendidas(imovel);
+        if (atendidas.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> jaAlertadas = new HashSet<>();
+        List<Long> buscaIds = atendidas.stream().map(IndiceBuscasSalvas.BuscaAtendida::buscaId).toList();
+        for (int inicio = 0; inicio < buscaIds.size(); inicio += TAMANHO_CONSULTA) {
+            List<Long> bloco = buscaIds.subList(inicio, Math.min(inicio + TAMANHO_CONSULTA, buscaIds.size()));
+            jaAlertadas.addAll(alertaRepository.findBuscasJaAlertadas(imovel.getId(), bloco));
+        }
+        List<IndiceBuscasSalvas.BuscaAtendida> novas = new ArrayList<>(atendidas.size());
+        for (IndiceBuscasSalvas.BuscaAtendida atendida : atendidas) {
+            if (!jaAlertadas.contains(atendida.buscaId())) {
+                novas.add(atendida);
+            }
+        }
+        if (novas.isEmpty()) {
+            return 0;
+        }
+
+        // Um imóvel novo pode ainda não ter sido gravado, e o INSERT via JDBC referencia a sua linha
+        entityManager.flush();
+        alertaRepository.inserirEmLote(imovel.getId(),
+                novas.stream().map(IndiceBuscasSalvas.BuscaAtendida::buscaId).toList(),
+                LocalDateTime.now());
+        for (IndiceBuscasSalvas.BuscaAtendida atendida : novas) {
+            outboxEventos.registrar(TipoAgregado.CLIENTE, atendida.clienteId(), OutboxEventos.BUSCA_SALVA_ATENDIDA,
+                    new AlertaBusca(atendida.buscaId(), atendida.clienteId(), imovel.getId(), imovel.getCodigo(),
+                            imovel.getTipo(), imovel.getFinalidade(), imovel.getPreco(),
+                            imovel.getEndereco().getCidade(), imovel.getEndereco().getBairro()));
+        }
+        return novas.size();
+    }
+}
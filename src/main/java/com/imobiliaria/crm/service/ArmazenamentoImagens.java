@@ -0,0 +1,46 @@
+package com.imobiliaria.crm.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento dos arquivos de imagem, endereçado pelo hash SHA-256 do original.
+ * Arquivos com o mesmo conteúdo são gravados uma única vez e nunca mudam depois de gravados.
+ */
+public interface ArmazenamentoImagens {
+
+    @FunctionalInterface
+    interface EscritaArquivo {
+        void escrever(OutputStream saida) throws IOException;
+    }
+
+    // Hash que identifica o original e se esta chamada o gravou (falso se o conteúdo já existia)
+    record OriginalArmazenado(String hash, boolean novo) {
+    }
+
+//    Grava o conteúdo lido do fluxo, sem mantê-lo inteiro em memória, e retorna o hash que passa a identificá-lo.
+//    Se o conteúdo já existia, renova a data de modificação do original.
+    OriginalArmazenado armazenarOriginal(InputStream conteudo) throws IOException;
+
+//    Hashes cujo original não foi gravado nem reaproveitado por um upload desde o instante informado.
+//    O fluxo percorre o armazenamento sob demanda e deve ser fechado.
+    Stream<String> listarOriginais(Instant modificadosAntes) throws IOException;
+
+//    Remove o original e os arquivos derivados se o original continua sem gravação ou reaproveitamento
+//    desde o instante informado; retorna falso se nada foi removido.
+    boolean removerOriginal(String hash, Instant modificadoAntes) throws IOException;
+
+//    Abre o arquivo original gravado por armazenarOriginal.
+    InputStream abrirOriginal(String hash) throws IOException;
+
+//    Grava (ou substitui por completo) um arquivo derivado do original, como uma variante redimensionada.
+    void gravarVariante(String hash, String nomeArquivo, EscritaArquivo escrita) throws IOException;
+
+//    Localiza um arquivo derivado; o recurso retornado pode não existir (ainda não gerado).
+    Resource carregarVariante(String hash, String nomeArquivo);
+}
@@ -0,0 +1,197 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.ImagensProperties;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento em disco local: {@code <diretorio>/<hash[0..2]>/<hash>/<arquivo>}.
+ * Toda gravação vai primeiro para um arquivo temporário no mesmo volume e só então aparece no destino
+ * (hard link para o original, move atômico para as variantes), de modo que leitores nunca veem arquivos parciais.
+ */
+@Component
+public class ArmazenamentoImagensLocal implements ArmazenamentoImagens {
+
+    private static final String ARQUIVO_ORIGINAL = "original";
+    private static final Pattern HASH = Pattern.compile("^[0-9a-f]{64}$");
+    private static final Pattern PREFIXO = Pattern.compile("^[0-9a-f]{2}$");
+    private static final Pattern NOME_ARQUIVO = Pattern.compile("^[a-z0-9]+(\\.[a-z0-9]+)?$");
+
+    private final Path raiz;
+    private final Path temporarios;
+
+    public ArmazenamentoImagensLocal(ImagensProperties properties) {
+        this.raiz = properties.getDiretorio().toAbsolutePath().normalize();
+        this.temporarios = raiz.resolve("tmp");
+    }
+
+    @Override
+    public OriginalArmazenado armazenarOriginal(InputStream conteudo) throws IOException {
+        Files.createDirectories(temporarios);
+        Path temporario = Files.createTempFile(temporarios, "upload-", ".tmp");
+        try {
+            MessageDigest sha256 = novoSha256();
+            // O hash é calculado enquanto o fluxo é copiado para o disco, em blocos
+            try (InputStream entrada = new DigestInputStream(conteudo, sha256);
+                 OutputStream saida = Files.newOutputStream(temporario)) {
+                entrada.transferTo(saida);
+            }
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            Path destino = diretorio(hash).resolve(ARQUIVO_ORIGINAL);
+            Files.createDirectories(destino.getParent());
+            boolean novo = reivindicar(temporario, destino);
+            if (!novo) {
+                // Conteúdo reaproveitado: renova a data para que a limpeza de órfãos não o remova
+                // enquanto a transação deste upload ainda não confirmou a imagem
+                Files.setLastModifiedTime(destino, FileTime.from(Instant.now()));
+            }
+            return new OriginalArmazenado(hash, novo);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    @Override
+    public Stream<String> listarOriginais(Instant modificadosAntes) throws IOException {
+        if (!Files.isDirectory(raiz)) {
+            return Stream.empty();
+        }
+        return Files.list(raiz)
+                .filter(prefixo -> PREFIXO.matcher(prefixo.getFileName().toString()).matches())
+                .flatMap(ArmazenamentoImagensLocal::listarDiretorios)
+                .map(diretorio -> diretorio.getFileName().toString())
+                .filter(hash -> HASH.matcher(hash).matches() && modificadoAntes(hash, modificadosAntes));
+    }
+
+    @Override
+    public boolean removerOriginal(String hash, Instant modificadoAntes) throws IOException {
+        Path diretorio = diretorio(hash);
+        // Verificado de novo imediatamente antes de remover: um upload pode ter reaproveitado o original
+        if (!Files.isDirectory(diretorio) || !modificadoAntes(hash, modificadoAntes)) {
+            return false;
+        }
+        Files.deleteIfExists(diretorio.resolve(ARQUIVO_ORIGINAL));
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+        Files.deleteIfExists(diretorio);
+        return true;
+    }
+
+    @Override
+    public InputStream abrirOriginal(String hash) throws IOException {
+        return Files.newInputStream(diretorio(hash).resolve(ARQUIVO_ORIGINAL));
+    }
+
+    @Override
+    public void gravarVariante(String hash, String nomeArquivo, EscritaArquivo escrita) throws IOException {
+        Path destino = diretorio(hash).resolve(validarNome(nomeArquivo));
+        Files.createDirectories(destino.getParent());
+        Path temporario = Files.createTempFile(destino.getParent(), nomeArquivo + "-", ".tmp");
+        try {
+            try (OutputStream saida = Files.newOutputStream(temporario)) {
+                escrita.escrever(saida);
+            }
+            mover(temporario, destino);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    @Override
+    public Resource carregarVariante(String hash, String nomeArquivo) {
+        return new FileSystemResource(diretorio(hash).resolve(validarNome(nomeArquivo)));
+    }
+
+    private Path diretorio(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Identificador de arquivo de imagem inválido.");
+        }
+        return raiz.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String validarNome(String nomeArquivo) {
+        if (nomeArquivo == null || !NOME_ARQUIVO.matcher(nomeArquivo).matches()) {
+            throw new IllegalArgumentException("Nome de arquivo de imagem inválido.");
+        }
+        return nomeArquivo;
+    }
+
+    // Cria o original só se ele ainda não existe. No Linux, Files.move com ATOMIC_MOVE é um rename(2),
+    // que substituiria em silêncio o arquivo gravado por um upload concorrente do mesmo conteúdo;
+    // o link falha se o destino já existe, e o arquivo temporário já está completo quando aparece
+    private static boolean reivindicar(Path temporario, Path destino) throws IOException {
+        try {
+            Files.createLink(destino, temporario);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            // Sistema de arquivos sem hard links: o move sem REPLACE_EXISTING recusa um destino existente
+            try {
+                Files.move(temporario, destino);
+                return true;
+            } catch (FileAlreadyExistsException jaExiste) {
+                return false;
+            }
+        }
+    }
+
+    private static void mover(Path origem, Path destino) throws IOException {
+        try {
+            Files.move(origem, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origem, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private boolean modificadoAntes(String hash, Instant limite) {
+        try {
+            return Files.getLastModifiedTime(diretorio(hash).resolve(ARQUIVO_ORIGINAL)).toInstant().isBefore(limite);
+        } catch (IOException e) {
+            // Sem original (variantes restantes de uma remoção interrompida): só remove depois do prazo
+            try {
+                return Files.getLastModifiedTime(diretorio(hash)).toInstant().isBefore(limite);
+            } catch (IOException semDiretorio) {
+                return false;
+            }
+        }
+    }
+
+    private static Stream<Path> listarDiretorios(Path prefixo) {
+        try {
+            return Files.list(prefixo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest novoSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+}
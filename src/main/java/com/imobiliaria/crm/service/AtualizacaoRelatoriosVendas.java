@@ -0,0 +1,64 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.repository.RelatorioVendasRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Atualiza periodicamente as visões materializadas dos relatórios de vendas (V17) com
+ * REFRESH MATERIALIZED VIEW CONCURRENTLY: o PostgreSQL recalcula a visão e aplica apenas a diferença,
+ * sem bloquear as leituras dos painéis. Cada visão é atualizada em sua própria transação, por uma
+ * única instância da aplicação de cada vez.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "crm.relatorios.atualizacao-habilitada", havingValue = "true", matchIfMissing = true)
+public class AtualizacaoRelatoriosVendas {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RelatorioVendasRepository relatorioRepository;
+    private final TransactionTemplate transacao;
+
+    public AtualizacaoRelatoriosVendas(JdbcTemplate jdbcTemplate,
+                                       RelatorioVendasRepository relatorioRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.relatorioRepository = relatorioRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${crm.relatorios.intervalo-atualizacao:PT15M}",
+            fixedDelayString = "${crm.relatorios.intervalo-atualizacao:PT15M}")
+    public void atualizarRelatorios() {
+        for (String visao : RelatorioVendasRepository.VISOES) {
+            try {
+                atualizar(visao);
+            } catch (DataAccessException e) {
+                log.warn("Falha ao atualizar a visão {}; nova tentativa no próximo ciclo", visao, e);
+            }
+        }
+    }
+
+    void atualizar(String visao) {
+        transacao.executeWithoutResult(status -> {
+            // Outra instância já está atualizando esta visão: não há o que fazer neste ciclo
+            Boolean bloqueio = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(hashtext(?))",
+                    Boolean.class, visao);
+            if (!Boolean.TRUE.equals(bloqueio)) {
+                return;
+            }
+            long inicio = System.nanoTime();
+            jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + visao);
+            relatorioRepository.registrarAtualizacao(visao, LocalDateTime.now());
+            log.debug("Visão {} atualizada em {} ms", visao, (System.nanoTime() - inicio) / 1_000_000);
+        });
+    }
+}
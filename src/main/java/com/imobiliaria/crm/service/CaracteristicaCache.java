@@ -0,0 +1,202 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.CaracteristicaDTO;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.repository.CaracteristicaRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Cache read-through de todas as características, indexado por id e por nome em minúsculas.
+ * A tabela é pequena e quase nunca muda, então o conteúdo inteiro é carregado de uma vez
+ * e descartado a cada escrita feita pelo {@link ICaracteristicaService}.
+ * Expõe as métricas padrão do Micrometer {@code cache.gets} (acertos/falhas) e {@code cache.size}.
+ */
+@Component
+public class CaracteristicaCache implements MeterBinder {
+
+    private static final String NOME_CACHE = "caracteristicas";
+
+    private final CaracteristicaRepository caracteristicaRepository;
+
+    // Instantâneo imutável; nulo quando invalidado
+    private volatile Instantaneo instantaneo;
+
+    // Incrementada a cada invalidação para descartar carregamentos concorrentes já obsoletos
+    private final AtomicLong geracao = new AtomicLong();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+
+    public CaracteristicaCache(CaracteristicaRepository caracteristicaRepository) {
+        this.caracteristicaRepository = caracteristicaRepository;
+    }
+
+    public List<CaracteristicaDTO> listarTodas() {
+        return obter().nomesPorId.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                .map(entrada -> novoDTO(entrada.getKey(), entrada.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    public Optional<CaracteristicaDTO> buscarPorId(Long id) {
+        String nome = obter().nomesPorId.get(id);
+        return nome == null ? Optional.empty() : Optional.of(novoDTO(id, nome));
+    }
+
+    public Optional<CaracteristicaDTO> buscarPorNome(String nome) {
+        if (nome == null) {
+            return Optional.empty();
+        }
+        Instantaneo atual = obter();
+        Long id = atual.idsPorNome.get(nome.toLowerCase(Locale.ROOT));
+        return id == null ? Optional.empty() : Optional.of(novoDTO(id, atual.nomesPorId.get(id)));
+    }
+
+    /**
+     * Valida os ids informados e devolve instâncias novas de Caracteristica com id e nome preenchidos,
+     * prontas para serem associadas a um imóvel sem consultar o banco. Ids ausentes do cache são
+     * procurados no banco (podem ter sido criados por outra instância); se existirem, o cache é
+     * descartado para ser recarregado com eles na próxima leitura.
+     * @param ids Os ids das características.
+     * @return As entidades correspondentes.
+     * @throws IllegalArgumentException se algum id não existir.
+     */
+    public Set<Caracteristica> resolver(Collection<Long> ids) {
+        Instantaneo atual = obter();
+        Set<Caracteristica> caracteristicas = new HashSet<>();
+        Set<Long> ausentes = new HashSet<>();
+        for (Long id : ids) {
+            String nome = atual.nomesPorId.get(id);
+            if (nome == null) {
+                ausentes.add(id);
+                continue;
+            }
+            Caracteristica caracteristica = new Caracteristica();
+            caracteristica.setId(id);
+            caracteristica.setNome(nome);
+            caracteristicas.add(caracteristica);
+        }
+        if (!ausentes.isEmpty()) {
+            List<Caracteristica> encontradas = caracteristicaRepository.findAllById(ausentes);
+            if (encontradas.size() != ausentes.size()) {
+                throw new IllegalArgumentException("Uma ou mais IDs de características são inválidas.");
+            }
+            descartar();
+            for (Caracteristica encontrada : encontradas) {
+                Caracteristica caracteristica = new Caracteristica();
+                caracteristica.setId(encontrada.getId());
+                caracteristica.setNome(encontrada.getNome());
+                caracteristicas.add(caracteristica);
+            }
+        }
+        return caracteristicas;
+    }
+
+    /**
+     * Descarta o conteúdo atual. Dentro de uma transação, descarta de novo após o commit,
+     * para que nenhuma leitura concorrente repopule o cache com dados anteriores à escrita.
+     */
+    public void invalidar() {
+        descartar();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar();
+                }
+            });
+        }
+    }
+
+    private void descartar() {
+        geracao.incrementAndGet();
+        instantaneo = null;
+    }
+
+    private Instantaneo obter() {
+        Instantaneo atual = instantaneo;
+        if (atual != null) {
+            acertos.increment();
+            return atual;
+        }
+        falhas.increment();
+        return carregar();
+    }
+
+    private synchronized Instantaneo carregar() {
+        Instantaneo atual = instantaneo;
+        if (atual != null) {
+            return atual;
+        }
+        long geracaoInicial = geracao.get();
+        Map<Long, String> nomesPorId = new HashMap<>();
+        Map<String, Long> idsPorNome = new HashMap<>();
+        for (Caracteristica caracteristica : caracteristicaRepository.findAll()) {
+            nomesPorId.put(caracteristica.getId(), caracteristica.getNome());
+            idsPorNome.put(caracteristica.getNome().toLowerCase(Locale.ROOT), caracteristica.getId());
+        }
+        atual = new Instantaneo(Map.copyOf(nomesPorId), Map.copyOf(idsPorNome));
+        // Só publica se nenhuma invalidação ocorreu durante a carga
+        if (geracao.get() == geracaoInicial) {
+            instantaneo = atual;
+        }
+        return atual;
+    }
+
+    private static CaracteristicaDTO novoDTO(Long id, String nome) {
+        CaracteristicaDTO dto = new CaracteristicaDTO();
+        dto.setId(id);
+        dto.setNome(nome);
+        return dto;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", acertos, LongAdder::doubleValue)
+                .tag("cache", NOME_CACHE)
+                .tag("result", "hit")
+                .description("Leituras atendidas pelo cache de características")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", falhas, LongAdder::doubleValue)
+                .tag("cache", NOME_CACHE)
+                .tag("result", "miss")
+                .description("Leituras que precisaram carregar as características do banco")
+                .register(registry);
+        Gauge.builder("cache.size", this, cache -> {
+                    Instantaneo atual = cache.instantaneo;
+                    return atual == null ? 0 : atual.nomesPorId.size();
+                })
+                .tag("cache", NOME_CACHE)
+                .description("Quantidade de características em cache")
+                .register(registry);
+    }
+
+    private static final class Instantaneo {
+        private final Map<Long, String> nomesPorId;
+        private final Map<String, Long> idsPorNome;
+
+        private Instantaneo(Map<Long, String> nomesPorId, Map<String, Long> idsPorNome) {
+            this.nomesPorId = nomesPorId;
+            this.idsPorNome = idsPorNome;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.CaracteristicaDTO;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.repository.CaracteristicaRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Service
+public class CaracteristicaServiceImpl implements ICaracteristicaService {
+
+    private final CaracteristicaRepository caracteristicaRepository;
+    private final CaracteristicaCache caracteristicaCache;
+    private final ImovelRepository imovelRepository;
+
+    public CaracteristicaServiceImpl(CaracteristicaRepository caracteristicaRepository,
+                                     CaracteristicaCache caracteristicaCache,
+                                     ImovelRepository imovelRepository) {
+        this.caracteristicaRepository = caracteristicaRepository;
+        this.caracteristicaCache = caracteristicaCache;
+        this.imovelRepository = imovelRepository;
+    }
+
+    @Override
+    @Transactional
+    public CaracteristicaDTO criar(CaracteristicaDTO dto) {
+        if (caracteristicaCache.buscarPorNome(dto.getNome()).isPresent()) {
+            throw new IllegalArgumentException("Já existe uma característica com o nome: " + dto.getNome());
+        }
+        Caracteristica caracteristica = dto.toEntity();
+        caracteristica.setId(null);
+        Caracteristica salva = caracteristicaRepository.save(caracteristica);
+        caracteristicaCache.invalidar();
+        return CaracteristicaDTO.fromEntity(salva);
+    }
+
+    // Leituras são atendidas pelo cache, sem consultar o banco
+    @Override
+    public Optional<CaracteristicaDTO> buscarPorId(Long id) {
+        return caracteristicaCache.buscarPorId(id);
+    }
+
+    @Override
+    public List<CaracteristicaDTO> listarTodas() {
+        return caracteristicaCache.listarTodas();
+    }
+
+    @Override
+    @Transactional
+    public CaracteristicaDTO atualizar(Long id, CaracteristicaDTO dto) {
+        Caracteristica caracteristica = caracteristicaRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Característica não encontrada com ID: " + id));
+
+        caracteristicaCache.buscarPorNome(dto.getNome())
+                .filter(existente -> !existente.getId().equals(id))
+                .ifPresent(existente -> {
+                    throw new IllegalArgumentException("Já existe uma característica com o nome: " + dto.getNome());
+                });
+
+        if (!Objects.equals(dto.getNome(), caracteristica.getNome())) {
+            // O nome aparece no detalhe e na listagem dos imóveis que têm a característica
+            imovelRepository.registrarAlteracaoPorCaracteristica(id, LocalDateTime.now());
+        }
+        caracteristica.setNome(dto.getNome());
+        Caracteristica atualizada = caracteristicaRepository.save(caracteristica);
+        caracteristicaCache.invalidar();
+        return CaracteristicaDTO.fromEntity(atualizada);
+    }
+
+    @Override
+    @Transactional
+    public void deletar(Long id) {
+        if (!caracteristicaRepository.existsById(id)) {
+            throw new IllegalArgumentException("Característica não encontrada com ID: " + id);
+        }
+        // Antes da exclusão, enquanto a associação ainda identifica os imóveis afetados
+        imovelRepository.registrarAlteracaoPorCaracteristica(id, LocalDateTime.now());
+        caracteristicaRepository.deleteById(id);
+        caracteristicaCache.invalidar();
+    }
+}
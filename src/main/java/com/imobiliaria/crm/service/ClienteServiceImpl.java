@@ -0,0 +1,199 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.BuscaSalvaDTO;
+import com.imobiliaria.crm.dto.ClienteDTO;
+import com.imobiliaria.crm.dto.CursorPaginacao;
+import com.imobiliaria.crm.dto.PaginaDTO;
+import com.imobiliaria.crm.model.BuscaSalva;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Cliente;
+import com.imobiliaria.crm.model.TipoAgregado;
+import com.imobiliaria.crm.repository.BuscaSalvaRepository;
+import com.imobiliaria.crm.repository.ClienteRepository;
+import com.imobiliaria.crm.repository.CorretorRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ClienteServiceImpl implements IClienteService {
+
+    // Buscas salvas por cliente; cada uma é avaliada a cada imóvel criado ou alterado
+    static final int MAXIMO_BUSCAS_POR_CLIENTE = 20;
+
+    private final ClienteRepository clienteRepository;
+    private final CorretorRepository corretorRepository;
+    private final BuscaSalvaRepository buscaSalvaRepository;
+    private final CaracteristicaCache caracteristicaCache;
+    private final IndiceBuscasSalvas indiceBuscasSalvas;
+    private final OutboxEventos outboxEventos;
+
+    public ClienteServiceImpl(ClienteRepository clienteRepository,
+                              CorretorRepository corretorRepository,
+                              BuscaSalvaRepository buscaSalvaRepository,
+                              CaracteristicaCache caracteristicaCache,
+                              IndiceBuscasSalvas indiceBuscasSalvas,
+                              OutboxEventos outboxEventos) {
+        this.clienteRepository = clienteRepository;
+        this.corretorRepository = corretorRepository;
+        this.buscaSalvaRepository = buscaSalvaRepository;
+        this.caracteristicaCache = caracteristicaCache;
+        this.indiceBuscasSalvas = indiceBuscasSalvas;
+        this.outboxEventos = outboxEventos;
+    }
+
+    @Override
+    @Transactional
+    public ClienteDTO criarCliente(ClienteDTO clienteDTO) {
+        if (StringUtils.hasText(clienteDTO.getEmail()) && clienteRepository.existsByEmail(clienteDTO.getEmail())) {
+            throw new IllegalArgumentException("E-mail já cadastrado.");
+        }
+        Cliente cliente = clienteDTO.toEntity();
+        cliente.setId(null);
+        associarCorretor(cliente, clienteDTO);
+        return registrarEvento(OutboxEventos.CLIENTE_CRIADO, ClienteDTO.fromEntity(clienteRepository.save(cliente)));
+    }
+
+    @Override
+    @Transactional
+    public ClienteDTO atualizarCliente(Long id, ClienteDTO clienteDTO) {
+        Cliente cliente = buscarCliente(id);
+        if (StringUtils.hasText(clienteDTO.getEmail()) && clienteRepository.existsByEmailAndIdNot(clienteDTO.getEmail(), id)) {
+            throw new IllegalArgumentException("E-mail já cadastrado.");
+        }
+        cliente.setNome(clienteDTO.getNome());
+        cliente.setEmail(clienteDTO.getEmail());
+        cliente.setTelefone(clienteDTO.getTelefone());
+        if (clienteDTO.getCpf() != null) {
+            cliente.setCpf(clienteDTO.getCpf());
+        }
+        cliente.setObservacoes(clienteDTO.getObservacoes());
+        associarCorretor(cliente, clienteDTO);
+        return registrarEvento(OutboxEventos.CLIENTE_ATUALIZADO, ClienteDTO.fromEntity(clienteRepository.save(cliente)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ClienteDTO> buscarPorId(Long id) {
+        return clienteRepository.findById(id).map(ClienteDTO::fromEntity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<ClienteDTO> listarPagina(String cursor, Integer tamanho) {
+        int tamanhoPagina = ImovelServiceImpl.normalizarTamanhoPagina(tamanho);
+        Long aposId = cursor != null && !cursor.isBlank() ? CursorPaginacao.decodificar(cursor).getId() : 0L;
+        // Uma linha a mais indica se existe próxima página
+        List<Cliente> clientes = clienteRepository.findPaginaPorIdApos(aposId, PageRequest.of(0, tamanhoPagina + 1));
+
+        String proximoCursor = null;
+        if (clientes.size() > tamanhoPagina) {
+            clientes = clientes.subList(0, tamanhoPagina);
+            proximoCursor = new CursorPaginacao(null, clientes.get(clientes.size() - 1).getId()).codificar();
+        }
+        return PaginaDTO.of(clientes.stream().map(ClienteDTO::fromEntity).toList(), proximoCursor);
+    }
+
+    // --- Buscas salvas: o índice em memória é atualizado após o commit ---
+
+    @Override
+    @Transactional
+    public BuscaSalvaDTO criarBusca(Long clienteId, BuscaSalvaDTO buscaDTO) {
+        Cliente cliente = buscarCliente(clienteId);
+        if (buscaSalvaRepository.countByClienteId(clienteId) >= MAXIMO_BUSCAS_POR_CLIENTE) {
+            throw new IllegalArgumentException("O cliente já possui o máximo de " + MAXIMO_BUSCAS_POR_CLIENTE + " buscas salvas.");
+        }
+        BuscaSalva busca = new BuscaSalva();
+        busca.setCliente(cliente);
+        aplicarCriterios(busca, buscaDTO);
+        busca = buscaSalvaRepository.save(busca);
+        indiceBuscasSalvas.atualizarAposCommit(busca);
+        return BuscaSalvaDTO.fromEntity(busca);
+    }
+
+    @Override
+    @Transactional
+    public BuscaSalvaDTO atualizarBusca(Long clienteId, Long buscaId, BuscaSalvaDTO buscaDTO) {
+        BuscaSalva busca = buscarBusca(clienteId, buscaId);
+        aplicarCriterios(busca, buscaDTO);
+        busca = buscaSalvaRepository.save(busca);
+        indiceBuscasSalvas.atualizarAposCommit(busca);
+        return BuscaSalvaDTO.fromEntity(busca);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BuscaSalvaDTO> listarBuscas(Long clienteId) {
+        buscarCliente(clienteId);
+        return buscaSalvaRepository.findByClienteIdOrderById(clienteId).stream()
+                .map(BuscaSalvaDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void removerBusca(Long clienteId, Long buscaId) {
+        buscaSalvaRepository.delete(buscarBusca(clienteId, buscaId));
+        indiceBuscasSalvas.removerAposCommit(List.of(buscaId));
+    }
+
+    private void aplicarCriterios(BuscaSalva busca, BuscaSalvaDTO dto) {
+        if (dto.getPrecoMin() != null && dto.getPrecoMax() != null && dto.getPrecoMin().compareTo(dto.getPrecoMax()) > 0) {
+            throw new IllegalArgumentException("O preço mínimo não pode ser maior que o preço máximo.");
+        }
+        Set<Long> caracteristicaIds = dto.getCaracteristicaIds() != null ? dto.getCaracteristicaIds() : Set.of();
+        // Valida as características pelo cache, sem SQL
+        Set<Long> validas = caracteristicaCache.resolver(caracteristicaIds).stream()
+                .map(Caracteristica::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        busca.setNome(dto.getNome());
+        busca.setTipo(vazioComoNulo(dto.getTipo()));
+        busca.setFinalidade(vazioComoNulo(dto.getFinalidade()));
+        busca.setPrecoMin(dto.getPrecoMin());
+        busca.setPrecoMax(dto.getPrecoMax());
+        busca.setQuartosMin(dto.getQuartosMin());
+        busca.setCidade(vazioComoNulo(dto.getCidade()));
+        busca.setBairro(vazioComoNulo(dto.getBairro()));
+        busca.getCaracteristicaIds().retainAll(validas);
+        busca.getCaracteristicaIds().addAll(validas);
+        busca.setAtiva(dto.getAtiva() == null || dto.getAtiva());
+    }
+
+    private void associarCorretor(Cliente cliente, ClienteDTO dto) {
+        if (dto.getCorretorId() == null) {
+            cliente.setCorretor(null);
+            return;
+        }
+        if (!corretorRepository.existsById(dto.getCorretorId())) {
+            throw new IllegalArgumentException("Corretor com ID " + dto.getCorretorId() + " não encontrado.");
+        }
+        cliente.setCorretor(corretorRepository.getReferenceById(dto.getCorretorId()));
+    }
+
+    private Cliente buscarCliente(Long id) {
+        return clienteRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado com ID: " + id));
+    }
+
+    private BuscaSalva buscarBusca(Long clienteId, Long buscaId) {
+        return buscaSalvaRepository.findByIdAndClienteId(buscaId, clienteId)
+                .orElseThrow(() -> new IllegalArgumentException("Busca salva " + buscaId + " não encontrada para o cliente " + clienteId + "."));
+    }
+
+    private ClienteDTO registrarEvento(String tipo, ClienteDTO cliente) {
+        outboxEventos.registrar(TipoAgregado.CLIENTE, cliente.getId(), tipo, cliente);
+        return cliente;
+    }
+
+    private static String vazioComoNulo(String valor) {
+        return StringUtils.hasText(valor) ? valor.trim() : null;
+    }
+}
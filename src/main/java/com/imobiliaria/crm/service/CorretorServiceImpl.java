@@ -1,14 +1,26 @@
 package com.imobiliaria.crm.service;
 
 import com.imobiliaria.crm.dto.CorretorDTO;
+import com.imobiliaria.crm.dto.ResultadoItemLoteDTO;
+import com.imobiliaria.crm.dto.ResultadoLoteDTO;
 import com.imobiliaria.crm.model.Corretor;
+import com.imobiliaria.crm.model.TipoAgregado;
 import com.imobiliaria.crm.repository.CorretorRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.springframework.util.StringUtils;
@@ -17,10 +29,23 @@ import org.springframework.util.StringUtils;
 public class CorretorServiceImpl implements ICorretorService {
 
     private static final Pattern CPF_PATTERN = Pattern.compile("^[0-9]{3}\\.[0-9]{3}\\.[0-9]{3}-[0-9]{2}$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+
+    // Limite de itens por requisição de cadastro em lote
+    static final int TAMANHO_MAXIMO_LOTE = 1000;
 
     @Autowired
     private CorretorRepository corretorRepository;
 
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private OutboxEventos outboxEventos;
+
+    @Autowired
+    private Validator validator;
+
     @Transactional
     public CorretorDTO criarCorretor(CorretorDTO corretorDTO) {
 
@@ -29,19 +54,135 @@ public class CorretorServiceImpl implements ICorretorService {
         Corretor corretor = corretorDTO.toEntity();
         corretor.setAtivo(true);
         corretor = corretorRepository.save(corretor);
-        return CorretorDTO.fromEntity(corretor);
+        return registrarEvento(OutboxEventos.CORRETOR_CRIADO, CorretorDTO.fromEntity(corretor));
+    }
+
+    /**
+     * Cadastra vários corretores em uma transação. Cada item passa pelas mesmas regras de
+     * {@link #criarCorretor}; itens inválidos, repetidos no lote ou já cadastrados são recusados
+     * individualmente sem impedir a gravação dos demais.
+     * @param corretores Os corretores a cadastrar, no máximo {@value #TAMANHO_MAXIMO_LOTE}.
+     * @return O resultado de cada item, na ordem recebida.
+     */
+    @Transactional
+    public ResultadoLoteDTO<CorretorDTO> criarCorretoresEmLote(List<CorretorDTO> corretores) {
+        if (corretores == null || corretores.isEmpty()) {
+            throw new IllegalArgumentException("O lote de corretores está vazio.");
+        }
+        if (corretores.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("O lote aceita no máximo " + TAMANHO_MAXIMO_LOTE + " corretores.");
+        }
+
+        List<ResultadoItemLoteDTO<CorretorDTO>> resultados = new ArrayList<>(corretores.size());
+        // Primeiro item de cada valor único; ocorrências seguintes do mesmo valor são recusadas
+        Map<String, Integer> cpfs = new HashMap<>();
+        Map<String, Integer> emails = new HashMap<>();
+        Map<String, Integer> crecis = new HashMap<>();
+        List<Integer> candidatos = new ArrayList<>();
+
+        for (int i = 0; i < corretores.size(); i++) {
+            CorretorDTO dto = corretores.get(i);
+            String erro = dto == null ? "Corretor não informado." : validarItemLote(dto, cpfs, emails, crecis);
+            if (erro != null) {
+                resultados.add(ResultadoItemLoteDTO.falha(i, erro));
+                continue;
+            }
+            cpfs.put(dto.getCpf(), i);
+            emails.put(dto.getEmail(), i);
+            if (StringUtils.hasText(dto.getCreci())) {
+                crecis.put(dto.getCreci(), i);
+            }
+            resultados.add(null);
+            candidatos.add(i);
+        }
+
+        // Unicidade contra o banco: uma consulta para o lote inteiro
+        Set<String> cpfsExistentes = new HashSet<>();
+        Set<String> emailsExistentes = new HashSet<>();
+        Set<String> crecisExistentes = new HashSet<>();
+        if (!candidatos.isEmpty()) {
+            corretorRepository.findConflitosUnicidadeEmLote(cpfs.keySet(), emails.keySet(), crecis.keySet())
+                    .forEach(conflito -> {
+                        cpfsExistentes.add(conflito.getCpf());
+                        emailsExistentes.add(conflito.getEmail());
+                        if (conflito.getCreci() != null) {
+                            crecisExistentes.add(conflito.getCreci());
+                        }
+                    });
+        }
+
+        List<Integer> indicesNovos = new ArrayList<>(candidatos.size());
+        List<Corretor> novos = new ArrayList<>(candidatos.size());
+        for (int i : candidatos) {
+            CorretorDTO dto = corretores.get(i);
+            if (cpfsExistentes.contains(dto.getCpf())) {
+                resultados.set(i, ResultadoItemLoteDTO.falha(i, "CPF já cadastrado."));
+            } else if (emailsExistentes.contains(dto.getEmail())) {
+                resultados.set(i, ResultadoItemLoteDTO.falha(i, "E-mail já cadastrado."));
+            } else if (dto.getCreci() != null && crecisExistentes.contains(dto.getCreci())) {
+                resultados.set(i, ResultadoItemLoteDTO.falha(i, "CRECI já cadastrado."));
+            } else {
+                Corretor corretor = dto.toEntity();
+                corretor.setId(null);
+                corretor.setAtivo(true);
+                indicesNovos.add(i);
+                novos.add(corretor);
+            }
+        }
+
+        // Ids reservados em blocos pela sequence: os INSERTs saem em batches JDBC
+        List<Corretor> salvos = corretorRepository.saveAll(novos);
+        for (int j = 0; j < salvos.size(); j++) {
+            int i = indicesNovos.get(j);
+            CorretorDTO salvo = registrarEvento(OutboxEventos.CORRETOR_CRIADO, CorretorDTO.fromEntity(salvos.get(j)));
+            resultados.set(i, ResultadoItemLoteDTO.sucesso(i, salvo));
+        }
+        return new ResultadoLoteDTO<>(resultados);
+    }
+
+    // Regras de formato e repetição dentro do lote; retorna a mensagem de erro ou null se o item é válido
+    private String validarItemLote(CorretorDTO dto, Map<String, Integer> cpfs,
+                                   Map<String, Integer> emails, Map<String, Integer> crecis) {
+        Set<ConstraintViolation<CorretorDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            validarFormatoCorretor(dto);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (cpfs.containsKey(dto.getCpf())) {
+            return "CPF repetido no lote (item " + cpfs.get(dto.getCpf()) + ").";
+        }
+        if (emails.containsKey(dto.getEmail())) {
+            return "E-mail repetido no lote (item " + emails.get(dto.getEmail()) + ").";
+        }
+        if (StringUtils.hasText(dto.getCreci()) && crecis.containsKey(dto.getCreci())) {
+            return "CRECI repetido no lote (item " + crecis.get(dto.getCreci()) + ").";
+        }
+        return null;
     }
 
     private void validarDadosCorretor(CorretorDTO dto) {
+        validarFormatoCorretor(dto);
 
-        // Validação de campos obrigatórios e formato
+        // Validação de unicidade (Regras de Negócio)
+        validarUnicidade(dto.getCpf(), dto.getEmail(), StringUtils.hasText(dto.getCreci()) ? dto.getCreci() : null, null);
+    }
+
+    // Validação de campos obrigatórios e formato, sem acesso ao banco
+    private void validarFormatoCorretor(CorretorDTO dto) {
         if (!StringUtils.hasText(dto.getNome())) {
             throw new IllegalArgumentException("O nome do corretor é obrigatório.");
         }
         if (!StringUtils.hasText(dto.getCpf())) {
             throw new IllegalArgumentException("O CPF do corretor é obrigatório.");
         }
-        if (!CPF_PATTERN.matcher(dto.getCpf()).matches()) {
+        if (!isValidCpf(dto.getCpf())) {
             throw new IllegalArgumentException("Formato de CPF inválido. Use o formato XXX.XXX.XXX-XX.");
         }
         if (!StringUtils.hasText(dto.getEmail())) {
@@ -50,17 +191,26 @@ public class CorretorServiceImpl implements ICorretorService {
         if (!isValidEmail(dto.getEmail())) {
             throw new IllegalArgumentException("Formato de e-mail inválido.");
         }
+    }
 
-        // Validação de unicidade (Regras de Negócio)
-        if (corretorRepository.findByCpf(dto.getCpf()).isPresent()) {
+    // Verifica cpf, e-mail e creci em uma única consulta; valores nulos não são verificados.
+    // Os índices únicos do banco cobrem a concorrência entre esta verificação e a escrita.
+    private void validarUnicidade(String cpf, String email, String creci, Long idIgnorado) {
+        if (cpf == null && email == null && creci == null) {
+            return;
+        }
+        List<CorretorRepository.DadosUnicosCorretor> conflitos =
+                corretorRepository.findConflitosUnicidade(cpf, email, creci, idIgnorado);
+        if (conflitos.isEmpty()) {
+            return;
+        }
+        if (cpf != null && conflitos.stream().anyMatch(c -> cpf.equals(c.getCpf()))) {
             throw new IllegalArgumentException("CPF já cadastrado.");
         }
-        if (corretorRepository.findByEmail(dto.getEmail()).isPresent()) {
+        if (email != null && conflitos.stream().anyMatch(c -> email.equals(c.getEmail()))) {
             throw new IllegalArgumentException("E-mail já cadastrado.");
         }
-        if (StringUtils.hasText(dto.getCreci()) && corretorRepository.findByCreci(dto.getCreci()).isPresent()) {
-            throw new IllegalArgumentException("CRECI já cadastrado.");
-        }
+        throw new IllegalArgumentException("CRECI já cadastrado.");
     }
 
     @Transactional
@@ -68,25 +218,21 @@ public class CorretorServiceImpl implements ICorretorService {
         Corretor corretor = corretorRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Corretor não encontrado com ID: " + id));
 
+        // Apenas valores alterados precisam ser verificados quanto à unicidade
+        boolean emailInformado = corretorDTO.getEmail() != null && !corretorDTO.getEmail().trim().isEmpty();
+        validarUnicidade(
+                alterado(corretorDTO.getCpf(), corretor.getCpf()),
+                emailInformado ? alterado(corretorDTO.getEmail(), corretor.getEmail()) : null,
+                alterado(corretorDTO.getCreci(), corretor.getCreci()),
+                corretor.getId());
+
         // Atualiza apenas os campos fornecidos
         if (corretorDTO.getNome() != null && !corretorDTO.getNome().trim().isEmpty()) {
             corretor.setNome(corretorDTO.getNome());
         }
-        if (corretorDTO.getEmail() != null && !corretorDTO.getEmail().trim().isEmpty()) {
-            if (!corretorDTO.getEmail().equals(corretor.getEmail()) &&
-                    corretorRepository.findByEmail(corretorDTO.getEmail()).isPresent()) {
-                throw new IllegalArgumentException("E-mail já cadastrado.");
-            }
+        if (emailInformado) {
             corretor.setEmail(corretorDTO.getEmail());
         }
-        if (corretorDTO.getCpf() != null && !corretorDTO.getCpf().equals(corretor.getCpf()) &&
-                corretorRepository.findByCpf(corretorDTO.getCpf()).isPresent()) {
-            throw new IllegalArgumentException("CPF já cadastrado.");
-        }
-        if (corretorDTO.getCreci() != null && !corretorDTO.getCreci().equals(corretor.getCreci()) &&
-                corretorRepository.findByCreci(corretorDTO.getCreci()).isPresent()) {
-            throw new IllegalArgumentException("CRECI já cadastrado.");
-        }
 
         // Atualiza campos
         if (corretorDTO.getCpf() != null) {
@@ -103,7 +249,9 @@ public class CorretorServiceImpl implements ICorretorService {
         }
 
         corretor = corretorRepository.save(corretor);
-        return CorretorDTO.fromEntity(corretor);
+        // Os dados do corretor são exibidos no detalhe e na listagem dos seus imóveis
+        imovelRepository.registrarAlteracaoPorCorretor(id, LocalDateTime.now());
+        return registrarEvento(OutboxEventos.CORRETOR_ATUALIZADO, CorretorDTO.fromEntity(corretor));
     }
 
     @Transactional(readOnly = true)
@@ -126,10 +274,25 @@ public class CorretorServiceImpl implements ICorretorService {
                 .orElseThrow(() -> new IllegalArgumentException("Corretor não encontrado com ID: " + id));
         corretor.setAtivo(!corretor.isAtivo());
         corretorRepository.save(corretor);
+        imovelRepository.registrarAlteracaoPorCorretor(id, LocalDateTime.now());
+        registrarEvento(OutboxEventos.CORRETOR_ATUALIZADO, CorretorDTO.fromEntity(corretor));
+    }
+
+    private CorretorDTO registrarEvento(String tipo, CorretorDTO corretor) {
+        outboxEventos.registrar(TipoAgregado.CORRETOR, corretor.getId(), tipo, corretor);
+        return corretor;
+    }
+
+    private static String alterado(String novoValor, String valorAtual) {
+        return novoValor != null && !novoValor.equals(valorAtual) ? novoValor : null;
+    }
+
+    // Visíveis no pacote para os benchmarks JMH (src/jmh/java)
+    static boolean isValidCpf(String cpf) {
+        return CPF_PATTERN.matcher(cpf).matches();
     }
 
-    private boolean isValidEmail(String email) {
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$";
-        return Pattern.compile(emailRegex).matcher(email).matches();
+    static boolean isValidEmail(String email) {
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 }
\ No newline at end of file
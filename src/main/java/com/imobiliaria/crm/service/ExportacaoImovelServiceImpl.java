@@ -0,0 +1,163 @@
+package com.imobiliaria.crm.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.imobiliaria.crm.dto.FormatoExportacao;
+import com.imobiliaria.crm.dto.ImovelCsvDTO;
+import com.imobiliaria.crm.dto.ImovelDTO;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exportação do catálogo completo em streaming.
+ * Os imóveis são lidos de um cursor do banco (fetch size no ImovelRepository) em blocos:
+ * cada bloco tem suas coleções carregadas em lote, é escrito na saída e então desanexado
+ * do contexto de persistência, mantendo o uso de heap constante qualquer que seja o volume.
+ */
+@Service
+public class ExportacaoImovelServiceImpl implements IExportacaoImovelService {
+
+    // Não deve passar do @BatchSize das coleções de Imovel, para que cada bloco custe uma consulta por coleção
+    static final int TAMANHO_BLOCO = 100;
+
+    private final ImovelRepository imovelRepository;
+    private final ObjectMapper objectMapper;
+    private final XmlMapper xmlMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportacaoImovelServiceImpl(ImovelRepository imovelRepository,
+                                       ObjectMapper objectMapper,
+                                       Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.imovelRepository = imovelRepository;
+        this.objectMapper = objectMapper;
+        this.xmlMapper = objectMapperBuilder.createXmlMapper(true).build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(FormatoExportacao formato, boolean apenasPublicados, OutputStream saida) throws IOException {
+        EscritorExportacao escritor = switch (formato) {
+            case NDJSON -> new EscritorNdjson(objectMapper, saida);
+            case CSV -> new EscritorCsv(csvMapper, saida);
+            case XML -> new EscritorXml(xmlMapper, saida);
+        };
+
+        try (Stream<Imovel> imoveis = apenasPublicados
+                ? imovelRepository.streamPublicadosParaExportacao()
+                : imovelRepository.streamTodosParaExportacao()) {
+            List<Imovel> bloco = new ArrayList<>(TAMANHO_BLOCO);
+            Iterator<Imovel> iterator = imoveis.iterator();
+            while (iterator.hasNext()) {
+                bloco.add(iterator.next());
+                if (bloco.size() == TAMANHO_BLOCO) {
+                    escreverBloco(bloco, escritor, saida);
+                }
+            }
+            escreverBloco(bloco, escritor, saida);
+        }
+        escritor.finalizar();
+    }
+
+    private void escreverBloco(List<Imovel> bloco, EscritorExportacao escritor, OutputStream saida) throws IOException {
+        // A primeira coleção acessada carrega em lote as coleções de todo o bloco, que está no contexto
+        for (Imovel imovel : bloco) {
+            escritor.escrever(ImovelDTO.fromEntity(imovel));
+        }
+        bloco.clear();
+        entityManager.clear();
+        saida.flush();
+    }
+
+    private interface EscritorExportacao {
+        void escrever(ImovelDTO imovel) throws IOException;
+
+        void finalizar() throws IOException;
+    }
+
+    private static final class EscritorNdjson implements EscritorExportacao {
+        private final ObjectMapper objectMapper;
+        private final JsonGenerator gerador;
+
+        private EscritorNdjson(ObjectMapper objectMapper, OutputStream saida) throws IOException {
+            this.objectMapper = objectMapper;
+            this.gerador = objectMapper.createGenerator(saida);
+            // Cada linha termina com '\n', inclusive a última; dispensa o separador padrão entre valores
+            gerador.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void escrever(ImovelDTO imovel) throws IOException {
+            objectMapper.writeValue(gerador, imovel);
+            gerador.writeRaw('\n');
+        }
+
+        @Override
+        public void finalizar() throws IOException {
+            gerador.close();
+        }
+    }
+
+    private static final class EscritorCsv implements EscritorExportacao {
+        private final SequenceWriter sequencia;
+
+        private EscritorCsv(CsvMapper csvMapper, OutputStream saida) throws IOException {
+            CsvSchema schema = csvMapper.schemaFor(ImovelCsvDTO.class).withHeader();
+            this.sequencia = csvMapper.writer(schema).writeValues(saida);
+        }
+
+        @Override
+        public void escrever(ImovelDTO imovel) throws IOException {
+            sequencia.write(ImovelCsvDTO.fromImovelDTO(imovel));
+        }
+
+        @Override
+        public void finalizar() throws IOException {
+            sequencia.close();
+        }
+    }
+
+    private static final class EscritorXml implements EscritorExportacao {
+        private final XmlMapper xmlMapper;
+        private final ToXmlGenerator gerador;
+
+        private EscritorXml(XmlMapper xmlMapper, OutputStream saida) throws IOException {
+            this.xmlMapper = xmlMapper;
+            this.gerador = xmlMapper.getFactory().createGenerator(saida);
+            gerador.setNextName(new QName("imoveis"));
+            gerador.writeStartObject();
+        }
+
+        @Override
+        public void escrever(ImovelDTO imovel) throws IOException {
+            gerador.writeFieldName("imovel");
+            xmlMapper.writeValue(gerador, imovel);
+        }
+
+        @Override
+        public void finalizar() throws IOException {
+            gerador.writeEndObject();
+            gerador.close();
+        }
+    }
+}
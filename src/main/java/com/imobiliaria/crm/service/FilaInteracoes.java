@@ -0,0 +1,158 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.InteracoesProperties;
+import com.imobiliaria.crm.exception.FilaCheiaException;
+import com.imobiliaria.crm.repository.InteracaoRepository;
+import com.imobiliaria.crm.repository.InteracaoRepositoryCustom.NovaInteracao;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila limitada entre as requisições que registram interações e o banco. As requisições só
+ * enfileiram; uma thread gravadora retira até {@code crm.interacoes.tamanho-lote} interações por vez
+ * e grava cada lote com um INSERT de várias linhas. Com a fila cheia (banco lento ou indisponível)
+ * novas interações são recusadas com {@link FilaCheiaException} em vez de acumular memória.
+ * Interações aceitas e ainda não gravadas se perdem se o processo for interrompido abruptamente.
+ */
+@Slf4j
+@Component
+public class FilaInteracoes {
+
+    // Espera máxima da thread gravadora por novas interações antes de verificar o encerramento
+    private static final long ESPERA_MILIS = 1_000;
+
+    private final InteracaoRepository interacaoRepository;
+    private final InteracoesProperties properties;
+
+    // Vagas da fila: adquiridas ao enfileirar e devolvidas depois da gravação, de modo que o limite
+    // inclui o lote que está sendo gravado
+    private final Semaphore vagas;
+    private final BlockingQueue<NovaInteracao> fila = new LinkedBlockingQueue<>();
+    private final AtomicLong descartadas = new AtomicLong();
+
+    private volatile boolean encerrando;
+    private Thread gravador;
+
+    public FilaInteracoes(InteracaoRepository interacaoRepository, InteracoesProperties properties) {
+        this.interacaoRepository = interacaoRepository;
+        this.properties = properties;
+        this.vagas = new Semaphore(properties.getCapacidadeFila());
+    }
+
+    @PostConstruct
+    public synchronized void iniciar() {
+        if (gravador == null) {
+            gravador = Thread.ofPlatform().name("gravador-interacoes").daemon().start(this::executar);
+        }
+    }
+
+    /**
+     * Aceita as interações para gravação assíncrona: todas ou nenhuma.
+     * @throws FilaCheiaException Se não houver vagas para todas as interações.
+     */
+    public void enfileirar(List<NovaInteracao> interacoes) {
+        if (encerrando || !vagas.tryAcquire(interacoes.size())) {
+            throw new FilaCheiaException("Fila de interações cheia. Tente novamente em instantes.",
+                    Math.max(1, properties.getIntervaloNovaTentativa().toSeconds()));
+        }
+        fila.addAll(interacoes);
+    }
+
+    /**
+     * Interações aceitas e ainda não gravadas.
+     */
+    public int pendentes() {
+        return properties.getCapacidadeFila() - vagas.availablePermits();
+    }
+
+    /**
+     * Interações aceitas que não puderam ser gravadas (restrição violada ou banco indisponível no encerramento).
+     */
+    public long descartadas() {
+        return descartadas.get();
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        encerrando = true;
+        Thread thread;
+        synchronized (this) {
+            thread = gravador;
+        }
+        if (thread != null) {
+            thread.join(properties.getTimeoutEncerramento().toMillis());
+        }
+        if (!fila.isEmpty()) {
+            log.error("Encerrando com {} interações não gravadas", fila.size());
+        }
+    }
+
+    private void executar() {
+        List<NovaInteracao> lote = new ArrayList<>(properties.getTamanhoLote());
+        try {
+            while (!encerrando || !fila.isEmpty()) {
+                NovaInteracao primeira = fila.poll(ESPERA_MILIS, TimeUnit.MILLISECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                // Sob carga o lote enche sem espera; com pouco movimento cada interação é gravada logo ao chegar
+                lote.add(primeira);
+                fila.drainTo(lote, properties.getTamanhoLote() - 1);
+                gravar(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void gravar(List<NovaInteracao> lote) throws InterruptedException {
+        try {
+            while (true) {
+                try {
+                    interacaoRepository.inserirEmLote(lote);
+                    return;
+                } catch (DataIntegrityViolationException e) {
+                    // Uma linha inválida (ex.: imóvel excluído depois do aceite) recusa o INSERT inteiro
+                    gravarUmaAUma(lote);
+                    return;
+                } catch (DataAccessException e) {
+                    if (encerrando) {
+                        log.error("Banco indisponível no encerramento; {} interações descartadas", lote.size(), e);
+                        descartadas.addAndGet(lote.size());
+                        return;
+                    }
+                    // As vagas continuam ocupadas: se a falha persistir, a fila enche e as requisições recebem 503
+                    log.warn("Falha ao gravar {} interações; nova tentativa em {}", lote.size(),
+                            properties.getIntervaloNovaTentativa(), e);
+                    Thread.sleep(properties.getIntervaloNovaTentativa().toMillis());
+                }
+            }
+        } finally {
+            vagas.release(lote.size());
+        }
+    }
+
+    private void gravarUmaAUma(List<NovaInteracao> lote) {
+        for (NovaInteracao interacao : lote) {
+            try {
+                interacaoRepository.inserirEmLote(List.of(interacao));
+            } catch (DataAccessException e) {
+                descartadas.incrementAndGet();
+                log.warn("Interação descartada ({}): {}", interacao, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+}
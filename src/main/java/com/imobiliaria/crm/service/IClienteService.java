@@ -0,0 +1,21 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.BuscaSalvaDTO;
+import com.imobiliaria.crm.dto.ClienteDTO;
+import com.imobiliaria.crm.dto.PaginaDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface IClienteService {
+
+    ClienteDTO criarCliente(ClienteDTO clienteDTO);
+    ClienteDTO atualizarCliente(Long id, ClienteDTO clienteDTO);
+    Optional<ClienteDTO> buscarPorId(Long id);
+    PaginaDTO<ClienteDTO> listarPagina(String cursor, Integer tamanho);
+
+    BuscaSalvaDTO criarBusca(Long clienteId, BuscaSalvaDTO buscaDTO);
+    BuscaSalvaDTO atualizarBusca(Long clienteId, Long buscaId, BuscaSalvaDTO buscaDTO);
+    List<BuscaSalvaDTO> listarBuscas(Long clienteId);
+    void removerBusca(Long clienteId, Long buscaId);
+}
@@ -0,0 +1,12 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.FormatoExportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface IExportacaoImovelService {
+
+//    Escreve o catálogo de imóveis no formato pedido, em streaming, diretamente na saída informada.
+    void exportar(FormatoExportacao formato, boolean apenasPublicados, OutputStream saida) throws IOException;
+}
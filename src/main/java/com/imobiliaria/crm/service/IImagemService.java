@@ -1,14 +1,34 @@
 package com.imobiliaria.crm.service;
 
 import com.imobiliaria.crm.dto.ImagemDTO;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
 import java.util.List;
+import java.util.Optional;
 
 public interface IImagemService {
 
+    // Arquivo de uma variante e o hash do original que o identifica (imutável para o mesmo hash)
+    record ArquivoVariante(String hash, Resource recurso) {
+    }
+
 
 //    Adiciona uma nova imagem a um imóvel existente.
     ImagemDTO adicionarImagem(Long imovelId, ImagemDTO imagemDTO);
 
+//    Adiciona várias imagens a um imóvel em uma transação; sem ordem informada, entram no fim da galeria.
+    List<ImagemDTO> adicionarImagens(Long imovelId, List<ImagemDTO> imagensDTO);
+
+//    Redefine a ordem de toda a galeria: a posição de cada ID na lista passa a ser a sua ordem.
+    List<ImagemDTO> reordenarImagens(Long imovelId, List<Long> imagemIds);
+
+//    Armazena o arquivo enviado e agenda a geração das variantes redimensionadas em segundo plano.
+    ImagemDTO enviarImagem(Long imovelId, MultipartFile arquivo, String legenda, Integer ordem);
+
+//    Localiza o arquivo de uma variante (ex: "card.jpg", "miniatura.webp"); vazio se ainda não foi gerado.
+    Optional<ArquivoVariante> buscarArquivoVariante(Long imagemId, String nomeArquivo);
+
 //    Deleta uma imagem específica de um imóvel.
     void deletarImagem(Long imovelId, Long imagemId);
 
@@ -1,13 +1,37 @@
 package com.imobiliaria.crm.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.imobiliaria.crm.dto.FacetasDTO;
+import com.imobiliaria.crm.dto.FiltroFacetasDTO;
 import com.imobiliaria.crm.dto.ImovelDTO;
-import java.util.List;
+import com.imobiliaria.crm.dto.ImovelFiltroDTO;
+import com.imobiliaria.crm.dto.ImovelResumoDTO;
+import com.imobiliaria.crm.dto.OrdenacaoImovel;
+import com.imobiliaria.crm.dto.PaginaDTO;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.Set;
 
 public interface IImovelService {
+
+    // Versão de um imóvel usada nos validadores do detalhe (ETag forte/Last-Modified) e no If-Match do PUT
+    record VersaoImovel(long versao, LocalDateTime dataAtualizacao) {
+    }
+
+    // Estado da coleção de imóveis usado nos validadores das listagens (ETag/Last-Modified)
+    record VersaoColecao(LocalDateTime ultimaAtualizacao, long quantidade) {
+    }
+
     ImovelDTO criarImovel(ImovelDTO imovelDTO);
     Optional<ImovelDTO> buscarPorId(Long id);
-    List<ImovelDTO> listarTodos();
-    ImovelDTO atualizarImovel(Long id, ImovelDTO imovelDTO);
+    Optional<VersaoImovel> buscarVersao(Long id);
+    VersaoColecao buscarVersaoColecao();
+    PaginaDTO<ImovelDTO> listarPagina(String cursor, Integer tamanho, OrdenacaoImovel ordenacao);
+    PaginaDTO<ImovelResumoDTO> listarResumos(String cursor, Integer tamanho);
+    PaginaDTO<ImovelDTO> buscar(ImovelFiltroDTO filtro, String cursor, Integer tamanho);
+    PaginaDTO<ImovelDTO> buscarPorTexto(String termo, ImovelFiltroDTO filtro, String cursor, Integer tamanho);
+    FacetasDTO contarFacetas(FiltroFacetasDTO filtro, Integer limite);
+    ImovelDTO atualizarImovel(Long id, ImovelDTO imovelDTO, Set<Long> versoesEsperadas);
+    ImovelDTO atualizarParcialmente(Long id, JsonNode patch, Set<Long> versoesEsperadas);
     void deletarImovel(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.RelatorioImportacaoDTO;
+
+import java.io.InputStream;
+
+public interface IImportacaoImovelService {
+
+//    Importa um array JSON de ImovelDTO lido em streaming.
+    RelatorioImportacaoDTO importarJson(InputStream entrada);
+
+//    Importa um CSV com cabeçalho no layout de ImovelCsvDTO.
+    RelatorioImportacaoDTO importarCsv(InputStream entrada);
+}
@@ -0,0 +1,38 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.InteracaoDTO;
+import com.imobiliaria.crm.dto.InteracaoTimelineDTO;
+import com.imobiliaria.crm.dto.PaginaDTO;
+import com.imobiliaria.crm.dto.ResultadoLoteDTO;
+
+import java.util.List;
+
+public interface IInteracaoService {
+
+    /**
+     * Valida e aceita uma interação para gravação assíncrona.
+     * @return A interação aceita, com a data de registro preenchida.
+     * @throws com.imobiliaria.crm.exception.FilaCheiaException Se a fila de gravação estiver cheia.
+     */
+    InteracaoDTO registrar(InteracaoDTO interacaoDTO);
+
+    /**
+     * Valida cada interação individualmente e aceita as válidas para gravação assíncrona.
+     * @return O resultado de cada item, na ordem recebida.
+     * @throws com.imobiliaria.crm.exception.FilaCheiaException Se a fila de gravação não comportar os itens válidos;
+     * nesse caso nenhum item é aceito.
+     */
+    ResultadoLoteDTO<InteracaoDTO> registrarLote(List<InteracaoDTO> interacoes);
+
+    /**
+     * Interações do cliente, da mais recente para a mais antiga, paginadas por cursor.
+     * @throws IllegalArgumentException Se o cliente não existir ou o cursor for inválido.
+     */
+    PaginaDTO<InteracaoTimelineDTO> listarPorCliente(Long clienteId, String cursor, Integer tamanho);
+
+    /**
+     * Interações registradas pelo corretor, da mais recente para a mais antiga, paginadas por cursor.
+     * @throws IllegalArgumentException Se o corretor não existir ou o cursor for inválido.
+     */
+    PaginaDTO<InteracaoTimelineDTO> listarPorCorretor(Long corretorId, String cursor, Integer tamanho);
+}
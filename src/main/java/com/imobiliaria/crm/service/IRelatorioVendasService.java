@@ -0,0 +1,19 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.RelatorioVendasDTO;
+
+import java.time.YearMonth;
+
+/**
+ * Relatórios de vendas para os painéis da gerência. Sem período informado, considera os últimos 12 meses.
+ */
+public interface IRelatorioVendasService {
+
+    RelatorioVendasDTO vendasPorMes(YearMonth de, YearMonth ate);
+
+    RelatorioVendasDTO vendasPorCorretor(YearMonth de, YearMonth ate);
+
+    RelatorioVendasDTO vendasPorLocalizacao(YearMonth de, YearMonth ate, String cidade);
+
+    RelatorioVendasDTO vendasPorTipo(YearMonth de, YearMonth ate);
+}
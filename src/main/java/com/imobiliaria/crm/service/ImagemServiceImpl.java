@@ -4,24 +4,61 @@ package com.imobiliaria.crm.service;
 import com.imobiliaria.crm.dto.ImagemDTO;
 import com.imobiliaria.crm.model.Imagem;
 import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.model.StatusProcessamentoImagem;
+import com.imobiliaria.crm.model.TipoAgregado;
+import com.imobiliaria.crm.model.VarianteImagem;
 import com.imobiliaria.crm.repository.ImagemRepository;
 import com.imobiliaria.crm.repository.ImovelRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ImagemServiceImpl implements IImagemService {
 
+    // Limite de imagens por requisição de cadastro em lote
+    static final int TAMANHO_MAXIMO_LOTE = 100;
+
+    // Formatos aceitos no upload; as variantes são sempre geradas em JPEG (e WebP, se disponível)
+    private static final Set<String> TIPOS_ACEITOS = Set.of("image/jpeg", "image/png");
+
+    // Nomes de arquivo servidos: <variante>.jpg ou <variante>.webp
+    private static final Pattern ARQUIVO_VARIANTE = Pattern.compile("^(" +
+            Stream.of(VarianteImagem.values()).map(VarianteImagem::getNome).collect(Collectors.joining("|")) +
+            ")\\.(jpg|webp)$");
+
     @Autowired
     private ImagemRepository imagemRepository;
 
     @Autowired
     private ImovelRepository imovelRepository; // Precisamos dele para associar a imagem
 
+    @Autowired
+    private ArmazenamentoImagens armazenamentoImagens;
+
+    @Autowired
+    private ProcessadorImagens processadorImagens;
+
+    @Autowired
+    private OutboxEventos outboxEventos;
+
     @Override
     @Transactional
     public ImagemDTO adicionarImagem(Long imovelId, ImagemDTO imagemDTO) {
@@ -35,8 +72,139 @@ public class ImagemServiceImpl implements IImagemService {
 
         // 3. Salva a nova imagem
         Imagem imagemSalva = imagemRepository.save(imagem);
+        ImagemDTO salva = ImagemDTO.fromEntity(imagemSalva);
+        registrarAlteracaoImovel(imovelId, OutboxEventos.IMAGENS_ADICIONADAS, List.of(salva));
 
-        return ImagemDTO.fromEntity(imagemSalva);
+        return salva;
+    }
+
+    @Override
+    @Transactional
+    public List<ImagemDTO> adicionarImagens(Long imovelId, List<ImagemDTO> imagensDTO) {
+        if (imagensDTO == null || imagensDTO.isEmpty()) {
+            throw new IllegalArgumentException("O lote de imagens está vazio.");
+        }
+        if (imagensDTO.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("O lote aceita no máximo " + TAMANHO_MAXIMO_LOTE + " imagens.");
+        }
+        for (int i = 0; i < imagensDTO.size(); i++) {
+            ImagemDTO dto = imagensDTO.get(i);
+            if (dto == null || dto.getUrl() == null || dto.getUrl().isBlank()) {
+                throw new IllegalArgumentException("A URL da imagem é obrigatória (item " + i + ").");
+            }
+        }
+        if (!imovelRepository.existsById(imovelId)) {
+            throw new IllegalArgumentException("Imóvel não encontrado com ID: " + imovelId);
+        }
+
+        // Uma única referência (sem SELECT) associa todas as imagens ao imóvel
+        Imovel imovel = imovelRepository.getReferenceById(imovelId);
+        int proximaOrdem = imagemRepository.findMaiorOrdem(imovelId) + 1;
+        List<Imagem> imagens = new ArrayList<>(imagensDTO.size());
+        for (ImagemDTO dto : imagensDTO) {
+            Imagem imagem = dto.toEntity();
+            imagem.setId(null);
+            imagem.setImovel(imovel);
+            imagem.setOrdem(dto.getOrdem() != null ? dto.getOrdem() : proximaOrdem++);
+            if (imagem.getDataUpload() == null) {
+                imagem.setDataUpload(LocalDateTime.now());
+            }
+            imagens.add(imagem);
+        }
+
+        // Ids reservados em blocos pela sequence: os INSERTs saem em batches JDBC
+        List<ImagemDTO> salvas = imagemRepository.saveAll(imagens).stream()
+                .map(ImagemDTO::fromEntity)
+                .collect(Collectors.toList());
+        registrarAlteracaoImovel(imovelId, OutboxEventos.IMAGENS_ADICIONADAS, salvas);
+        return salvas;
+    }
+
+    @Override
+    @Transactional
+    public List<ImagemDTO> reordenarImagens(Long imovelId, List<Long> imagemIds) {
+        if (imagemIds == null || imagemIds.isEmpty()) {
+            throw new IllegalArgumentException("Informe os IDs das imagens na nova ordem.");
+        }
+        List<Imagem> galeria = imagemRepository.findByImovelIdOrderByOrdemAscIdAsc(imovelId);
+        if (galeria.isEmpty() && !imovelRepository.existsById(imovelId)) {
+            throw new IllegalArgumentException("Imóvel não encontrado com ID: " + imovelId);
+        }
+        Map<Long, Imagem> porId = galeria.stream()
+                .collect(Collectors.toMap(Imagem::getId, Function.identity()));
+        if (imagemIds.size() != porId.size() || !porId.keySet().equals(new HashSet<>(imagemIds))) {
+            throw new IllegalArgumentException("A nova ordem deve conter cada imagem do imóvel exatamente uma vez.");
+        }
+
+        // Apenas as imagens que mudaram de posição ficam sujas; os UPDATEs saem em batches JDBC no commit
+        List<Imagem> reordenadas = new ArrayList<>(imagemIds.size());
+        boolean alterada = false;
+        for (int ordem = 0; ordem < imagemIds.size(); ordem++) {
+            Imagem imagem = porId.get(imagemIds.get(ordem));
+            if (!Integer.valueOf(ordem).equals(imagem.getOrdem())) {
+                imagem.setOrdem(ordem);
+                alterada = true;
+            }
+            reordenadas.add(imagem);
+        }
+        if (alterada) {
+            registrarAlteracaoImovel(imovelId, OutboxEventos.IMAGENS_REORDENADAS, imagemIds);
+        }
+        return reordenadas.stream()
+                .map(ImagemDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public ImagemDTO enviarImagem(Long imovelId, MultipartFile arquivo, String legenda, Integer ordem) {
+        if (arquivo == null || arquivo.isEmpty()) {
+            throw new IllegalArgumentException("O arquivo da imagem é obrigatório.");
+        }
+        if (!TIPOS_ACEITOS.contains(arquivo.getContentType())) {
+            throw new IllegalArgumentException("Tipo de arquivo não suportado. Envie imagens JPEG ou PNG.");
+        }
+        Imovel imovel = imovelRepository.findById(imovelId)
+                .orElseThrow(() -> new IllegalArgumentException("Imóvel não encontrado com ID: " + imovelId));
+
+        // O multipart já está em disco (temporário do container); o conteúdo é copiado em blocos
+        ArmazenamentoImagens.OriginalArmazenado original;
+        try (InputStream conteudo = arquivo.getInputStream()) {
+            original = armazenamentoImagens.armazenarOriginal(conteudo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao armazenar a imagem.", e);
+        }
+        // Gravado antes do commit: se a transação for desfeita, o original sem imagem é removido
+        // depois do prazo de retenção por LimpezaOriginaisOrfaos
+        String hash = original.hash();
+
+        Imagem imagem = new Imagem();
+        imagem.setImovel(imovel);
+        imagem.setLegenda(legenda);
+        imagem.setOrdem(ordem != null ? ordem : 0);
+        imagem.setArquivo(hash);
+        imagem.setStatusProcessamento(StatusProcessamentoImagem.PENDENTE);
+        imagem.setDataUpload(LocalDateTime.now());
+        // A URL principal aponta para a variante completa, disponível quando o processamento concluir
+        imagem.setUrl("");
+        imagem = imagemRepository.save(imagem);
+        imagem.setUrl(processadorImagens.urlVariante(imagem.getId(), VarianteImagem.COMPLETA));
+
+        ImagemDTO enviada = ImagemDTO.fromEntity(imagem);
+        registrarAlteracaoImovel(imovelId, OutboxEventos.IMAGENS_ADICIONADAS, List.of(enviada));
+        processadorImagens.agendarAposCommit(imagem.getId());
+        return enviada;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ArquivoVariante> buscarArquivoVariante(Long imagemId, String nomeArquivo) {
+        if (nomeArquivo == null || !ARQUIVO_VARIANTE.matcher(nomeArquivo).matches()) {
+            throw new IllegalArgumentException("Variante de imagem inválida: " + nomeArquivo);
+        }
+        return imagemRepository.findArquivoById(imagemId)
+                .map(hash -> new ArquivoVariante(hash, armazenamentoImagens.carregarVariante(hash, nomeArquivo)))
+                .filter(arquivo -> arquivo.recurso().exists());
     }
 
     @Override
@@ -47,6 +215,7 @@ public class ImagemServiceImpl implements IImagemService {
                 .orElseThrow(() -> new IllegalArgumentException("Imagem com ID " + imagemId + " não encontrada para o imóvel com ID " + imovelId));
 
         imagemRepository.delete(imagem);
+        registrarAlteracaoImovel(imovelId, OutboxEventos.IMAGEM_REMOVIDA, Map.of("id", imagemId));
     }
 
     @Override
@@ -55,7 +224,7 @@ public class ImagemServiceImpl implements IImagemService {
         if (!imovelRepository.existsById(imovelId)) {
             throw new IllegalArgumentException("Imóvel não encontrado com ID: " + imovelId);
         }
-        List<Imagem> imagens = imagemRepository.findByImovelId(imovelId);
+        List<Imagem> imagens = imagemRepository.findByImovelIdOrderByOrdemAscIdAsc(imovelId);
         return imagens.stream()
                 .map(ImagemDTO::fromEntity)
                 .collect(Collectors.toList());
@@ -76,6 +245,15 @@ public class ImagemServiceImpl implements IImagemService {
         }
 
         Imagem imagemAtualizada = imagemRepository.save(imagem);
-        return ImagemDTO.fromEntity(imagemAtualizada);
+        ImagemDTO atualizada = ImagemDTO.fromEntity(imagemAtualizada);
+        registrarAlteracaoImovel(imovelId, OutboxEventos.IMAGEM_ATUALIZADA, atualizada);
+        return atualizada;
+    }
+
+    // A galeria faz parte da representação do imóvel: qualquer alteração invalida o seu ETag
+    // e é publicada como evento do agregado imóvel
+    private void registrarAlteracaoImovel(Long imovelId, String tipoEvento, Object payload) {
+        imovelRepository.registrarAlteracao(imovelId, LocalDateTime.now());
+        outboxEventos.registrar(TipoAgregado.IMOVEL, imovelId, tipoEvento, payload);
     }
 }
\ No newline at end of file
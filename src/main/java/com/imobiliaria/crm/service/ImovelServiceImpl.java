@@ -1,34 +1,92 @@
 package com.imobiliaria.crm.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.imobiliaria.crm.dto.CaracteristicaDTO;
+import com.imobiliaria.crm.dto.ContagemFacetaDTO;
+import com.imobiliaria.crm.dto.CursorPaginacao;
+import com.imobiliaria.crm.dto.FacetasDTO;
+import com.imobiliaria.crm.dto.FiltroFacetasDTO;
 import com.imobiliaria.crm.dto.ImovelDTO;
+import com.imobiliaria.crm.dto.ImovelFiltroDTO;
+import com.imobiliaria.crm.dto.ImovelResumoDTO;
+import com.imobiliaria.crm.dto.OrdenacaoImovel;
+import com.imobiliaria.crm.dto.PaginaDTO;
+import com.imobiliaria.crm.exception.VersaoDesatualizadaException;
 import com.imobiliaria.crm.model.Caracteristica;
 import com.imobiliaria.crm.model.Corretor;
 import com.imobiliaria.crm.model.Imovel;
-import com.imobiliaria.crm.repository.CaracteristicaRepository;
+import com.imobiliaria.crm.model.TipoAgregado;
 import com.imobiliaria.crm.repository.CorretorRepository;
 import com.imobiliaria.crm.repository.ImovelRepository;
+import com.imobiliaria.crm.repository.ImovelSpecifications;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ImovelServiceImpl implements IImovelService {
 
+    static final int TAMANHO_PAGINA_PADRAO = 20;
+    static final int TAMANHO_PAGINA_MAXIMO = 100;
+    static final int LIMITE_FACETAS_PADRAO = 50;
+    static final int LIMITE_FACETAS_MAXIMO = 500;
+
+    // Campos do ImovelDTO que são apenas exibidos e não podem vir em um merge patch
+    private static final Set<String> CAMPOS_SOMENTE_LEITURA = Set.of(
+            "id", "versao", "dataCadastro", "dataAtualizacao", "corretor", "imagens", "caracteristicas");
+
     private final ImovelRepository imovelRepository;
     private final CorretorRepository corretorRepository;
-    private final CaracteristicaRepository caracteristicaRepository; // Nova dependência
+    private final CaracteristicaCache caracteristicaCache;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader leitorPatch;
+    private final Validator validator;
+    private final OutboxEventos outboxEventos;
+    private final AlertasBuscasSalvas alertasBuscasSalvas;
+    private final IndiceFacetasImoveis indiceFacetas;
 
     public ImovelServiceImpl(ImovelRepository imovelRepository,
                              CorretorRepository corretorRepository,
-                             CaracteristicaRepository caracteristicaRepository) {
+                             CaracteristicaCache caracteristicaCache,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             OutboxEventos outboxEventos,
+                             AlertasBuscasSalvas alertasBuscasSalvas,
+                             IndiceFacetasImoveis indiceFacetas) {
         this.imovelRepository = imovelRepository;
         this.corretorRepository = corretorRepository;
-        this.caracteristicaRepository = caracteristicaRepository;
+        this.caracteristicaCache = caracteristicaCache;
+        this.objectMapper = objectMapper;
+        // No patch, um campo desconhecido é erro do cliente e não deve ser ignorado silenciosamente
+        this.leitorPatch = objectMapper.readerFor(ImovelDTO.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.validator = validator;
+        this.outboxEventos = outboxEventos;
+        this.alertasBuscasSalvas = alertasBuscasSalvas;
+        this.indiceFacetas = indiceFacetas;
     }
 
     @Override
@@ -44,13 +102,9 @@ public class ImovelServiceImpl implements IImovelService {
             imovel.setCorretor(corretor);
         }
 
-        // 3. Associa as características, se IDs forem fornecidos
+        // 3. Associa as características, se IDs forem fornecidos (validadas pelo cache, sem SQL)
         if (imovelDTO.getCaracteristicaIds() != null && !imovelDTO.getCaracteristicaIds().isEmpty()) {
-            Set<Caracteristica> caracteristicas = new HashSet<>(caracteristicaRepository.findAllById(imovelDTO.getCaracteristicaIds()));
-            if (caracteristicas.size() != imovelDTO.getCaracteristicaIds().size()) {
-                throw new IllegalArgumentException("Uma ou mais IDs de características são inválidas.");
-            }
-            imovel.setCaracteristicas(caracteristicas);
+            imovel.setCaracteristicas(caracteristicaCache.resolver(imovelDTO.getCaracteristicaIds()));
         }
 
         // 4. Define valores padrão
@@ -59,15 +113,18 @@ public class ImovelServiceImpl implements IImovelService {
         }
 
         Imovel imovelSalvo = imovelRepository.save(imovel);
-        return ImovelDTO.fromEntity(imovelSalvo);
+        alertasBuscasSalvas.avaliar(imovelSalvo);
+        indiceFacetas.atualizarAposCommit(imovelSalvo);
+        return registrarEvento(OutboxEventos.IMOVEL_CRIADO, ImovelDTO.fromEntity(imovelSalvo));
     }
 
     @Override
     @Transactional
-    public ImovelDTO atualizarImovel(Long id, ImovelDTO imovelDTO) {
+    public ImovelDTO atualizarImovel(Long id, ImovelDTO imovelDTO, Set<Long> versoesEsperadas) {
         // 1. Busca o imóvel existente no banco
         Imovel imovelExistente = imovelRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Imóvel não encontrado com ID: " + id));
+        verificarVersao(imovelExistente, versoesEsperadas);
 
         // 2. Atualiza os campos simples e o endereço embutido
         updateImovelData(imovelExistente, imovelDTO);
@@ -78,8 +135,76 @@ public class ImovelServiceImpl implements IImovelService {
         // 4. Atualiza a associação com as Características
         updateCaracteristicasAssociation(imovelExistente, imovelDTO);
 
-        Imovel imovelAtualizado = imovelRepository.save(imovelExistente);
-        return ImovelDTO.fromEntity(imovelAtualizado);
+        // O flush aplica o UPDATE com a checagem de versão e devolve a nova versão na resposta (e na ETag)
+        Imovel imovelAtualizado = imovelRepository.saveAndFlush(imovelExistente);
+        alertasBuscasSalvas.avaliar(imovelAtualizado);
+        indiceFacetas.atualizarAposCommit(imovelAtualizado);
+        return registrarEvento(OutboxEventos.IMOVEL_ATUALIZADO, ImovelDTO.fromEntity(imovelAtualizado));
+    }
+
+    @Override
+    @Transactional
+    public ImovelDTO atualizarParcialmente(Long id, JsonNode patch, Set<Long> versoesEsperadas) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("O merge patch deve ser um objeto JSON.");
+        }
+        CAMPOS_SOMENTE_LEITURA.stream()
+                .filter(patch::has)
+                .findFirst()
+                .ifPresent(campo -> {
+                    throw new IllegalArgumentException("O campo '" + campo + "' não pode ser alterado.");
+                });
+
+        // Detalhe (com imagens) já carregado para montar a resposta sem consultas extras
+        Imovel imovel = imovelRepository.findDetalheById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Imóvel não encontrado com ID: " + id));
+        verificarVersao(imovel, versoesEsperadas);
+
+        // RFC 7396 sobre o documento editável atual; o resultado passa pelas mesmas validações do PUT
+        JsonNode documento = JsonMergePatch.aplicar(objectMapper.valueToTree(ImovelDTO.fromEntityEditavel(imovel)), patch);
+        ImovelDTO alterado;
+        try {
+            alterado = leitorPatch.treeToValue(documento, ImovelDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Merge patch inválido: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<ImovelDTO>> violacoes = validator.validate(alterado);
+        if (!violacoes.isEmpty()) {
+            throw new IllegalArgumentException(violacoes.stream()
+                    .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        // Os setters recebem também os valores inalterados; o dirty checking ignora os iguais e,
+        // com @DynamicUpdate, o UPDATE contém só as colunas que o patch de fato mudou (o endereço
+        // embutido conta como um atributo: mudar um campo dele regrava todas as colunas de endereço)
+        updateImovelData(imovel, alterado);
+        updateCorretorAssociation(imovel, alterado);
+        if (patch.has("caracteristicaIds")) {
+            if (alterado.getCaracteristicaIds() == null) {
+                alterado.setCaracteristicaIds(Set.of());
+            }
+            updateCaracteristicasAssociation(imovel, alterado);
+        }
+
+        Imovel imovelAtualizado = imovelRepository.saveAndFlush(imovel);
+        alertasBuscasSalvas.avaliar(imovelAtualizado);
+        indiceFacetas.atualizarAposCommit(imovelAtualizado);
+        return registrarEvento(OutboxEventos.IMOVEL_ATUALIZADO, ImovelDTO.fromEntity(imovelAtualizado));
+    }
+
+    private ImovelDTO registrarEvento(String tipo, ImovelDTO imovel) {
+        outboxEventos.registrar(TipoAgregado.IMOVEL, imovel.getId(), tipo, imovel);
+        return imovel;
+    }
+
+    // Sem If-Match (null) a atualização não é condicional; um conflito no flush ainda é detectado pela @Version
+    private void verificarVersao(Imovel imovel, Set<Long> versoesEsperadas) {
+        if (versoesEsperadas != null && !versoesEsperadas.contains(imovel.getVersao())) {
+            throw new VersaoDesatualizadaException("O imóvel foi alterado por outra requisição (versão atual: "
+                    + imovel.getVersao() + "). Recarregue-o e tente novamente.");
+        }
     }
 
     private void updateImovelData(Imovel imovel, ImovelDTO dto) {
@@ -123,14 +248,17 @@ public class ImovelServiceImpl implements IImovelService {
 
     private void updateCaracteristicasAssociation(Imovel imovel, ImovelDTO dto) {
         if (dto.getCaracteristicaIds() != null) {
+            Set<Long> atuais = imovel.getCaracteristicas().stream()
+                    .map(Caracteristica::getId)
+                    .collect(Collectors.toSet());
             if (dto.getCaracteristicaIds().isEmpty()) {
                 imovel.getCaracteristicas().clear();
             } else {
-                Set<Caracteristica> novasCaracteristicas = new HashSet<>(caracteristicaRepository.findAllById(dto.getCaracteristicaIds()));
-                if (novasCaracteristicas.size() != dto.getCaracteristicaIds().size()) {
-                    throw new IllegalArgumentException("Uma ou mais IDs de características são inválidas.");
-                }
-                imovel.setCaracteristicas(novasCaracteristicas);
+                imovel.setCaracteristicas(caracteristicaCache.resolver(dto.getCaracteristicaIds()));
+            }
+            // Mudar só a tabela de junção não suja a entidade; a data garante um novo ETag
+            if (!atuais.equals(dto.getCaracteristicaIds())) {
+                imovel.setDataAtualizacao(LocalDateTime.now());
             }
         }
         // Se caracteristicaIds for nulo no DTO, não fazemos nenhuma alteração nas características existentes.
@@ -139,16 +267,213 @@ public class ImovelServiceImpl implements IImovelService {
     @Override
     @Transactional(readOnly = true)
     public Optional<ImovelDTO> buscarPorId(Long id) {
-        return imovelRepository.findById(id)
+        return imovelRepository.findDetalheById(id)
                 .map(ImovelDTO::fromEntity);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ImovelDTO> listarTodos() {
-        return imovelRepository.findAll().stream()
+    public Optional<VersaoImovel> buscarVersao(Long id) {
+        return imovelRepository.findVersaoById(id)
+                .map(versao -> new VersaoImovel(versao.getVersao(), versao.getDataAtualizacao()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersaoColecao buscarVersaoColecao() {
+        ImovelRepository.EstadoColecao estado = imovelRepository.findEstadoColecao();
+        return new VersaoColecao(estado.getUltimaAtualizacao(), estado.getQuantidade());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<ImovelDTO> listarPagina(String cursor, Integer tamanho, OrdenacaoImovel ordenacao) {
+        int tamanhoPagina = normalizarTamanhoPagina(tamanho);
+        CursorPaginacao posicao = cursor != null && !cursor.isBlank() ? CursorPaginacao.decodificar(cursor) : null;
+        // Busca uma linha a mais para saber se existe próxima página sem precisar de COUNT
+        Pageable limite = PageRequest.of(0, tamanhoPagina + 1);
+
+        List<Imovel> imoveis;
+        if (ordenacao == OrdenacaoImovel.DATA_ATUALIZACAO) {
+            imoveis = posicao == null
+                    ? imovelRepository.findPrimeiraPaginaPorDataAtualizacao(limite)
+                    : imovelRepository.findPaginaPorDataAtualizacaoApos(parseDataCursor(posicao), posicao.getId(), limite);
+        } else {
+            imoveis = posicao == null
+                    ? imovelRepository.findPrimeiraPaginaPorId(limite)
+                    : imovelRepository.findPaginaPorIdApos(posicao.getId(), limite);
+        }
+
+        String proximoCursor = null;
+        if (imoveis.size() > tamanhoPagina) {
+            imoveis = imoveis.subList(0, tamanhoPagina);
+            Imovel ultimo = imoveis.get(imoveis.size() - 1);
+            String chave = ordenacao == OrdenacaoImovel.DATA_ATUALIZACAO ? ultimo.getDataAtualizacao().toString() : null;
+            proximoCursor = new CursorPaginacao(chave, ultimo.getId()).codificar();
+        }
+
+        List<ImovelDTO> itens = imoveis.stream()
+                .map(ImovelDTO::fromEntity)
+                .collect(Collectors.toList());
+        return PaginaDTO.of(itens, proximoCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<ImovelResumoDTO> listarResumos(String cursor, Integer tamanho) {
+        int tamanhoPagina = normalizarTamanhoPagina(tamanho);
+        long aposId = cursor != null && !cursor.isBlank() ? CursorPaginacao.decodificar(cursor).getId() : 0L;
+
+        List<ImovelResumoDTO> resumos = imovelRepository.findResumosAposId(aposId, tamanhoPagina + 1);
+
+        String proximoCursor = null;
+        if (resumos.size() > tamanhoPagina) {
+            resumos = resumos.subList(0, tamanhoPagina);
+            proximoCursor = new CursorPaginacao(null, resumos.get(resumos.size() - 1).getId()).codificar();
+        }
+        return PaginaDTO.of(resumos, proximoCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<ImovelDTO> buscar(ImovelFiltroDTO filtro, String cursor, Integer tamanho) {
+        if (filtro.getPrecoMin() != null && filtro.getPrecoMax() != null
+                && filtro.getPrecoMin().compareTo(filtro.getPrecoMax()) > 0) {
+            throw new IllegalArgumentException("O preço mínimo não pode ser maior que o preço máximo.");
+        }
+        int tamanhoPagina = normalizarTamanhoPagina(tamanho);
+
+        Specification<Imovel> especificacao = ImovelSpecifications.comFiltro(filtro);
+        if (cursor != null && !cursor.isBlank()) {
+            especificacao = especificacao.and(ImovelSpecifications.comIdMaiorQue(CursorPaginacao.decodificar(cursor).getId()));
+        }
+
+        List<Imovel> imoveis = imovelRepository.findBy(especificacao, consulta -> consulta
+                .project("corretor")
+                .sortBy(Sort.by("id"))
+                .limit(tamanhoPagina + 1)
+                .all());
+
+        String proximoCursor = null;
+        if (imoveis.size() > tamanhoPagina) {
+            imoveis = imoveis.subList(0, tamanhoPagina);
+            proximoCursor = new CursorPaginacao(null, imoveis.get(imoveis.size() - 1).getId()).codificar();
+        }
+
+        List<ImovelDTO> itens = imoveis.stream()
                 .map(ImovelDTO::fromEntity)
                 .collect(Collectors.toList());
+        return PaginaDTO.of(itens, proximoCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<ImovelDTO> buscarPorTexto(String termo, ImovelFiltroDTO filtro, String cursor, Integer tamanho) {
+        if (termo == null || termo.isBlank()) {
+            throw new IllegalArgumentException("O termo de busca é obrigatório.");
+        }
+        int tamanhoPagina = normalizarTamanhoPagina(tamanho);
+        Float relevanciaCursor = null;
+        Long idCursor = null;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorPaginacao posicao = CursorPaginacao.decodificar(cursor);
+            relevanciaCursor = parseRelevanciaCursor(posicao);
+            idCursor = posicao.getId();
+        }
+
+        Set<Long> caracteristicas = filtro.getCaracteristicaIds() != null ? filtro.getCaracteristicaIds() : Set.of();
+        List<ImovelRepository.RelevanciaImovel> ranking = imovelRepository.buscarPorTexto(termo,
+                vazioComoNulo(filtro.getTipo()), vazioComoNulo(filtro.getFinalidade()), vazioComoNulo(filtro.getStatus()),
+                filtro.getPrecoMin(), filtro.getPrecoMax(), filtro.getQuartosMin(), filtro.getVagasGaragemMin(),
+                vazioComoNulo(filtro.getEstado()), vazioComoNulo(filtro.getCidade()), vazioComoNulo(filtro.getBairro()),
+                caracteristicas.isEmpty() ? Set.of(0L) : caracteristicas, caracteristicas.size(),
+                relevanciaCursor, idCursor, tamanhoPagina + 1);
+
+        String proximoCursor = null;
+        if (ranking.size() > tamanhoPagina) {
+            ranking = ranking.subList(0, tamanhoPagina);
+            ImovelRepository.RelevanciaImovel ultimo = ranking.get(ranking.size() - 1);
+            proximoCursor = new CursorPaginacao(ultimo.getRelevancia().toString(), ultimo.getId()).codificar();
+        }
+
+        // Hidrata apenas os imóveis da página e devolve-os na ordem do ranking
+        List<Long> ids = ranking.stream().map(ImovelRepository.RelevanciaImovel::getId).collect(Collectors.toList());
+        Map<Long, Imovel> imoveisPorId = imovelRepository.findListagemByIdIn(ids).stream()
+                .collect(Collectors.toMap(Imovel::getId, Function.identity()));
+        List<ImovelDTO> itens = ids.stream()
+                .map(imoveisPorId::get)
+                .filter(Objects::nonNull)
+                .map(ImovelDTO::fromEntity)
+                .collect(Collectors.toList());
+        return PaginaDTO.of(itens, proximoCursor);
+    }
+
+    @Override
+    public FacetasDTO contarFacetas(FiltroFacetasDTO filtro, Integer limite) {
+        int limitePorFaceta = limite == null || limite < 1 ? LIMITE_FACETAS_PADRAO : Math.min(limite, LIMITE_FACETAS_MAXIMO);
+        Map<IndiceFacetasImoveis.Dimensao, List<String>> selecao = new EnumMap<>(IndiceFacetasImoveis.Dimensao.class);
+        selecao.put(IndiceFacetasImoveis.Dimensao.TIPO, filtro.getTipo());
+        selecao.put(IndiceFacetasImoveis.Dimensao.FINALIDADE, filtro.getFinalidade());
+        selecao.put(IndiceFacetasImoveis.Dimensao.STATUS, filtro.getStatus());
+        selecao.put(IndiceFacetasImoveis.Dimensao.CIDADE, filtro.getCidade());
+        selecao.put(IndiceFacetasImoveis.Dimensao.BAIRRO, filtro.getBairro());
+        selecao.put(IndiceFacetasImoveis.Dimensao.QUARTOS, filtro.getQuartos());
+
+        // Contado em memória pelo índice de facetas, sem consulta ao banco
+        IndiceFacetasImoveis.ContagemFacetas contagem = indiceFacetas.contar(selecao, filtro.getCaracteristicaIds());
+
+        Map<String, List<ContagemFacetaDTO>> facetas = new LinkedHashMap<>();
+        contagem.dimensoes().forEach((dimensao, valores) -> facetas.put(dimensao.getNome(),
+                ordenarContagens(valores.entrySet().stream()
+                        .map(valor -> new ContagemFacetaDTO(valor.getKey(), null, valor.getValue())), limitePorFaceta)));
+        facetas.put("caracteristicas", ordenarContagens(contagem.caracteristicas().entrySet().stream()
+                .map(caracteristica -> new ContagemFacetaDTO(caracteristica.getKey().toString(),
+                        caracteristicaCache.buscarPorId(caracteristica.getKey())
+                                .map(CaracteristicaDTO::getNome).orElse(null),
+                        caracteristica.getValue())), limitePorFaceta));
+        return new FacetasDTO(contagem.total(), facetas);
+    }
+
+    // Mais frequentes primeiro; empates em ordem alfabética, para uma resposta estável
+    private static List<ContagemFacetaDTO> ordenarContagens(Stream<ContagemFacetaDTO> contagens, int limite) {
+        return contagens
+                .sorted(Comparator.comparingLong(ContagemFacetaDTO::getQuantidade).reversed()
+                        .thenComparing(ContagemFacetaDTO::getValor))
+                .limit(limite)
+                .collect(Collectors.toList());
+    }
+
+    private Float parseRelevanciaCursor(CursorPaginacao posicao) {
+        if (posicao.getChave() == null) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+        try {
+            return Float.valueOf(posicao.getChave());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+    }
+
+    private static String vazioComoNulo(String valor) {
+        return valor == null || valor.isBlank() ? null : valor;
+    }
+
+    static int normalizarTamanhoPagina(Integer tamanho) {
+        if (tamanho == null || tamanho < 1) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+    }
+
+    private LocalDateTime parseDataCursor(CursorPaginacao posicao) {
+        if (posicao.getChave() == null) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+        try {
+            return LocalDateTime.parse(posicao.getChave());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
     }
 
     @Override
@@ -158,5 +483,7 @@ public class ImovelServiceImpl implements IImovelService {
             throw new IllegalArgumentException("Imóvel não encontrado com ID: " + id);
         }
         imovelRepository.deleteById(id);
+        indiceFacetas.removerAposCommit(id);
+        outboxEventos.registrar(TipoAgregado.IMOVEL, id, OutboxEventos.IMOVEL_REMOVIDO, Map.of("id", id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+package com.imobiliaria.crm.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.imobiliaria.crm.dto.ImovelCsvDTO;
+import com.imobiliaria.crm.dto.ImovelDTO;
+import com.imobiliaria.crm.dto.RelatorioImportacaoDTO;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.model.TipoAgregado;
+import com.imobiliaria.crm.repository.CorretorRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de imóveis.
+ * As linhas são lidas em streaming e gravadas em lotes de {@code crm.importacao.tamanho-lote}:
+ * cada lote resolve corretores e códigos existentes com uma consulta IN, é inserido em batches
+ * JDBC (ids por sequence) e confirmado em sua própria transação.
+ */
+@Service
+public class ImportacaoImovelServiceImpl implements IImportacaoImovelService {
+
+    private final ImovelRepository imovelRepository;
+    private final CorretorRepository corretorRepository;
+    private final CaracteristicaCache caracteristicaCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxEventos outboxEventos;
+    private final AlertasBuscasSalvas alertasBuscasSalvas;
+    private final IndiceFacetasImoveis indiceFacetas;
+    private final int tamanhoLote;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ImportacaoImovelServiceImpl(ImovelRepository imovelRepository,
+                                       CorretorRepository corretorRepository,
+                                       CaracteristicaCache caracteristicaCache,
+                                       ObjectMapper objectMapper,
+                                       Validator validator,
+                                       PlatformTransactionManager transactionManager,
+                                       OutboxEventos outboxEventos,
+                                       AlertasBuscasSalvas alertasBuscasSalvas,
+                                       IndiceFacetasImoveis indiceFacetas,
+                                       @Value("${crm.importacao.tamanho-lote:500}") int tamanhoLote) {
+        this.imovelRepository = imovelRepository;
+        this.corretorRepository = corretorRepository;
+        this.caracteristicaCache = caracteristicaCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxEventos = outboxEventos;
+        this.alertasBuscasSalvas = alertasBuscasSalvas;
+        this.indiceFacetas = indiceFacetas;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Override
+    public RelatorioImportacaoDTO importarJson(InputStream entrada) {
+        Importacao importacao = new Importacao();
+        int linha = 0;
+        try (JsonParser parser = objectMapper.createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("O corpo da requisição deve ser um array JSON de imóveis.");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                linha++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    importacao.relatorio.registrarErro(linha, null, "Elemento do array não é um objeto JSON.");
+                    continue;
+                }
+                // Lê cada elemento como árvore para que um tipo inválido afete apenas a própria linha
+                JsonNode elemento = parser.readValueAsTree();
+                try {
+                    importacao.adicionar(linha, objectMapper.treeToValue(elemento, ImovelDTO.class));
+                } catch (JsonProcessingException e) {
+                    importacao.relatorio.registrarErro(linha, elemento.path("codigo").asText(null),
+                            "Valor inválido: " + e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            // O que já foi confirmado permanece; o relatório indica onde a leitura parou
+            importacao.relatorio.registrarErro(linha + 1, null, "Leitura do JSON interrompida: " + e.getMessage());
+        }
+        return importacao.finalizar(linha);
+    }
+
+    @Override
+    public RelatorioImportacaoDTO importarCsv(InputStream entrada) {
+        Importacao importacao = new Importacao();
+        int linha = 0;
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> linhas = new CsvMapper()
+                .readerForMapOf(String.class)
+                .with(schema)
+                .readValues(entrada)) {
+            while (linhas.hasNextValue()) {
+                linha++;
+                Map<String, String> colunas = linhas.nextValue();
+                // Colunas vazias equivalem a valores ausentes
+                colunas.values().removeIf(valor -> valor == null || valor.isBlank());
+                try {
+                    importacao.adicionar(linha, objectMapper.convertValue(colunas, ImovelCsvDTO.class).toImovelDTO());
+                } catch (IllegalArgumentException e) {
+                    importacao.relatorio.registrarErro(linha, colunas.get("codigo"), "Valor inválido: " + e.getMessage());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            importacao.relatorio.registrarErro(linha + 1, null, "Leitura do CSV interrompida: " + e.getMessage());
+        }
+        return importacao.finalizar(linha);
+    }
+
+    /**
+     * Estado de uma importação: linhas pendentes do lote atual e códigos já vistos no arquivo.
+     */
+    private final class Importacao {
+
+        private final RelatorioImportacaoDTO relatorio = new RelatorioImportacaoDTO();
+        private final Set<String> codigosDoArquivo = new HashSet<>();
+        private final List<LinhaImportacao> pendentes = new ArrayList<>();
+
+        void adicionar(int linha, ImovelDTO dto) {
+            pendentes.add(new LinhaImportacao(linha, dto));
+            if (pendentes.size() >= tamanhoLote) {
+                processarLote(new ArrayList<>(pendentes), this);
+                pendentes.clear();
+            }
+        }
+
+        RelatorioImportacaoDTO finalizar(int totalLinhas) {
+            if (!pendentes.isEmpty()) {
+                processarLote(new ArrayList<>(pendentes), this);
+                pendentes.clear();
+            }
+            relatorio.setTotalLinhas(totalLinhas);
+            return relatorio;
+        }
+    }
+
+    private void processarLote(List<LinhaImportacao> linhas, Importacao importacao) {
+        RelatorioImportacaoDTO relatorio = importacao.relatorio;
+
+        // 1. Validações que não dependem do banco
+        List<LinhaImportacao> candidatas = new ArrayList<>();
+        for (LinhaImportacao linha : linhas) {
+            String erro = validar(linha.dto);
+            if (erro == null && !importacao.codigosDoArquivo.add(linha.dto.getCodigo())) {
+                erro = "Código duplicado no arquivo.";
+            }
+            if (erro != null) {
+                relatorio.registrarErro(linha.numero, linha.dto.getCodigo(), erro);
+            } else {
+                candidatas.add(linha);
+            }
+        }
+        if (candidatas.isEmpty()) {
+            return;
+        }
+
+        // 2. Uma consulta para os códigos já cadastrados e outra para os corretores do lote
+        Set<String> codigosExistentes = new HashSet<>(imovelRepository.findCodigosExistentes(
+                candidatas.stream().map(linha -> linha.dto.getCodigo()).collect(Collectors.toSet())));
+        Set<Long> idsCorretores = candidatas.stream()
+                .map(linha -> linha.dto.getCorretorId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> corretoresExistentes = idsCorretores.isEmpty()
+                ? Set.of()
+                : new HashSet<>(corretorRepository.findIdsExistentes(idsCorretores));
+
+        Map<LinhaImportacao, Imovel> aGravar = new LinkedHashMap<>();
+        for (LinhaImportacao linha : candidatas) {
+            ImovelDTO dto = linha.dto;
+            if (codigosExistentes.contains(dto.getCodigo())) {
+                relatorio.registrarErro(linha.numero, dto.getCodigo(), "Código já cadastrado.");
+                continue;
+            }
+            if (dto.getCorretorId() != null && !corretoresExistentes.contains(dto.getCorretorId())) {
+                relatorio.registrarErro(linha.numero, dto.getCodigo(), "Corretor com ID " + dto.getCorretorId() + " não encontrado.");
+                continue;
+            }
+            try {
+                aGravar.put(linha, novoImovel(dto));
+            } catch (IllegalArgumentException e) {
+                relatorio.registrarErro(linha.numero, dto.getCodigo(), e.getMessage());
+            }
+        }
+        if (aGravar.isEmpty()) {
+            return;
+        }
+
+        // 3. Inserção em batch, confirmada por lote
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                aGravar.forEach((linha, imovel) -> {
+                    if (linha.dto.getCorretorId() != null) {
+                        imovel.setCorretor(corretorRepository.getReferenceById(linha.dto.getCorretorId()));
+                    }
+                    entityManager.persist(imovel);
+                    ImovelDTO importado = ImovelDTO.fromEntity(imovel);
+                    outboxEventos.registrar(TipoAgregado.IMOVEL, importado.getId(), OutboxEventos.IMOVEL_CRIADO, importado);
+                });
+                entityManager.flush();
+                // Depois do flush do lote: os alertas referenciam as linhas dos imóveis importados
+                aGravar.values().forEach(alertasBuscasSalvas::avaliar);
+                // Uma única cópia do índice de facetas por lote, e não uma por imóvel
+                indiceFacetas.atualizarAposCommit(aGravar.values());
+                entityManager.clear();
+            });
+            relatorio.setImportados(relatorio.getImportados() + aGravar.size());
+        } catch (DataAccessException | PersistenceException e) {
+            // Ex.: código inserido por outra requisição entre a verificação e o commit
+            String causa = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            aGravar.keySet().forEach(linha ->
+                    relatorio.registrarErro(linha.numero, linha.dto.getCodigo(), "Lote não gravado: " + causa));
+        }
+    }
+
+    private String validar(ImovelDTO dto) {
+        Set<ConstraintViolation<ImovelDTO>> violacoes = validator.validate(dto);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private Imovel novoImovel(ImovelDTO dto) {
+        Imovel imovel = dto.toEntity();
+        imovel.setId(null);
+        if (dto.getCaracteristicaIds() != null && !dto.getCaracteristicaIds().isEmpty()) {
+            imovel.setCaracteristicas(caracteristicaCache.resolver(dto.getCaracteristicaIds()));
+        }
+        if (imovel.getStatus() == null || imovel.getStatus().isEmpty()) {
+            imovel.setStatus("DISPONIVEL");
+        }
+        return imovel;
+    }
+
+    private static final class LinhaImportacao {
+        private final int numero;
+        private final ImovelDTO dto;
+
+        private LinhaImportacao(int numero, ImovelDTO dto) {
+            this.numero = numero;
+            this.dto = dto;
+        }
+    }
+}
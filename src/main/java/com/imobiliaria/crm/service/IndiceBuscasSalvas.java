@@ -0,0 +1,389 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.model.BuscaSalva;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.repository.BuscaSalvaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória das buscas salvas ativas, avaliado no sentido inverso de uma busca comum:
+ * cada imóvel criado ou alterado é comparado às buscas, sem consultar o banco.
+ * As buscas ficam agrupadas por (finalidade, cidade), critérios que quase toda busca informa,
+ * e um imóvel só é comparado aos grupos da sua finalidade e cidade e aos das buscas que deixaram
+ * um desses critérios em aberto (no máximo quatro grupos). Dentro de cada grupo as buscas estão
+ * ordenadas pelo preço mínimo, e a varredura para na primeira que exige mais do que o preço do imóvel.
+ * <p>
+ * Os grupos são arrays imutáveis trocados por inteiro a cada alteração: a avaliação não bloqueia
+ * e as alterações de buscas, bem mais raras, pagam a cópia. Alterações feitas por esta instância
+ * entram no índice após o commit; as das demais instâncias, na recarga periódica.
+ */
+@Slf4j
+@Component
+public class IndiceBuscasSalvas {
+
+    private static final String QUALQUER = "*";
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    // Preço mínimo ausente vem primeiro: essas buscas nunca interrompem a varredura
+    private static final Comparator<Criterio> ORDEM_GRUPO = Comparator
+            .comparing(Criterio::precoMin, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingLong(Criterio::buscaId);
+
+    public record BuscaAtendida(long buscaId, long clienteId) {
+    }
+
+    // Alteração de uma busca; critério nulo remove a busca do índice
+    private record Alteracao(long buscaId, Criterio criterio) {
+    }
+
+    private final BuscaSalvaRepository buscaSalvaRepository;
+    private final TransactionTemplate transacaoLeitura;
+
+    // Substituídos (nunca alterados) sob o lock de this; a leitura não precisa de lock
+    private volatile Map<String, Criterio[]> grupos = Map.of();
+    private Map<Long, Criterio> porId = new HashMap<>();
+
+    // Alterações aplicadas enquanto uma carga lê o banco, reaplicadas sobre o índice carregado
+    // antes da troca; nulo fora de uma carga. Protegido pelo lock de this
+    private List<Alteracao> alteracoesDuranteCarga;
+
+    // Impede duas cargas simultâneas (inicialização e recarga agendada)
+    private final Object carga = new Object();
+
+    public IndiceBuscasSalvas(BuscaSalvaRepository buscaSalvaRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.buscaSalvaRepository = buscaSalvaRepository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+    }
+
+    /**
+     * Buscas ativas atendidas pelo imóvel. As características do imóvel precisam estar carregadas.
+     */
+    public List<BuscaAtendida> buscasAtendidas(Imovel imovel) {
+        Amostra amostra = Amostra.de(imovel);
+        Map<String, Criterio[]> atual = grupos;
+        List<BuscaAtendida> atendidas = new ArrayList<>();
+        for (String chave : chavesCandidatas(amostra)) {
+            Criterio[] grupo = atual.get(chave);
+            if (grupo == null) {
+                continue;
+            }
+            for (Criterio criterio : grupo) {
+                if (criterio.precoMin() != null && amostra.preco() != null
+                        && criterio.precoMin().compareTo(amostra.preco()) > 0) {
+                    break;
+                }
+                if (criterio.aceita(amostra)) {
+                    atendidas.add(new BuscaAtendida(criterio.buscaId(), criterio.clienteId()));
+                }
+            }
+        }
+        return atendidas;
+    }
+
+    public int tamanho() {
+        return grupos.values().stream().mapToInt(grupo -> grupo.length).sum();
+    }
+
+    /**
+     * Reflete a busca no índice depois do commit da transação corrente (imediatamente, fora de uma).
+     * Os critérios são lidos agora, com a entidade ainda gerenciada.
+     */
+    public void atualizarAposCommit(BuscaSalva busca) {
+        Criterio criterio = busca.isAtiva() ? Criterio.de(busca) : null;
+        Long buscaId = busca.getId();
+        aposCommit(() -> {
+            if (criterio != null) {
+                indexar(criterio);
+            } else {
+                remover(List.of(buscaId));
+            }
+        });
+    }
+
+    public void removerAposCommit(Collection<Long> buscaIds) {
+        List<Long> ids = List.copyOf(buscaIds);
+        aposCommit(() -> remover(ids));
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    synchronized void indexar(Criterio criterio) {
+        Alteracao alteracao = new Alteracao(criterio.buscaId(), criterio);
+        if (alteracoesDuranteCarga != null) {
+            alteracoesDuranteCarga.add(alteracao);
+        }
+        Map<String, Criterio[]> novos = new HashMap<>(grupos);
+        aplicar(novos, porId, alteracao);
+        grupos = novos;
+    }
+
+    synchronized void remover(Collection<Long> buscaIds) {
+        Map<String, Criterio[]> novos = null;
+        for (Long buscaId : buscaIds) {
+            Alteracao alteracao = new Alteracao(buscaId, null);
+            if (alteracoesDuranteCarga != null) {
+                alteracoesDuranteCarga.add(alteracao);
+            }
+            if (porId.containsKey(buscaId)) {
+                novos = novos == null ? new HashMap<>(grupos) : novos;
+                aplicar(novos, porId, alteracao);
+            }
+        }
+        if (novos != null) {
+            grupos = novos;
+        }
+    }
+
+    // Aplica a alteração sobre mapas ainda não publicados; os arrays dos grupos são substituídos, nunca alterados
+    private static void aplicar(Map<String, Criterio[]> grupos, Map<Long, Criterio> porId, Alteracao alteracao) {
+        Criterio anterior = porId.remove(alteracao.buscaId());
+        if (anterior != null) {
+            retirar(grupos, anterior);
+        }
+        Criterio criterio = alteracao.criterio();
+        if (criterio == null) {
+            return;
+        }
+        Criterio[] grupo = grupos.getOrDefault(criterio.chaveGrupo(), new Criterio[0]);
+        int posicao = -Arrays.binarySearch(grupo, criterio, ORDEM_GRUPO) - 1;
+        Criterio[] ampliado = new Criterio[grupo.length + 1];
+        System.arraycopy(grupo, 0, ampliado, 0, posicao);
+        ampliado[posicao] = criterio;
+        System.arraycopy(grupo, posicao, ampliado, posicao + 1, grupo.length - posicao);
+        grupos.put(criterio.chaveGrupo(), ampliado);
+        porId.put(criterio.buscaId(), criterio);
+    }
+
+    private static void retirar(Map<String, Criterio[]> grupos, Criterio criterio) {
+        Criterio[] grupo = grupos.get(criterio.chaveGrupo());
+        Criterio[] reduzido = Arrays.stream(grupo)
+                .filter(existente -> existente.buscaId() != criterio.buscaId())
+                .toArray(Criterio[]::new);
+        if (reduzido.length == 0) {
+            grupos.remove(criterio.chaveGrupo());
+        } else {
+            grupos.put(criterio.chaveGrupo(), reduzido);
+        }
+    }
+
+    /**
+     * Reconstrói o índice a partir do banco. A leitura acontece sem o lock: alterações confirmadas
+     * durante a carga entram no índice atual e são reaplicadas sobre o índice novo antes da troca,
+     * em vez de se perderem nela.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${crm.buscas-salvas.intervalo-recarga:PT10M}",
+            initialDelayString = "${crm.buscas-salvas.intervalo-recarga:PT10M}")
+    public void carregar() {
+        long inicio = System.nanoTime();
+        int carregadas = recarregar(() -> transacaoLeitura.execute(status -> {
+            try (Stream<BuscaSalvaRepository.LinhaIndice> linhas = buscaSalvaRepository.streamAtivasParaIndice()) {
+                return agrupar(linhas);
+            }
+        }));
+        log.info("Índice de buscas salvas carregado: {} buscas em {} grupos ({} ms)",
+                carregadas, grupos.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    void carregar(Stream<BuscaSalvaRepository.LinhaIndice> linhas) {
+        recarregar(() -> agrupar(linhas));
+    }
+
+    private int recarregar(Supplier<Map<Long, Criterio>> leitura) {
+        synchronized (carga) {
+            // Antes da leitura: uma alteração confirmada depois do início dela fica registrada
+            synchronized (this) {
+                alteracoesDuranteCarga = new ArrayList<>();
+            }
+            try {
+                Map<Long, Criterio> carregados = Objects.requireNonNull(leitura.get());
+                Map<String, Criterio[]> novos = agruparPorChave(carregados.values());
+                synchronized (this) {
+                    // Reaplicar é seguro mesmo que a leitura já tenha visto a alteração: a busca
+                    // apenas recebe de novo os mesmos critérios
+                    for (Alteracao alteracao : alteracoesDuranteCarga) {
+                        aplicar(novos, carregados, alteracao);
+                    }
+                    porId = carregados;
+                    grupos = novos;
+                    return carregados.size();
+                }
+            } finally {
+                synchronized (this) {
+                    alteracoesDuranteCarga = null;
+                }
+            }
+        }
+    }
+
+    private static Map<String, Criterio[]> agruparPorChave(Collection<Criterio> criterios) {
+        Map<String, List<Criterio>> porGrupo = new HashMap<>();
+        for (Criterio criterio : criterios) {
+            porGrupo.computeIfAbsent(criterio.chaveGrupo(), chave -> new ArrayList<>()).add(criterio);
+        }
+        Map<String, Criterio[]> novos = new HashMap<>(porGrupo.size() * 2);
+        porGrupo.forEach((chave, doGrupo) -> {
+            doGrupo.sort(ORDEM_GRUPO);
+            novos.put(chave, doGrupo.toArray(Criterio[]::new));
+        });
+        return novos;
+    }
+
+    // Uma linha por característica exigida; as linhas de uma busca chegam consecutivas
+    private static Map<Long, Criterio> agrupar(Stream<BuscaSalvaRepository.LinhaIndice> linhas) {
+        Map<Long, Criterio> criterios = new HashMap<>();
+        BuscaSalvaRepository.LinhaIndice atual = null;
+        List<Long> caracteristicas = new ArrayList<>();
+        for (BuscaSalvaRepository.LinhaIndice linha : (Iterable<BuscaSalvaRepository.LinhaIndice>) linhas::iterator) {
+            if (atual != null && !atual.getId().equals(linha.getId())) {
+                criterios.put(atual.getId(), Criterio.de(atual, caracteristicas));
+                caracteristicas.clear();
+            }
+            atual = linha;
+            if (linha.getCaracteristicaId() != null) {
+                caracteristicas.add(linha.getCaracteristicaId());
+            }
+        }
+        if (atual != null) {
+            criterios.put(atual.getId(), Criterio.de(atual, caracteristicas));
+        }
+        return criterios;
+    }
+
+    private static List<String> chavesCandidatas(Amostra amostra) {
+        List<String> chaves = new ArrayList<>(4);
+        for (String finalidade : amostra.finalidade() != null ? List.of(amostra.finalidade(), QUALQUER) : List.of(QUALQUER)) {
+            for (String cidade : amostra.cidade() != null ? List.of(amostra.cidade(), QUALQUER) : List.of(QUALQUER)) {
+                chaves.add(chave(finalidade, cidade));
+            }
+        }
+        return chaves;
+    }
+
+    private static String chave(String finalidade, String cidade) {
+        return finalidade + '|' + cidade;
+    }
+
+    // Comparação sem diferenciar maiúsculas nem acentos ("São Paulo" = "sao paulo")
+    static String normalizar(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        return ACENTOS.matcher(Normalizer.normalize(valor.trim(), Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] ordenados(Collection<Long> ids) {
+        return ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).distinct().sorted().toArray();
+    }
+
+    /**
+     * Critérios normalizados de uma busca; {@code chaveGrupo} usa {@value #QUALQUER} para finalidade ou cidade em aberto.
+     */
+    record Criterio(long buscaId, long clienteId, String chaveGrupo, String tipo, BigDecimal precoMin,
+                    BigDecimal precoMax, Integer quartosMin, String bairro, long[] caracteristicaIds) {
+
+        static Criterio de(BuscaSalva busca) {
+            return new Criterio(busca.getId(), busca.getCliente().getId(),
+                    chave(Objects.requireNonNullElse(normalizar(busca.getFinalidade()), QUALQUER),
+                            Objects.requireNonNullElse(normalizar(busca.getCidade()), QUALQUER)),
+                    normalizar(busca.getTipo()), busca.getPrecoMin(), busca.getPrecoMax(), busca.getQuartosMin(),
+                    normalizar(busca.getBairro()), ordenados(busca.getCaracteristicaIds()));
+        }
+
+        static Criterio de(BuscaSalvaRepository.LinhaIndice linha, Collection<Long> caracteristicaIds) {
+            return new Criterio(linha.getId(), linha.getClienteId(),
+                    chave(Objects.requireNonNullElse(normalizar(linha.getFinalidade()), QUALQUER),
+                            Objects.requireNonNullElse(normalizar(linha.getCidade()), QUALQUER)),
+                    normalizar(linha.getTipo()), linha.getPrecoMin(), linha.getPrecoMax(), linha.getQuartosMin(),
+                    normalizar(linha.getBairro()), ordenados(caracteristicaIds));
+        }
+
+        // Finalidade e cidade já foram resolvidas pelo grupo
+        boolean aceita(Amostra imovel) {
+            if (tipo != null && !tipo.equals(imovel.tipo())) {
+                return false;
+            }
+            if (precoMin != null && (imovel.preco() == null || imovel.preco().compareTo(precoMin) < 0)) {
+                return false;
+            }
+            if (precoMax != null && (imovel.preco() == null || imovel.preco().compareTo(precoMax) > 0)) {
+                return false;
+            }
+            if (quartosMin != null && (imovel.quartos() == null || imovel.quartos() < quartosMin)) {
+                return false;
+            }
+            if (bairro != null && !bairro.equals(imovel.bairro())) {
+                return false;
+            }
+            return contemTodas(imovel.caracteristicaIds(), caracteristicaIds);
+        }
+
+        // Intercalação de dois arrays ordenados: O(n + m), sem alocação
+        private static boolean contemTodas(long[] disponiveis, long[] exigidas) {
+            int i = 0;
+            for (long exigida : exigidas) {
+                while (i < disponiveis.length && disponiveis[i] < exigida) {
+                    i++;
+                }
+                if (i == disponiveis.length || disponiveis[i] != exigida) {
+                    return false;
+                }
+                i++;
+            }
+            return true;
+        }
+    }
+
+    private record Amostra(String finalidade, String cidade, String tipo, String bairro,
+                           BigDecimal preco, Integer quartos, long[] caracteristicaIds) {
+
+        static Amostra de(Imovel imovel) {
+            Set<Caracteristica> caracteristicas = imovel.getCaracteristicas();
+            long[] ids = caracteristicas == null ? new long[0]
+                    : ordenados(caracteristicas.stream().map(Caracteristica::getId).toList());
+            return new Amostra(normalizar(imovel.getFinalidade()), normalizar(imovel.getEndereco().getCidade()),
+                    normalizar(imovel.getTipo()), normalizar(imovel.getEndereco().getBairro()),
+                    imovel.getPreco(), imovel.getQuartos(), ids);
+        }
+    }
+}
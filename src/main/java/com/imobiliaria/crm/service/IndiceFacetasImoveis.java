@@ -0,0 +1,458 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória das facetas da busca de imóveis: para cada valor de cada dimensão (tipo,
+ * finalidade, status, cidade, bairro, faixa de quartos) e para cada característica, um bitmap
+ * comprimido (Roaring) com os ids dos imóveis. Filtrar é intersectar bitmaps, e contar uma faceta
+ * é a cardinalidade da interseção, sem consultar o banco.
+ * <p>
+ * As contagens seguem o modelo drill-sideways: os valores de uma dimensão são contados com os filtros
+ * de todas as outras dimensões, mas não com o da própria. Assim, escolher "Casa" não zera a contagem
+ * de "Apartamento", e a tela pode oferecer as alternativas. Vários valores da mesma dimensão combinam
+ * com OR, e as características com AND, como na busca.
+ * <p>
+ * O estado publicado nunca é alterado: cada alteração copia apenas os bitmaps que mudam
+ * e troca o estado inteiro, então as consultas não bloqueiam. Alterações feitas por esta instância
+ * entram no índice após o commit; as das demais instâncias entram na recarga periódica.
+ */
+@Slf4j
+@Component
+public class IndiceFacetasImoveis {
+
+    public enum Dimensao {
+        TIPO("tipo"),
+        FINALIDADE("finalidade"),
+        STATUS("status"),
+        CIDADE("cidade"),
+        BAIRRO("bairro"),
+        QUARTOS("quartos");
+
+        private final String nome;
+
+        Dimensao(String nome) {
+            this.nome = nome;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+    }
+
+    static final String QUARTOS_4_OU_MAIS = "4+";
+
+    private static final Dimensao[] DIMENSOES = Dimensao.values();
+
+    /**
+     * Total de imóveis que atendem ao filtro e as contagens não nulas de cada valor.
+     */
+    public record ContagemFacetas(long total, Map<Dimensao, Map<String, Long>> dimensoes,
+                                  Map<Long, Long> caracteristicas) {
+    }
+
+    // Bitmaps publicados nunca são alterados; as alterações trabalham sobre cópias
+    private record Estado(RoaringBitmap todos, Map<Dimensao, Map<String, RoaringBitmap>> dimensoes,
+                          Map<Long, RoaringBitmap> caracteristicas) {
+
+        static Estado vazio() {
+            Map<Dimensao, Map<String, RoaringBitmap>> dimensoes = new EnumMap<>(Dimensao.class);
+            for (Dimensao dimensao : DIMENSOES) {
+                dimensoes.put(dimensao, Map.of());
+            }
+            return new Estado(new RoaringBitmap(), dimensoes, Map.of());
+        }
+    }
+
+    // Alteração de um imóvel; valores nulo remove o imóvel do índice
+    private record Alteracao(int id, String[] valores, long[] caracteristicas) {
+    }
+
+    private final ImovelRepository imovelRepository;
+    private final TransactionTemplate transacaoLeitura;
+
+    // Substituído sob o lock de this; a leitura não precisa de lock
+    private volatile Estado estado = Estado.vazio();
+
+    // Alterações aplicadas enquanto uma carga lê o banco, reaplicadas sobre o estado carregado
+    // antes da troca; nulo fora de uma carga. Protegido pelo lock de this
+    private List<Alteracao> alteracoesDuranteCarga;
+
+    // Impede duas cargas simultâneas (inicialização e recarga agendada)
+    private final Object carga = new Object();
+
+    public IndiceFacetasImoveis(ImovelRepository imovelRepository, PlatformTransactionManager transactionManager) {
+        this.imovelRepository = imovelRepository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+    }
+
+    /**
+     * Conta as facetas dos imóveis que atendem ao filtro.
+     * @param selecao Valores escolhidos em cada dimensão; dimensões ausentes ou vazias não filtram.
+     * @param caracteristicaIds Características que o imóvel deve possuir (todas).
+     */
+    public ContagemFacetas contar(Map<Dimensao, ? extends Collection<String>> selecao,
+                                  Collection<Long> caracteristicaIds) {
+        Estado atual = estado;
+
+        Map<Dimensao, RoaringBitmap> filtros = new EnumMap<>(Dimensao.class);
+        selecao.forEach((dimensao, valores) -> {
+            if (valores != null && !valores.isEmpty()) {
+                filtros.put(dimensao, uniao(atual.dimensoes().get(dimensao), valores));
+            }
+        });
+        RoaringBitmap comCaracteristicas = atual.todos();
+        if (caracteristicaIds != null && !caracteristicaIds.isEmpty()) {
+            List<RoaringBitmap> exigidas = new ArrayList<>(caracteristicaIds.size());
+            for (Long caracteristicaId : caracteristicaIds) {
+                exigidas.add(atual.caracteristicas().getOrDefault(caracteristicaId, new RoaringBitmap()));
+            }
+            comCaracteristicas = intersecao(exigidas);
+        }
+
+        List<RoaringBitmap> todosFiltros = new ArrayList<>(filtros.values());
+        todosFiltros.add(comCaracteristicas);
+        RoaringBitmap base = intersecao(todosFiltros);
+
+        Map<Dimensao, Map<String, Long>> porDimensao = new EnumMap<>(Dimensao.class);
+        for (Dimensao dimensao : DIMENSOES) {
+            RoaringBitmap lateral = base;
+            if (filtros.containsKey(dimensao)) {
+                List<RoaringBitmap> outrosFiltros = new ArrayList<>(filtros.size());
+                filtros.forEach((outra, filtro) -> {
+                    if (outra != dimensao) {
+                        outrosFiltros.add(filtro);
+                    }
+                });
+                outrosFiltros.add(comCaracteristicas);
+                lateral = intersecao(outrosFiltros);
+            }
+            porDimensao.put(dimensao, contarValores(atual.dimensoes().get(dimensao), lateral, lateral == atual.todos()));
+        }
+        return new ContagemFacetas(base.getLongCardinality(), porDimensao,
+                contarValores(atual.caracteristicas(), base, base == atual.todos()));
+    }
+
+    public int tamanho() {
+        return estado.todos().getCardinality();
+    }
+
+    /**
+     * Reflete o imóvel no índice depois do commit da transação corrente (imediatamente, fora de uma).
+     * Os valores são lidos agora, com a entidade ainda gerenciada e as características acessíveis.
+     */
+    public void atualizarAposCommit(Imovel imovel) {
+        Alteracao alteracao = alteracao(imovel);
+        aposCommit(() -> indexar(List.of(alteracao)));
+    }
+
+    /**
+     * Reflete vários imóveis de uma vez depois do commit (ex.: um lote da importação): o índice
+     * é copiado uma única vez para todo o conjunto, em vez de uma vez por imóvel.
+     */
+    public void atualizarAposCommit(Collection<Imovel> imoveis) {
+        List<Alteracao> alteracoes = imoveis.stream().map(IndiceFacetasImoveis::alteracao).toList();
+        if (!alteracoes.isEmpty()) {
+            aposCommit(() -> indexar(alteracoes));
+        }
+    }
+
+    public void removerAposCommit(Long imovelId) {
+        Alteracao alteracao = new Alteracao(Math.toIntExact(imovelId), null, null);
+        aposCommit(() -> indexar(List.of(alteracao)));
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    private static Alteracao alteracao(Imovel imovel) {
+        long[] caracteristicas = imovel.getCaracteristicas() == null ? new long[0]
+                : imovel.getCaracteristicas().stream().map(Caracteristica::getId).filter(Objects::nonNull)
+                .mapToLong(Long::longValue).toArray();
+        return new Alteracao(Math.toIntExact(imovel.getId()), valores(imovel), caracteristicas);
+    }
+
+    synchronized void indexar(List<Alteracao> alteracoes) {
+        if (alteracoesDuranteCarga != null) {
+            alteracoesDuranteCarga.addAll(alteracoes);
+        }
+        estado = aplicar(estado, alteracoes);
+    }
+
+    /**
+     * Substitui os valores dos imóveis alterados; uma alteração com {@code valores} nulo remove o imóvel.
+     * Cada mapa e cada bitmap que muda é copiado uma vez para todo o conjunto, e os demais são compartilhados
+     * com o estado anterior.
+     */
+    private static Estado aplicar(Estado atual, List<Alteracao> alteracoes) {
+        // Cada alteração traz todos os valores do imóvel: vale a última de cada id
+        Map<Integer, Alteracao> porId = new LinkedHashMap<>();
+        for (Alteracao alteracao : alteracoes) {
+            porId.put(alteracao.id(), alteracao);
+        }
+        RoaringBitmap alterados = new RoaringBitmap();
+        RoaringBitmap incluidos = new RoaringBitmap();
+        Map<Long, RoaringBitmap> novasCaracteristicas = new HashMap<>();
+        List<Map<String, RoaringBitmap>> novosValores = new ArrayList<>(DIMENSOES.length);
+        for (Dimensao dimensao : DIMENSOES) {
+            novosValores.add(new HashMap<>());
+        }
+        for (Alteracao alteracao : porId.values()) {
+            int id = alteracao.id();
+            alterados.add(id);
+            if (alteracao.valores() == null) {
+                continue;
+            }
+            incluidos.add(id);
+            for (Dimensao dimensao : DIMENSOES) {
+                String valor = alteracao.valores()[dimensao.ordinal()];
+                if (valor != null) {
+                    novosValores.get(dimensao.ordinal()).computeIfAbsent(valor, chave -> new RoaringBitmap()).add(id);
+                }
+            }
+            if (alteracao.caracteristicas() != null) {
+                for (long caracteristicaId : alteracao.caracteristicas()) {
+                    novasCaracteristicas.computeIfAbsent(caracteristicaId, chave -> new RoaringBitmap()).add(id);
+                }
+            }
+        }
+
+        RoaringBitmap todos = atual.todos();
+        RoaringBitmap removidos = RoaringBitmap.andNot(alterados, incluidos);
+        if (RoaringBitmap.andCardinality(todos, incluidos) != incluidos.getLongCardinality()
+                || RoaringBitmap.intersects(todos, removidos)) {
+            todos = RoaringBitmap.andNot(todos, removidos);
+            todos.or(incluidos);
+        }
+        Map<Dimensao, Map<String, RoaringBitmap>> dimensoes = new EnumMap<>(Dimensao.class);
+        for (Dimensao dimensao : DIMENSOES) {
+            dimensoes.put(dimensao, substituir(atual.dimensoes().get(dimensao), alterados,
+                    novosValores.get(dimensao.ordinal())));
+        }
+        return new Estado(todos, dimensoes, substituir(atual.caracteristicas(), alterados, novasCaracteristicas));
+    }
+
+    // Retira os imóveis alterados de cada valor e os inclui nos valores novos; devolve o mesmo mapa
+    // se nada mudou. Os bitmaps de novos são recém-criados e podem ser publicados sem cópia
+    private static <K> Map<K, RoaringBitmap> substituir(Map<K, RoaringBitmap> valores, RoaringBitmap alterados,
+                                                        Map<K, RoaringBitmap> novos) {
+        Map<K, RoaringBitmap> copia = null;
+        for (Map.Entry<K, RoaringBitmap> entrada : valores.entrySet()) {
+            RoaringBitmap atual = entrada.getValue();
+            RoaringBitmap incluir = novos.get(entrada.getKey());
+            if (!RoaringBitmap.intersects(atual, alterados) && incluir == null) {
+                continue;
+            }
+            RoaringBitmap alterado = RoaringBitmap.andNot(atual, alterados);
+            if (incluir != null) {
+                alterado.or(incluir);
+            }
+            if (alterado.equals(atual)) {
+                continue;
+            }
+            if (copia == null) {
+                copia = new HashMap<>(valores);
+            }
+            if (alterado.isEmpty()) {
+                copia.remove(entrada.getKey());
+            } else {
+                copia.put(entrada.getKey(), alterado);
+            }
+        }
+        for (Map.Entry<K, RoaringBitmap> entrada : novos.entrySet()) {
+            if (!valores.containsKey(entrada.getKey())) {
+                if (copia == null) {
+                    copia = new HashMap<>(valores);
+                }
+                copia.put(entrada.getKey(), entrada.getValue());
+            }
+        }
+        return copia != null ? copia : valores;
+    }
+
+    /**
+     * Reconstrói o índice a partir do banco. A leitura acontece sem o lock: alterações confirmadas
+     * durante a carga entram no índice atual e são reaplicadas sobre o índice novo antes da troca,
+     * em vez de se perderem nela.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${crm.imoveis.facetas.intervalo-recarga:PT10M}",
+            initialDelayString = "${crm.imoveis.facetas.intervalo-recarga:PT10M}")
+    public void carregar() {
+        long inicio = System.nanoTime();
+        Estado carregado = recarregar(() -> transacaoLeitura.execute(status -> {
+            try (Stream<ImovelRepository.LinhaFacetas> linhas = imovelRepository.streamParaFacetas();
+                 Stream<ImovelRepository.CaracteristicaImovel> caracteristicas =
+                         imovelRepository.streamCaracteristicasParaFacetas()) {
+                return construir(linhas, caracteristicas);
+            }
+        }));
+        log.info("Índice de facetas carregado: {} imóveis, {} características ({} ms)",
+                carregado.todos().getCardinality(), carregado.caracteristicas().size(),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    void carregar(Stream<ImovelRepository.LinhaFacetas> linhas,
+                  Stream<ImovelRepository.CaracteristicaImovel> caracteristicasImoveis) {
+        recarregar(() -> construir(linhas, caracteristicasImoveis));
+    }
+
+    private Estado recarregar(Supplier<Estado> leitura) {
+        synchronized (carga) {
+            // Antes da leitura: uma alteração confirmada depois do início dela fica registrada
+            synchronized (this) {
+                alteracoesDuranteCarga = new ArrayList<>();
+            }
+            try {
+                Estado carregado = leitura.get();
+                synchronized (this) {
+                    // Reaplicar é seguro mesmo que a leitura já tenha visto a alteração: o imóvel
+                    // apenas recebe de novo os mesmos valores
+                    carregado = aplicar(carregado, alteracoesDuranteCarga);
+                    estado = carregado;
+                    return carregado;
+                }
+            } finally {
+                synchronized (this) {
+                    alteracoesDuranteCarga = null;
+                }
+            }
+        }
+    }
+
+    private static Estado construir(Stream<ImovelRepository.LinhaFacetas> linhas,
+                                    Stream<ImovelRepository.CaracteristicaImovel> caracteristicasImoveis) {
+        RoaringBitmap todos = new RoaringBitmap();
+        Map<Dimensao, Map<String, RoaringBitmap>> dimensoes = new EnumMap<>(Dimensao.class);
+        for (Dimensao dimensao : DIMENSOES) {
+            dimensoes.put(dimensao, new HashMap<>());
+        }
+        linhas.forEach(linha -> {
+            int id = Math.toIntExact(linha.getId());
+            todos.add(id);
+            String[] valores = valores(linha.getTipo(), linha.getFinalidade(), linha.getStatus(),
+                    linha.getCidade(), linha.getBairro(), linha.getQuartos());
+            for (Dimensao dimensao : DIMENSOES) {
+                String valor = valores[dimensao.ordinal()];
+                if (valor != null) {
+                    dimensoes.get(dimensao).computeIfAbsent(valor, chave -> new RoaringBitmap()).add(id);
+                }
+            }
+        });
+        Map<Long, RoaringBitmap> caracteristicas = new HashMap<>();
+        caracteristicasImoveis.forEach(linha -> caracteristicas.computeIfAbsent(linha.getCaracteristicaId(),
+                chave -> new RoaringBitmap()).add(Math.toIntExact(linha.getImovelId())));
+        // Sequências de ids consecutivos viram run containers, mais compactos e rápidos de intersectar
+        todos.runOptimize();
+        dimensoes.values().forEach(valores -> valores.values().forEach(RoaringBitmap::runOptimize));
+        caracteristicas.values().forEach(RoaringBitmap::runOptimize);
+        return new Estado(todos, dimensoes, caracteristicas);
+    }
+
+    private static <K> Map<K, Long> contarValores(Map<K, RoaringBitmap> valores, RoaringBitmap universo,
+                                                  boolean semFiltro) {
+        Map<K, Long> contagens = new HashMap<>();
+        if (universo.isEmpty()) {
+            return contagens;
+        }
+        valores.forEach((valor, imoveis) -> {
+            long quantidade = semFiltro ? imoveis.getLongCardinality() : RoaringBitmap.andCardinality(imoveis, universo);
+            if (quantidade > 0) {
+                contagens.put(valor, quantidade);
+            }
+        });
+        return contagens;
+    }
+
+    private static RoaringBitmap uniao(Map<String, RoaringBitmap> valores, Collection<String> escolhidos) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(escolhidos.size());
+        for (String escolhido : escolhidos) {
+            RoaringBitmap bitmap = valores.get(escolhido);
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            }
+        }
+        return bitmaps.size() == 1 ? bitmaps.get(0) : FastAggregation.or(bitmaps.iterator());
+    }
+
+    // Começa pelo menor bitmap: cada AND seguinte percorre no máximo o resultado parcial
+    private static RoaringBitmap intersecao(List<RoaringBitmap> bitmaps) {
+        if (bitmaps.size() == 1) {
+            return bitmaps.get(0);
+        }
+        bitmaps.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+        RoaringBitmap resultado = RoaringBitmap.and(bitmaps.get(0), bitmaps.get(1));
+        for (int i = 2; i < bitmaps.size() && !resultado.isEmpty(); i++) {
+            resultado.and(bitmaps.get(i));
+        }
+        return resultado;
+    }
+
+    private static String[] valores(Imovel imovel) {
+        Endereco endereco = imovel.getEndereco();
+        return valores(imovel.getTipo(), imovel.getFinalidade(), imovel.getStatus(),
+                endereco != null ? endereco.getCidade() : null, endereco != null ? endereco.getBairro() : null,
+                imovel.getQuartos());
+    }
+
+    // Valores na ordem de Dimensao; os textos são os mesmos gravados, como na busca por igualdade
+    private static String[] valores(String tipo, String finalidade, String status, String cidade, String bairro,
+                                    Integer quartos) {
+        String[] valores = new String[DIMENSOES.length];
+        valores[Dimensao.TIPO.ordinal()] = vazioComoNulo(tipo);
+        valores[Dimensao.FINALIDADE.ordinal()] = vazioComoNulo(finalidade);
+        valores[Dimensao.STATUS.ordinal()] = vazioComoNulo(status);
+        valores[Dimensao.CIDADE.ordinal()] = vazioComoNulo(cidade);
+        valores[Dimensao.BAIRRO.ordinal()] = vazioComoNulo(bairro);
+        valores[Dimensao.QUARTOS.ordinal()] = faixaQuartos(quartos);
+        return valores;
+    }
+
+    static String faixaQuartos(Integer quartos) {
+        if (quartos == null || quartos < 0) {
+            return null;
+        }
+        return quartos >= 4 ? QUARTOS_4_OU_MAIS : String.valueOf(quartos);
+    }
+
+    private static String vazioComoNulo(String valor) {
+        return valor == null || valor.isBlank() ? null : valor;
+    }
+}
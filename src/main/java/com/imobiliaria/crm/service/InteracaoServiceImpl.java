@@ -0,0 +1,240 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.InteracoesProperties;
+import com.imobiliaria.crm.dto.CursorPaginacao;
+import com.imobiliaria.crm.dto.InteracaoDTO;
+import com.imobiliaria.crm.dto.InteracaoTimelineDTO;
+import com.imobiliaria.crm.dto.PaginaDTO;
+import com.imobiliaria.crm.dto.ResultadoItemLoteDTO;
+import com.imobiliaria.crm.dto.ResultadoLoteDTO;
+import com.imobiliaria.crm.repository.ClienteRepository;
+import com.imobiliaria.crm.repository.CorretorRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import com.imobiliaria.crm.repository.InteracaoRepository;
+import com.imobiliaria.crm.repository.InteracaoRepositoryCustom.NovaInteracao;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class InteracaoServiceImpl implements IInteracaoService {
+
+    // Limite de itens por requisição de registro em lote
+    static final int TAMANHO_MAXIMO_LOTE = 1000;
+
+    // Tolerância para relógios de clientes adiantados
+    private static final Duration TOLERANCIA_FUTURO = Duration.ofMinutes(5);
+
+    private final ClienteRepository clienteRepository;
+    private final CorretorRepository corretorRepository;
+    private final ImovelRepository imovelRepository;
+    private final InteracaoRepository interacaoRepository;
+    private final FilaInteracoes filaInteracoes;
+    private final InteracoesProperties properties;
+    private final Validator validator;
+
+    public InteracaoServiceImpl(ClienteRepository clienteRepository,
+                                CorretorRepository corretorRepository,
+                                ImovelRepository imovelRepository,
+                                InteracaoRepository interacaoRepository,
+                                FilaInteracoes filaInteracoes,
+                                InteracoesProperties properties,
+                                Validator validator) {
+        this.clienteRepository = clienteRepository;
+        this.corretorRepository = corretorRepository;
+        this.imovelRepository = imovelRepository;
+        this.interacaoRepository = interacaoRepository;
+        this.filaInteracoes = filaInteracoes;
+        this.properties = properties;
+        this.validator = validator;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InteracaoDTO registrar(InteracaoDTO interacaoDTO) {
+        LocalDateTime agora = LocalDateTime.now();
+        String erro = validarData(interacaoDTO, agora);
+        if (erro == null) {
+            erro = referenciaInexistente(interacaoDTO, carregarReferencias(List.of(interacaoDTO)));
+        }
+        if (erro != null) {
+            throw new IllegalArgumentException(erro);
+        }
+        filaInteracoes.enfileirar(List.of(novaInteracao(interacaoDTO)));
+        return interacaoDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResultadoLoteDTO<InteracaoDTO> registrarLote(List<InteracaoDTO> interacoes) {
+        if (interacoes == null || interacoes.isEmpty()) {
+            throw new IllegalArgumentException("O lote de interações está vazio.");
+        }
+        if (interacoes.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("O lote aceita no máximo " + TAMANHO_MAXIMO_LOTE + " interações.");
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<ResultadoItemLoteDTO<InteracaoDTO>> resultados = new ArrayList<>(interacoes.size());
+        List<InteracaoDTO> candidatas = new ArrayList<>(interacoes.size());
+        for (int i = 0; i < interacoes.size(); i++) {
+            InteracaoDTO dto = interacoes.get(i);
+            String erro = dto == null ? "Interação não informada." : validarItem(dto, agora);
+            resultados.add(erro != null ? ResultadoItemLoteDTO.falha(i, erro) : null);
+            if (erro == null) {
+                candidatas.add(dto);
+            }
+        }
+
+        // Existência de clientes, corretores e imóveis: uma consulta de cada para o lote inteiro
+        Referencias referencias = carregarReferencias(candidatas);
+        List<NovaInteracao> aceitas = new ArrayList<>(candidatas.size());
+        for (int i = 0; i < interacoes.size(); i++) {
+            if (resultados.get(i) != null) {
+                continue;
+            }
+            InteracaoDTO dto = interacoes.get(i);
+            String erro = referenciaInexistente(dto, referencias);
+            if (erro != null) {
+                resultados.set(i, ResultadoItemLoteDTO.falha(i, erro));
+            } else {
+                aceitas.add(novaInteracao(dto));
+                resultados.set(i, ResultadoItemLoteDTO.sucesso(i, dto));
+            }
+        }
+        if (!aceitas.isEmpty()) {
+            filaInteracoes.enfileirar(aceitas);
+        }
+        return new ResultadoLoteDTO<>(resultados);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<InteracaoTimelineDTO> listarPorCliente(Long clienteId, String cursor, Integer tamanho) {
+        if (!clienteRepository.existsById(clienteId)) {
+            throw new IllegalArgumentException("Cliente não encontrado com ID: " + clienteId);
+        }
+        int tamanhoPagina = ImovelServiceImpl.normalizarTamanhoPagina(tamanho);
+        CursorPaginacao posicao = decodificarCursor(cursor);
+        // Uma linha a mais indica se existe próxima página
+        List<InteracaoTimelineDTO> interacoes = posicao == null
+                ? interacaoRepository.findTimelineCliente(clienteId, tamanhoPagina + 1)
+                : interacaoRepository.findTimelineClienteApos(clienteId, parseDataCursor(posicao), posicao.getId(),
+                tamanhoPagina + 1);
+        return pagina(interacoes, tamanhoPagina);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<InteracaoTimelineDTO> listarPorCorretor(Long corretorId, String cursor, Integer tamanho) {
+        if (!corretorRepository.existsById(corretorId)) {
+            throw new IllegalArgumentException("Corretor não encontrado com ID: " + corretorId);
+        }
+        int tamanhoPagina = ImovelServiceImpl.normalizarTamanhoPagina(tamanho);
+        CursorPaginacao posicao = decodificarCursor(cursor);
+        List<InteracaoTimelineDTO> interacoes = posicao == null
+                ? interacaoRepository.findTimelineCorretor(corretorId, tamanhoPagina + 1)
+                : interacaoRepository.findTimelineCorretorApos(corretorId, parseDataCursor(posicao), posicao.getId(),
+                tamanhoPagina + 1);
+        return pagina(interacoes, tamanhoPagina);
+    }
+
+    private static PaginaDTO<InteracaoTimelineDTO> pagina(List<InteracaoTimelineDTO> interacoes, int tamanhoPagina) {
+        String proximoCursor = null;
+        if (interacoes.size() > tamanhoPagina) {
+            interacoes = interacoes.subList(0, tamanhoPagina);
+            InteracaoTimelineDTO ultima = interacoes.get(interacoes.size() - 1);
+            proximoCursor = new CursorPaginacao(ultima.getDataInteracao().toString(), ultima.getId()).codificar();
+        }
+        return PaginaDTO.of(interacoes, proximoCursor);
+    }
+
+    private static CursorPaginacao decodificarCursor(String cursor) {
+        return cursor != null && !cursor.isBlank() ? CursorPaginacao.decodificar(cursor) : null;
+    }
+
+    private static LocalDateTime parseDataCursor(CursorPaginacao posicao) {
+        if (posicao.getChave() == null) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+        try {
+            return LocalDateTime.parse(posicao.getChave());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+    }
+
+    private record Referencias(Set<Long> clientes, Set<Long> corretores, Set<Long> imoveis) {
+    }
+
+    private Referencias carregarReferencias(List<InteracaoDTO> interacoes) {
+        return new Referencias(
+                existentes(interacoes, InteracaoDTO::getClienteId, clienteRepository::findIdsExistentes),
+                existentes(interacoes, InteracaoDTO::getCorretorId, corretorRepository::findIdsExistentes),
+                existentes(interacoes, InteracaoDTO::getImovelId, imovelRepository::findIdsExistentes));
+    }
+
+    private static Set<Long> existentes(List<InteracaoDTO> interacoes, Function<InteracaoDTO, Long> id,
+                                        Function<Set<Long>, List<Long>> consulta) {
+        Set<Long> ids = interacoes.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+        return ids.isEmpty() ? Set.of() : new HashSet<>(consulta.apply(ids));
+    }
+
+    private String validarItem(InteracaoDTO dto, LocalDateTime agora) {
+        Set<ConstraintViolation<InteracaoDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        return validarData(dto, agora);
+    }
+
+    // Sem data, assume o momento do recebimento; fora da janela aceita não há partição para a linha
+    private String validarData(InteracaoDTO dto, LocalDateTime agora) {
+        if (dto.getDataInteracao() == null) {
+            dto.setDataInteracao(agora);
+            return null;
+        }
+        if (dto.getDataInteracao().isAfter(agora.plus(TOLERANCIA_FUTURO))) {
+            return "A data da interação não pode estar no futuro.";
+        }
+        YearMonth primeiroMes = properties.primeiroMesAceito(YearMonth.from(agora));
+        if (dto.getDataInteracao().isBefore(primeiroMes.atDay(1).atStartOfDay())) {
+            return "A data da interação deve ser a partir de " + primeiroMes.atDay(1) + ".";
+        }
+        return null;
+    }
+
+    private String referenciaInexistente(InteracaoDTO dto, Referencias referencias) {
+        if (!referencias.clientes().contains(dto.getClienteId())) {
+            return "Cliente não encontrado com ID: " + dto.getClienteId();
+        }
+        if (!referencias.corretores().contains(dto.getCorretorId())) {
+            return "Corretor não encontrado com ID: " + dto.getCorretorId();
+        }
+        if (dto.getImovelId() != null && !referencias.imoveis().contains(dto.getImovelId())) {
+            return "Imóvel não encontrado com ID: " + dto.getImovelId();
+        }
+        return null;
+    }
+
+    private static NovaInteracao novaInteracao(InteracaoDTO dto) {
+        return new NovaInteracao(dto.getClienteId(), dto.getCorretorId(), dto.getImovelId(), dto.getTipo(),
+                dto.getDataInteracao(), dto.getObservacoes());
+    }
+}
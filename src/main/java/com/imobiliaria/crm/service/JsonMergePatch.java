@@ -0,0 +1,34 @@
+package com.imobiliaria.crm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Map;
+
+/**
+ * Aplicação de JSON Merge Patch (RFC 7396): membros do patch substituem os do documento,
+ * objetos são mesclados recursivamente e {@code null} remove o membro.
+ */
+final class JsonMergePatch {
+
+    private JsonMergePatch() {
+    }
+
+    static JsonNode aplicar(JsonNode alvo, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode resultado = alvo != null && alvo.isObject()
+                ? ((ObjectNode) alvo).deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        for (Map.Entry<String, JsonNode> campo : patch.properties()) {
+            if (campo.getValue().isNull()) {
+                resultado.remove(campo.getKey());
+            } else {
+                resultado.set(campo.getKey(), aplicar(resultado.get(campo.getKey()), campo.getValue()));
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,35 @@
+package com.imobiliaria.crm.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as chamadas a uma taxa fixa, espaçando-as em intervalos iguais (sem rajadas).
+ * Compartilhado pelos workers de um mesmo portal: cada chamada reserva o próximo horário livre
+ * e dorme até ele fora do lock, então as threads esperam em paralelo.
+ */
+final class LimitadorTaxa {
+
+    private final long intervaloNanos;
+    private long proximaLiberacao;
+
+    LimitadorTaxa(double chamadasPorSegundo) {
+        if (!(chamadasPorSegundo > 0)) {
+            throw new IllegalArgumentException("A taxa deve ser maior que zero.");
+        }
+        this.intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / chamadasPorSegundo);
+        this.proximaLiberacao = System.nanoTime();
+    }
+
+    void aguardar() throws InterruptedException {
+        long espera;
+        synchronized (this) {
+            long agora = System.nanoTime();
+            long horario = Math.max(agora, proximaLiberacao);
+            proximaLiberacao = horario + intervaloNanos;
+            espera = horario - agora;
+        }
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+}
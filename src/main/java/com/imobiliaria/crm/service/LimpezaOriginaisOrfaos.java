@@ -0,0 +1,85 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.ImagensProperties;
+import com.imobiliaria.crm.repository.ImagemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Remove do armazenamento os originais que nenhuma imagem usa: os de uploads desfeitos e os de
+ * imagens excluídas. O original é gravado antes do commit do upload, e outro upload do mesmo
+ * conteúdo pode reaproveitá-lo enquanto a sua transação ainda está aberta; por isso só é removido
+ * o original sem imagem confirmada que também não foi gravado nem reaproveitado durante o prazo
+ * de retenção, e não no desfecho da transação que o gravou.
+ */
+@Slf4j
+@Component
+public class LimpezaOriginaisOrfaos {
+
+    // Hashes verificados no banco por consulta
+    private static final int TAMANHO_LOTE = 500;
+
+    private final ArmazenamentoImagens armazenamento;
+    private final ImagemRepository imagemRepository;
+    private final ImagensProperties properties;
+
+    public LimpezaOriginaisOrfaos(ArmazenamentoImagens armazenamento,
+                                  ImagemRepository imagemRepository,
+                                  ImagensProperties properties) {
+        this.armazenamento = armazenamento;
+        this.imagemRepository = imagemRepository;
+        this.properties = properties;
+    }
+
+    @Scheduled(initialDelayString = "${crm.imagens.intervalo-limpeza-orfaos:PT1H}",
+            fixedDelayString = "${crm.imagens.intervalo-limpeza-orfaos:PT1H}")
+    public void removerOrfaos() {
+        try {
+            int removidos = removerOrfaos(Instant.now().minus(properties.getRetencaoOrfaos()));
+            if (removidos > 0) {
+                log.info("{} originais de imagem sem uso removidos do armazenamento", removidos);
+            }
+        } catch (IOException | UncheckedIOException | DataAccessException e) {
+            log.warn("Falha na limpeza dos originais de imagem sem uso; nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    int removerOrfaos(Instant modificadosAntes) throws IOException {
+        int removidos = 0;
+        try (Stream<String> hashes = armazenamento.listarOriginais(modificadosAntes)) {
+            Iterator<String> iterador = hashes.iterator();
+            List<String> lote = new ArrayList<>(TAMANHO_LOTE);
+            while (iterador.hasNext()) {
+                lote.add(iterador.next());
+                if (lote.size() == TAMANHO_LOTE || !iterador.hasNext()) {
+                    removidos += removerSemImagem(lote, modificadosAntes);
+                    lote.clear();
+                }
+            }
+        }
+        return removidos;
+    }
+
+    private int removerSemImagem(List<String> hashes, Instant modificadosAntes) throws IOException {
+        Set<String> usados = new HashSet<>(imagemRepository.findArquivosExistentes(hashes));
+        int removidos = 0;
+        for (String hash : hashes) {
+            if (!usados.contains(hash) && armazenamento.removerOriginal(hash, modificadosAntes)) {
+                removidos++;
+            }
+        }
+        return removidos;
+    }
+}
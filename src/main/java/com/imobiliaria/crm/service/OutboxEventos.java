@@ -0,0 +1,100 @@
+package com.imobiliaria.crm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imobiliaria.crm.model.EventoOutbox;
+import com.imobiliaria.crm.model.TipoAgregado;
+import com.imobiliaria.crm.repository.EventoOutboxRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registro de eventos de alteração no outbox, na transação de quem os gera.
+ * Os eventos ficam em memória até o commit e são gravados em um único batch JDBC logo antes dele,
+ * depois do flush das entidades: nesse ponto a linha do agregado já está bloqueada pela transação,
+ * e o id atribuído pela sequence segue a ordem das alterações de cada agregado.
+ * Um rollback descarta os eventos junto com os dados.
+ */
+@Component
+public class OutboxEventos {
+
+    // Tipos de evento publicados (cabeçalho evento-tipo); o payload é o DTO do recurso alterado
+    public static final String IMOVEL_CRIADO = "IMOVEL_CRIADO";
+    public static final String IMOVEL_ATUALIZADO = "IMOVEL_ATUALIZADO";
+    public static final String IMOVEL_REMOVIDO = "IMOVEL_REMOVIDO";
+    public static final String IMAGENS_ADICIONADAS = "IMAGENS_ADICIONADAS";
+    public static final String IMAGEM_ATUALIZADA = "IMAGEM_ATUALIZADA";
+    public static final String IMAGEM_REMOVIDA = "IMAGEM_REMOVIDA";
+    public static final String IMAGENS_REORDENADAS = "IMAGENS_REORDENADAS";
+    public static final String CORRETOR_CRIADO = "CORRETOR_CRIADO";
+    public static final String CORRETOR_ATUALIZADO = "CORRETOR_ATUALIZADO";
+    public static final String CLIENTE_CRIADO = "CLIENTE_CRIADO";
+    public static final String CLIENTE_ATUALIZADO = "CLIENTE_ATUALIZADO";
+    // Alerta ao cliente: um imóvel criado ou alterado atende a uma de suas buscas salvas
+    public static final String BUSCA_SALVA_ATENDIDA = "BUSCA_SALVA_ATENDIDA";
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OutboxEventos(EventoOutboxRepository eventoOutboxRepository, ObjectMapper objectMapper) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param payload Objeto serializado em JSON no momento do registro (alterações posteriores não o afetam).
+     */
+    public void registrar(TipoAgregado agregadoTipo, Long agregadoId, String tipo, Object payload) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Eventos do outbox só podem ser registrados dentro de uma transação.");
+        }
+        EventoOutbox evento = new EventoOutbox();
+        evento.setAgregadoTipo(agregadoTipo);
+        evento.setAgregadoId(agregadoId);
+        evento.setTipo(tipo);
+        evento.setPayload(serializar(payload));
+        evento.setDataCriacao(LocalDateTime.now());
+        pendentesDaTransacao().add(evento);
+    }
+
+    private String serializar(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o evento do outbox.", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EventoOutbox> pendentesDaTransacao() {
+        List<EventoOutbox> pendentes = (List<EventoOutbox>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            List<EventoOutbox> novos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, novos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    entityManager.flush();
+                    eventoOutboxRepository.inserirEmLote(novos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxEventos.this);
+                }
+            });
+            pendentes = novos;
+        }
+        return pendentes;
+    }
+}
@@ -0,0 +1,103 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.InteracoesProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Mantém as partições mensais de interacoes (V15): cria as dos meses aceitos para registro, até
+ * {@code crm.interacoes.meses-futuros} à frente, e remove as anteriores ao período de retenção com
+ * DETACH + DROP, sem DELETE nem VACUUM. Executa na inicialização e diariamente.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "crm.interacoes.particionamento-habilitado", havingValue = "true", matchIfMissing = true)
+public class ParticoesInteracoes {
+
+    static final String PREFIXO_PARTICAO = "interacoes_p";
+    private static final DateTimeFormatter SUFIXO_PARTICAO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    // Serializa a manutenção entre instâncias da aplicação
+    private static final long CHAVE_BLOQUEIO = 0x696E746572616331L;
+
+    private static final String TABELA_PARTICIONADA = "SELECT COUNT(*) FROM pg_partitioned_table pt " +
+            "JOIN pg_class c ON c.oid = pt.partrelid " +
+            "WHERE c.relname = 'interacoes' AND pg_table_is_visible(c.oid)";
+
+    private static final String LISTAR_PARTICOES = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'interacoes' AND pg_table_is_visible(p.oid)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InteracoesProperties properties;
+
+    public ParticoesInteracoes(JdbcTemplate jdbcTemplate, InteracoesProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${crm.interacoes.cron-particoes:0 0 3 * * *}")
+    @Transactional
+    public void manterParticoes() {
+        Integer particionada = jdbcTemplate.queryForObject(TABELA_PARTICIONADA, Integer.class);
+        if (particionada == null || particionada == 0) {
+            log.warn("Tabela interacoes não é particionada; manutenção de partições ignorada");
+            return;
+        }
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, CHAVE_BLOQUEIO);
+
+        YearMonth mesAtual = YearMonth.now();
+        Set<String> existentes = new HashSet<>(jdbcTemplate.queryForList(LISTAR_PARTICOES, String.class));
+        YearMonth ultimo = mesAtual.plusMonths(properties.getMesesFuturos());
+        for (YearMonth mes = properties.primeiroMesAceito(mesAtual); !mes.isAfter(ultimo); mes = mes.plusMonths(1)) {
+            String nome = nomeParticao(mes);
+            if (!existentes.contains(nome)) {
+                jdbcTemplate.execute("CREATE TABLE " + nome + " PARTITION OF interacoes FOR VALUES FROM ('"
+                        + mes.atDay(1) + "') TO ('" + mes.plusMonths(1).atDay(1) + "')");
+                log.info("Partição {} criada", nome);
+            }
+        }
+
+        if (properties.getRetencaoMeses() > 0) {
+            YearMonth limite = mesAtual.minusMonths(properties.getRetencaoMeses());
+            for (String nome : existentes) {
+                YearMonth mes = mesDaParticao(nome);
+                if (mes != null && mes.isBefore(limite)) {
+                    jdbcTemplate.execute("ALTER TABLE interacoes DETACH PARTITION " + nome);
+                    jdbcTemplate.execute("DROP TABLE " + nome);
+                    log.info("Partição {} removida (retenção de {} meses)", nome, properties.getRetencaoMeses());
+                }
+            }
+        }
+    }
+
+    static String nomeParticao(YearMonth mes) {
+        return PREFIXO_PARTICAO + SUFIXO_PARTICAO.format(mes);
+    }
+
+    // Partições com outros nomes (criadas manualmente) não são removidas
+    static YearMonth mesDaParticao(String nome) {
+        if (!nome.startsWith(PREFIXO_PARTICAO)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(nome.substring(PREFIXO_PARTICAO.length()), SUFIXO_PARTICAO);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
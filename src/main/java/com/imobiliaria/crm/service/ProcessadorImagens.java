@@ -0,0 +1,263 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.ImagensConfig;
+import com.imobiliaria.crm.config.ImagensProperties;
+import com.imobiliaria.crm.model.VarianteImagem;
+import com.imobiliaria.crm.repository.ImagemRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Gera as variantes redimensionadas das imagens enviadas por upload, em um pool de threads
+ * limitado ({@link ImagensConfig#EXECUTOR_PROCESSAMENTO}) e fora da thread da requisição.
+ * Variantes em WebP são geradas quando há um ImageWriter "webp" registrado no ImageIO.
+ */
+@Slf4j
+@Component
+public class ProcessadorImagens {
+
+    private static final String FORMATO_WEBP = "webp";
+
+    // Da maior para a menor: cada variante é reduzida a partir da anterior, que já é menor que o original
+    private static final List<VarianteImagem> VARIANTES = Stream.of(VarianteImagem.values())
+            .sorted(Comparator.comparingInt(VarianteImagem::getLadoMaximo).reversed())
+            .toList();
+
+    private final ImagemRepository imagemRepository;
+    private final ImovelRepository imovelRepository;
+    private final ArmazenamentoImagens armazenamento;
+    private final ImagensProperties properties;
+    private final TaskExecutor executor;
+    private final boolean webpDisponivel;
+
+    public ProcessadorImagens(ImagemRepository imagemRepository,
+                              ImovelRepository imovelRepository,
+                              ArmazenamentoImagens armazenamento,
+                              ImagensProperties properties,
+                              @Qualifier(ImagensConfig.EXECUTOR_PROCESSAMENTO) TaskExecutor executor) {
+        this.imagemRepository = imagemRepository;
+        this.imovelRepository = imovelRepository;
+        this.armazenamento = armazenamento;
+        this.properties = properties;
+        this.executor = executor;
+        this.webpDisponivel = ImageIO.getImageWritersByFormatName(FORMATO_WEBP).hasNext();
+    }
+
+    /**
+     * Agenda a geração das variantes para depois do commit da transação corrente,
+     * quando a imagem já está visível para os workers.
+     * @param imagemId O ID de uma imagem PENDENTE.
+     */
+    public void agendarAposCommit(Long imagemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agendar(imagemId);
+                }
+            });
+        } else {
+            agendar(imagemId);
+        }
+    }
+
+    /**
+     * Reenvia aos workers as imagens que continuam PENDENTE (recusadas com a fila cheia ou com
+     * falhas transitórias) e as reservadas há mais que o atraso de reprocessamento por um worker
+     * que não terminou: interrompido por uma reinicialização ou por um Error como OutOfMemoryError.
+     */
+    @Scheduled(initialDelayString = "${crm.imagens.processamento.intervalo-reprocessamento:PT5M}",
+            fixedDelayString = "${crm.imagens.processamento.intervalo-reprocessamento:PT5M}")
+    public void reprocessarPendentes() {
+        ImagensProperties.Processamento processamento = properties.getProcessamento();
+        LocalDateTime limite = LocalDateTime.now().minus(processamento.getAtrasoReprocessamento());
+        imagemRepository.findIdsPendentes(limite, PageRequest.of(0, processamento.getCapacidadeFila()))
+                .forEach(this::agendar);
+    }
+
+    void agendar(Long imagemId) {
+        try {
+            executor.execute(() -> processar(imagemId));
+        } catch (TaskRejectedException e) {
+            log.warn("Fila de processamento de imagens cheia; imagem {} será reprocessada mais tarde", imagemId);
+        }
+    }
+
+    void processar(Long imagemId) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime limiteReserva = agora.minus(properties.getProcessamento().getAtrasoReprocessamento());
+        if (imagemRepository.iniciarProcessamento(imagemId, agora, limiteReserva) == 0) {
+            return;
+        }
+        try {
+            String hash = imagemRepository.findArquivoById(imagemId)
+                    .orElseThrow(() -> new IllegalArgumentException("Imagem sem arquivo original."));
+            // Variantes já geradas para o mesmo original (upload repetido) não são regravadas:
+            // o arquivo servido para um hash nunca muda, o que sustenta o ETag forte das variantes
+            if (!variantesGeradas(hash)) {
+                gerarVariantes(hash);
+            }
+            imagemRepository.concluirProcessamento(imagemId,
+                    urlVariante(imagemId, VarianteImagem.MINIATURA),
+                    urlVariante(imagemId, VarianteImagem.CARD),
+                    urlVariante(imagemId, VarianteImagem.COMPLETA),
+                    webpDisponivel);
+            // As URLs das variantes entram no detalhe e no resumo do imóvel
+            imovelRepository.registrarAlteracaoPorImagem(imagemId, LocalDateTime.now());
+        } catch (IIOException e) {
+            // Erro de decodificação/codificação do ImageIO: o arquivo não é uma imagem válida
+            log.warn("Imagem {} corrompida: {}", imagemId, e.getMessage());
+            imagemRepository.registrarErroProcessamento(imagemId);
+        } catch (NoSuchFileException e) {
+            // O original não existe mais: reprocessar não o trará de volta
+            log.warn("Original da imagem {} ausente do armazenamento: {}", imagemId, e.getFile());
+            imagemRepository.registrarErroProcessamento(imagemId);
+        } catch (IOException e) {
+            log.warn("Falha de E/S ao processar a imagem {}; será reprocessada", imagemId, e);
+            imagemRepository.devolverParaPendente(imagemId);
+        } catch (RuntimeException e) {
+            log.warn("Imagem {} inválida: {}", imagemId, e.getMessage());
+            imagemRepository.registrarErroProcessamento(imagemId);
+        }
+        // Um Error (ex.: OutOfMemoryError) não é capturado: a imagem fica PROCESSANDO e a reserva é
+        // retomada pela varredura depois do atraso de reprocessamento
+    }
+
+    private boolean variantesGeradas(String hash) {
+        for (VarianteImagem variante : VARIANTES) {
+            if (!existe(hash, variante.getNome() + ".jpg")
+                    || (webpDisponivel && !existe(hash, variante.getNome() + "." + FORMATO_WEBP))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Grava apenas os arquivos que faltam; os existentes são mantidos byte a byte
+    private void gerarVariantes(String hash) throws IOException {
+        BufferedImage origem = lerOriginal(hash);
+        for (VarianteImagem variante : VARIANTES) {
+            BufferedImage redimensionada = redimensionar(origem, variante.getLadoMaximo());
+            String jpeg = variante.getNome() + ".jpg";
+            if (!existe(hash, jpeg)) {
+                armazenamento.gravarVariante(hash, jpeg, saida -> escreverJpeg(redimensionada, saida));
+            }
+            String webp = variante.getNome() + "." + FORMATO_WEBP;
+            if (webpDisponivel && !existe(hash, webp)) {
+                armazenamento.gravarVariante(hash, webp, saida -> escrever(redimensionada, FORMATO_WEBP, saida));
+            }
+            origem = redimensionada;
+        }
+    }
+
+    private boolean existe(String hash, String nomeArquivo) {
+        return armazenamento.carregarVariante(hash, nomeArquivo).exists();
+    }
+
+    /**
+     * URL pública de uma variante JPEG; a versão WebP, quando existe, usa a mesma URL com extensão .webp.
+     */
+    public String urlVariante(Long imagemId, VarianteImagem variante) {
+        return properties.getUrlBase() + "/" + imagemId + "/variantes/" + variante.getNome() + ".jpg";
+    }
+
+    private BufferedImage lerOriginal(String hash) throws IOException {
+        try (InputStream entrada = armazenamento.abrirOriginal(hash);
+             ImageInputStream imagem = ImageIO.createImageInputStream(entrada)) {
+            Iterator<ImageReader> leitores = ImageIO.getImageReaders(imagem);
+            if (!leitores.hasNext()) {
+                throw new IllegalArgumentException("Formato de imagem não suportado.");
+            }
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(imagem, true, true);
+                // As dimensões vêm do cabeçalho: recusa imagens enormes antes de alocar os pixels
+                long pixels = (long) leitor.getWidth(0) * leitor.getHeight(0);
+                if (pixels > properties.getPixelsMaximos()) {
+                    throw new IllegalArgumentException("Imagem com " + pixels + " pixels excede o limite.");
+                }
+                return leitor.read(0);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    // Reduz o lado maior a ladoMaximo em etapas de no máximo metade do tamanho, o que preserva
+    // os detalhes com interpolação bilinear; a saída é sempre RGB (transparência sobre fundo branco)
+    static BufferedImage redimensionar(BufferedImage origem, int ladoMaximo) {
+        double escala = Math.min(1.0, (double) ladoMaximo / Math.max(origem.getWidth(), origem.getHeight()));
+        int larguraFinal = Math.max(1, (int) Math.round(origem.getWidth() * escala));
+        int alturaFinal = Math.max(1, (int) Math.round(origem.getHeight() * escala));
+
+        BufferedImage atual = origem;
+        int largura = origem.getWidth();
+        int altura = origem.getHeight();
+        do {
+            largura = Math.max(larguraFinal, largura / 2);
+            altura = Math.max(alturaFinal, altura / 2);
+            BufferedImage proxima = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+            Graphics2D grafico = proxima.createGraphics();
+            try {
+                grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                grafico.setColor(Color.WHITE);
+                grafico.fillRect(0, 0, largura, altura);
+                grafico.drawImage(atual, 0, 0, largura, altura, null);
+            } finally {
+                grafico.dispose();
+            }
+            atual = proxima;
+        } while (largura != larguraFinal || altura != alturaFinal);
+        return atual;
+    }
+
+    private void escreverJpeg(BufferedImage imagem, OutputStream saida) throws IOException {
+        ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream destino = ImageIO.createImageOutputStream(saida)) {
+            ImageWriteParam parametros = escritor.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(properties.getQualidadeJpeg());
+            parametros.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            escritor.setOutput(destino);
+            escritor.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            escritor.dispose();
+        }
+    }
+
+    private static void escrever(BufferedImage imagem, String formato, OutputStream saida) throws IOException {
+        if (!ImageIO.write(imagem, formato, saida)) {
+            throw new IOException("Nenhum ImageWriter disponível para " + formato);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.IndicadoresVendasDTO;
+import com.imobiliaria.crm.dto.RelatorioVendasDTO;
+import com.imobiliaria.crm.repository.RelatorioVendasRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+public class RelatorioVendasServiceImpl implements IRelatorioVendasService {
+
+    // Período padrão e máximo de uma consulta, em meses
+    static final int MESES_PADRAO = 12;
+    static final int MAXIMO_MESES = 120;
+
+    private final RelatorioVendasRepository relatorioRepository;
+
+    public RelatorioVendasServiceImpl(RelatorioVendasRepository relatorioRepository) {
+        this.relatorioRepository = relatorioRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RelatorioVendasDTO vendasPorMes(YearMonth de, YearMonth ate) {
+        Periodo periodo = Periodo.de(de, ate);
+        return relatorio(periodo, RelatorioVendasRepository.VISAO_MENSAL,
+                relatorioRepository.findPorMes(periodo.de(), periodo.ate()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RelatorioVendasDTO vendasPorCorretor(YearMonth de, YearMonth ate) {
+        Periodo periodo = Periodo.de(de, ate);
+        return relatorio(periodo, RelatorioVendasRepository.VISAO_CORRETOR,
+                relatorioRepository.findPorCorretor(periodo.de(), periodo.ate()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RelatorioVendasDTO vendasPorLocalizacao(YearMonth de, YearMonth ate, String cidade) {
+        Periodo periodo = Periodo.de(de, ate);
+        return relatorio(periodo, RelatorioVendasRepository.VISAO_LOCALIZACAO,
+                relatorioRepository.findPorLocalizacao(periodo.de(), periodo.ate(),
+                        StringUtils.hasText(cidade) ? cidade.trim() : null));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RelatorioVendasDTO vendasPorTipo(YearMonth de, YearMonth ate) {
+        Periodo periodo = Periodo.de(de, ate);
+        return relatorio(periodo, RelatorioVendasRepository.VISAO_TIPO,
+                relatorioRepository.findPorTipo(periodo.de(), periodo.ate()));
+    }
+
+    private RelatorioVendasDTO relatorio(Periodo periodo, String visao, List<IndicadoresVendasDTO> linhas) {
+        RelatorioVendasDTO relatorio = new RelatorioVendasDTO();
+        relatorio.setDe(periodo.de());
+        relatorio.setAte(periodo.ate());
+        relatorio.setAtualizadoEm(relatorioRepository.findDataAtualizacao(visao).orElse(null));
+        relatorio.setLinhas(linhas);
+        return relatorio;
+    }
+
+    private record Periodo(YearMonth de, YearMonth ate) {
+
+        static Periodo de(YearMonth de, YearMonth ate) {
+            YearMonth fim = ate != null ? ate : YearMonth.now();
+            YearMonth inicio = de != null ? de : fim.minusMonths(MESES_PADRAO - 1);
+            if (inicio.isAfter(fim)) {
+                throw new IllegalArgumentException("O mês inicial deve ser anterior ou igual ao mês final.");
+            }
+            if (ChronoUnit.MONTHS.between(inicio, fim) >= MAXIMO_MESES) {
+                throw new IllegalArgumentException("O período aceita no máximo " + MAXIMO_MESES + " meses.");
+            }
+            return new Periodo(inicio, fim);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.OutboxProperties;
+import com.imobiliaria.crm.model.EventoOutbox;
+import com.imobiliaria.crm.repository.EventoOutboxRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publica no Kafka os eventos gravados no outbox, em lotes e em ordem de id.
+ * A chave da mensagem é o id do agregado, então os eventos de um mesmo agregado caem na mesma
+ * partição e chegam aos consumidores na ordem em que foram gravados. Um lock consultivo do
+ * PostgreSQL garante um único relay ativo entre as instâncias da aplicação.
+ * A entrega é "pelo menos uma vez": se a aplicação cair entre a confirmação do broker e o commit,
+ * o lote é reenviado; os consumidores devem descartar repetições pelo cabeçalho {@value #CABECALHO_ID}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "crm.outbox", name = "relay-habilitado", havingValue = "true", matchIfMissing = true)
+public class RelayOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(RelayOutbox.class);
+
+    static final String CABECALHO_ID = "evento-id";
+    static final String CABECALHO_TIPO = "evento-tipo";
+
+    // Chave do pg_try_advisory_xact_lock compartilhada pelas instâncias
+    private static final long CHAVE_LOCK_RELAY = 0x4F5554424F58L;
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public RelayOutbox(EventoOutboxRepository eventoOutboxRepository,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       OutboxProperties properties,
+                       PlatformTransactionManager transactionManager) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Esvazia o outbox lote a lote; um lote incompleto indica que não há mais pendências
+    @Scheduled(fixedDelayString = "${crm.outbox.intervalo:PT1S}")
+    public void publicarPendentes() {
+        try {
+            int publicados;
+            do {
+                publicados = publicarLote();
+            } while (publicados == properties.getTamanhoLote());
+        } catch (RuntimeException e) {
+            // O lote continua no outbox e é reenviado na próxima varredura
+            log.warn("Falha ao publicar eventos do outbox: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lê, publica e remove um lote na mesma transação: as linhas só saem do outbox
+     * depois que o broker confirmou todas as mensagens do lote.
+     * @return Quantidade de eventos publicados (0 se outra instância detém o lock).
+     */
+    int publicarLote() {
+        Integer publicados = transactionTemplate.execute(status -> {
+            if (!eventoOutboxRepository.obterLockRelay(CHAVE_LOCK_RELAY)) {
+                return 0;
+            }
+            List<EventoOutbox> lote = eventoOutboxRepository.findLote(PageRequest.of(0, properties.getTamanhoLote()));
+            if (lote.isEmpty()) {
+                return 0;
+            }
+            List<CompletableFuture<SendResult<String, String>>> envios = lote.stream()
+                    .map(this::enviar)
+                    .toList();
+            aguardarConfirmacoes(envios);
+            eventoOutboxRepository.deleteAllByIdInBatch(lote.stream().map(EventoOutbox::getId).toList());
+            return lote.size();
+        });
+        return publicados != null ? publicados : 0;
+    }
+
+    private CompletableFuture<SendResult<String, String>> enviar(EventoOutbox evento) {
+        ProducerRecord<String, String> registro = new ProducerRecord<>(
+                properties.getPrefixoTopico() + evento.getAgregadoTipo().getTopico(),
+                evento.getAgregadoId().toString(),
+                evento.getPayload());
+        registro.headers()
+                .add(CABECALHO_ID, evento.getId().toString().getBytes(StandardCharsets.UTF_8))
+                .add(CABECALHO_TIPO, evento.getTipo().getBytes(StandardCharsets.UTF_8));
+        return kafkaTemplate.send(registro);
+    }
+
+    private void aguardarConfirmacoes(List<CompletableFuture<SendResult<String, String>>> envios) {
+        try {
+            CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new))
+                    .get(properties.getTimeoutEnvio().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Publicação do outbox interrompida.", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Broker não confirmou o lote do outbox.", e);
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.imobiliaria.crm.service;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.imobiliaria.crm.config.PortaisProperties;
+import com.imobiliaria.crm.dto.ImovelDTO;
+import com.imobiliaria.crm.dto.RespostaPortalDTO;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.model.PortalIntegracao;
+import com.imobiliaria.crm.model.StatusPublicacaoPortal;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import com.imobiliaria.crm.repository.PortalIntegracaoRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Envia aos portais os imóveis publicados, de forma incremental: a cada ciclo são calculadas as
+ * pendências de cada portal (imóveis novos, alterados depois do último envio pela data_atualizacao,
+ * com falha no envio anterior ou despublicados) e apenas elas são enviadas, em lotes. Falhas são
+ * reenviadas com espera exponencial, até {@code crm.portais.maximo-tentativas}.
+ * Cada lote vira uma requisição cujo corpo XML é escrito diretamente no corpo da requisição,
+ * sem ser montado em memória. Cada portal tem um pool de workers próprio, com fila limitada e
+ * limite de requisições por segundo, e o resultado de cada imóvel é gravado em portais_integracao.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "crm.portais", name = "sincronizacao-habilitada", havingValue = "true", matchIfMissing = true)
+public class SincronizacaoPortais {
+
+    static final String CAMINHO_ANUNCIOS = "/anuncios";
+    static final String CAMINHO_REMOCOES = "/anuncios/remocoes";
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    public record ResultadoSincronizacao(int publicados, int removidos, int falhas) {
+
+        static final ResultadoSincronizacao VAZIO = new ResultadoSincronizacao(0, 0, 0);
+
+        ResultadoSincronizacao somar(ResultadoSincronizacao outro) {
+            return new ResultadoSincronizacao(publicados + outro.publicados,
+                    removidos + outro.removidos, falhas + outro.falhas);
+        }
+    }
+
+    private final ImovelRepository imovelRepository;
+    private final PortalIntegracaoRepository portalIntegracaoRepository;
+    private final PortaisProperties properties;
+    private final TransactionTemplate transacao;
+    private final TransactionTemplate transacaoLeitura;
+    private final XmlMapper xmlMapper;
+    private final HttpClient httpClient;
+    private final RestClient restClient;
+    private final Map<String, FilaPortal> portais = new LinkedHashMap<>();
+    // Uma thread por portal calcula as pendências e alimenta o pool do portal; um portal lento
+    // não atrasa a sincronização dos demais
+    private final ExecutorService coordenacao;
+
+    public SincronizacaoPortais(ImovelRepository imovelRepository,
+                                PortalIntegracaoRepository portalIntegracaoRepository,
+                                PortaisProperties properties,
+                                PlatformTransactionManager transactionManager,
+                                Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.imovelRepository = imovelRepository;
+        this.portalIntegracaoRepository = portalIntegracaoRepository;
+        this.properties = properties;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.xmlMapper = objectMapperBuilder.createXmlMapper(true).build();
+
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getTimeoutConexao())
+                .build();
+        JdkClientHttpRequestFactory fabrica = new JdkClientHttpRequestFactory(httpClient);
+        fabrica.setReadTimeout(properties.getTimeoutResposta());
+        this.restClient = RestClient.builder().requestFactory(fabrica).build();
+
+        properties.getDestinos().forEach((nome, destino) -> {
+            if (destino.isHabilitado()) {
+                portais.put(nome, new FilaPortal(nome, destino));
+            }
+        });
+        this.coordenacao = Executors.newFixedThreadPool(Math.max(1, portais.size()),
+                new CustomizableThreadFactory("portais-"));
+    }
+
+    @Scheduled(fixedDelayString = "${crm.portais.intervalo:PT5M}")
+    public void sincronizarPortais() {
+        for (FilaPortal portal : portais.values()) {
+            if (portal.emExecucao.get()) {
+                continue;
+            }
+            coordenacao.execute(() -> {
+                try {
+                    ResultadoSincronizacao resultado = sincronizar(portal);
+                    if (!resultado.equals(ResultadoSincronizacao.VAZIO)) {
+                        log.info("Portal {} sincronizado: {}", portal.nome, resultado);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao sincronizar o portal {}: {}", portal.nome, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Executa um ciclo completo de sincronização do portal e aguarda o envio de todos os lotes.
+     * @param nome O nome do portal em {@code crm.portais.destinos}.
+     * @return Quantidade de imóveis publicados, removidos e com falha no envio.
+     */
+    public ResultadoSincronizacao sincronizar(String nome) {
+        FilaPortal portal = portais.get(nome);
+        if (portal == null) {
+            throw new IllegalArgumentException("Portal não configurado ou desabilitado: " + nome);
+        }
+        return sincronizar(portal);
+    }
+
+    private ResultadoSincronizacao sincronizar(FilaPortal portal) {
+        if (!portal.emExecucao.compareAndSet(false, true)) {
+            throw new IllegalStateException("A sincronização do portal " + portal.nome + " já está em andamento.");
+        }
+        try {
+            // Um ciclo só termina depois de todos os seus lotes; assim o próximo não reenvia
+            // imóveis que ainda estão em uma requisição
+            List<CompletableFuture<ResultadoSincronizacao>> envios = new ArrayList<>();
+            agendarPublicacoes(portal, envios);
+            agendarRemocoes(portal, envios);
+            return envios.stream()
+                    .map(CompletableFuture::join)
+                    .reduce(ResultadoSincronizacao.VAZIO, ResultadoSincronizacao::somar);
+        } finally {
+            portal.emExecucao.set(false);
+        }
+    }
+
+    private void agendarPublicacoes(FilaPortal portal, List<CompletableFuture<ResultadoSincronizacao>> envios) {
+        int tamanhoLote = properties.getTamanhoLote();
+        Long aposId = 0L;
+        List<Long> ids;
+        do {
+            Long cursor = aposId;
+            ids = transacaoLeitura.execute(status -> portalIntegracaoRepository.findPendentesPublicacao(
+                    portal.nome, cursor, LocalDateTime.now(), properties.getMaximoTentativas(),
+                    PageRequest.of(0, tamanhoLote)));
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+            List<Long> lote = ids;
+            envios.add(enviar(portal, lote.size(), () -> publicarLote(portal, lote)));
+            aposId = ids.get(ids.size() - 1);
+        } while (ids.size() == tamanhoLote);
+    }
+
+    private void agendarRemocoes(FilaPortal portal, List<CompletableFuture<ResultadoSincronizacao>> envios) {
+        int tamanhoLote = properties.getTamanhoLote();
+        Long aposId = 0L;
+        List<PortalIntegracao> anuncios;
+        do {
+            Long cursor = aposId;
+            anuncios = transacaoLeitura.execute(status -> portalIntegracaoRepository.findPendentesRemocao(
+                    portal.nome, cursor, LocalDateTime.now(), properties.getMaximoTentativas(),
+                    PageRequest.of(0, tamanhoLote)));
+            if (anuncios == null || anuncios.isEmpty()) {
+                return;
+            }
+            List<PortalIntegracao> lote = anuncios;
+            envios.add(enviar(portal, lote.size(), () -> removerLote(portal, lote)));
+            aposId = anuncios.get(anuncios.size() - 1).getId();
+        } while (anuncios.size() == tamanhoLote);
+    }
+
+    /**
+     * Entrega o lote ao pool do portal. Com os workers ocupados e a fila cheia, a thread de
+     * coordenação espera uma vaga em vez de carregar mais lotes em memória.
+     */
+    private CompletableFuture<ResultadoSincronizacao> enviar(FilaPortal portal, int tamanho,
+                                                             Supplier<ResultadoSincronizacao> tarefa) {
+        try {
+            portal.vagas.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sincronização do portal " + portal.nome + " interrompida.", e);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                portal.limitador.aguardar();
+                return tarefa.get();
+            } catch (InterruptedException e) {
+                // Nada foi enviado; as pendências continuam e são calculadas de novo no próximo ciclo
+                Thread.currentThread().interrupt();
+                return ResultadoSincronizacao.VAZIO;
+            } catch (RuntimeException e) {
+                log.warn("Falha ao registrar lote do portal {}: {}", portal.nome, e.getMessage());
+                return new ResultadoSincronizacao(0, 0, tamanho);
+            } finally {
+                portal.vagas.release();
+            }
+        }, portal.workers);
+    }
+
+    private ResultadoSincronizacao publicarLote(FilaPortal portal, List<Long> ids) {
+        List<ImovelDTO> imoveis = transacaoLeitura.execute(status -> imovelRepository.findListagemByIdIn(ids).stream()
+                // Despublicado depois do cálculo das pendências: fica para a remoção do próximo ciclo
+                .filter(Imovel::isPublicado)
+                .sorted(Comparator.comparing(Imovel::getId))
+                .map(ImovelDTO::fromEntity)
+                .toList());
+        if (imoveis == null || imoveis.isEmpty()) {
+            return ResultadoSincronizacao.VAZIO;
+        }
+        try {
+            RespostaPortalDTO resposta = restClient.post()
+                    .uri(portal.url + CAMINHO_ANUNCIOS)
+                    .contentType(MediaType.APPLICATION_XML)
+                    .accept(MediaType.APPLICATION_XML)
+                    .body(saida -> escreverAnuncios(imoveis, saida))
+                    .retrieve()
+                    .body(RespostaPortalDTO.class);
+            transacao.executeWithoutResult(status -> registrarPublicacao(portal.nome, imoveis, resposta));
+            return new ResultadoSincronizacao(imoveis.size(), 0, 0);
+        } catch (RestClientException e) {
+            log.warn("Portal {} recusou a publicação de {} imóveis: {}", portal.nome, imoveis.size(), e.getMessage());
+            transacao.executeWithoutResult(status -> registrarFalhaPublicacao(portal.nome, imoveis, mensagemErro(e)));
+            return new ResultadoSincronizacao(0, 0, imoveis.size());
+        }
+    }
+
+    private ResultadoSincronizacao removerLote(FilaPortal portal, List<PortalIntegracao> anuncios) {
+        List<Long> ids = anuncios.stream().map(PortalIntegracao::getId).toList();
+        try {
+            restClient.post()
+                    .uri(portal.url + CAMINHO_REMOCOES)
+                    .contentType(MediaType.APPLICATION_XML)
+                    .body(saida -> escreverRemocoes(anuncios, saida))
+                    .retrieve()
+                    .toBodilessEntity();
+            transacao.executeWithoutResult(status -> registrarRemocao(ids));
+            return new ResultadoSincronizacao(0, anuncios.size(), 0);
+        } catch (RestClientException e) {
+            log.warn("Portal {} recusou a remoção de {} anúncios: {}", portal.nome, anuncios.size(), e.getMessage());
+            transacao.executeWithoutResult(status -> registrarFalhaRemocao(ids, mensagemErro(e)));
+            return new ResultadoSincronizacao(0, 0, anuncios.size());
+        }
+    }
+
+    // --- Feeds: o gerador escreve direto no corpo da requisição, que segue em chunks ---
+
+    private void escreverAnuncios(List<ImovelDTO> imoveis, OutputStream saida) throws IOException {
+        try (ToXmlGenerator gerador = xmlMapper.getFactory().createGenerator(StreamUtils.nonClosing(saida))) {
+            gerador.setNextName(new QName("anuncios"));
+            gerador.writeStartObject();
+            for (ImovelDTO imovel : imoveis) {
+                gerador.writeFieldName("imovel");
+                xmlMapper.writeValue(gerador, imovel);
+            }
+            gerador.writeEndObject();
+        }
+    }
+
+    private void escreverRemocoes(List<PortalIntegracao> anuncios, OutputStream saida) throws IOException {
+        try (ToXmlGenerator gerador = xmlMapper.getFactory().createGenerator(StreamUtils.nonClosing(saida))) {
+            gerador.setNextName(new QName("remocoes"));
+            gerador.writeStartObject();
+            for (PortalIntegracao anuncio : anuncios) {
+                gerador.writeObjectFieldStart("anuncio");
+                gerador.writeStringField("codigo", anuncio.getCodigoImovel());
+                if (anuncio.getCodigoPortal() != null) {
+                    gerador.writeStringField("codigoPortal", anuncio.getCodigoPortal());
+                }
+                gerador.writeEndObject();
+            }
+            gerador.writeEndObject();
+        }
+    }
+
+    // --- Registro do resultado em portais_integracao ---
+
+    private void registrarPublicacao(String portal, List<ImovelDTO> imoveis, RespostaPortalDTO resposta) {
+        Map<String, RespostaPortalDTO.Anuncio> confirmados = resposta == null ? Map.of()
+                : resposta.getAnuncios().stream()
+                .filter(anuncio -> anuncio.getCodigo() != null)
+                .collect(Collectors.toMap(RespostaPortalDTO.Anuncio::getCodigo, Function.identity(), (a, b) -> b));
+        Map<Long, PortalIntegracao> linhas = buscarLinhas(portal, imoveis);
+        LocalDateTime agora = LocalDateTime.now();
+        for (ImovelDTO imovel : imoveis) {
+            PortalIntegracao linha = linhas.get(imovel.getId());
+            linha.setStatus(StatusPublicacaoPortal.ATIVO);
+            linha.setDataPublicacao(agora);
+            linha.setDataAtualizacaoPublicada(imovel.getDataAtualizacao());
+            linha.setDataSincronizacao(agora);
+            linha.setTentativas(0);
+            linha.setProximaTentativa(null);
+            linha.setUltimoErro(null);
+            RespostaPortalDTO.Anuncio confirmado = confirmados.get(imovel.getCodigo());
+            if (confirmado != null) {
+                linha.setCodigoPortal(confirmado.getCodigoPortal());
+                linha.setUrlAnuncio(confirmado.getUrl());
+            }
+        }
+        portalIntegracaoRepository.saveAll(linhas.values());
+    }
+
+    private void registrarFalhaPublicacao(String portal, List<ImovelDTO> imoveis, String erro) {
+        Map<Long, PortalIntegracao> linhas = buscarLinhas(portal, imoveis);
+        LocalDateTime agora = LocalDateTime.now();
+        for (PortalIntegracao linha : linhas.values()) {
+            registrarFalha(linha, erro, agora);
+        }
+        portalIntegracaoRepository.saveAll(linhas.values());
+    }
+
+    private void registrarRemocao(List<Long> ids) {
+        LocalDateTime agora = LocalDateTime.now();
+        for (PortalIntegracao linha : portalIntegracaoRepository.findAllById(ids)) {
+            if (linha.getImovelId() == null) {
+                // Imóvel excluído: não há mais o que acompanhar neste portal
+                portalIntegracaoRepository.delete(linha);
+                continue;
+            }
+            linha.setStatus(StatusPublicacaoPortal.REMOVIDO);
+            linha.setDataSincronizacao(agora);
+            linha.setTentativas(0);
+            linha.setProximaTentativa(null);
+            linha.setUltimoErro(null);
+        }
+    }
+
+    private void registrarFalhaRemocao(List<Long> ids, String erro) {
+        LocalDateTime agora = LocalDateTime.now();
+        for (PortalIntegracao linha : portalIntegracaoRepository.findAllById(ids)) {
+            registrarFalha(linha, erro, agora);
+        }
+    }
+
+    // Espera exponencial: esperaInicialFalha, o dobro a cada nova falha, limitada à esperaMaximaFalha.
+    // Esgotadas as tentativas a linha fica estacionada em ERRO, sem próxima tentativa
+    private void registrarFalha(PortalIntegracao linha, String erro, LocalDateTime agora) {
+        int tentativas = linha.getTentativas() + 1;
+        linha.setStatus(StatusPublicacaoPortal.ERRO);
+        linha.setDataSincronizacao(agora);
+        linha.setTentativas(tentativas);
+        linha.setUltimoErro(erro);
+        if (tentativas >= properties.getMaximoTentativas()) {
+            linha.setProximaTentativa(null);
+            log.warn("Imóvel {} não foi aceito pelo portal {} após {} tentativas; reenviado só quando for alterado: {}",
+                    linha.getCodigoImovel(), linha.getPortalNome(), tentativas, erro);
+            return;
+        }
+        linha.setProximaTentativa(agora.plus(esperaAposFalhas(tentativas)));
+    }
+
+    Duration esperaAposFalhas(int tentativas) {
+        Duration maxima = properties.getEsperaMaximaFalha();
+        // Limita o deslocamento para não estourar o long; a espera máxima é atingida muito antes
+        Duration espera = properties.getEsperaInicialFalha().multipliedBy(1L << Math.min(tentativas - 1, 30));
+        return espera.compareTo(maxima) > 0 ? maxima : espera;
+    }
+
+    // Linhas existentes do lote, completadas com novas para os imóveis ainda não enviados ao portal
+    private Map<Long, PortalIntegracao> buscarLinhas(String portal, List<ImovelDTO> imoveis) {
+        Map<Long, PortalIntegracao> linhas = portalIntegracaoRepository
+                .findByPortalNomeAndImovelIdIn(portal, imoveis.stream().map(ImovelDTO::getId).toList()).stream()
+                .collect(Collectors.toMap(PortalIntegracao::getImovelId, Function.identity()));
+        for (ImovelDTO imovel : imoveis) {
+            PortalIntegracao linha = linhas.computeIfAbsent(imovel.getId(), id -> {
+                PortalIntegracao nova = new PortalIntegracao();
+                nova.setImovelId(id);
+                nova.setPortalNome(portal);
+                return nova;
+            });
+            linha.setCodigoImovel(imovel.getCodigo());
+        }
+        return linhas;
+    }
+
+    private static String mensagemErro(RestClientException e) {
+        String mensagem = Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName());
+        return mensagem.length() > TAMANHO_MAXIMO_ERRO ? mensagem.substring(0, TAMANHO_MAXIMO_ERRO) : mensagem;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        coordenacao.shutdownNow();
+        portais.values().forEach(portal -> portal.workers.shutdownNow());
+        httpClient.shutdownNow();
+    }
+
+    /**
+     * Pool de workers de um portal. As vagas somam threads e fila, então a submissão nunca é recusada:
+     * quem espera é a thread de coordenação.
+     */
+    private static final class FilaPortal {
+        private final String nome;
+        private final String url;
+        private final ThreadPoolExecutor workers;
+        private final Semaphore vagas;
+        private final LimitadorTaxa limitador;
+        private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+        private FilaPortal(String nome, PortaisProperties.Destino destino) {
+            if (destino.getUrl() == null || destino.getUrl().isBlank()) {
+                throw new IllegalArgumentException("URL não configurada para o portal " + nome);
+            }
+            this.nome = nome;
+            this.url = destino.getUrl().endsWith("/")
+                    ? destino.getUrl().substring(0, destino.getUrl().length() - 1)
+                    : destino.getUrl();
+            this.workers = new ThreadPoolExecutor(destino.getThreads(), destino.getThreads(),
+                    0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(destino.getCapacidadeFila()),
+                    new CustomizableThreadFactory("portal-" + nome + "-"));
+            this.vagas = new Semaphore(destino.getThreads() + destino.getCapacidadeFila());
+            this.limitador = new LimitadorTaxa(destino.getRequisicoesPorSegundo());
+        }
+    }
+}
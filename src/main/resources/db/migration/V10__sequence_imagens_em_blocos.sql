@@ -0,0 +1,4 @@
+-- Ids de imagens reservados em blocos de 50 (allocationSize = 50 em Imagem), como em V6 e V8,
+-- para que o cadastro de galerias em lote grave os INSERTs em batches JDBC.
+-- A listagem ordenada da galeria (imovel_id, ordem) já é atendida por idx_imagens_imovel_ordem (V3).
+ALTER SEQUENCE imagens_id_seq INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- Controle de concorrência otimista em imoveis (@Version em Imovel).
+-- Cada UPDATE do Hibernate inclui "WHERE versao = ?" e incrementa a coluna; a versão também é a ETag
+-- forte do detalhe do imóvel, usada pelos clientes em If-Match no PUT.
+ALTER TABLE imoveis
+    ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Outbox transacional: eventos de alteração gravados na mesma transação que os dados e
+-- publicados no Kafka pelo RelayOutbox. As linhas são removidas depois de confirmadas pelo broker.
+-- O id vem da sequence no momento do INSERT (sem reserva em blocos): os eventos são gravados
+-- pouco antes do commit, depois do lock na linha do agregado, e a ordem do id segue a ordem
+-- das alterações de um mesmo agregado.
+CREATE TABLE outbox_eventos (
+    id            BIGSERIAL PRIMARY KEY,
+    agregado_tipo VARCHAR(20) NOT NULL,
+    agregado_id   BIGINT      NOT NULL,
+    tipo          VARCHAR(50) NOT NULL,
+    payload       TEXT        NOT NULL,
+    data_criacao  TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
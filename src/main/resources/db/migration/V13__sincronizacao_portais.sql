@@ -0,0 +1,29 @@
+-- Sincronização incremental com os portais (SincronizacaoPortais): uma linha por imóvel e portal.
+-- data_atualizacao_publicada guarda a data_atualizacao do imóvel enviada na última publicação;
+-- o imóvel volta a ser enviado quando a data atual for maior ou quando a linha não estiver ATIVO.
+ALTER TABLE portais_integracao
+    ADD COLUMN codigo_imovel              VARCHAR(50),
+    ADD COLUMN data_atualizacao_publicada TIMESTAMP,
+    ADD COLUMN data_sincronizacao         TIMESTAMP,
+    ADD COLUMN tentativas                 INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN ultimo_erro                VARCHAR(500);
+
+UPDATE portais_integracao pi
+SET codigo_imovel = i.codigo
+FROM imoveis i
+WHERE i.id = pi.imovel_id;
+
+-- Excluir um imóvel anunciado não pode ser impedido pela integração: a linha fica sem imóvel
+-- (com o código preservado) até que a remoção do anúncio seja confirmada pelo portal
+ALTER TABLE portais_integracao
+    ALTER COLUMN imovel_id DROP NOT NULL,
+    DROP CONSTRAINT portais_integracao_imovel_id_fkey,
+    ADD CONSTRAINT fk_portais_integracao_imovel
+        FOREIGN KEY (imovel_id) REFERENCES imoveis (id) ON DELETE SET NULL;
+
+-- Anti-join do cálculo de pendências (imóvel x portal) e upsert do resultado de cada lote
+CREATE UNIQUE INDEX uk_portais_integracao_imovel_portal ON portais_integracao (imovel_id, portal_nome);
+
+-- Remoções pendentes: anúncios não removidos cujo imóvel foi excluído ou despublicado
+CREATE INDEX idx_portais_integracao_portal_nao_removidos ON portais_integracao (portal_nome, id)
+    WHERE status <> 'REMOVIDO';
@@ -0,0 +1,35 @@
+-- Buscas salvas dos clientes, avaliadas contra cada imóvel criado ou alterado (IndiceBuscasSalvas).
+-- Critérios nulos não restringem; o imóvel precisa ter todas as características da busca.
+CREATE TABLE buscas_salvas (
+    id            BIGSERIAL PRIMARY KEY,
+    cliente_id    INTEGER      NOT NULL REFERENCES clientes (id) ON DELETE CASCADE,
+    nome          VARCHAR(100),
+    tipo          VARCHAR(50),
+    finalidade    VARCHAR(20),
+    preco_min     DECIMAL(15, 2),
+    preco_max     DECIMAL(15, 2),
+    quartos_min   INTEGER,
+    cidade        VARCHAR(100),
+    bairro        VARCHAR(100),
+    ativa         BOOLEAN      NOT NULL DEFAULT TRUE,
+    data_cadastro TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_buscas_salvas_cliente ON buscas_salvas (cliente_id);
+
+CREATE TABLE buscas_salvas_caracteristicas (
+    busca_id          BIGINT NOT NULL REFERENCES buscas_salvas (id) ON DELETE CASCADE,
+    caracteristica_id BIGINT NOT NULL REFERENCES caracteristicas (id) ON DELETE CASCADE,
+    PRIMARY KEY (busca_id, caracteristica_id)
+);
+
+-- Um alerta por busca e imóvel: alterações seguintes de um imóvel já avisado não geram novo alerta
+CREATE TABLE buscas_salvas_alertas (
+    id          BIGSERIAL PRIMARY KEY,
+    busca_id    BIGINT    NOT NULL REFERENCES buscas_salvas (id) ON DELETE CASCADE,
+    imovel_id   INTEGER   NOT NULL REFERENCES imoveis (id) ON DELETE CASCADE,
+    data_alerta TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_buscas_salvas_alertas_busca_imovel UNIQUE (busca_id, imovel_id)
+);
+
+CREATE INDEX idx_buscas_salvas_alertas_imovel ON buscas_salvas_alertas (imovel_id);
@@ -0,0 +1,40 @@
+-- interacoes passa a ser particionada por mês em data_interacao: as consultas de linha do tempo
+-- leem só as partições do período e a retenção descarta meses inteiros com DROP TABLE, sem DELETE.
+-- As partições futuras são criadas pelo ParticoesInteracoes; aqui são criadas as dos 12 meses
+-- anteriores até 3 meses à frente (e as que os dados existentes exigirem).
+ALTER TABLE interacoes RENAME TO interacoes_legado;
+
+-- Em tabela particionada a chave primária precisa incluir a coluna de particionamento
+CREATE TABLE interacoes (
+    id             BIGINT      NOT NULL DEFAULT nextval('interacoes_id_seq'),
+    cliente_id     INTEGER     NOT NULL REFERENCES clientes (id),
+    corretor_id    INTEGER     NOT NULL REFERENCES corretores (id),
+    imovel_id      INTEGER     REFERENCES imoveis (id),
+    tipo           VARCHAR(50) NOT NULL,
+    data_interacao TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    observacoes    TEXT,
+    CONSTRAINT pk_interacoes PRIMARY KEY (id, data_interacao)
+) PARTITION BY RANGE (data_interacao);
+
+DO $$
+DECLARE
+    mes DATE := LEAST(date_trunc('month', CURRENT_DATE - INTERVAL '12 months'),
+                      COALESCE((SELECT date_trunc('month', MIN(data_interacao)) FROM interacoes_legado),
+                               CURRENT_DATE))::date;
+    fim DATE := GREATEST(date_trunc('month', CURRENT_DATE) + INTERVAL '4 months',
+                         COALESCE((SELECT date_trunc('month', MAX(data_interacao)) + INTERVAL '1 month'
+                                   FROM interacoes_legado), CURRENT_DATE))::date;
+BEGIN
+    WHILE mes < fim LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF interacoes FOR VALUES FROM (%L) TO (%L)',
+                       'interacoes_p' || to_char(mes, 'YYYY_MM'), mes, (mes + INTERVAL '1 month')::date);
+        mes := (mes + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO interacoes (id, cliente_id, corretor_id, imovel_id, tipo, data_interacao, observacoes)
+SELECT id, cliente_id, corretor_id, imovel_id, tipo, COALESCE(data_interacao, CURRENT_TIMESTAMP), observacoes
+FROM interacoes_legado;
+
+ALTER SEQUENCE interacoes_id_seq AS BIGINT OWNED BY interacoes.id;
+DROP TABLE interacoes_legado;
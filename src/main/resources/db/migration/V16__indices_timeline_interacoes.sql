@@ -0,0 +1,5 @@
+-- Linhas do tempo por cliente e por corretor (paginação keyset em data_interacao DESC, id DESC).
+-- Criados na tabela particionada, os índices são replicados em cada partição, inclusive nas criadas depois;
+-- com LIMIT, o Merge Append lê de cada partição apenas o início do índice
+CREATE INDEX idx_interacoes_cliente_data ON interacoes (cliente_id, data_interacao DESC, id DESC);
+CREATE INDEX idx_interacoes_corretor_data ON interacoes (corretor_id, data_interacao DESC, id DESC);
@@ -0,0 +1,75 @@
+-- Relatórios de vendas pré-agregados: os painéis leem estas visões em vez de agregar vendas a cada consulta.
+-- Todas são agregadas por mês, para filtrar períodos somando poucas linhas. O prazo de venda
+-- (data_venda - imoveis.data_cadastro) é guardado como soma e contagem, para que a média de
+-- vários meses seja exata. Cidade, bairro e tipo são os atuais do imóvel.
+-- Atualizadas pelo AtualizacaoRelatoriosVendas com REFRESH ... CONCURRENTLY, que exige um índice único
+-- e não bloqueia as leituras.
+
+CREATE MATERIALIZED VIEW mv_vendas_mensal AS
+SELECT date_trunc('month', v.data_venda)::date AS mes,
+       COUNT(*) AS quantidade,
+       SUM(v.valor_venda) AS receita,
+       COALESCE(SUM(EXTRACT(EPOCH FROM (v.data_venda - i.data_cadastro)) / 86400), 0) AS soma_dias_venda,
+       COUNT(i.data_cadastro) AS vendas_com_prazo
+FROM vendas v
+JOIN imoveis i ON i.id = v.imovel_id
+WHERE v.data_venda IS NOT NULL
+GROUP BY 1;
+
+CREATE UNIQUE INDEX uk_mv_vendas_mensal ON mv_vendas_mensal (mes);
+
+CREATE MATERIALIZED VIEW mv_vendas_corretor AS
+SELECT date_trunc('month', v.data_venda)::date AS mes,
+       v.corretor_id,
+       COUNT(*) AS quantidade,
+       SUM(v.valor_venda) AS receita,
+       COALESCE(SUM(EXTRACT(EPOCH FROM (v.data_venda - i.data_cadastro)) / 86400), 0) AS soma_dias_venda,
+       COUNT(i.data_cadastro) AS vendas_com_prazo
+FROM vendas v
+JOIN imoveis i ON i.id = v.imovel_id
+WHERE v.data_venda IS NOT NULL
+GROUP BY 1, 2;
+
+CREATE UNIQUE INDEX uk_mv_vendas_corretor ON mv_vendas_corretor (mes, corretor_id);
+
+-- Bairro vazio no lugar de nulo: o índice único trata nulos como distintos
+CREATE MATERIALIZED VIEW mv_vendas_localizacao AS
+SELECT date_trunc('month', v.data_venda)::date AS mes,
+       i.cidade,
+       COALESCE(i.bairro, '') AS bairro,
+       COUNT(*) AS quantidade,
+       SUM(v.valor_venda) AS receita,
+       COALESCE(SUM(EXTRACT(EPOCH FROM (v.data_venda - i.data_cadastro)) / 86400), 0) AS soma_dias_venda,
+       COUNT(i.data_cadastro) AS vendas_com_prazo
+FROM vendas v
+JOIN imoveis i ON i.id = v.imovel_id
+WHERE v.data_venda IS NOT NULL
+GROUP BY 1, 2, 3;
+
+CREATE UNIQUE INDEX uk_mv_vendas_localizacao ON mv_vendas_localizacao (mes, cidade, bairro);
+
+CREATE MATERIALIZED VIEW mv_vendas_tipo AS
+SELECT date_trunc('month', v.data_venda)::date AS mes,
+       i.tipo,
+       COUNT(*) AS quantidade,
+       SUM(v.valor_venda) AS receita,
+       COALESCE(SUM(EXTRACT(EPOCH FROM (v.data_venda - i.data_cadastro)) / 86400), 0) AS soma_dias_venda,
+       COUNT(i.data_cadastro) AS vendas_com_prazo
+FROM vendas v
+JOIN imoveis i ON i.id = v.imovel_id
+WHERE v.data_venda IS NOT NULL
+GROUP BY 1, 2;
+
+CREATE UNIQUE INDEX uk_mv_vendas_tipo ON mv_vendas_tipo (mes, tipo);
+
+-- Momento da última atualização de cada visão, informado nas respostas da API
+CREATE TABLE relatorios_atualizacoes (
+    visao            VARCHAR(63) PRIMARY KEY,
+    data_atualizacao TIMESTAMP   NOT NULL
+);
+
+INSERT INTO relatorios_atualizacoes (visao, data_atualizacao)
+VALUES ('mv_vendas_mensal', CURRENT_TIMESTAMP),
+       ('mv_vendas_corretor', CURRENT_TIMESTAMP),
+       ('mv_vendas_localizacao', CURRENT_TIMESTAMP),
+       ('mv_vendas_tipo', CURRENT_TIMESTAMP);
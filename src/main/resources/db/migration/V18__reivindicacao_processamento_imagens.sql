@@ -0,0 +1,6 @@
+-- Momento em que um worker reservou a imagem (PROCESSANDO). Uma reserva mais antiga que o atraso de
+-- reprocessamento é de um worker que morreu (reinicialização, OutOfMemoryError) e pode ser retomada.
+-- Imagens já PROCESSANDO antes desta migração ficam com o campo nulo e são retomadas na próxima varredura.
+ALTER TABLE imagens ADD COLUMN inicio_processamento TIMESTAMP;
+
+CREATE INDEX idx_imagens_processando ON imagens (inicio_processamento) WHERE status_processamento = 'PROCESSANDO';
@@ -0,0 +1,3 @@
+-- O complemento do endereço (Endereco.complemento) é mapeado pela entidade, mas nunca foi criado
+-- pelas migrações: qualquer INSERT em imoveis falhava num banco criado só pelo Flyway.
+ALTER TABLE imoveis ADD COLUMN IF NOT EXISTS complemento VARCHAR(50);
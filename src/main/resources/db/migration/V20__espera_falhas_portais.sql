@@ -0,0 +1,4 @@
+-- Espera exponencial entre as tentativas de envio aos portais (SincronizacaoPortais): uma linha em ERRO
+-- só volta às pendências a partir de proxima_tentativa. Esgotadas as tentativas a coluna fica nula e a
+-- linha só é reenviada quando o imóvel for alterado. Linhas em ERRO já existentes são reenviadas no próximo ciclo.
+ALTER TABLE portais_integracao ADD COLUMN proxima_tentativa TIMESTAMP;
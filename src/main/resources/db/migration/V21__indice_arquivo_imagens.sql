@@ -0,0 +1,3 @@
+-- Limpeza dos originais sem uso: verifica, por lotes de hashes, quais ainda são usados por alguma imagem.
+-- Imagens cadastradas por URL não têm arquivo e ficam fora do índice.
+CREATE INDEX idx_imagens_arquivo ON imagens (arquivo) WHERE arquivo IS NOT NULL;
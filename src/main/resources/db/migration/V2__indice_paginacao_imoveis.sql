@@ -0,0 +1,12 @@
+-- Paginação keyset da listagem de imóveis.
+-- A ordenação por data_atualizacao exige uma coluna sem nulos para que o cursor seja estável.
+UPDATE imoveis
+SET data_atualizacao = COALESCE(data_cadastro, CURRENT_TIMESTAMP)
+WHERE data_atualizacao IS NULL;
+
+ALTER TABLE imoveis
+    ALTER COLUMN data_atualizacao SET DEFAULT CURRENT_TIMESTAMP,
+    ALTER COLUMN data_atualizacao SET NOT NULL;
+
+-- Atende ORDER BY data_atualizacao DESC, id DESC e o predicado do cursor
+CREATE INDEX idx_imoveis_data_atualizacao_id ON imoveis (data_atualizacao DESC, id DESC);
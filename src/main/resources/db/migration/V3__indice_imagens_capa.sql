@@ -0,0 +1,2 @@
+-- Localiza a imagem de capa (menor 'ordem') de cada imóvel sem ordenar a galeria inteira
+CREATE INDEX idx_imagens_imovel_ordem ON imagens (imovel_id, ordem, id);
@@ -0,0 +1,14 @@
+-- Índices compostos para as combinações de filtro mais comuns da busca de imóveis.
+-- Colunas de igualdade primeiro, faixa de preço por último.
+
+-- "Venda/aluguel disponível em <cidade> até <preço>"
+CREATE INDEX idx_imoveis_busca_cidade ON imoveis (finalidade, status, cidade, preco);
+
+-- "Venda/aluguel disponível do tipo <tipo> até <preço>"
+CREATE INDEX idx_imoveis_busca_tipo ON imoveis (finalidade, status, tipo, preco);
+
+-- Filtros puramente geográficos (estado -> cidade -> bairro)
+CREATE INDEX idx_imoveis_localizacao ON imoveis (estado, cidade, bairro);
+
+-- A chave primária começa por imovel_id; a busca por características parte de caracteristica_id
+CREATE INDEX idx_imovel_caracteristicas_caracteristica ON imovel_caracteristicas (caracteristica_id, imovel_id);
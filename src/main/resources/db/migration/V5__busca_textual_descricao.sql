@@ -0,0 +1,7 @@
+-- Busca textual em português sobre a descrição dos imóveis.
+-- A coluna gerada é mantida pelo próprio PostgreSQL a cada INSERT/UPDATE e não é mapeada na entidade.
+ALTER TABLE imoveis
+    ADD COLUMN descricao_tsv tsvector
+        GENERATED ALWAYS AS (to_tsvector('portuguese', COALESCE(descricao, ''))) STORED;
+
+CREATE INDEX idx_imoveis_descricao_tsv ON imoveis USING GIN (descricao_tsv);
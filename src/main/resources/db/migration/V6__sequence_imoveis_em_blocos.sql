@@ -0,0 +1,5 @@
+-- O Hibernate passa a reservar ids de imóveis em blocos de 50 (allocationSize = 50 em Imovel),
+-- o que permite INSERTs em batch. Cada nextval reserva o bloco (valor - 49 .. valor).
+-- Atenção: INSERTs manuais que dependam do DEFAULT nextval da coluna podem colidir com
+-- blocos já reservados pela aplicação; grave imóveis sempre pela aplicação.
+ALTER SEQUENCE imoveis_id_seq INCREMENT BY 50;
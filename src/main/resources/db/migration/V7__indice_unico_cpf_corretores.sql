@@ -0,0 +1,4 @@
+-- Unicidade de CPF de corretores garantida pelo banco, fechando a janela entre a
+-- verificação no serviço e o INSERT/UPDATE. O CPF padrão da coluna ('000.000.000-00')
+-- é apenas um marcador de cadastros legados e fica fora do índice.
+CREATE UNIQUE INDEX uk_corretores_cpf ON corretores (cpf) WHERE cpf <> '000.000.000-00';
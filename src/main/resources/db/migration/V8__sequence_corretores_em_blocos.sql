@@ -0,0 +1,3 @@
+-- Ids de corretores reservados em blocos de 50 (allocationSize = 50 em Corretor), como em V6,
+-- para que o cadastro em lote grave os INSERTs em batches JDBC.
+ALTER SEQUENCE corretores_id_seq INCREMENT BY 50;
@@ -0,0 +1,13 @@
+-- Upload de imagens: arquivo original endereçado pelo hash SHA-256 e variantes redimensionadas
+-- (miniatura, card, completa) geradas em segundo plano. Imagens já cadastradas por URL ficam
+-- com os novos campos nulos.
+ALTER TABLE imagens
+    ADD COLUMN arquivo VARCHAR(64),
+    ADD COLUMN status_processamento VARCHAR(20),
+    ADD COLUMN url_miniatura VARCHAR(255),
+    ADD COLUMN url_card VARCHAR(255),
+    ADD COLUMN url_completa VARCHAR(255),
+    ADD COLUMN possui_webp BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Reprocessamento periódico: localiza apenas as imagens ainda pendentes
+CREATE INDEX idx_imagens_pendentes ON imagens (data_upload) WHERE status_processamento = 'PENDENTE';
@@ -0,0 +1,111 @@
+package com.imobiliaria.crm.controller;
+
+import com.imobiliaria.crm.service.IImagemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Entrega das variantes: intervalos (Range/If-Range), validação por ETag e intervalos inválidos ou fora do arquivo.
+ */
+class ArquivoImagemControllerTest {
+
+    private static final String URL = "/imagens/1/variantes/card.jpg";
+    private static final String CONTEUDO = "0123456789";
+    private static final String ETAG = "\"abc123-card.jpg\"";
+
+    @TempDir
+    Path diretorio;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path arquivo = Files.writeString(diretorio.resolve("card.jpg"), CONTEUDO, StandardCharsets.US_ASCII);
+        IImagemService imagemService = mock(IImagemService.class);
+        when(imagemService.buscarArquivoVariante(1L, "card.jpg"))
+                .thenReturn(Optional.of(new IImagemService.ArquivoVariante("abc123", new FileSystemResource(arquivo))));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ArquivoImagemController(imagemService)).build();
+    }
+
+    @Test
+    void semRangeEnviaOArquivoInteiro() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().string(CONTEUDO));
+    }
+
+    @Test
+    void rangeEnviaSoOIntervalo() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+
+        // Sufixo: os últimos bytes
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+                .andExpect(content().string("789"));
+    }
+
+    @Test
+    void ifRangeComOutroEtagEnviaOArquivoInteiro() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"outro-card.jpg\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().string(CONTEUDO));
+    }
+
+    @Test
+    void etagValidoResponde304() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"outro-card.jpg\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rangeInvalidoEIgnoradoEForaDoArquivoResponde416() throws Exception {
+        // Sintaxe inválida: o cabeçalho é ignorado (RFC 9110, 14.2)
+        for (String invalido : new String[]{"bytes=abc", "bytes=5-2", "linhas=0-1"}) {
+            mockMvc.perform(get(URL).header(HttpHeaders.RANGE, invalido))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                    .andExpect(content().string(CONTEUDO));
+        }
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+}
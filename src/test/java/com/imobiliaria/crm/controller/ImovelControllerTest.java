@@ -0,0 +1,129 @@
+package com.imobiliaria.crm.controller;
+
+import com.imobiliaria.crm.dto.FormatoExportacao;
+import com.imobiliaria.crm.dto.ImovelDTO;
+import com.imobiliaria.crm.exception.GlobalExceptionHandler;
+import com.imobiliaria.crm.exception.VersaoDesatualizadaException;
+import com.imobiliaria.crm.service.IExportacaoImovelService;
+import com.imobiliaria.crm.service.IImovelService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Atualização condicional: interpretação da lista do If-Match e respostas 412 para versão desatualizada
+ * ou edição concorrente. Exportação assíncrona com timeout próprio.
+ */
+class ImovelControllerTest {
+
+    private IImovelService imovelService;
+
+    private IExportacaoImovelService exportacaoService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        imovelService = mock(IImovelService.class);
+        ImovelDTO atualizado = new ImovelDTO();
+        atualizado.setId(1L);
+        atualizado.setVersao(6L);
+        atualizado.setDataAtualizacao(LocalDateTime.now());
+        when(imovelService.atualizarParcialmente(eq(1L), any(), any())).thenReturn(atualizado);
+        exportacaoService = mock(IExportacaoImovelService.class);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ImovelController(imovelService, exportacaoService, Duration.ofMinutes(30)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void ifMatchAceitaQualquerETagForteDaLista() throws Exception {
+        mockMvc.perform(patchComIfMatch("\"3\", W/\"4\", \"5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"6\""));
+        verify(imovelService).atualizarParcialmente(eq(1L), any(), eq(Set.of(3L, 5L)));
+    }
+
+    @Test
+    void ifMatchSoComETagsQueNuncaConferemExigeVersaoInexistente() throws Exception {
+        mockMvc.perform(patchComIfMatch("W/\"3\", \"abc\"")).andExpect(status().isOk());
+        verify(imovelService).atualizarParcialmente(eq(1L), any(), eq(Set.of()));
+    }
+
+    @Test
+    void curingaOuAusenciaDoIfMatchNaoCondicionaAAtualizacao() throws Exception {
+        mockMvc.perform(patchComIfMatch("*")).andExpect(status().isOk());
+        mockMvc.perform(patchComIfMatch("\"3\", *")).andExpect(status().isOk());
+        mockMvc.perform(patchComIfMatch(null)).andExpect(status().isOk());
+        verify(imovelService, times(3)).atualizarParcialmente(eq(1L), any(), isNull());
+    }
+
+    @Test
+    void versaoDesatualizadaOuEdicaoConcorrenteResponde412() throws Exception {
+        when(imovelService.atualizarParcialmente(eq(1L), any(), eq(Set.of(3L))))
+                .thenThrow(new VersaoDesatualizadaException("O imóvel foi alterado por outra requisição."));
+        mockMvc.perform(patchComIfMatch("\"3\"")).andExpect(status().isPreconditionFailed());
+
+        when(imovelService.atualizarParcialmente(eq(1L), any(), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Imovel", 1L));
+        mockMvc.perform(patchComIfMatch(null)).andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void exportacaoUsaOProprioTimeoutAssincrono() throws Exception {
+        doAnswer(invocacao -> {
+            invocacao.<OutputStream>getArgument(2).write("codigo\nIMV-1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportacaoService).exportar(eq(FormatoExportacao.CSV), eq(true), any());
+
+        MvcResult resultado = mockMvc.perform(get("/imoveis/exportacao")
+                        .param("formato", "CSV")
+                        .param("apenasPublicados", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // O prazo vale só para esta resposta, não para o spring.mvc.async.request-timeout global
+        assertThat(resultado.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"imoveis.csv\""))
+                .andExpect(content().string("codigo\nIMV-1\n"));
+    }
+
+    private static MockHttpServletRequestBuilder patchComIfMatch(String ifMatch) {
+        MockHttpServletRequestBuilder requisicao = patch("/imoveis/1")
+                .contentType("application/merge-patch+json")
+                .content("{\"preco\": 399000.00}");
+        return ifMatch != null ? requisicao.header(HttpHeaders.IF_MATCH, ifMatch) : requisicao;
+    }
+}
@@ -0,0 +1,78 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.Corretor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que a verificação de unicidade de corretores resolve cpf, e-mail e creci em uma única consulta.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class CorretorRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CorretorRepository corretorRepository;
+
+    private Corretor ana;
+
+    @BeforeEach
+    void setUp() {
+        ana = novoCorretor("Ana", "111.111.111-11", "ana@teste.com", "1111-F");
+        novoCorretor("Bruno", "222.222.222-22", "bruno@teste.com", null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void informaCadaValorJaCadastrado() {
+        List<CorretorRepository.DadosUnicosCorretor> conflitos = corretorRepository.findConflitosUnicidade(
+                "222.222.222-22", "ana@teste.com", "9999-F", null);
+
+        assertThat(conflitos).extracting(CorretorRepository.DadosUnicosCorretor::getCpf)
+                .containsExactlyInAnyOrder("111.111.111-11", "222.222.222-22");
+        assertThat(conflitos).extracting(CorretorRepository.DadosUnicosCorretor::getEmail)
+                .contains("ana@teste.com");
+        assertThat(conflitos).extracting(CorretorRepository.DadosUnicosCorretor::getCreci)
+                .doesNotContain("9999-F");
+    }
+
+    @Test
+    void ignoraOProprioCorretorEValoresNulos() {
+        assertThat(corretorRepository.findConflitosUnicidade(
+                "111.111.111-11", "ana@teste.com", "1111-F", ana.getId())).isEmpty();
+        assertThat(corretorRepository.findConflitosUnicidade(null, null, null, null)).isEmpty();
+    }
+
+    @Test
+    void verificaOLoteInteiroEmUmaConsulta() {
+        List<CorretorRepository.DadosUnicosCorretor> conflitos = corretorRepository.findConflitosUnicidadeEmLote(
+                Set.of("333.333.333-33", "222.222.222-22"), Set.of("novo@teste.com"), Set.of());
+
+        assertThat(conflitos).extracting(CorretorRepository.DadosUnicosCorretor::getEmail)
+                .containsExactly("bruno@teste.com");
+    }
+
+    private Corretor novoCorretor(String nome, String cpf, String email, String creci) {
+        Corretor corretor = new Corretor();
+        corretor.setNome(nome);
+        corretor.setCpf(cpf);
+        corretor.setEmail(email);
+        corretor.setCreci(creci);
+        corretor.setAtivo(true);
+        return entityManager.persist(corretor);
+    }
+}
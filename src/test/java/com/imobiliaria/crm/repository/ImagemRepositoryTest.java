@@ -0,0 +1,78 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imagem;
+import com.imobiliaria.crm.model.Imovel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que a galeria de um imóvel é lida na ordem de exibição.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ImagemRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ImagemRepository imagemRepository;
+
+    private Long imovelId;
+
+    @BeforeEach
+    void setUp() {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+        Imovel imovel = new Imovel();
+        imovel.setCodigo("IMV-1");
+        imovel.setTipo("Casa");
+        imovel.setFinalidade("VENDA");
+        imovel.setPreco(new BigDecimal("300000.00"));
+        imovel.setEndereco(endereco);
+        entityManager.persist(imovel);
+        imovelId = imovel.getId();
+
+        // Gravadas fora de ordem; "b" e "c" empatam na ordem e são desempatadas pelo id
+        novaImagem(imovel, "a", 2);
+        novaImagem(imovel, "b", 1);
+        novaImagem(imovel, "c", 1);
+        novaImagem(imovel, "d", 0);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void galeriaVemOrdenadaPorOrdemEId() {
+        List<Imagem> galeria = imagemRepository.findByImovelIdOrderByOrdemAscIdAsc(imovelId);
+
+        assertThat(galeria).extracting(Imagem::getUrl).containsExactly("d", "b", "c", "a");
+    }
+
+    @Test
+    void maiorOrdemDaGaleria() {
+        assertThat(imagemRepository.findMaiorOrdem(imovelId)).isEqualTo(2);
+        assertThat(imagemRepository.findMaiorOrdem(-1L)).isEqualTo(-1);
+    }
+
+    private void novaImagem(Imovel imovel, String url, int ordem) {
+        Imagem imagem = new Imagem();
+        imagem.setImovel(imovel);
+        imagem.setUrl(url);
+        imagem.setOrdem(ordem);
+        entityManager.persist(imagem);
+    }
+}
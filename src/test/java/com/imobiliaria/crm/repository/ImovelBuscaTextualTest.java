@@ -0,0 +1,130 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imovel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca textual (tsvector/websearch_to_tsquery, V5) contra um PostgreSQL real com as migrações
+ * do Flyway. Ignorado quando não há Docker disponível.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ImovelBuscaTextualTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    private Caracteristica piscina;
+    private Caracteristica churrasqueira;
+
+    @BeforeEach
+    void setUp() {
+        piscina = entityManager.persist(novaCaracteristica("Piscina"));
+        churrasqueira = entityManager.persist(novaCaracteristica("Churrasqueira"));
+    }
+
+    @Test
+    void encontraPorRadicalEOrdenaPorRelevancia() {
+        Long frequente = salvar("IMV-1", "Casa com piscina aquecida, piscina infantil e piscinas cobertas", Set.of());
+        Long uma = salvar("IMV-2", "Apartamento com piscina no condomínio", Set.of());
+        salvar("IMV-3", "Sala comercial com garagem", Set.of());
+
+        // "piscinas" e "piscina" têm o mesmo radical em português
+        List<Long> ids = buscar("piscinas", Set.of(), null, null, 10);
+        assertThat(ids).containsExactly(frequente, uma);
+
+        // Sintaxe de busca web: termo excluído
+        assertThat(buscar("piscina -condomínio", Set.of(), null, null, 10)).containsExactly(frequente);
+    }
+
+    @Test
+    void paginaPeloCursorDeRelevanciaEId() {
+        Long primeiro = salvar("IMV-1", "Casa com jardim", Set.of());
+        Long segundo = salvar("IMV-2", "Casa com jardim", Set.of());
+        Long terceiro = salvar("IMV-3", "Casa com jardim", Set.of());
+
+        List<ImovelRepository.RelevanciaImovel> pagina = imovelRepository.buscarPorTexto("jardim",
+                null, null, null, null, null, null, null, null, null, null, Set.of(0L), 0, null, null, 2);
+        assertThat(pagina).extracting(ImovelRepository.RelevanciaImovel::getId).containsExactly(terceiro, segundo);
+
+        // Empate na relevância: o id desempata a continuação
+        ImovelRepository.RelevanciaImovel ultimo = pagina.get(1);
+        assertThat(buscar("jardim", Set.of(), ultimo.getRelevancia(), ultimo.getId(), 2)).containsExactly(primeiro);
+    }
+
+    @Test
+    void exigeTodasAsCaracteristicasInformadas() {
+        Long ambas = salvar("IMV-1", "Casa de campo", Set.of(piscina, churrasqueira));
+        Long soPiscina = salvar("IMV-2", "Casa de praia", Set.of(piscina));
+        salvar("IMV-3", "Casa na cidade", Set.of());
+
+        assertThat(buscar("casa", Set.of(piscina.getId()), null, null, 10))
+                .containsExactlyInAnyOrder(ambas, soPiscina);
+        assertThat(buscar("casa", Set.of(piscina.getId(), churrasqueira.getId()), null, null, 10))
+                .containsExactly(ambas);
+    }
+
+    private List<Long> buscar(String termo, Collection<Long> caracteristicaIds, Float relevanciaCursor, Long idCursor,
+                              int limite) {
+        return imovelRepository.buscarPorTexto(termo, null, null, null, null, null, null, null, null, null, null,
+                        caracteristicaIds.isEmpty() ? Set.of(0L) : caracteristicaIds, caracteristicaIds.size(),
+                        relevanciaCursor, idCursor, limite)
+                .stream()
+                .map(ImovelRepository.RelevanciaImovel::getId)
+                .toList();
+    }
+
+    private Long salvar(String codigo, String descricao, Set<Caracteristica> caracteristicas) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setBairro("Centro");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+
+        Imovel imovel = new Imovel();
+        imovel.setCodigo(codigo);
+        imovel.setTipo("Casa");
+        imovel.setFinalidade("VENDA");
+        imovel.setStatus("DISPONIVEL");
+        imovel.setPreco(new BigDecimal("450000.00"));
+        imovel.setDescricao(descricao);
+        imovel.setEndereco(endereco);
+        imovel.setCaracteristicas(caracteristicas);
+        Long id = entityManager.persist(imovel).getId();
+        // A coluna gerada descricao_tsv é calculada pelo PostgreSQL no INSERT
+        entityManager.flush();
+        return id;
+    }
+
+    private static Caracteristica novaCaracteristica(String nome) {
+        Caracteristica caracteristica = new Caracteristica();
+        caracteristica.setNome(nome);
+        return caracteristica;
+    }
+}
@@ -0,0 +1,189 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.dto.ImovelDTO;
+import com.imobiliaria.crm.dto.ImovelFiltroDTO;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Corretor;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imagem;
+import com.imobiliaria.crm.model.Imovel;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que os planos de busca do ImovelRepository mantêm constante o número de
+ * comandos SQL por requisição, independentemente da quantidade de imóveis.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ImovelRepositoryTest {
+
+    private static final int QUANTIDADE_IMOVEIS = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    private Statistics statistics;
+
+    private Long primeiroImovelId;
+
+    private Long piscinaId;
+
+    @BeforeEach
+    void setUp() {
+        Corretor corretor = new Corretor();
+        corretor.setNome("Corretor Teste");
+        corretor.setCpf("123.456.789-00");
+        corretor.setEmail("corretor@teste.com");
+        corretor.setAtivo(true);
+        entityManager.persist(corretor);
+
+        Caracteristica piscina = new Caracteristica();
+        piscina.setNome("Piscina");
+        entityManager.persist(piscina);
+        Caracteristica academia = new Caracteristica();
+        academia.setNome("Academia");
+        entityManager.persist(academia);
+        piscinaId = piscina.getId();
+
+        for (int i = 0; i < QUANTIDADE_IMOVEIS; i++) {
+            Imovel imovel = novoImovel("IMV-" + i);
+            imovel.setCorretor(corretor);
+            // Apenas os imóveis pares possuem academia
+            imovel.setCaracteristicas(i % 2 == 0 ? Set.of(piscina, academia) : Set.of(piscina));
+            imovel.setImagens(new ArrayList<>(List.of(novaImagem(imovel, 0), novaImagem(imovel, 1))));
+            entityManager.persist(imovel);
+            if (primeiroImovelId == null) {
+                primeiroImovelId = imovel.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listagemExecutaNumeroConstanteDeConsultas() {
+        List<ImovelDTO> pagina = imovelRepository.findPrimeiraPaginaPorId(PageRequest.of(0, QUANTIDADE_IMOVEIS)).stream()
+                .map(ImovelDTO::fromEntity)
+                .toList();
+
+        assertThat(pagina).hasSize(QUANTIDADE_IMOVEIS);
+        assertThat(pagina).allSatisfy(dto -> {
+            assertThat(dto.getCorretor()).isNotNull();
+            assertThat(dto.getImagens()).hasSize(2);
+            assertThat(dto.getCaracteristicas()).isNotEmpty();
+        });
+        // imóveis + corretor (JOIN), imagens em lote, características em lote
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void detalheExecutaDuasConsultas() {
+        ImovelDTO dto = imovelRepository.findDetalheById(primeiroImovelId)
+                .map(ImovelDTO::fromEntity)
+                .orElseThrow();
+
+        assertThat(dto.getCorretor()).isNotNull();
+        assertThat(dto.getImagens()).hasSize(2);
+        assertThat(dto.getCaracteristicas()).hasSize(2);
+        // imóvel + corretor + imagens (JOIN), características
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void exportacaoCarregaColecoesEmLotePorBloco() {
+        // Como no serviço de exportação: o bloco é lido do cursor antes de as coleções serem acessadas
+        List<Imovel> bloco;
+        try (Stream<Imovel> imoveis = imovelRepository.streamTodosParaExportacao()) {
+            bloco = imoveis.toList();
+        }
+        List<ImovelDTO> exportados = bloco.stream().map(ImovelDTO::fromEntity).toList();
+
+        assertThat(exportados).hasSize(QUANTIDADE_IMOVEIS);
+        assertThat(exportados).allSatisfy(dto -> {
+            assertThat(dto.getCorretor()).isNotNull();
+            assertThat(dto.getImagens()).hasSize(2);
+            assertThat(dto.getCaracteristicas()).isNotEmpty();
+        });
+        // cursor de imóveis + corretor (JOIN), imagens em lote, características em lote
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void validadoresDeCacheNaoCarregamEntidades() {
+        assertThat(imovelRepository.findVersaoById(primeiroImovelId)).isPresent();
+        ImovelRepository.EstadoColecao estado = imovelRepository.findEstadoColecao();
+
+        assertThat(estado.getQuantidade()).isEqualTo(QUANTIDADE_IMOVEIS);
+        assertThat(estado.getUltimaAtualizacao()).isNotNull();
+        // uma consulta escalar para cada validador, sem hidratar imóveis
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void buscaExigeTodasAsCaracteristicasInformadas() {
+        Long academiaId = entityManager.getEntityManager()
+                .createQuery("SELECT c.id FROM Caracteristica c WHERE c.nome = 'Academia'", Long.class)
+                .getSingleResult();
+        ImovelFiltroDTO filtro = new ImovelFiltroDTO();
+        filtro.setCidade("Curitiba");
+        filtro.setCaracteristicaIds(Set.of(piscinaId, academiaId));
+
+        List<Imovel> encontrados = imovelRepository.findAll(ImovelSpecifications.comFiltro(filtro));
+
+        assertThat(encontrados).hasSize(QUANTIDADE_IMOVEIS / 2);
+        assertThat(encontrados).allSatisfy(imovel ->
+                assertThat(Integer.parseInt(imovel.getCodigo().substring(4)) % 2).isZero());
+    }
+
+    private Imovel novoImovel(String codigo) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setBairro("Centro");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+
+        Imovel imovel = new Imovel();
+        imovel.setCodigo(codigo);
+        imovel.setTipo("Apartamento");
+        imovel.setFinalidade("VENDA");
+        imovel.setStatus("DISPONIVEL");
+        imovel.setPreco(new BigDecimal("450000.00"));
+        imovel.setQuartos(3);
+        imovel.setEndereco(endereco);
+        return imovel;
+    }
+
+    private Imagem novaImagem(Imovel imovel, int ordem) {
+        Imagem imagem = new Imagem();
+        imagem.setImovel(imovel);
+        imagem.setUrl("https://cdn.teste/" + imovel.getCodigo() + "/" + ordem + ".jpg");
+        imagem.setOrdem(ordem);
+        return imagem;
+    }
+}
@@ -0,0 +1,117 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.dto.ImovelResumoDTO;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imagem;
+import com.imobiliaria.crm.model.Imovel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Resumo dos cards (consulta nativa com LEFT JOIN LATERAL para a capa) contra um PostgreSQL real com
+ * as migrações do Flyway. Ignorado quando não há Docker disponível.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ImovelResumoTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    private Long comCard;
+    private Long semCard;
+    private Long semImagens;
+
+    @BeforeEach
+    void setUp() {
+        comCard = salvar("IMV-1", 3, "https://cdn.teste/card.jpg");
+        semCard = salvar("IMV-2", 2, null);
+        semImagens = entityManager.persist(novoImovel("IMV-3", 1)).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void trazAsColunasDoCardEACapa() {
+        List<ImovelResumoDTO> resumos = imovelRepository.findResumosAposId(0L, 10);
+
+        assertThat(resumos).extracting(ImovelResumoDTO::getId).containsExactly(comCard, semCard, semImagens);
+        ImovelResumoDTO primeiro = resumos.get(0);
+        assertThat(primeiro.getCodigo()).isEqualTo("IMV-1");
+        assertThat(primeiro.getTipo()).isEqualTo("Apartamento");
+        assertThat(primeiro.getCidade()).isEqualTo("Curitiba");
+        assertThat(primeiro.getQuartos()).isEqualTo(3);
+        assertThat(primeiro.getPreco()).isEqualByComparingTo("450000.00");
+        // Capa já processada: a variante card tem precedência sobre a URL cadastrada
+        assertThat(primeiro.getCapaUrl()).isEqualTo("https://cdn.teste/card.jpg");
+        // Sem variante: a primeira imagem pela ordem, não a de menor id
+        assertThat(resumos.get(1).getCapaUrl()).isEqualTo("https://cdn.teste/IMV-2/0.jpg");
+        assertThat(resumos.get(2).getCapaUrl()).isNull();
+    }
+
+    @Test
+    void paginaPeloId() {
+        assertThat(imovelRepository.findResumosAposId(0L, 2)).extracting(ImovelResumoDTO::getId)
+                .containsExactly(comCard, semCard);
+        assertThat(imovelRepository.findResumosAposId(semCard, 2)).extracting(ImovelResumoDTO::getId)
+                .containsExactly(semImagens);
+    }
+
+    private Long salvar(String codigo, int quartos, String urlCardCapa) {
+        Imovel imovel = novoImovel(codigo, quartos);
+        // Persistidas fora da ordem de exibição: a capa é a de menor 'ordem'
+        Imagem segunda = novaImagem(imovel, 1);
+        Imagem capa = novaImagem(imovel, 0);
+        capa.setUrlCard(urlCardCapa);
+        imovel.setImagens(new ArrayList<>(List.of(segunda, capa)));
+        return entityManager.persist(imovel).getId();
+    }
+
+    private static Imovel novoImovel(String codigo, int quartos) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setBairro("Centro");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+
+        Imovel imovel = new Imovel();
+        imovel.setCodigo(codigo);
+        imovel.setTipo("Apartamento");
+        imovel.setFinalidade("VENDA");
+        imovel.setStatus("DISPONIVEL");
+        imovel.setPreco(new BigDecimal("450000.00"));
+        imovel.setQuartos(quartos);
+        imovel.setEndereco(endereco);
+        return imovel;
+    }
+
+    private static Imagem novaImagem(Imovel imovel, int ordem) {
+        Imagem imagem = new Imagem();
+        imagem.setImovel(imovel);
+        imagem.setUrl("https://cdn.teste/" + imovel.getCodigo() + "/" + ordem + ".jpg");
+        imagem.setOrdem(ordem);
+        return imagem;
+    }
+}
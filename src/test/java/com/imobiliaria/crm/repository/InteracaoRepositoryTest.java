@@ -0,0 +1,143 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.dto.InteracaoTimelineDTO;
+import com.imobiliaria.crm.model.Cliente;
+import com.imobiliaria.crm.model.Corretor;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.model.Interacao;
+import com.imobiliaria.crm.model.TipoInteracao;
+import com.imobiliaria.crm.repository.InteracaoRepositoryCustom.NovaInteracao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Linhas do tempo de interações paginadas por keyset: ordem estável com datas repetidas e
+ * projeção com o nome do cliente e o código do imóvel.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class InteracaoRepositoryTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InteracaoRepository interacaoRepository;
+
+    private Cliente cliente;
+
+    private Cliente outroCliente;
+
+    private Corretor corretor;
+
+    private Imovel imovel;
+
+    @BeforeEach
+    void setUp() {
+        corretor = new Corretor();
+        corretor.setNome("Corretor Teste");
+        corretor.setCpf("123.456.789-00");
+        corretor.setEmail("corretor@teste.com");
+        corretor.setAtivo(true);
+        entityManager.persist(corretor);
+
+        cliente = novoCliente("Maria Souza");
+        outroCliente = novoCliente("João Lima");
+
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setBairro("Centro");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+        imovel = new Imovel();
+        imovel.setCodigo("IMV-1");
+        imovel.setTipo("Apartamento");
+        imovel.setFinalidade("VENDA");
+        imovel.setStatus("DISPONIVEL");
+        imovel.setPreco(new BigDecimal("450000.00"));
+        imovel.setEndereco(endereco);
+        entityManager.persist(imovel);
+        entityManager.flush();
+
+        List<NovaInteracao> interacoes = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // Três interações por minuto: o id desempata as datas repetidas
+            interacoes.add(new NovaInteracao(cliente.getId(), corretor.getId(), i % 2 == 0 ? imovel.getId() : null,
+                    TipoInteracao.LIGACAO, INICIO.plusMinutes(i / 3), "Contato " + i));
+        }
+        for (int i = 0; i < 5; i++) {
+            interacoes.add(new NovaInteracao(outroCliente.getId(), corretor.getId(), null,
+                    TipoInteracao.EMAIL, INICIO.plusMinutes(i), null));
+        }
+        interacaoRepository.inserirEmLote(interacoes);
+    }
+
+    @Test
+    void percorreALinhaDoTempoDoClienteSemRepetirNemPularInteracoes() {
+        List<Long> esperados = idsOrdenados(cliente.getId(), null);
+        List<Long> lidos = new ArrayList<>();
+
+        List<InteracaoTimelineDTO> pagina = interacaoRepository.findTimelineCliente(cliente.getId(), 4);
+        while (!pagina.isEmpty()) {
+            pagina.forEach(interacao -> lidos.add(interacao.getId()));
+            InteracaoTimelineDTO ultima = pagina.get(pagina.size() - 1);
+            pagina = interacaoRepository.findTimelineClienteApos(cliente.getId(), ultima.getDataInteracao(),
+                    ultima.getId(), 4);
+        }
+
+        assertThat(lidos).hasSize(25).containsExactlyElementsOf(esperados);
+    }
+
+    @Test
+    void projecaoTrazNomeDoClienteECodigoDoImovel() {
+        List<InteracaoTimelineDTO> pagina = interacaoRepository.findTimelineCorretor(corretor.getId(), 30);
+
+        assertThat(pagina).hasSize(30);
+        assertThat(pagina).extracting(InteracaoTimelineDTO::getId)
+                .containsExactlyElementsOf(idsOrdenados(null, corretor.getId()));
+        InteracaoTimelineDTO comImovel = pagina.stream()
+                .filter(interacao -> interacao.getImovelId() != null).findFirst().orElseThrow();
+        assertThat(comImovel.getImovelCodigo()).isEqualTo("IMV-1");
+        assertThat(comImovel.getClienteNome()).isEqualTo("Maria Souza");
+        assertThat(comImovel.getTipo()).isEqualTo(TipoInteracao.LIGACAO);
+        assertThat(comImovel.getDataInteracao()).isAfterOrEqualTo(INICIO);
+        assertThat(pagina).filteredOn(interacao -> interacao.getClienteId().equals(outroCliente.getId()))
+                .hasSize(5)
+                .allSatisfy(interacao -> {
+                    assertThat(interacao.getClienteNome()).isEqualTo("João Lima");
+                    assertThat(interacao.getImovelCodigo()).isNull();
+                });
+    }
+
+    private List<Long> idsOrdenados(Long clienteId, Long corretorId) {
+        return interacaoRepository.findAll().stream()
+                .filter(interacao -> clienteId == null || interacao.getCliente().getId().equals(clienteId))
+                .filter(interacao -> corretorId == null || interacao.getCorretor().getId().equals(corretorId))
+                .sorted(Comparator.comparing(Interacao::getDataInteracao).thenComparing(Interacao::getId).reversed())
+                .map(Interacao::getId)
+                .toList();
+    }
+
+    private Cliente novoCliente(String nome) {
+        Cliente novo = new Cliente();
+        novo.setNome(nome);
+        novo.setCpf("000.000.000-00");
+        return entityManager.persist(novo);
+    }
+}
@@ -0,0 +1,99 @@
+package com.imobiliaria.crm.repository;
+
+import com.imobiliaria.crm.dto.IndicadoresVendasDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Consultas dos relatórios sobre linhas já agregadas por mês. O H2 não tem visões materializadas:
+ * as visões da V17 são substituídas por tabelas com as mesmas colunas (DDL no H2 confirma a transação,
+ * por isso as tabelas sobrevivem entre os testes e são apenas esvaziadas).
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(RelatorioVendasRepository.class)
+class RelatorioVendasRepositoryTest {
+
+    private static final String TOTAIS = "quantidade BIGINT, receita DECIMAL(17, 2), " +
+            "soma_dias_venda NUMERIC, vendas_com_prazo BIGINT";
+
+    @Autowired
+    private RelatorioVendasRepository relatorioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS mv_vendas_mensal (mes DATE, " + TOTAIS + ")");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS mv_vendas_localizacao (mes DATE, cidade VARCHAR(100), bairro VARCHAR(100), " + TOTAIS + ")");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS relatorios_atualizacoes (visao VARCHAR(63) PRIMARY KEY, data_atualizacao TIMESTAMP)");
+
+        jdbcTemplate.update("DELETE FROM mv_vendas_mensal");
+        jdbcTemplate.update("DELETE FROM mv_vendas_localizacao");
+        jdbcTemplate.update("DELETE FROM relatorios_atualizacoes");
+
+        jdbcTemplate.update("INSERT INTO mv_vendas_mensal VALUES (DATE '2026-01-01', 2, 900000.00, 60, 2)");
+        jdbcTemplate.update("INSERT INTO mv_vendas_mensal VALUES (DATE '2026-02-01', 1, 300000.00, 0, 0)");
+        jdbcTemplate.update("INSERT INTO mv_vendas_mensal VALUES (DATE '2026-03-01', 3, 1200000.00, 90, 3)");
+
+        jdbcTemplate.update("INSERT INTO mv_vendas_localizacao VALUES (DATE '2026-01-01', 'Curitiba', 'Centro', 2, 900000.00, 60, 2)");
+        jdbcTemplate.update("INSERT INTO mv_vendas_localizacao VALUES (DATE '2026-02-01', 'Curitiba', '', 1, 300000.00, 0, 0)");
+        jdbcTemplate.update("INSERT INTO mv_vendas_localizacao VALUES (DATE '2026-03-01', 'Curitiba', 'Centro', 1, 500000.00, 45, 1)");
+        jdbcTemplate.update("INSERT INTO mv_vendas_localizacao VALUES (DATE '2026-03-01', 'Londrina', 'Gleba', 2, 700000.00, 45, 2)");
+    }
+
+    @Test
+    void filtraOPeriodoECalculaAsMediasPorMes() {
+        List<IndicadoresVendasDTO> meses = relatorioRepository.findPorMes(YearMonth.of(2026, 1), YearMonth.of(2026, 2));
+
+        assertThat(meses).extracting(IndicadoresVendasDTO::getMes)
+                .containsExactly(YearMonth.of(2026, 1), YearMonth.of(2026, 2));
+        IndicadoresVendasDTO janeiro = meses.get(0);
+        assertThat(janeiro.getQuantidade()).isEqualTo(2);
+        assertThat(janeiro.getTicketMedio()).isEqualByComparingTo("450000.00");
+        assertThat(janeiro.getMediaDiasParaVenda()).isEqualByComparingTo("30.0");
+        // Nenhum imóvel vendido em fevereiro tinha data de cadastro
+        assertThat(meses.get(1).getMediaDiasParaVenda()).isNull();
+    }
+
+    @Test
+    void somaOsMesesDeCadaLocalizacao() {
+        List<IndicadoresVendasDTO> linhas = relatorioRepository.findPorLocalizacao(
+                YearMonth.of(2026, 1), YearMonth.of(2026, 3), "Curitiba");
+
+        assertThat(linhas).hasSize(2);
+        IndicadoresVendasDTO centro = linhas.get(0);
+        assertThat(centro.getBairro()).isEqualTo("Centro");
+        assertThat(centro.getQuantidade()).isEqualTo(3);
+        assertThat(centro.getReceita()).isEqualByComparingTo(new BigDecimal("1400000.00"));
+        // Média ponderada pelo número de vendas, não média das médias mensais
+        assertThat(centro.getMediaDiasParaVenda()).isEqualByComparingTo("35.0");
+        assertThat(linhas.get(1).getBairro()).isNull();
+    }
+
+    @Test
+    void informaAUltimaAtualizacaoDaVisao() {
+        LocalDateTime agora = LocalDateTime.of(2026, 4, 1, 3, 0);
+        jdbcTemplate.update("INSERT INTO relatorios_atualizacoes VALUES (?, ?)", RelatorioVendasRepository.VISAO_MENSAL,
+                LocalDateTime.of(2026, 3, 31, 3, 0));
+
+        relatorioRepository.registrarAtualizacao(RelatorioVendasRepository.VISAO_MENSAL, agora);
+
+        assertThat(relatorioRepository.findDataAtualizacao(RelatorioVendasRepository.VISAO_MENSAL)).contains(agora);
+        assertThat(relatorioRepository.findDataAtualizacao(RelatorioVendasRepository.VISAO_TIPO)).isEmpty();
+    }
+}
@@ -0,0 +1,72 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.CaracteristicaDTO;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.repository.CaracteristicaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Resolução de ids pelo cache de características, inclusive os criados depois da carga por outra instância.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(CaracteristicaCache.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CaracteristicaCacheTest {
+
+    @Autowired
+    private CaracteristicaCache cache;
+
+    @Autowired
+    private CaracteristicaRepository caracteristicaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM caracteristicas");
+        cache.invalidar();
+    }
+
+    @Test
+    void idCriadoPorOutraInstanciaEResolvidoPeloBanco() {
+        Long piscina = salvar("Piscina");
+        assertThat(cache.listarTodas()).extracting(CaracteristicaDTO::getNome).containsExactly("Piscina");
+
+        // Gravada sem passar por esta instância: o cache carregado não a conhece
+        Long churrasqueira = salvar("Churrasqueira");
+
+        assertThat(cache.resolver(List.of(piscina, churrasqueira))).extracting(Caracteristica::getNome)
+                .containsExactlyInAnyOrder("Piscina", "Churrasqueira");
+        assertThat(cache.buscarPorId(churrasqueira)).map(CaracteristicaDTO::getNome).contains("Churrasqueira");
+    }
+
+    @Test
+    void idInexistenteContinuaInvalido() {
+        Long piscina = salvar("Piscina");
+
+        assertThatThrownBy(() -> cache.resolver(List.of(piscina, piscina + 1000)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Long salvar(String nome) {
+        Caracteristica caracteristica = new Caracteristica();
+        caracteristica.setNome(nome);
+        return caracteristicaRepository.save(caracteristica).getId();
+    }
+}
@@ -0,0 +1,157 @@
+package com.imobiliaria.crm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.imobiliaria.crm.dto.FormatoExportacao;
+import com.imobiliaria.crm.dto.ImovelCsvDTO;
+import com.imobiliaria.crm.dto.ImovelDTO;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.repository.CaracteristicaRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serialização do catálogo exportado em cada formato, lida de volta como um consumidor leria.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ExportacaoImovelServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExportacaoImovelServiceImplTest {
+
+    @Autowired
+    private ExportacaoImovelServiceImpl exportacaoService;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private CaracteristicaRepository caracteristicaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long piscinaId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM imovel_caracteristicas");
+        jdbcTemplate.update("DELETE FROM imoveis");
+        jdbcTemplate.update("DELETE FROM caracteristicas");
+        Caracteristica piscina = new Caracteristica();
+        piscina.setNome("Piscina");
+        piscina = caracteristicaRepository.save(piscina);
+        piscinaId = piscina.getId();
+
+        imovelRepository.save(novoImovel("IMV-1", "Casa com \"varanda\", jardim & piscina", true, Set.of(piscina)));
+        imovelRepository.save(novoImovel("IMV-2", "Sala comercial", false, Set.of()));
+    }
+
+    @Test
+    void ndjsonTemUmImovelPorLinha() throws IOException {
+        String exportado = exportar(FormatoExportacao.NDJSON, false);
+
+        assertThat(exportado).endsWith("\n");
+        List<String> linhas = exportado.lines().toList();
+        assertThat(linhas).hasSize(2);
+        ImovelDTO primeiro = objectMapper.readValue(linhas.get(0), ImovelDTO.class);
+        assertThat(primeiro.getCodigo()).isEqualTo("IMV-1");
+        assertThat(primeiro.getDescricao()).isEqualTo("Casa com \"varanda\", jardim & piscina");
+        assertThat(primeiro.getEndereco().getCidade()).isEqualTo("Curitiba");
+        assertThat(primeiro.getCaracteristicas()).extracting("nome").containsExactly("Piscina");
+        assertThat(objectMapper.readValue(linhas.get(1), ImovelDTO.class).getCodigo()).isEqualTo("IMV-2");
+    }
+
+    @Test
+    void csvTemCabecalhoENoLayoutDaImportacao() throws IOException {
+        String exportado = exportar(FormatoExportacao.CSV, false);
+
+        assertThat(exportado.lines().findFirst()).hasValue(String.join(",",
+                Arrays.asList("codigo", "tipo", "finalidade", "logradouro", "bairro", "cidade", "estado", "cep",
+                        "complemento", "preco", "valorCondominio", "valorIptu", "areaTotal", "areaUtil", "quartos",
+                        "suites", "banheiros", "vagasGaragem", "anoConstrucao", "descricao", "status", "publicado",
+                        "corretorId", "caracteristicaIds")));
+        CsvMapper csvMapper = new CsvMapper();
+        List<ImovelCsvDTO> linhas = csvMapper.readerFor(ImovelCsvDTO.class)
+                .with(csvMapper.schemaFor(ImovelCsvDTO.class).withHeader())
+                .<ImovelCsvDTO>readValues(exportado)
+                .readAll();
+        assertThat(linhas).extracting(ImovelCsvDTO::getCodigo).containsExactly("IMV-1", "IMV-2");
+        ImovelCsvDTO primeira = linhas.get(0);
+        // Aspas e vírgulas da descrição são escapadas, e a linha volta igual
+        assertThat(primeira.getDescricao()).isEqualTo("Casa com \"varanda\", jardim & piscina");
+        assertThat(primeira.getPreco()).isEqualByComparingTo("450000.00");
+        assertThat(primeira.getCidade()).isEqualTo("Curitiba");
+        assertThat(primeira.getCaracteristicaIds()).isEqualTo(String.valueOf(piscinaId));
+    }
+
+    @Test
+    void xmlTemUmElementoPorImovelDentroDaRaiz() throws IOException {
+        String exportado = exportar(FormatoExportacao.XML, true);
+
+        assertThat(exportado).startsWith("<imoveis>").endsWith("</imoveis>");
+        // Texto escapado pelo gerador
+        assertThat(exportado).contains("jardim &amp; piscina");
+        JsonNode imovel = new XmlMapper().readTree(exportado).get("imovel");
+        // Só os publicados: um único elemento
+        assertThat(imovel.isObject()).isTrue();
+        assertThat(imovel.get("codigo").asText()).isEqualTo("IMV-1");
+        assertThat(imovel.get("endereco").get("cidade").asText()).isEqualTo("Curitiba");
+    }
+
+    private String exportar(FormatoExportacao formato, boolean apenasPublicados) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoService.exportar(formato, apenasPublicados, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Imovel novoImovel(String codigo, String descricao, boolean publicado,
+                                     Set<Caracteristica> caracteristicas) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setBairro("Centro");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+
+        Imovel imovel = new Imovel();
+        imovel.setCodigo(codigo);
+        imovel.setTipo("Casa");
+        imovel.setFinalidade("VENDA");
+        imovel.setStatus("DISPONIVEL");
+        imovel.setPreco(new BigDecimal("450000.00"));
+        imovel.setDescricao(descricao);
+        imovel.setPublicado(publicado);
+        imovel.setEndereco(endereco);
+        imovel.setCaracteristicas(caracteristicas);
+        return imovel;
+    }
+}
@@ -0,0 +1,207 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.InteracoesConfig;
+import com.imobiliaria.crm.config.InteracoesProperties;
+import com.imobiliaria.crm.dto.InteracaoDTO;
+import com.imobiliaria.crm.dto.ResultadoLoteDTO;
+import com.imobiliaria.crm.exception.FilaCheiaException;
+import com.imobiliaria.crm.model.Cliente;
+import com.imobiliaria.crm.model.Corretor;
+import com.imobiliaria.crm.model.TipoInteracao;
+import com.imobiliaria.crm.repository.InteracaoRepository;
+import com.imobiliaria.crm.repository.InteracaoRepositoryCustom.NovaInteracao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Registro de interações pela fila limitada: gravação em lotes, recusa com a fila cheia e
+ * isolamento de linhas que violam restrições.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "crm.interacoes.tamanho-lote=200"
+})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({InteracoesConfig.class, FilaInteracoes.class, InteracaoServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FilaInteracoesTest {
+
+    @Autowired
+    private IInteracaoService interacaoService;
+
+    @Autowired
+    private FilaInteracoes filaInteracoes;
+
+    @Autowired
+    private InteracaoRepository interacaoRepository;
+
+    @Autowired
+    private InteracoesProperties properties;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Cliente cliente;
+
+    private Corretor corretor;
+
+    @BeforeEach
+    void setUp() {
+        aguardar(() -> filaInteracoes.pendentes() == 0);
+        jdbcTemplate.update("DELETE FROM interacoes");
+        jdbcTemplate.update("DELETE FROM clientes");
+        jdbcTemplate.update("DELETE FROM corretores");
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        corretor = transacao.execute(status -> {
+            Corretor novo = new Corretor();
+            novo.setNome("Corretor Teste");
+            novo.setCpf("111.111.111-11");
+            novo.setEmail("corretor@teste.com");
+            novo.setAtivo(true);
+            return entityManager.persist(novo);
+        });
+        cliente = transacao.execute(status -> {
+            Cliente novo = new Cliente();
+            novo.setNome("Cliente Teste");
+            novo.setCpf("000.000.000-00");
+            return entityManager.persist(novo);
+        });
+    }
+
+    @Test
+    void gravaLotesConcorrentesSemPerderInteracoes() throws Exception {
+        ExecutorService clientes = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ResultadoLoteDTO<InteracaoDTO>>> envios = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                envios.add(clientes.submit(() -> interacaoService.registrarLote(lote(250))));
+            }
+            for (Future<ResultadoLoteDTO<InteracaoDTO>> envio : envios) {
+                assertThat(envio.get().getSucessos()).isEqualTo(250);
+            }
+        } finally {
+            clientes.shutdown();
+        }
+
+        aguardar(() -> interacaoRepository.count() == 5_000);
+        assertThat(filaInteracoes.pendentes()).isZero();
+        assertThat(filaInteracoes.descartadas()).isZero();
+    }
+
+    @Test
+    void loteRecusaApenasOsItensInvalidos() {
+        List<InteracaoDTO> interacoes = lote(3);
+        interacoes.get(1).setClienteId(cliente.getId() + 1_000);
+        interacoes.get(2).setTipo(null);
+        InteracaoDTO antiga = interacao();
+        antiga.setDataInteracao(LocalDateTime.now().minusMonths(properties.getMesesRetroativos() + 1));
+        interacoes.add(antiga);
+
+        ResultadoLoteDTO<InteracaoDTO> resultado = interacaoService.registrarLote(interacoes);
+
+        assertThat(resultado.getSucessos()).isEqualTo(1);
+        assertThat(resultado.getItens().get(1).getMensagem()).startsWith("Cliente não encontrado");
+        assertThat(resultado.getItens().get(2).getMensagem()).contains("tipo");
+        assertThat(resultado.getItens().get(3).getMensagem()).startsWith("A data da interação deve ser");
+        aguardar(() -> interacaoRepository.count() == 1);
+    }
+
+    @Test
+    void recusaComAFilaCheiaEGravaDepoisQueEsvazia() throws Exception {
+        InteracoesProperties pequena = new InteracoesProperties();
+        pequena.setCapacidadeFila(3);
+        // Sem iniciar a thread gravadora a fila só enche
+        FilaInteracoes fila = new FilaInteracoes(interacaoRepository, pequena);
+        fila.enfileirar(List.of(nova(), nova()));
+
+        assertThatThrownBy(() -> fila.enfileirar(List.of(nova(), nova())))
+                .isInstanceOf(FilaCheiaException.class)
+                .satisfies(e -> assertThat(((FilaCheiaException) e).getSegundosParaNovaTentativa()).isPositive());
+        assertThat(fila.pendentes()).isEqualTo(2);
+
+        fila.iniciar();
+        aguardar(() -> fila.pendentes() == 0);
+        fila.enfileirar(List.of(nova(), nova()));
+        fila.encerrar();
+
+        assertThat(interacaoRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void linhaInvalidaNaoImpedeAGravacaoDoRestoDoLote() throws Exception {
+        FilaInteracoes fila = new FilaInteracoes(interacaoRepository, properties);
+        // Cliente excluído depois do aceite: a FK recusa o INSERT de várias linhas inteiro
+        NovaInteracao orfa = new NovaInteracao(cliente.getId() + 1_000, corretor.getId(), null,
+                TipoInteracao.LIGACAO, LocalDateTime.now(), null);
+        fila.enfileirar(List.of(nova(), orfa, nova()));
+        fila.iniciar();
+        fila.encerrar();
+
+        assertThat(interacaoRepository.count()).isEqualTo(2);
+        assertThat(fila.descartadas()).isEqualTo(1);
+    }
+
+    private List<InteracaoDTO> lote(int tamanho) {
+        List<InteracaoDTO> interacoes = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            interacoes.add(interacao());
+        }
+        return interacoes;
+    }
+
+    private InteracaoDTO interacao() {
+        InteracaoDTO dto = new InteracaoDTO();
+        dto.setClienteId(cliente.getId());
+        dto.setCorretorId(corretor.getId());
+        dto.setTipo(TipoInteracao.LIGACAO);
+        dto.setObservacoes("Retorno sobre a proposta");
+        return dto;
+    }
+
+    private NovaInteracao nova() {
+        return new NovaInteracao(cliente.getId(), corretor.getId(), null, TipoInteracao.VISITA,
+                LocalDateTime.now(), null);
+    }
+
+    private static void aguardar(BooleanSupplier condicao) {
+        long limite = System.nanoTime() + 10_000_000_000L;
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condição não atingida em 10s").isLessThan(limite);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
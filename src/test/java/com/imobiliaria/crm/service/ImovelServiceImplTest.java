@@ -0,0 +1,303 @@
+package com.imobiliaria.crm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imobiliaria.crm.dto.CaracteristicaDTO;
+import com.imobiliaria.crm.dto.CorretorDTO;
+import com.imobiliaria.crm.dto.CursorPaginacao;
+import com.imobiliaria.crm.dto.EnderecoDTO;
+import com.imobiliaria.crm.dto.ImovelDTO;
+import com.imobiliaria.crm.dto.OrdenacaoImovel;
+import com.imobiliaria.crm.dto.PaginaDTO;
+import com.imobiliaria.crm.exception.VersaoDesatualizadaException;
+import com.imobiliaria.crm.model.Corretor;
+import com.imobiliaria.crm.repository.CorretorRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Atualização parcial por JSON Merge Patch: campos somente leitura, objetos aninhados e o UPDATE
+ * limitado às colunas alteradas (@DynamicUpdate). Atualizações condicionais (If-Match) e edições concorrentes.
+ * Paginação keyset da listagem pelo cursor opaco. Versão do imóvel ao editar o corretor ou as características exibidas.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.imobiliaria.crm.service.ImovelServiceImplTest$CapturaSql"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({ImovelServiceImpl.class, CaracteristicaCache.class, OutboxEventos.class, IndiceBuscasSalvas.class,
+        AlertasBuscasSalvas.class, IndiceFacetasImoveis.class, CorretorServiceImpl.class, CaracteristicaServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImovelServiceImplTest {
+
+    // Registra os comandos SQL emitidos pelo Hibernate
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> COMANDOS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            COMANDOS.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ImovelServiceImpl imovelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CorretorServiceImpl corretorService;
+
+    @Autowired
+    private CaracteristicaServiceImpl caracteristicaService;
+
+    @Autowired
+    private CorretorRepository corretorRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox_eventos");
+        jdbcTemplate.update("DELETE FROM imovel_caracteristicas");
+        jdbcTemplate.update("DELETE FROM imoveis");
+        jdbcTemplate.update("DELETE FROM caracteristicas");
+        jdbcTemplate.update("DELETE FROM corretores");
+        CapturaSql.COMANDOS.clear();
+    }
+
+    @Test
+    void patchAtualizaSoAsColunasAlteradas() throws Exception {
+        ImovelDTO criado = imovelService.criarImovel(novoImovel("IMV-1"));
+        CapturaSql.COMANDOS.clear();
+
+        ImovelDTO alterado = imovelService.atualizarParcialmente(criado.getId(),
+                objectMapper.readTree("{\"preco\": 399000.00, \"descricao\": null}"), null);
+
+        assertThat(alterado.getPreco()).isEqualByComparingTo("399000.00");
+        assertThat(alterado.getDescricao()).isNull();
+        assertThat(alterado.getVersao()).isEqualTo(criado.getVersao() + 1);
+        assertThat(colunasDoUpdate()).contains("preco=", "descricao=", "versao=", "data_atualizacao=")
+                .doesNotContain("codigo=", "tipo=", "quartos=", "status=", "bairro=", "cidade=");
+
+        // O objeto aninhado é mesclado: só o bairro muda. O endereço embutido é um único atributo
+        // para o dirty checking, então as suas colunas são gravadas juntas
+        CapturaSql.COMANDOS.clear();
+        alterado = imovelService.atualizarParcialmente(criado.getId(),
+                objectMapper.readTree("{\"endereco\": {\"bairro\": \"Batel\"}}"), null);
+        assertThat(alterado.getEndereco().getBairro()).isEqualTo("Batel");
+        assertThat(alterado.getEndereco().getCidade()).isEqualTo("Curitiba");
+        assertThat(colunasDoUpdate()).contains("bairro=", "cidade=")
+                .doesNotContain("preco=", "descricao=", "codigo=", "quartos=");
+    }
+
+    @Test
+    void patchComCampoSomenteLeituraOuInvalidoERecusado() throws Exception {
+        ImovelDTO criado = imovelService.criarImovel(novoImovel("IMV-1"));
+
+        assertThatThrownBy(() -> imovelService.atualizarParcialmente(criado.getId(),
+                objectMapper.readTree("{\"versao\": 99}"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("versao");
+        assertThatThrownBy(() -> imovelService.atualizarParcialmente(criado.getId(),
+                objectMapper.readTree("{\"campoInexistente\": 1}"), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Remover um campo obrigatório viola as mesmas validações do PUT
+        assertThatThrownBy(() -> imovelService.atualizarParcialmente(criado.getId(),
+                objectMapper.readTree("{\"preco\": null}"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("preco");
+    }
+
+    @Test
+    void ifMatchComVersaoDesatualizadaERecusado() {
+        ImovelDTO criado = imovelService.criarImovel(novoImovel("IMV-1"));
+        ImovelDTO alterado = novoImovel("IMV-1");
+        alterado.setPreco(new BigDecimal("420000.00"));
+
+        assertThatThrownBy(() -> imovelService.atualizarImovel(criado.getId(), alterado, Set.of(criado.getVersao() + 1)))
+                .isInstanceOf(VersaoDesatualizadaException.class);
+        // Lista vazia: o If-Match só tinha ETags que nunca conferem
+        assertThatThrownBy(() -> imovelService.atualizarImovel(criado.getId(), alterado, Set.of()))
+                .isInstanceOf(VersaoDesatualizadaException.class);
+
+        // Basta uma das versões da lista conferir
+        ImovelDTO atualizado = imovelService.atualizarImovel(criado.getId(), alterado,
+                Set.of(criado.getVersao() + 7, criado.getVersao()));
+        assertThat(atualizado.getPreco()).isEqualByComparingTo("420000.00");
+        assertThat(atualizado.getVersao()).isEqualTo(criado.getVersao() + 1);
+    }
+
+    @Test
+    void edicaoConcorrenteEntreALeituraEOFlushERecusada() {
+        ImovelDTO criado = imovelService.criarImovel(novoImovel("IMV-1"));
+        ImovelDTO alterado = novoImovel("IMV-1");
+        alterado.setPreco(new BigDecimal("420000.00"));
+
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        assertThatThrownBy(() -> transacao.executeWithoutResult(status -> {
+            // O imóvel fica no contexto de persistência com a versão lida aqui
+            imovelRepository.findById(criado.getId()).orElseThrow();
+            // Outra requisição confirma uma alteração antes do flush desta
+            jdbcTemplate.update("UPDATE imoveis SET versao = versao + 1 WHERE id = ?", criado.getId());
+            imovelService.atualizarImovel(criado.getId(), alterado, Set.of(criado.getVersao()));
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(imovelRepository.findById(criado.getId()).orElseThrow().getPreco()).isEqualByComparingTo("450000.00");
+    }
+
+    @Test
+    void listagemPorIdPercorreTodasAsPaginasSemRepetir() {
+        List<Long> criados = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> imovelService.criarImovel(novoImovel("IMV-" + i)).getId())
+                .toList();
+
+        List<Long> lidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaDTO<ImovelDTO> pagina = imovelService.listarPagina(cursor, 2, OrdenacaoImovel.ID);
+            pagina.getItens().forEach(imovel -> lidos.add(imovel.getId()));
+            cursor = pagina.getProximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(lidos).containsExactlyElementsOf(criados);
+        // 2 + 2 + 1: a linha extra decide se há próxima página, sem uma página final vazia
+        assertThat(paginas).isEqualTo(3);
+    }
+
+    @Test
+    void listagemPorDataAtualizacaoDesempataPeloId() {
+        List<Long> ids = IntStream.rangeClosed(1, 4)
+                .mapToObj(i -> imovelService.criarImovel(novoImovel("IMV-" + i)).getId())
+                .toList();
+        // Dois imóveis com a mesma data: o id decide a ordem e a continuação
+        LocalDateTime data = LocalDateTime.of(2026, 1, 10, 12, 0);
+        jdbcTemplate.update("UPDATE imoveis SET data_atualizacao = ? WHERE id IN (?, ?)", data, ids.get(0), ids.get(2));
+        jdbcTemplate.update("UPDATE imoveis SET data_atualizacao = ? WHERE id = ?", data.plusDays(1), ids.get(1));
+        jdbcTemplate.update("UPDATE imoveis SET data_atualizacao = ? WHERE id = ?", data.minusDays(1), ids.get(3));
+
+        PaginaDTO<ImovelDTO> primeira = imovelService.listarPagina(null, 2, OrdenacaoImovel.DATA_ATUALIZACAO);
+        assertThat(primeira.getItens()).extracting(ImovelDTO::getId).containsExactly(ids.get(1), ids.get(2));
+        PaginaDTO<ImovelDTO> segunda = imovelService.listarPagina(primeira.getProximoCursor(), 2,
+                OrdenacaoImovel.DATA_ATUALIZACAO);
+        assertThat(segunda.getItens()).extracting(ImovelDTO::getId).containsExactly(ids.get(0), ids.get(3));
+        assertThat(segunda.getProximoCursor()).isNull();
+    }
+
+    @Test
+    void cursorAdulteradoETamanhoForaDosLimites() {
+        imovelService.criarImovel(novoImovel("IMV-1"));
+
+        assertThatThrownBy(() -> imovelService.listarPagina("nao-e-um-cursor", 10, OrdenacaoImovel.ID))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> imovelService.listarPagina(new CursorPaginacao(null, 1L).codificar(), 10,
+                OrdenacaoImovel.DATA_ATUALIZACAO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(ImovelServiceImpl.normalizarTamanhoPagina(null)).isEqualTo(ImovelServiceImpl.TAMANHO_PAGINA_PADRAO);
+        assertThat(ImovelServiceImpl.normalizarTamanhoPagina(0)).isEqualTo(ImovelServiceImpl.TAMANHO_PAGINA_PADRAO);
+        assertThat(ImovelServiceImpl.normalizarTamanhoPagina(1_000)).isEqualTo(ImovelServiceImpl.TAMANHO_PAGINA_MAXIMO);
+    }
+
+    @Test
+    void edicaoDoCorretorOuDaCaracteristicaMudaAVersaoDosImoveisQueOsExibem() {
+        Corretor corretor = new Corretor();
+        corretor.setNome("Ana");
+        corretor.setCpf("123.456.789-00");
+        corretor.setEmail("ana@imobiliaria.com");
+        corretor.setTelefone("41 99999-0000");
+        corretor.setAtivo(true);
+        Long corretorId = corretorRepository.save(corretor).getId();
+        CaracteristicaDTO piscina = new CaracteristicaDTO();
+        piscina.setNome("Piscina");
+        Long piscinaId = caracteristicaService.criar(piscina).getId();
+
+        ImovelDTO dados = novoImovel("IMV-1");
+        dados.setCorretorId(corretorId);
+        dados.setCaracteristicaIds(Set.of(piscinaId));
+        Long exibe = imovelService.criarImovel(dados).getId();
+        Long outro = imovelService.criarImovel(novoImovel("IMV-2")).getId();
+        long versaoOutro = imovelService.buscarVersao(outro).orElseThrow().versao();
+
+        // Telefone novo: o detalhe do imóvel não pode continuar validado pela versão antiga (304)
+        long antes = imovelService.buscarVersao(exibe).orElseThrow().versao();
+        CorretorDTO alteracao = new CorretorDTO();
+        alteracao.setTelefone("41 98888-0000");
+        corretorService.atualizarCorretor(corretorId, alteracao);
+        long depoisCorretor = imovelService.buscarVersao(exibe).orElseThrow().versao();
+        assertThat(depoisCorretor).isGreaterThan(antes);
+        assertThat(imovelService.buscarPorId(exibe).orElseThrow().getCorretor().getTelefone())
+                .isEqualTo("41 98888-0000");
+
+        piscina.setNome("Piscina aquecida");
+        caracteristicaService.atualizar(piscinaId, piscina);
+        assertThat(imovelService.buscarVersao(exibe).orElseThrow().versao()).isGreaterThan(depoisCorretor);
+
+        // Imóveis sem o corretor ou a característica mantêm a versão
+        assertThat(imovelService.buscarVersao(outro).orElseThrow().versao()).isEqualTo(versaoOutro);
+    }
+
+    private static String colunasDoUpdate() {
+        List<String> updates = CapturaSql.COMANDOS.stream()
+                .filter(sql -> sql.startsWith("update imoveis"))
+                .toList();
+        assertThat(updates).hasSize(1);
+        return updates.get(0).substring(0, updates.get(0).indexOf(" where "));
+    }
+
+    static ImovelDTO novoImovel(String codigo) {
+        EnderecoDTO endereco = new EnderecoDTO();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setBairro("Centro");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+
+        ImovelDTO imovel = new ImovelDTO();
+        imovel.setCodigo(codigo);
+        imovel.setTipo("Casa");
+        imovel.setFinalidade("VENDA");
+        imovel.setPreco(new BigDecimal("450000.00"));
+        imovel.setQuartos(3);
+        imovel.setDescricao("Casa ampla");
+        imovel.setEndereco(endereco);
+        return imovel;
+    }
+}
@@ -0,0 +1,166 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.dto.ErroImportacaoDTO;
+import com.imobiliaria.crm.dto.RelatorioImportacaoDTO;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.repository.CaracteristicaRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Importação em massa por JSON e CSV: erros por linha sem interromper o arquivo, códigos duplicados
+ * no arquivo ou já cadastrados, e gravação em vários lotes.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "crm.importacao.tamanho-lote=2"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({ImportacaoImovelServiceImpl.class, CaracteristicaCache.class, OutboxEventos.class, IndiceBuscasSalvas.class,
+        AlertasBuscasSalvas.class, IndiceFacetasImoveis.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportacaoImovelServiceImplTest {
+
+    @Autowired
+    private ImportacaoImovelServiceImpl importacaoService;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private CaracteristicaRepository caracteristicaRepository;
+
+    @Autowired
+    private CaracteristicaCache caracteristicaCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox_eventos");
+        jdbcTemplate.update("DELETE FROM imovel_caracteristicas");
+        jdbcTemplate.update("DELETE FROM imoveis");
+        jdbcTemplate.update("DELETE FROM caracteristicas");
+        caracteristicaCache.invalidar();
+    }
+
+    @Test
+    void jsonRegistraErrosPorLinhaEGravaAsValidasEmLotes() {
+        RelatorioImportacaoDTO relatorio = importacaoService.importarJson(entrada("""
+                [
+                  %s,
+                  {"codigo": "IMV-2", "finalidade": "VENDA", "preco": 100000,
+                   "endereco": {"logradouro": "Rua A", "bairro": "Centro", "cidade": "Curitiba", "estado": "PR"}},
+                  %s,
+                  42,
+                  %s,
+                  {"codigo": "IMV-4", "preco": "caro"},
+                  %s
+                ]
+                """.formatted(imovelJson("IMV-1", null), imovelJson("IMV-1", null), imovelJson("IMV-3", 999L),
+                imovelJson("IMV-5", null))));
+
+        assertThat(relatorio.getTotalLinhas()).isEqualTo(7);
+        assertThat(relatorio.getImportados()).isEqualTo(2);
+        assertThat(relatorio.getTotalErros()).isEqualTo(5);
+        assertThat(relatorio.getErros())
+                .extracting(ErroImportacaoDTO::getLinha, ErroImportacaoDTO::getCodigo)
+                .containsExactlyInAnyOrder(tuple(2, "IMV-2"), tuple(3, "IMV-1"), tuple(4, null),
+                        tuple(5, "IMV-3"), tuple(6, "IMV-4"));
+        assertThat(mensagem(relatorio, 2)).isEqualTo("tipo: O tipo do imóvel é obrigatório.");
+        assertThat(mensagem(relatorio, 3)).isEqualTo("Código duplicado no arquivo.");
+        assertThat(mensagem(relatorio, 4)).isEqualTo("Elemento do array não é um objeto JSON.");
+        assertThat(mensagem(relatorio, 5)).isEqualTo("Corretor com ID 999 não encontrado.");
+        assertThat(mensagem(relatorio, 6)).startsWith("Valor inválido: ");
+
+        // As linhas válidas de lotes diferentes foram confirmadas, cada uma com o seu evento
+        assertThat(imovelRepository.findAll()).extracting(Imovel::getCodigo, Imovel::getStatus)
+                .containsExactlyInAnyOrder(tuple("IMV-1", "DISPONIVEL"), tuple("IMV-5", "DISPONIVEL"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_eventos", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void corpoQueNaoEArrayERecusado() {
+        assertThatThrownBy(() -> importacaoService.importarJson(entrada(imovelJson("IMV-1", null))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(imovelRepository.count()).isZero();
+    }
+
+    @Test
+    void csvAssociaCaracteristicasERecusaCodigoJaCadastrado() {
+        Long piscina = salvarCaracteristica("Piscina");
+        Long churrasqueira = salvarCaracteristica("Churrasqueira");
+        importacaoService.importarJson(entrada("[" + imovelJson("IMV-1", null) + "]"));
+
+        String cabecalho = "codigo,tipo,finalidade,logradouro,bairro,cidade,estado,preco,quartos,caracteristicaIds\n";
+        RelatorioImportacaoDTO relatorio = importacaoService.importarCsv(entrada(cabecalho
+                + "IMV-1,Casa,VENDA,Rua A,Centro,Curitiba,PR,300000,3,\n"
+                + "IMV-2,Casa,VENDA,Rua B,Batel,Curitiba,PR,450000,,%d|%d\n".formatted(piscina, churrasqueira)
+                + "IMV-3,Casa,VENDA,Rua C,Batel,Curitiba,PR,450000,dois,\n"
+                + "IMV-4,Casa,VENDA,Rua D,Batel,Curitiba,PR,450000,2,%d\n".formatted(churrasqueira + 1000)));
+
+        assertThat(relatorio.getTotalLinhas()).isEqualTo(4);
+        assertThat(relatorio.getImportados()).isEqualTo(1);
+        assertThat(relatorio.getErros())
+                .extracting(ErroImportacaoDTO::getLinha, ErroImportacaoDTO::getCodigo)
+                .containsExactlyInAnyOrder(tuple(1, "IMV-1"), tuple(3, "IMV-3"), tuple(4, "IMV-4"));
+        assertThat(mensagem(relatorio, 1)).isEqualTo("Código já cadastrado.");
+        assertThat(mensagem(relatorio, 3)).startsWith("Valor inválido: ");
+
+        // Coluna vazia vira valor ausente e os ids separados por '|' viram a associação
+        Imovel importado = imovelRepository.findAll().stream()
+                .filter(imovel -> imovel.getCodigo().equals("IMV-2"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(importado.getQuartos()).isNull();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT caracteristica_id FROM imovel_caracteristicas WHERE imovel_id = ?", Long.class,
+                importado.getId())).containsExactlyInAnyOrder(piscina, churrasqueira);
+    }
+
+    private static String mensagem(RelatorioImportacaoDTO relatorio, int linha) {
+        return relatorio.getErros().stream()
+                .filter(erro -> erro.getLinha() == linha)
+                .map(ErroImportacaoDTO::getMensagem)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Long salvarCaracteristica(String nome) {
+        Caracteristica caracteristica = new Caracteristica();
+        caracteristica.setNome(nome);
+        return caracteristicaRepository.save(caracteristica).getId();
+    }
+
+    private static String imovelJson(String codigo, Long corretorId) {
+        return """
+                {"codigo": "%s", "tipo": "Casa", "finalidade": "VENDA", "preco": 300000.00, "corretorId": %s,
+                 "endereco": {"logradouro": "Rua Teste, 100", "bairro": "Centro", "cidade": "Curitiba", "estado": "PR"}}
+                """.formatted(codigo, corretorId);
+    }
+
+    private static InputStream entrada(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,278 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.model.BuscaSalva;
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Cliente;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.EventoOutbox;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.model.TipoAgregado;
+import com.imobiliaria.crm.repository.BuscaSalvaRepository;
+import com.imobiliaria.crm.repository.EventoOutboxRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Avaliação de imóveis contra as buscas salvas pelo índice em memória, alterações durante a recarga
+ * e registro dos alertas no outbox.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({IndiceBuscasSalvas.class, AlertasBuscasSalvas.class, OutboxEventos.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IndiceBuscasSalvasTest {
+
+    private static final int QUANTIDADE_BUSCAS = 100_000;
+    private static final int QUANTIDADE_CIDADES = 50;
+
+    private record Linha(Long getId, Long getClienteId, String getTipo, String getFinalidade, BigDecimal getPrecoMin,
+                         BigDecimal getPrecoMax, Integer getQuartosMin, String getCidade, String getBairro,
+                         Long getCaracteristicaId) implements BuscaSalvaRepository.LinhaIndice {
+    }
+
+    @Autowired
+    private IndiceBuscasSalvas indice;
+
+    @Autowired
+    private AlertasBuscasSalvas alertas;
+
+    @Autowired
+    private BuscaSalvaRepository buscaSalvaRepository;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+
+    private Caracteristica piscina;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM buscas_salvas_alertas");
+        jdbcTemplate.update("DELETE FROM buscas_salvas_caracteristicas");
+        jdbcTemplate.update("DELETE FROM buscas_salvas");
+        jdbcTemplate.update("DELETE FROM outbox_eventos");
+        jdbcTemplate.update("DELETE FROM imoveis");
+        jdbcTemplate.update("DELETE FROM clientes");
+        jdbcTemplate.update("DELETE FROM caracteristicas");
+        piscina = transacao.execute(status -> {
+            Caracteristica nova = new Caracteristica();
+            nova.setNome("Piscina");
+            return entityManager.persist(nova);
+        });
+        cliente = transacao.execute(status -> {
+            Cliente novo = new Cliente();
+            novo.setNome("Cliente Teste");
+            novo.setCpf("000.000.000-00");
+            return entityManager.persist(novo);
+        });
+        indice.carregar();
+    }
+
+    @Test
+    void alertaUmaVezCadaBuscaAtendida() {
+        Long apartamentoCentro = salvarBusca("VENDA", "São Paulo", "Apartamento", "300000", "500000", 2, Set.of(piscina.getId()));
+        Long qualquerCidade = salvarBusca("VENDA", null, null, null, "450000", null, Set.of());
+        salvarBusca("ALUGUEL", "São Paulo", null, null, null, null, Set.of());
+        salvarBusca("VENDA", "sao paulo", "Casa", null, null, null, Set.of());
+        salvarBusca("VENDA", "São Paulo", null, "460000", null, null, Set.of());
+        indice.carregar();
+
+        Imovel imovel = transacao.execute(status -> {
+            Imovel novo = novoImovel("IMV-1", "VENDA", "Sao Paulo", "Apartamento", "450000.00", 3);
+            novo.setCaracteristicas(Set.of(piscina));
+            Imovel salvo = imovelRepository.save(novo);
+            assertThat(alertas.avaliar(salvo)).isEqualTo(2);
+            return salvo;
+        });
+
+        List<EventoOutbox> eventos = eventoOutboxRepository.findAll();
+        assertThat(eventos).hasSize(2).allSatisfy(evento -> {
+            assertThat(evento.getAgregadoTipo()).isEqualTo(TipoAgregado.CLIENTE);
+            assertThat(evento.getAgregadoId()).isEqualTo(cliente.getId());
+            assertThat(evento.getTipo()).isEqualTo(OutboxEventos.BUSCA_SALVA_ATENDIDA);
+        });
+        assertThat(eventos).extracting(EventoOutbox::getPayload)
+                .anySatisfy(payload -> assertThat(payload).contains("\"buscaId\":" + apartamentoCentro))
+                .anySatisfy(payload -> assertThat(payload).contains("\"buscaId\":" + qualquerCidade));
+
+        // Uma nova alteração do mesmo imóvel não repete os alertas já enviados
+        transacao.executeWithoutResult(status -> {
+            Imovel alterado = imovelRepository.findById(imovel.getId()).orElseThrow();
+            alterado.setDescricao("Reformado");
+            assertThat(alertas.avaliar(alterado)).isZero();
+        });
+        assertThat(eventoOutboxRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void buscaRemovidaOuInativaDeixaDeSerAvaliada() {
+        Long buscaId = salvarBusca("VENDA", "Curitiba", null, null, null, null, Set.of());
+        transacao.executeWithoutResult(status ->
+                indice.atualizarAposCommit(buscaSalvaRepository.findById(buscaId).orElseThrow()));
+        Imovel imovel = novoImovel("IMV-1", "VENDA", "Curitiba", "Casa", "300000.00", 2);
+        assertThat(indice.buscasAtendidas(imovel)).extracting(IndiceBuscasSalvas.BuscaAtendida::buscaId)
+                .containsExactly(buscaId);
+
+        transacao.executeWithoutResult(status -> {
+            BuscaSalva busca = buscaSalvaRepository.findById(buscaId).orElseThrow();
+            busca.setAtiva(false);
+            indice.atualizarAposCommit(busca);
+            // Ainda não confirmada: o índice só muda depois do commit
+            assertThat(indice.buscasAtendidas(imovel)).hasSize(1);
+        });
+        assertThat(indice.buscasAtendidas(imovel)).isEmpty();
+    }
+
+    @Test
+    void alteracoesDuranteACargaNaoEsperamEEntramNoIndiceNovo() {
+        BuscaSalva nova = new BuscaSalva();
+        nova.setId(3L);
+        nova.setCliente(cliente);
+        nova.setFinalidade("VENDA");
+        nova.setCidade("Curitiba");
+        // A leitura do banco já viu as buscas 1 e 2; enquanto ela continua, outra thread confirma
+        // a exclusão da 2 e a criação da 3
+        Stream<BuscaSalvaRepository.LinhaIndice> linhas = Stream.<BuscaSalvaRepository.LinhaIndice>of(
+                        new Linha(1L, cliente.getId(), null, "VENDA", null, null, null, "Curitiba", null, null),
+                        new Linha(2L, cliente.getId(), null, "VENDA", null, null, null, "Curitiba", null, null))
+                .peek(linha -> {
+                    if (linha.getId() == 2L) {
+                        CompletableFuture.runAsync(() -> {
+                            indice.removerAposCommit(List.of(2L));
+                            indice.atualizarAposCommit(nova);
+                        }).orTimeout(5, TimeUnit.SECONDS).join();
+                    }
+                });
+        indice.carregar(linhas);
+
+        Imovel imovel = novoImovel("IMV-1", "VENDA", "Curitiba", "Casa", "300000.00", 2);
+        assertThat(indice.tamanho()).isEqualTo(2);
+        assertThat(indice.buscasAtendidas(imovel)).extracting(IndiceBuscasSalvas.BuscaAtendida::buscaId)
+                .containsExactlyInAnyOrder(1L, 3L);
+
+        // Fora de uma carga as alterações não são mais guardadas para reaplicação
+        indice.removerAposCommit(List.of(3L));
+        indice.carregar(Stream.empty());
+        assertThat(indice.tamanho()).isZero();
+    }
+
+    @Test
+    void avaliaCemMilBuscasSemVarreduraCompleta() {
+        // Buscas sintéticas espalhadas por cidades, finalidades e faixas de preço; 1 em 10 sem cidade
+        List<Object[]> linhas = new ArrayList<>(QUANTIDADE_BUSCAS);
+        Set<Integer> esperadas = new HashSet<>();
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < QUANTIDADE_BUSCAS; i++) {
+            String finalidade = i % 2 == 0 ? "VENDA" : "ALUGUEL";
+            String cidade = i % 10 == 8 ? null : "Cidade " + (i % QUANTIDADE_CIDADES);
+            BigDecimal precoMin = BigDecimal.valueOf((i % 20) * 50_000L);
+            BigDecimal precoMax = precoMin.add(BigDecimal.valueOf(200_000L));
+            int quartosMin = i % 4;
+            linhas.add(new Object[]{cliente.getId(), finalidade, cidade, precoMin, precoMax, quartosMin, agora});
+            boolean atende = finalidade.equals("VENDA")
+                    && (cidade == null || cidade.equals("Cidade 4"))
+                    && precoMin.compareTo(new BigDecimal("450000")) <= 0
+                    && precoMax.compareTo(new BigDecimal("450000")) >= 0
+                    && quartosMin <= 3;
+            if (atende) {
+                esperadas.add(i);
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO buscas_salvas " +
+                "(cliente_id, finalidade, cidade, preco_min, preco_max, quartos_min, data_cadastro, ativa) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE)", linhas);
+        indice.carregar();
+        assertThat(indice.tamanho()).isEqualTo(QUANTIDADE_BUSCAS);
+
+        Imovel imovel = novoImovel("IMV-1", "VENDA", "Cidade 4", "Apartamento", "450000.00", 3);
+        List<IndiceBuscasSalvas.BuscaAtendida> atendidas = indice.buscasAtendidas(imovel);
+        assertThat(esperadas).isNotEmpty();
+        assertThat(atendidas).extracting(IndiceBuscasSalvas.BuscaAtendida::buscaId).doesNotHaveDuplicates();
+        assertThat(atendidas).hasSize(esperadas.size());
+
+        long inicio = System.nanoTime();
+        IntStream.range(0, 1_000).forEach(i -> indice.buscasAtendidas(imovel));
+        double milissegundosPorImovel = (System.nanoTime() - inicio) / 1_000_000.0 / 1_000;
+        // Folga ampla para máquinas lentas de CI; uma varredura completa das 100 mil buscas fica acima disso
+        assertThat(milissegundosPorImovel).isLessThan(5.0);
+    }
+
+    private Long salvarBusca(String finalidade, String cidade, String tipo, String precoMin, String precoMax,
+                             Integer quartosMin, Set<Long> caracteristicaIds) {
+        return transacao.execute(status -> {
+            BuscaSalva busca = new BuscaSalva();
+            busca.setCliente(cliente);
+            busca.setFinalidade(finalidade);
+            busca.setCidade(cidade);
+            busca.setTipo(tipo);
+            busca.setPrecoMin(precoMin != null ? new BigDecimal(precoMin) : null);
+            busca.setPrecoMax(precoMax != null ? new BigDecimal(precoMax) : null);
+            busca.setQuartosMin(quartosMin);
+            busca.setCaracteristicaIds(new HashSet<>(caracteristicaIds));
+            return buscaSalvaRepository.save(busca).getId();
+        });
+    }
+
+    private Imovel novoImovel(String codigo, String finalidade, String cidade, String tipo, String preco, int quartos) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setBairro("Centro");
+        endereco.setCidade(cidade);
+        endereco.setEstado("SP");
+
+        Imovel imovel = new Imovel();
+        imovel.setCodigo(codigo);
+        imovel.setTipo(tipo);
+        imovel.setFinalidade(finalidade);
+        imovel.setStatus(AlertasBuscasSalvas.STATUS_DISPONIVEL);
+        imovel.setPreco(new BigDecimal(preco));
+        imovel.setQuartos(quartos);
+        imovel.setEndereco(endereco);
+        return imovel;
+    }
+}
@@ -0,0 +1,274 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.model.Caracteristica;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Contagens drill-sideways do índice de facetas, atualização após o commit (por imóvel e por lote),
+ * alterações durante a recarga e desempenho com 1 milhão de imóveis.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(IndiceFacetasImoveis.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IndiceFacetasImoveisTest {
+
+    private static final int QUANTIDADE_IMOVEIS = 1_000_000;
+    private static final int QUANTIDADE_CIDADES = 50;
+    private static final int QUANTIDADE_CARACTERISTICAS = 20;
+    private static final List<String> TIPOS = List.of("Apartamento", "Casa", "Sala", "Terreno", "Cobertura", "Galpão");
+
+    private record Linha(Long getId, String getTipo, String getFinalidade, String getStatus, String getCidade,
+                         String getBairro, Integer getQuartos) implements ImovelRepository.LinhaFacetas {
+    }
+
+    private record CaracteristicaDoImovel(Long getImovelId, Long getCaracteristicaId)
+            implements ImovelRepository.CaracteristicaImovel {
+    }
+
+    @Autowired
+    private IndiceFacetasImoveis indice;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+
+    private Caracteristica piscina;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM imovel_caracteristicas");
+        jdbcTemplate.update("DELETE FROM imoveis");
+        jdbcTemplate.update("DELETE FROM caracteristicas");
+        piscina = transacao.execute(status -> {
+            Caracteristica nova = new Caracteristica();
+            nova.setNome("Piscina");
+            return entityManager.persist(nova);
+        });
+    }
+
+    @Test
+    void cadaFacetaEContadaSemASuaPropriaSelecao() {
+        salvarImovel("IMV-1", "Apartamento", "Curitiba", 2, true);
+        salvarImovel("IMV-2", "Apartamento", "Curitiba", 5, false);
+        salvarImovel("IMV-3", "Casa", "Curitiba", 3, true);
+        salvarImovel("IMV-4", "Apartamento", "Londrina", 1, true);
+        indice.carregar();
+        assertThat(indice.tamanho()).isEqualTo(4);
+
+        IndiceFacetasImoveis.ContagemFacetas contagem = indice.contar(
+                Map.of(IndiceFacetasImoveis.Dimensao.TIPO, List.of("Apartamento"),
+                        IndiceFacetasImoveis.Dimensao.CIDADE, List.of("Curitiba")),
+                Set.of());
+
+        assertThat(contagem.total()).isEqualTo(2);
+        // Os outros tipos continuam visíveis, contados apenas com o filtro de cidade
+        assertThat(contagem.dimensoes().get(IndiceFacetasImoveis.Dimensao.TIPO))
+                .containsOnly(entry("Apartamento", 2L), entry("Casa", 1L));
+        assertThat(contagem.dimensoes().get(IndiceFacetasImoveis.Dimensao.CIDADE))
+                .containsOnly(entry("Curitiba", 2L), entry("Londrina", 1L));
+        assertThat(contagem.dimensoes().get(IndiceFacetasImoveis.Dimensao.QUARTOS))
+                .containsOnly(entry("2", 1L), entry("4+", 1L));
+        assertThat(contagem.caracteristicas()).containsOnly(entry(piscina.getId(), 1L));
+
+        // Vários valores da mesma faceta combinam com OR; as características com AND
+        IndiceFacetasImoveis.ContagemFacetas comPiscina = indice.contar(
+                Map.of(IndiceFacetasImoveis.Dimensao.CIDADE, List.of("Curitiba", "Londrina")),
+                Set.of(piscina.getId()));
+        assertThat(comPiscina.total()).isEqualTo(3);
+        assertThat(comPiscina.dimensoes().get(IndiceFacetasImoveis.Dimensao.TIPO))
+                .containsOnly(entry("Apartamento", 2L), entry("Casa", 1L));
+    }
+
+    @Test
+    void alteracoesEntramNoIndiceAposOCommit() {
+        indice.carregar();
+        Long id = transacao.execute(status -> {
+            Imovel salvo = imovelRepository.save(novoImovel("IMV-1", "Casa", "Curitiba", 3, true));
+            indice.atualizarAposCommit(salvo);
+            // Ainda não confirmado: o índice só muda depois do commit
+            assertThat(indice.tamanho()).isZero();
+            return salvo.getId();
+        });
+        assertThat(indice.contar(Map.of(), Set.of(piscina.getId())).total()).isEqualTo(1);
+
+        transacao.executeWithoutResult(status -> {
+            Imovel imovel = imovelRepository.findById(id).orElseThrow();
+            imovel.setTipo("Sobrado");
+            imovel.setCaracteristicas(Set.of());
+            indice.atualizarAposCommit(imovel);
+        });
+        IndiceFacetasImoveis.ContagemFacetas contagem = indice.contar(Map.of(), Set.of());
+        assertThat(contagem.dimensoes().get(IndiceFacetasImoveis.Dimensao.TIPO)).containsOnly(entry("Sobrado", 1L));
+        assertThat(contagem.caracteristicas()).isEmpty();
+
+        transacao.executeWithoutResult(status -> {
+            imovelRepository.deleteById(id);
+            indice.removerAposCommit(id);
+        });
+        assertThat(indice.tamanho()).isZero();
+        assertThat(indice.contar(Map.of(), Set.of()).dimensoes().get(IndiceFacetasImoveis.Dimensao.CIDADE)).isEmpty();
+    }
+
+    @Test
+    void loteEntraNoIndiceDeUmaVezEValeAUltimaAlteracaoDeCadaImovel() {
+        indice.carregar(Stream.of(
+                        new Linha(1L, "Casa", "VENDA", "DISPONIVEL", "Curitiba", "Centro", 3),
+                        new Linha(2L, "Casa", "VENDA", "DISPONIVEL", "Curitiba", "Centro", 2)),
+                Stream.of(new CaracteristicaDoImovel(2L, piscina.getId())));
+
+        Imovel mudouDeCidade = comId(2L, novoImovel("IMV-2", "Casa", "Londrina", 2, false));
+        Imovel novo = comId(3L, novoImovel("IMV-3", "Apartamento", "Curitiba", 1, true));
+        Imovel repetido = comId(4L, novoImovel("IMV-4", "Casa", "Curitiba", 1, true));
+        Imovel corrigido = comId(4L, novoImovel("IMV-4", "Sala", "Maringá", 1, false));
+        indice.atualizarAposCommit(List.of(mudouDeCidade, novo, repetido, corrigido));
+
+        assertThat(indice.tamanho()).isEqualTo(4);
+        IndiceFacetasImoveis.ContagemFacetas contagem = indice.contar(Map.of(), Set.of());
+        assertThat(contagem.dimensoes().get(IndiceFacetasImoveis.Dimensao.CIDADE))
+                .containsOnly(entry("Curitiba", 2L), entry("Londrina", 1L), entry("Maringá", 1L));
+        assertThat(contagem.dimensoes().get(IndiceFacetasImoveis.Dimensao.TIPO))
+                .containsOnly(entry("Casa", 2L), entry("Apartamento", 1L), entry("Sala", 1L));
+        assertThat(contagem.caracteristicas()).containsOnly(entry(piscina.getId(), 1L));
+        assertThat(indice.contar(Map.of(), Set.of(piscina.getId())).dimensoes()
+                .get(IndiceFacetasImoveis.Dimensao.TIPO)).containsOnly(entry("Apartamento", 1L));
+    }
+
+    @Test
+    void alteracoesDuranteACargaNaoEsperamEEntramNoIndiceNovo() {
+        Imovel novo = novoImovel("IMV-3", "Sala", "Londrina", 1, true);
+        novo.setId(3L);
+        // A leitura do banco já viu os imóveis 1 e 2; enquanto ela continua, outra thread confirma
+        // a exclusão do 2 e a criação do 3
+        Stream<ImovelRepository.LinhaFacetas> linhas = Stream.<ImovelRepository.LinhaFacetas>of(
+                        new Linha(1L, "Casa", "VENDA", "DISPONIVEL", "Curitiba", "Centro", 3),
+                        new Linha(2L, "Casa", "VENDA", "DISPONIVEL", "Curitiba", "Centro", 2))
+                .peek(linha -> {
+                    if (linha.getId() == 2L) {
+                        CompletableFuture.runAsync(() -> {
+                            indice.removerAposCommit(2L);
+                            indice.atualizarAposCommit(novo);
+                        }).orTimeout(5, TimeUnit.SECONDS).join();
+                    }
+                });
+        indice.carregar(linhas, Stream.empty());
+
+        assertThat(indice.tamanho()).isEqualTo(2);
+        IndiceFacetasImoveis.ContagemFacetas contagem = indice.contar(Map.of(), Set.of());
+        assertThat(contagem.dimensoes().get(IndiceFacetasImoveis.Dimensao.TIPO))
+                .containsOnly(entry("Casa", 1L), entry("Sala", 1L));
+        assertThat(contagem.caracteristicas()).containsOnly(entry(piscina.getId(), 1L));
+
+        // Fora de uma carga as alterações não são mais guardadas para reaplicação
+        indice.removerAposCommit(3L);
+        indice.carregar(Stream.empty(), Stream.empty());
+        assertThat(indice.tamanho()).isZero();
+    }
+
+    @Test
+    void contaTodasAsFacetasDeUmMilhaoDeImoveisEmPoucosMilissegundos() {
+        Stream<ImovelRepository.LinhaFacetas> linhas = IntStream.rangeClosed(1, QUANTIDADE_IMOVEIS).mapToObj(id ->
+                new Linha((long) id, TIPOS.get(id % TIPOS.size()), id % 3 == 0 ? "ALUGUEL" : "VENDA",
+                        id % 10 == 0 ? "VENDIDO" : "DISPONIVEL", "Cidade " + id % QUANTIDADE_CIDADES,
+                        "Bairro " + id % 1_000, id % 6));
+        // Cada característica em cerca de um terço dos imóveis
+        Stream<ImovelRepository.CaracteristicaImovel> caracteristicas = IntStream.rangeClosed(1, QUANTIDADE_IMOVEIS)
+                .boxed()
+                .flatMap(id -> LongStream.rangeClosed(1, QUANTIDADE_CARACTERISTICAS)
+                        .filter(caracteristica -> (id * 31L + caracteristica * 17L) % 3 == 0)
+                        .mapToObj(caracteristica -> new CaracteristicaDoImovel((long) id, caracteristica)));
+        indice.carregar(linhas, caracteristicas);
+        assertThat(indice.tamanho()).isEqualTo(QUANTIDADE_IMOVEIS);
+
+        Map<IndiceFacetasImoveis.Dimensao, List<String>> selecao = Map.of(
+                IndiceFacetasImoveis.Dimensao.TIPO, List.of("Apartamento", "Casa"),
+                IndiceFacetasImoveis.Dimensao.STATUS, List.of("DISPONIVEL"),
+                IndiceFacetasImoveis.Dimensao.CIDADE, List.of("Cidade 6", "Cidade 12", "Cidade 18"));
+        Set<Long> exigidas = Set.of(1L, 2L);
+
+        IndiceFacetasImoveis.ContagemFacetas contagem = indice.contar(selecao, exigidas);
+        long esperado = IntStream.rangeClosed(1, QUANTIDADE_IMOVEIS)
+                .filter(id -> id % TIPOS.size() <= 1 && id % 10 != 0
+                        && Set.of(6, 12, 18).contains(id % QUANTIDADE_CIDADES)
+                        && (id * 31L + 17L) % 3 == 0 && (id * 31L + 34L) % 3 == 0)
+                .count();
+        assertThat(contagem.total()).isEqualTo(esperado);
+
+        IntStream.range(0, 50).forEach(i -> indice.contar(selecao, exigidas));
+        long inicio = System.nanoTime();
+        IntStream.range(0, 200).forEach(i -> indice.contar(selecao, exigidas));
+        double milissegundosPorConsulta = (System.nanoTime() - inicio) / 1_000_000.0 / 200;
+        // Folga ampla para máquinas lentas de CI
+        assertThat(milissegundosPorConsulta).isLessThan(10.0);
+    }
+
+    private static Imovel comId(Long id, Imovel imovel) {
+        imovel.setId(id);
+        return imovel;
+    }
+
+    private void salvarImovel(String codigo, String tipo, String cidade, int quartos, boolean comPiscina) {
+        transacao.executeWithoutResult(status ->
+                imovelRepository.save(novoImovel(codigo, tipo, cidade, quartos, comPiscina)));
+    }
+
+    private Imovel novoImovel(String codigo, String tipo, String cidade, int quartos, boolean comPiscina) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setBairro("Centro");
+        endereco.setCidade(cidade);
+        endereco.setEstado("PR");
+
+        Imovel imovel = new Imovel();
+        imovel.setCodigo(codigo);
+        imovel.setTipo(tipo);
+        imovel.setFinalidade("VENDA");
+        imovel.setStatus("DISPONIVEL");
+        imovel.setPreco(new BigDecimal("450000.00"));
+        imovel.setQuartos(quartos);
+        imovel.setEndereco(endereco);
+        if (comPiscina) {
+            imovel.setCaracteristicas(Set.of(piscina));
+        }
+        return imovel;
+    }
+}
@@ -0,0 +1,54 @@
+package com.imobiliaria.crm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Semântica do JSON Merge Patch (RFC 7396), com os exemplos do apêndice A.
+ */
+class JsonMergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void nuloRemoveEOutrosMembrosSubstituem() throws Exception {
+        assertThat(aplicar("{\"a\":\"b\",\"c\":\"d\"}", "{\"a\":\"z\",\"c\":null}"))
+                .isEqualTo(json("{\"a\":\"z\"}"));
+        // Remover um membro ausente não é erro
+        assertThat(aplicar("{\"a\":\"b\"}", "{\"x\":null}")).isEqualTo(json("{\"a\":\"b\"}"));
+    }
+
+    @Test
+    void objetosAninhadosSaoMescladosRecursivamente() throws Exception {
+        assertThat(aplicar("{\"endereco\":{\"cidade\":\"Curitiba\",\"bairro\":\"Centro\",\"cep\":\"80000-000\"}}",
+                "{\"endereco\":{\"bairro\":\"Batel\",\"cep\":null}}"))
+                .isEqualTo(json("{\"endereco\":{\"cidade\":\"Curitiba\",\"bairro\":\"Batel\"}}"));
+        // Objeto no patch sobre um valor que não é objeto: parte de um objeto vazio
+        assertThat(aplicar("{\"a\":\"b\"}", "{\"a\":{\"c\":\"d\",\"e\":null}}"))
+                .isEqualTo(json("{\"a\":{\"c\":\"d\"}}"));
+    }
+
+    @Test
+    void arraysEValoresSimplesSubstituemPorInteiro() throws Exception {
+        assertThat(aplicar("{\"ids\":[1,2,3]}", "{\"ids\":[4]}")).isEqualTo(json("{\"ids\":[4]}"));
+        assertThat(aplicar("{\"a\":{\"b\":\"c\"}}", "{\"a\":[1]}")).isEqualTo(json("{\"a\":[1]}"));
+    }
+
+    @Test
+    void documentoOriginalNaoEAlterado() throws Exception {
+        JsonNode original = json("{\"a\":{\"b\":\"c\"}}");
+        JsonMergePatch.aplicar(original, json("{\"a\":{\"b\":null}}"));
+        assertThat(original).isEqualTo(json("{\"a\":{\"b\":\"c\"}}"));
+    }
+
+    private JsonNode aplicar(String alvo, String patch) throws Exception {
+        return JsonMergePatch.aplicar(json(alvo), json(patch));
+    }
+
+    private JsonNode json(String conteudo) throws Exception {
+        return objectMapper.readTree(conteudo);
+    }
+}
@@ -0,0 +1,276 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.ImagensConfig;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imagem;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.model.StatusProcessamentoImagem;
+import com.imobiliaria.crm.model.VarianteImagem;
+import com.imobiliaria.crm.repository.ImagemRepository;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.Resource;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reserva das imagens pelos workers, retomada de reservas abandonadas, desfechos do processamento,
+ * gravação única de cada original e limpeza dos originais sem uso depois da retenção.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "crm.imagens.processamento.atraso-reprocessamento=PT2M"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ImagensConfig.class, ArmazenamentoImagensLocal.class, ProcessadorImagens.class,
+        ImagemServiceImpl.class, OutboxEventos.class, LimpezaOriginaisOrfaos.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProcessadorImagensTest {
+
+    @TempDir
+    static Path diretorio;
+
+    @DynamicPropertySource
+    static void configurarDiretorio(DynamicPropertyRegistry registry) {
+        registry.add("crm.imagens.diretorio", () -> diretorio.toString());
+    }
+
+    @Autowired
+    private ProcessadorImagens processador;
+
+    @Autowired
+    private ImagemServiceImpl imagemService;
+
+    @Autowired
+    private ArmazenamentoImagens armazenamento;
+
+    @Autowired
+    private LimpezaOriginaisOrfaos limpeza;
+
+    @Autowired
+    private ImagemRepository imagemRepository;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+
+    private Imovel imovel;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM outbox_eventos");
+        jdbcTemplate.update("DELETE FROM imagens");
+        jdbcTemplate.update("DELETE FROM imoveis");
+        imovel = transacao.execute(status -> imovelRepository.save(novoImovel()));
+    }
+
+    @Test
+    void reservaAbandonadaERetomadaDepoisDoAtraso() {
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime limite = agora.minusMinutes(2);
+        Long id = salvarImagem("0".repeat(64), StatusProcessamentoImagem.PENDENTE, agora.minusMinutes(10));
+        assertThat(imagemRepository.findIdsPendentes(limite, PageRequest.of(0, 10))).containsExactly(id);
+
+        // Só um worker obtém a reserva, e uma reserva recente não é retomada pela varredura
+        assertThat(imagemRepository.iniciarProcessamento(id, agora, limite)).isEqualTo(1);
+        assertThat(imagemRepository.iniciarProcessamento(id, agora, limite)).isZero();
+        assertThat(imagemRepository.findIdsPendentes(limite, PageRequest.of(0, 10))).isEmpty();
+
+        // O worker morreu (reinicialização, OutOfMemoryError) e a reserva envelheceu
+        jdbcTemplate.update("UPDATE imagens SET inicio_processamento = ? WHERE id = ?", agora.minusMinutes(5), id);
+        assertThat(imagemRepository.findIdsPendentes(limite, PageRequest.of(0, 10))).containsExactly(id);
+        assertThat(imagemRepository.iniciarProcessamento(id, agora, limite)).isEqualTo(1);
+        assertThat(imagemRepository.findById(id).orElseThrow().getInicioProcessamento()).isEqualTo(agora);
+    }
+
+    @Test
+    void imagemValidaEConcluidaComAsVariantes() throws IOException {
+        String hash = armazenar(png()).hash();
+        Long id = salvarImagem(hash, StatusProcessamentoImagem.PENDENTE, LocalDateTime.now());
+
+        processador.processar(id);
+
+        Imagem imagem = imagemRepository.findById(id).orElseThrow();
+        assertThat(imagem.getStatusProcessamento()).isEqualTo(StatusProcessamentoImagem.CONCLUIDO);
+        assertThat(imagem.getInicioProcessamento()).isNull();
+        assertThat(imagem.getUrlMiniatura()).isEqualTo(processador.urlVariante(id, VarianteImagem.MINIATURA));
+        for (VarianteImagem variante : VarianteImagem.values()) {
+            assertThat(armazenamento.carregarVariante(hash, variante.getNome() + ".jpg").exists()).isTrue();
+        }
+    }
+
+    @Test
+    void arquivoInvalidoOuOriginalAusenteVaiParaErro() throws IOException {
+        Long invalida = salvarImagem(armazenar("não é uma imagem".getBytes(StandardCharsets.UTF_8)).hash(),
+                StatusProcessamentoImagem.PENDENTE, LocalDateTime.now());
+        // Original ausente do armazenamento: reprocessar não o traria de volta
+        Long semArquivo = salvarImagem("f".repeat(64), StatusProcessamentoImagem.PENDENTE, LocalDateTime.now());
+
+        processador.processar(invalida);
+        processador.processar(semArquivo);
+
+        assertThat(imagemRepository.findById(invalida).orElseThrow().getStatusProcessamento())
+                .isEqualTo(StatusProcessamentoImagem.ERRO);
+        Imagem ausente = imagemRepository.findById(semArquivo).orElseThrow();
+        assertThat(ausente.getStatusProcessamento()).isEqualTo(StatusProcessamentoImagem.ERRO);
+        assertThat(ausente.getInicioProcessamento()).isNull();
+    }
+
+    @Test
+    void mesmoConteudoEGravadoUmaUnicaVez() throws IOException {
+        byte[] conteudo = "mesmo conteúdo".getBytes(StandardCharsets.UTF_8);
+
+        ArmazenamentoImagens.OriginalArmazenado primeiro = armazenar(conteudo);
+        ArmazenamentoImagens.OriginalArmazenado segundo = armazenar(conteudo);
+
+        assertThat(primeiro.novo()).isTrue();
+        assertThat(segundo.novo()).isFalse();
+        assertThat(segundo.hash()).isEqualTo(primeiro.hash());
+        try (InputStream original = armazenamento.abrirOriginal(primeiro.hash())) {
+            assertThat(original.readAllBytes()).isEqualTo(conteudo);
+        }
+    }
+
+    @Test
+    void uploadDesfeitoDeixaOOriginalAteALimpezaDepoisDaRetencao() throws Exception {
+        byte[] conteudo = "upload desfeito".getBytes(StandardCharsets.UTF_8);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+
+        transacao.executeWithoutResult(status -> {
+            imagemService.enviarImagem(imovel.getId(),
+                    new MockMultipartFile("arquivo", "foto.png", "image/png", conteudo), null, null);
+            status.setRollbackOnly();
+        });
+
+        // O desfecho da transação não remove o arquivo: outro upload em andamento pode estar usando-o
+        assertThat(imagemRepository.count()).isZero();
+        assertThat(original(hash).exists()).isTrue();
+        Instant limite = Instant.now().minus(Duration.ofHours(24));
+        assertThat(limpeza.removerOrfaos(limite)).isZero();
+
+        // Sem imagem e sem uso durante toda a retenção: removido com as variantes
+        envelhecer(hash);
+        armazenamento.gravarVariante(hash, "miniatura.jpg", saida -> saida.write(1));
+        envelhecer(hash);
+        assertThat(limpeza.removerOrfaos(limite)).isEqualTo(1);
+        assertThat(original(hash).exists()).isFalse();
+        assertThat(armazenamento.carregarVariante(hash, "miniatura.jpg").exists()).isFalse();
+    }
+
+    @Test
+    void originalReaproveitadoOuUsadoNaoERemovido() throws Exception {
+        byte[] conteudo = "reaproveitado".getBytes(StandardCharsets.UTF_8);
+        String usado = armazenar(png()).hash();
+        salvarImagem(usado, StatusProcessamentoImagem.CONCLUIDO, LocalDateTime.now());
+        String reaproveitado = armazenar(conteudo).hash();
+        envelhecer(usado);
+        envelhecer(reaproveitado);
+
+        // Outro upload do mesmo conteúdo, ainda sem commit, renova o original antigo
+        assertThat(armazenar(conteudo).novo()).isFalse();
+
+        assertThat(limpeza.removerOrfaos(Instant.now().minus(Duration.ofHours(24)))).isZero();
+        assertThat(original(usado).exists()).isTrue();
+        assertThat(original(reaproveitado).exists()).isTrue();
+    }
+
+    private Resource original(String hash) {
+        return armazenamento.carregarVariante(hash, "original");
+    }
+
+    // Simula um original gravado (ou reaproveitado) pela última vez antes da retenção
+    private static void envelhecer(String hash) throws IOException {
+        Path pasta = diretorio.resolve(hash.substring(0, 2)).resolve(hash);
+        FileTime antigo = FileTime.from(Instant.now().minus(Duration.ofDays(2)));
+        try (Stream<Path> arquivos = Files.list(pasta)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.setLastModifiedTime(arquivo, antigo);
+            }
+        }
+        Files.setLastModifiedTime(pasta, antigo);
+    }
+
+    private ArmazenamentoImagens.OriginalArmazenado armazenar(byte[] conteudo) throws IOException {
+        return armazenamento.armazenarOriginal(new ByteArrayInputStream(conteudo));
+    }
+
+    private Long salvarImagem(String hash, StatusProcessamentoImagem status, LocalDateTime dataUpload) {
+        return transacao.execute(transacaoAtual -> {
+            Imagem imagem = new Imagem();
+            imagem.setImovel(imovel);
+            imagem.setUrl("");
+            imagem.setOrdem(0);
+            imagem.setArquivo(hash);
+            imagem.setStatusProcessamento(status);
+            imagem.setDataUpload(dataUpload);
+            return imagemRepository.save(imagem).getId();
+        });
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage imagem = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "png", saida);
+        return saida.toByteArray();
+    }
+
+    private static Imovel novoImovel() {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+
+        Imovel imovel = new Imovel();
+        imovel.setCodigo("IMV-1");
+        imovel.setTipo("Casa");
+        imovel.setFinalidade("VENDA");
+        imovel.setStatus("DISPONIVEL");
+        imovel.setPreco(new BigDecimal("300000.00"));
+        imovel.setEndereco(endereco);
+        return imovel;
+    }
+}
@@ -0,0 +1,139 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.OutboxConfig;
+import com.imobiliaria.crm.model.TipoAgregado;
+import com.imobiliaria.crm.repository.EventoOutboxRepository;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Outbox gravado na transação de negócio e publicado pelo relay em um Kafka embarcado.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // Lotes pequenos para que o relay precise de mais de uma transação para esvaziar o outbox
+        "crm.outbox.tamanho-lote=4"
+})
+@EmbeddedKafka(partitions = 3, topics = {"crm.imoveis", "crm.corretores"},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ImportAutoConfiguration({KafkaAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({OutboxConfig.class, OutboxEventos.class, RelayOutbox.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RelayOutboxTest {
+
+    @Autowired
+    private OutboxEventos outboxEventos;
+
+    @Autowired
+    private RelayOutbox relayOutbox;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        // O H2 não tem os locks consultivos do PostgreSQL; no teste há uma única instância do relay
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS PG_TRY_ADVISORY_XACT_LOCK AS "
+                + "'boolean lockLivre(long chave) { return true; }'");
+    }
+
+    @Test
+    void publicaEventosConfirmadosNaOrdemDeCadaAgregado() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.executeWithoutResult(status -> {
+            registrar(TipoAgregado.IMOVEL, 1L, 1);
+            registrar(TipoAgregado.IMOVEL, 2L, 1);
+            registrar(TipoAgregado.IMOVEL, 1L, 2);
+        });
+        transacao.executeWithoutResult(status -> {
+            registrar(TipoAgregado.IMOVEL, 1L, 99);
+            status.setRollbackOnly();
+        });
+        transacao.executeWithoutResult(status -> {
+            registrar(TipoAgregado.IMOVEL, 2L, 2);
+            registrar(TipoAgregado.IMOVEL, 1L, 3);
+            registrar(TipoAgregado.CORRETOR, 7L, 1);
+            registrar(TipoAgregado.IMOVEL, 2L, 3);
+        });
+        assertThat(eventoOutboxRepository.count()).isEqualTo(7);
+
+        relayOutbox.publicarPendentes();
+
+        assertThat(eventoOutboxRepository.count()).isZero();
+        Map<String, List<String>> porChave = new HashMap<>();
+        try (Consumer<String, String> consumidor = novoConsumidor()) {
+            ConsumerRecords<String, String> registros = KafkaTestUtils.getRecords(consumidor, Duration.ofSeconds(30), 7);
+            assertThat(registros.count()).isEqualTo(7);
+            for (ConsumerRecord<String, String> registro : registros) {
+                assertThat(registro.headers().lastHeader(RelayOutbox.CABECALHO_ID)).isNotNull();
+                assertThat(new String(registro.headers().lastHeader(RelayOutbox.CABECALHO_TIPO).value(), StandardCharsets.UTF_8))
+                        .isEqualTo("TESTE");
+                porChave.computeIfAbsent(registro.topic() + "/" + registro.key(), chave -> new ArrayList<>())
+                        .add(registro.value());
+            }
+        }
+        // Uma partição por chave: a ordem de gravação se mantém; o evento da transação desfeita não existe
+        assertThat(porChave.get("crm.imoveis/1")).containsExactly("{\"seq\":1}", "{\"seq\":2}", "{\"seq\":3}");
+        assertThat(porChave.get("crm.imoveis/2")).containsExactly("{\"seq\":1}", "{\"seq\":2}", "{\"seq\":3}");
+        assertThat(porChave.get("crm.corretores/7")).containsExactly("{\"seq\":1}");
+    }
+
+    @Test
+    void registroExigeTransacao() {
+        assertThatThrownBy(() -> registrar(TipoAgregado.IMOVEL, 1L, 1))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void registrar(TipoAgregado agregado, Long id, int sequencia) {
+        outboxEventos.registrar(agregado, id, "TESTE", Map.of("seq", sequencia));
+    }
+
+    private Consumer<String, String> novoConsumidor() {
+        Map<String, Object> propriedades = KafkaTestUtils.consumerProps("relay-outbox-teste", "false", embeddedKafka);
+        propriedades.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        Consumer<String, String> consumidor = new DefaultKafkaConsumerFactory<>(propriedades,
+                new StringDeserializer(), new StringDeserializer()).createConsumer();
+        embeddedKafka.consumeFromEmbeddedTopics(consumidor, "crm.imoveis", "crm.corretores");
+        return consumidor;
+    }
+}
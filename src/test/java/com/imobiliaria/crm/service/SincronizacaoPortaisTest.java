@@ -0,0 +1,325 @@
+package com.imobiliaria.crm.service;
+
+import com.imobiliaria.crm.config.PortaisConfig;
+import com.imobiliaria.crm.model.Endereco;
+import com.imobiliaria.crm.model.Imovel;
+import com.imobiliaria.crm.model.PortalIntegracao;
+import com.imobiliaria.crm.model.StatusPublicacaoPortal;
+import com.imobiliaria.crm.repository.ImovelRepository;
+import com.imobiliaria.crm.repository.PortalIntegracaoRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sincronização incremental contra um servidor HTTP local que faz o papel do portal.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // Lotes pequenos para que um ciclo gere mais de uma requisição
+        "crm.portais.tamanho-lote=2",
+        "crm.portais.maximo-tentativas=3",
+        "crm.portais.destinos.teste.threads=2",
+        "crm.portais.destinos.teste.capacidade-fila=1",
+        "crm.portais.destinos.teste.requisicoes-por-segundo=50"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({PortaisConfig.class, SincronizacaoPortais.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SincronizacaoPortaisTest {
+
+    private static final Pattern CODIGO = Pattern.compile("<codigo>(IMV-\\d+)</codigo>");
+
+    private static final HttpServer PORTAL = iniciarPortal();
+    private static final List<Requisicao> REQUISICOES = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger STATUS_RESPOSTA = new AtomicInteger(200);
+
+    private record Requisicao(String caminho, String corpo, boolean chunked) {
+        List<String> codigos() {
+            return CODIGO.matcher(corpo).results().map(resultado -> resultado.group(1)).toList();
+        }
+    }
+
+    @DynamicPropertySource
+    static void configurarPortal(DynamicPropertyRegistry registry) {
+        registry.add("crm.portais.destinos.teste.url",
+                () -> "http://localhost:" + PORTAL.getAddress().getPort() + "/api");
+    }
+
+    @AfterAll
+    static void pararPortal() {
+        PORTAL.stop(0);
+    }
+
+    @Autowired
+    private SincronizacaoPortais sincronizacao;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private PortalIntegracaoRepository portalIntegracaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM portais_integracao");
+        jdbcTemplate.update("DELETE FROM imoveis");
+        REQUISICOES.clear();
+        STATUS_RESPOSTA.set(200);
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void enviaApenasAsPendenciasDoPortal() {
+        Long alterado = salvarImovel("IMV-1", true);
+        Long despublicado = salvarImovel("IMV-2", true);
+        salvarImovel("IMV-3", true);
+        salvarImovel("IMV-4", false);
+
+        assertThat(sincronizacao.sincronizar("teste"))
+                .isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(3, 0, 0));
+        assertThat(REQUISICOES).hasSize(2).allSatisfy(requisicao -> {
+            assertThat(requisicao.caminho()).isEqualTo("/api" + SincronizacaoPortais.CAMINHO_ANUNCIOS);
+            // O feed é escrito durante o envio, sem tamanho conhecido de antemão
+            assertThat(requisicao.chunked()).isTrue();
+        });
+        assertThat(REQUISICOES.stream().flatMap(requisicao -> requisicao.codigos().stream()))
+                .containsExactlyInAnyOrder("IMV-1", "IMV-2", "IMV-3");
+        assertThat(linhasPorCodigo().values()).hasSize(3).allSatisfy(linha -> {
+            assertThat(linha.getStatus()).isEqualTo(StatusPublicacaoPortal.ATIVO);
+            assertThat(linha.getCodigoPortal()).isEqualTo("P-" + linha.getCodigoImovel());
+            assertThat(linha.getDataAtualizacaoPublicada()).isNotNull();
+        });
+
+        // Sem alterações, nada é reenviado
+        REQUISICOES.clear();
+        assertThat(sincronizacao.sincronizar("teste")).isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(0, 0, 0));
+        assertThat(REQUISICOES).isEmpty();
+
+        transacao.executeWithoutResult(status -> {
+            imovelRepository.findById(alterado).orElseThrow().setPreco(new BigDecimal("399000.00"));
+            imovelRepository.findById(despublicado).orElseThrow().setPublicado(false);
+        });
+
+        assertThat(sincronizacao.sincronizar("teste"))
+                .isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(1, 1, 0));
+        Map<String, List<String>> porCaminho = REQUISICOES.stream().collect(Collectors.groupingBy(Requisicao::caminho,
+                Collectors.flatMapping(requisicao -> requisicao.codigos().stream(), Collectors.toList())));
+        assertThat(porCaminho.get("/api" + SincronizacaoPortais.CAMINHO_ANUNCIOS)).containsExactly("IMV-1");
+        assertThat(porCaminho.get("/api" + SincronizacaoPortais.CAMINHO_REMOCOES)).containsExactly("IMV-2");
+        assertThat(linhasPorCodigo().get("IMV-2").getStatus()).isEqualTo(StatusPublicacaoPortal.REMOVIDO);
+    }
+
+    @Test
+    void falhaDoPortalFicaRegistradaEOImovelEReenviadoAposAEspera() {
+        salvarImovel("IMV-1", true);
+        salvarImovel("IMV-2", true);
+        STATUS_RESPOSTA.set(503);
+
+        LocalDateTime antes = LocalDateTime.now();
+        assertThat(sincronizacao.sincronizar("teste"))
+                .isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(0, 0, 2));
+        assertThat(linhasPorCodigo().values()).hasSize(2).allSatisfy(linha -> {
+            assertThat(linha.getStatus()).isEqualTo(StatusPublicacaoPortal.ERRO);
+            assertThat(linha.getTentativas()).isEqualTo(1);
+            assertThat(linha.getUltimoErro()).contains("503");
+            assertThat(linha.getProximaTentativa()).isAfterOrEqualTo(antes.plusMinutes(5));
+        });
+
+        // Dentro da espera nada é reenviado
+        STATUS_RESPOSTA.set(200);
+        REQUISICOES.clear();
+        assertThat(sincronizacao.sincronizar("teste")).isEqualTo(SincronizacaoPortais.ResultadoSincronizacao.VAZIO);
+        assertThat(REQUISICOES).isEmpty();
+
+        vencerEsperas();
+        assertThat(sincronizacao.sincronizar("teste"))
+                .isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(2, 0, 0));
+        assertThat(linhasPorCodigo().values()).allSatisfy(linha -> {
+            assertThat(linha.getStatus()).isEqualTo(StatusPublicacaoPortal.ATIVO);
+            assertThat(linha.getTentativas()).isZero();
+            assertThat(linha.getProximaTentativa()).isNull();
+            assertThat(linha.getUltimoErro()).isNull();
+        });
+    }
+
+    @Test
+    void esperaDobraACadaFalhaEEsgotadasAsTentativasALinhaFicaEstacionada() {
+        assertThat(sincronizacao.esperaAposFalhas(1)).isEqualTo(Duration.ofMinutes(5));
+        assertThat(sincronizacao.esperaAposFalhas(2)).isEqualTo(Duration.ofMinutes(10));
+        assertThat(sincronizacao.esperaAposFalhas(4)).isEqualTo(Duration.ofMinutes(40));
+        assertThat(sincronizacao.esperaAposFalhas(50)).isEqualTo(Duration.ofHours(6));
+
+        Long id = salvarImovel("IMV-1", true);
+        STATUS_RESPOSTA.set(503);
+        for (int tentativa = 1; tentativa <= 3; tentativa++) {
+            vencerEsperas();
+            assertThat(sincronizacao.sincronizar("teste"))
+                    .isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(0, 0, 1));
+        }
+        PortalIntegracao estacionada = linhasPorCodigo().get("IMV-1");
+        assertThat(estacionada.getTentativas()).isEqualTo(3);
+        assertThat(estacionada.getProximaTentativa()).isNull();
+
+        // Estacionada: nem o fim da espera a traz de volta
+        STATUS_RESPOSTA.set(200);
+        REQUISICOES.clear();
+        vencerEsperas();
+        assertThat(sincronizacao.sincronizar("teste")).isEqualTo(SincronizacaoPortais.ResultadoSincronizacao.VAZIO);
+        assertThat(REQUISICOES).isEmpty();
+
+        // Uma alteração do imóvel (ex.: correção dos dados recusados) o reenvia
+        transacao.executeWithoutResult(status ->
+                imovelRepository.findById(id).orElseThrow().setPreco(new BigDecimal("399000.00")));
+        assertThat(sincronizacao.sincronizar("teste"))
+                .isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(1, 0, 0));
+        assertThat(linhasPorCodigo().get("IMV-1").getTentativas()).isZero();
+    }
+
+    @Test
+    void anuncioAnteriorAoControleDeVersaoEReenviadoUmaVez() {
+        Long id = salvarImovel("IMV-1", true);
+        // Linha cadastrada antes de V13: ATIVO pelo default de V1 e sem a versão publicada
+        jdbcTemplate.update("INSERT INTO portais_integracao (imovel_id, codigo_imovel, portal_nome, codigo_portal, " +
+                "data_publicacao, status, tentativas) VALUES (?, 'IMV-1', 'teste', 'P-ANTIGO', ?, 'ATIVO', 0)",
+                id, LocalDateTime.now().minusDays(30));
+
+        assertThat(sincronizacao.sincronizar("teste"))
+                .isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(1, 0, 0));
+        assertThat(REQUISICOES).singleElement().satisfies(requisicao ->
+                assertThat(requisicao.codigos()).containsExactly("IMV-1"));
+        PortalIntegracao linha = linhasPorCodigo().get("IMV-1");
+        assertThat(linha.getDataAtualizacaoPublicada()).isNotNull();
+        assertThat(portalIntegracaoRepository.count()).isEqualTo(1);
+
+        // Com a versão registrada, só uma alteração posterior o reenvia
+        REQUISICOES.clear();
+        assertThat(sincronizacao.sincronizar("teste")).isEqualTo(SincronizacaoPortais.ResultadoSincronizacao.VAZIO);
+        transacao.executeWithoutResult(status ->
+                imovelRepository.findById(id).orElseThrow().setPreco(new BigDecimal("399000.00")));
+        assertThat(sincronizacao.sincronizar("teste"))
+                .isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(1, 0, 0));
+    }
+
+    @Test
+    void imovelExcluidoTemOAnuncioRemovido() {
+        Long excluido = salvarImovel("IMV-1", true);
+        sincronizacao.sincronizar("teste");
+        // No PostgreSQL a FK (ON DELETE SET NULL, V13) faz isso ao excluir o imóvel
+        jdbcTemplate.update("UPDATE portais_integracao SET imovel_id = NULL WHERE imovel_id = ?", excluido);
+        jdbcTemplate.update("DELETE FROM imoveis WHERE id = ?", excluido);
+        REQUISICOES.clear();
+
+        assertThat(sincronizacao.sincronizar("teste"))
+                .isEqualTo(new SincronizacaoPortais.ResultadoSincronizacao(0, 1, 0));
+        assertThat(REQUISICOES).singleElement().satisfies(requisicao ->
+                assertThat(requisicao.codigos()).containsExactly("IMV-1"));
+        assertThat(portalIntegracaoRepository.count()).isZero();
+    }
+
+    private Long salvarImovel(String codigo, boolean publicado) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua Teste, 100");
+        endereco.setBairro("Centro");
+        endereco.setCidade("Curitiba");
+        endereco.setEstado("PR");
+
+        Imovel imovel = new Imovel();
+        imovel.setCodigo(codigo);
+        imovel.setTipo("Apartamento");
+        imovel.setFinalidade("VENDA");
+        imovel.setStatus("DISPONIVEL");
+        imovel.setPreco(new BigDecimal("450000.00"));
+        imovel.setEndereco(endereco);
+        imovel.setPublicado(publicado);
+        return transacao.execute(status -> imovelRepository.save(imovel).getId());
+    }
+
+    // Simula a passagem do tempo até a próxima tentativa de todas as linhas em ERRO
+    private void vencerEsperas() {
+        jdbcTemplate.update("UPDATE portais_integracao SET proxima_tentativa = ? WHERE proxima_tentativa IS NOT NULL",
+                LocalDateTime.now().minusSeconds(1));
+    }
+
+    private Map<String, PortalIntegracao> linhasPorCodigo() {
+        return portalIntegracaoRepository.findAll().stream()
+                .collect(Collectors.toMap(PortalIntegracao::getCodigoImovel, Function.identity()));
+    }
+
+    private static HttpServer iniciarPortal() {
+        try {
+            HttpServer servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            servidor.createContext("/api", SincronizacaoPortaisTest::responder);
+            servidor.start();
+            return servidor;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Confirma cada imóvel recebido com um código do portal, ou responde com o status configurado
+    private static void responder(HttpExchange troca) throws IOException {
+        String corpo = new String(troca.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        boolean chunked = "chunked".equalsIgnoreCase(troca.getRequestHeaders().getFirst("Transfer-Encoding"));
+        Requisicao requisicao = new Requisicao(troca.getRequestURI().getPath(), corpo, chunked);
+        REQUISICOES.add(requisicao);
+
+        int status = STATUS_RESPOSTA.get();
+        StringBuilder resposta = new StringBuilder();
+        if (status == 200 && requisicao.caminho().endsWith(SincronizacaoPortais.CAMINHO_ANUNCIOS)) {
+            resposta.append("<resultado>");
+            for (String codigo : requisicao.codigos()) {
+                resposta.append("<anuncio><codigo>").append(codigo).append("</codigo>")
+                        .append("<codigoPortal>P-").append(codigo).append("</codigoPortal>")
+                        .append("<url>https://portal.teste/").append(codigo).append("</url></anuncio>");
+            }
+            resposta.append("</resultado>");
+        }
+        byte[] bytes = resposta.toString().getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().add("Content-Type", "application/xml");
+        troca.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+}